@@ -17,19 +17,29 @@
 package eu.cloudnetservice.common.io;
 
 import eu.cloudnetservice.common.StringUtil;
+import eu.cloudnetservice.common.concurrent.Task;
+import eu.cloudnetservice.common.function.ThrowableConsumer;
 import eu.cloudnetservice.common.log.LogManager;
 import eu.cloudnetservice.common.log.Logger;
+import java.io.ByteArrayInputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.SequenceInputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
-import java.nio.file.LinkOption;
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
-import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
 import java.util.function.Predicate;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
@@ -48,6 +58,10 @@ public final class ZipUtil {
 
   private static final Logger LOGGER = LogManager.logger(ZipUtil.class);
   private static final boolean IS_WINDOWS = StringUtil.toLower(System.getProperty("os.name")).contains("windows");
+  private static final Set<String> COMPRESSED_EXTENSIONS = Set.of(
+    "jar", "zip", "gz", "xz", "7z", "rar", "png", "jpg", "jpeg", "gif", "webp", "ogg", "mp3", "mp4", "mca", "dat");
+  // the maximum size of a compressed stream entry which gets buffered to write it as a stored entry
+  private static final int STORED_BUFFER_LIMIT = 1024 * 1024;
 
   private ZipUtil() {
     throw new UnsupportedOperationException();
@@ -68,28 +82,174 @@ private ZipUtil() {
 
   /**
    * Zips the given directory into a zip input stream while filtering with the given filter and returning the new input
-   * stream.
+   * stream. The zip is produced in the background while the returned stream is consumed, therefore the first bytes are
+   * available immediately, and the zip is never written to the disk.
    *
    * @param directory  the directory to zip.
    * @param fileFilter the filter to filter against.
    * @return the new input stream for the zip.
-   * @throws NullPointerException  if the given directory is null.
-   * @throws IllegalStateException if the opening of the zip file failed.
+   * @throws NullPointerException if the given directory is null.
    */
   public static @NonNull InputStream zipToStream(@NonNull Path directory, @Nullable Predicate<Path> fileFilter) {
-    var target = FileUtil.createTempFile();
-    zipToFile(
-      directory,
-      target,
-      path -> !target.equals(path) && (fileFilter == null || fileFilter.test(path)));
+    return zipStreaming(out -> {
+      if (Files.exists(directory)) {
+        zipDir(out, directory, fileFilter);
+      }
+    });
+  }
 
+  /**
+   * Creates a new input stream which provides the zip written by the given writer. The writer is called asynchronously
+   * and writes the zip entries into a pipe from which the returned stream reads. If the writer fails, the exception is
+   * rethrown by the read methods of the returned stream. Closing the returned stream aborts the zip creation, in which
+   * case writes to the zip output stream given to the writer throw a {@link CancellationException}.
+   *
+   * @param writer the writer which puts all entries into the given zip output stream.
+   * @return a new input stream providing the zip written by the given writer.
+   * @throws NullPointerException if the given writer is null.
+   */
+  public static @NonNull InputStream zipStreaming(@NonNull ThrowableConsumer<ZipOutputStream, IOException> writer) {
+    var inputStream = new FailablePipedInputStream();
     try {
-      return Files.newInputStream(target, StandardOpenOption.DELETE_ON_CLOSE, LinkOption.NOFOLLOW_LINKS);
+      var outputStream = new CancellableOutputStream(new PipedOutputStream(inputStream), inputStream);
+      Task.supply(() -> {
+        try (var out = new ZipOutputStream(outputStream, StandardCharsets.UTF_8)) {
+          try {
+            writer.accept(out);
+          } catch (Exception exception) {
+            // mark the stream as failed before closing it, the reader would see a valid zip otherwise
+            inputStream.fail(exception);
+          }
+        } catch (IOException | CancellationException exception) {
+          // the reading side was closed before the zip was written completely
+          inputStream.fail(exception);
+        }
+      });
+      return inputStream;
     } catch (IOException exception) {
-      throw new IllegalStateException("Unable to open input stream to zip file " + target, exception);
+      // cannot happen, the input stream is not connected yet
+      throw new IllegalStateException("Unable to connect zip pipe", exception);
     }
   }
 
+  /**
+   * Puts a new entry with the given name and the content of the given file into the zip output stream. The file is read
+   * once, compressed files are handled in the same way as by {@link #putEntry(ZipOutputStream, String, InputStream)}.
+   *
+   * @param out  the stream to put the entry into.
+   * @param name the name of the zip entry.
+   * @param file the file to put into the zip entry.
+   * @throws IOException          if an I/O error occurs while reading the file or writing the entry.
+   * @throws NullPointerException if the given output stream, name or file is null.
+   */
+  public static void putEntry(@NonNull ZipOutputStream out, @NonNull String name, @NonNull Path file) throws IOException {
+    try (var in = Files.newInputStream(file)) {
+      putEntry(out, name, in);
+    }
+  }
+
+  /**
+   * Puts a new entry with the given name and the content of the given stream into the zip output stream. Entries which
+   * are already compressed (for example jars or pngs) are stored without compression to save cpu time if they are
+   * small enough to be buffered for the checksum computation. Bigger compressed entries are deflated using no
+   * compression instead, as the size and checksum of stored entries must be known before writing them.
+   *
+   * @param out     the stream to put the entry into.
+   * @param name    the name of the zip entry.
+   * @param content the content of the zip entry.
+   * @throws IOException          if an I/O error occurs while writing the entry.
+   * @throws NullPointerException if the given output stream, name or content is null.
+   */
+  public static void putEntry(
+    @NonNull ZipOutputStream out,
+    @NonNull String name,
+    @NonNull InputStream content
+  ) throws IOException {
+    if (isCompressed(name)) {
+      // read one more byte than the limit to know if the content exceeds it
+      var buffered = content.readNBytes(STORED_BUFFER_LIMIT + 1);
+      if (buffered.length <= STORED_BUFFER_LIMIT) {
+        var crc = new CRC32();
+        crc.update(buffered);
+        putStoredEntry(out, name, buffered.length, crc.getValue(), new ByteArrayInputStream(buffered));
+      } else {
+        var remaining = new SequenceInputStream(new ByteArrayInputStream(buffered), content);
+        putDeflatedEntry(out, name, Deflater.NO_COMPRESSION, remaining);
+      }
+    } else {
+      putDeflatedEntry(out, name, Deflater.DEFAULT_COMPRESSION, content);
+    }
+  }
+
+  /**
+   * Puts a new stored (uncompressed) entry with the given name and content into the zip output stream.
+   *
+   * @param out     the stream to put the entry into.
+   * @param name    the name of the zip entry.
+   * @param size    the size of the content in bytes.
+   * @param crc     the crc32 checksum of the content.
+   * @param content the content of the zip entry.
+   * @throws IOException          if an I/O error occurs while writing the entry.
+   * @throws NullPointerException if the given output stream, name or content is null.
+   */
+  private static void putStoredEntry(
+    @NonNull ZipOutputStream out,
+    @NonNull String name,
+    long size,
+    long crc,
+    @NonNull InputStream content
+  ) throws IOException {
+    var entry = new ZipEntry(name);
+    entry.setMethod(ZipEntry.STORED);
+    entry.setSize(size);
+    entry.setCompressedSize(size);
+    entry.setCrc(crc);
+
+    try {
+      out.putNextEntry(entry);
+      content.transferTo(out);
+    } finally {
+      out.closeEntry();
+    }
+  }
+
+  /**
+   * Puts a new deflated entry with the given name and content into the zip output stream.
+   *
+   * @param out     the stream to put the entry into.
+   * @param name    the name of the zip entry.
+   * @param level   the deflate level to use for the entry.
+   * @param content the content of the zip entry.
+   * @throws IOException          if an I/O error occurs while writing the entry.
+   * @throws NullPointerException if the given output stream, name or content is null.
+   */
+  private static void putDeflatedEntry(
+    @NonNull ZipOutputStream out,
+    @NonNull String name,
+    int level,
+    @NonNull InputStream content
+  ) throws IOException {
+    try {
+      out.setLevel(level);
+      out.putNextEntry(new ZipEntry(name));
+      content.transferTo(out);
+    } finally {
+      out.closeEntry();
+    }
+  }
+
+  /**
+   * Checks if the file with the given name is (most likely) already compressed based on its file extension.
+   *
+   * @param name the name of the file to check.
+   * @return true if the file is already compressed, false otherwise.
+   * @throws NullPointerException if the given name is null.
+   */
+  private static boolean isCompressed(@NonNull String name) {
+    var extensionIndex = name.lastIndexOf('.');
+    return extensionIndex != -1 && COMPRESSED_EXTENSIONS.contains(StringUtil.toLower(name.substring(extensionIndex + 1)));
+  }
+
   /**
    * Walks the file tree of the given directory and copies all files and directories without any filtering into a new
    * zip output stream at the given target destination. This method is equivalent to
@@ -146,12 +306,7 @@ private static void zipDir(
         @Override
         public FileVisitResult visitFile(@NonNull Path file, @NonNull BasicFileAttributes attrs) throws IOException {
           if (filter == null || filter.test(file)) {
-            try {
-              out.putNextEntry(new ZipEntry(dir.relativize(file).toString().replace("\\", "/")));
-              Files.copy(file, out);
-            } finally {
-              out.closeEntry();
-            }
+            putEntry(out, dir.relativize(file).toString().replace("\\", "/"), file);
           }
           // continue search
           return FileVisitResult.CONTINUE;
@@ -269,4 +424,99 @@ private static void ensureSafeZipEntryName(@NonNull String name) {
       throw new IllegalStateException(String.format("zip entry name %s contains unsafe characters", name));
     }
   }
+
+  /**
+   * A piped input stream which rethrows the exception of the writing side to the reading side.
+   *
+   * @since 4.0
+   */
+  private static final class FailablePipedInputStream extends PipedInputStream {
+
+    private static final int PIPE_SIZE = 64 * 1024;
+
+    private volatile Throwable failure;
+    private volatile boolean closed;
+
+    public FailablePipedInputStream() {
+      super(PIPE_SIZE);
+    }
+
+    public void fail(@NonNull Throwable failure) {
+      this.failure = failure;
+    }
+
+    public boolean closed() {
+      return this.closed;
+    }
+
+    @Override
+    public void close() throws IOException {
+      this.closed = true;
+      super.close();
+    }
+
+    @Override
+    public synchronized int read() throws IOException {
+      var read = super.read();
+      this.rethrowFailure();
+      return read;
+    }
+
+    @Override
+    public synchronized int read(byte @NonNull [] buffer, int off, int len) throws IOException {
+      var read = super.read(buffer, off, len);
+      this.rethrowFailure();
+      return read;
+    }
+
+    private void rethrowFailure() throws IOException {
+      var failure = this.failure;
+      if (failure != null) {
+        throw new IOException("Exception while writing zip", failure);
+      }
+    }
+  }
+
+  /**
+   * An output stream which converts exceptions caused by the reading side of the pipe being closed into a
+   * cancellation exception, as that is an expected way to abort the zip creation.
+   *
+   * @since 4.0
+   */
+  private static final class CancellableOutputStream extends FilterOutputStream {
+
+    private final FailablePipedInputStream reader;
+
+    public CancellableOutputStream(@NonNull OutputStream out, @NonNull FailablePipedInputStream reader) {
+      super(out);
+      this.reader = reader;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      try {
+        this.out.write(b);
+      } catch (IOException exception) {
+        this.rethrowTranslated(exception);
+      }
+    }
+
+    @Override
+    public void write(byte @NonNull [] buffer, int off, int len) throws IOException {
+      try {
+        this.out.write(buffer, off, len);
+      } catch (IOException exception) {
+        this.rethrowTranslated(exception);
+      }
+    }
+
+    private void rethrowTranslated(@NonNull IOException exception) throws IOException {
+      if (this.reader.closed()) {
+        var cancellation = new CancellationException("Zip stream was closed by the reader");
+        cancellation.initCause(exception);
+        throw cancellation;
+      }
+      throw exception;
+    }
+  }
 }
@@ -18,10 +18,19 @@
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
@@ -96,4 +105,61 @@ void testExtractZip() throws Exception {
     Assertions.assertTrue(Files.exists(TEST_DIR.resolve("nms/bukkit.yml")));
     Assertions.assertTrue(Files.exists(TEST_DIR.resolve("nms/server.properties")));
   }
+
+  @Test
+  void testStreamingZip() throws Exception {
+    var sourceDir = TEST_DIR.resolve("streaming");
+    FileUtil.createDirectory(sourceDir.resolve("plugins"));
+    Files.writeString(sourceDir.resolve("server.properties"), "motd=Hello");
+    Files.writeString(sourceDir.resolve("plugins").resolve("test.jar"), "not really a jar");
+
+    Map<String, String> entries = new HashMap<>();
+    Map<String, Integer> methods = new HashMap<>();
+    try (var in = new ZipInputStream(ZipUtil.zipToStream(sourceDir), StandardCharsets.UTF_8)) {
+      ZipEntry entry;
+      while ((entry = in.getNextEntry()) != null) {
+        entries.put(entry.getName(), new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        methods.put(entry.getName(), entry.getMethod());
+      }
+    }
+
+    Assertions.assertEquals(2, entries.size());
+    Assertions.assertEquals(ZipEntry.DEFLATED, methods.get("server.properties"));
+    Assertions.assertEquals(ZipEntry.STORED, methods.get("plugins/test.jar"));
+    Assertions.assertEquals("motd=Hello", entries.get("server.properties"));
+    Assertions.assertEquals("not really a jar", entries.get("plugins/test.jar"));
+  }
+
+  @Test
+  void testStreamingZipCancellation() throws Exception {
+    var cancelled = new CompletableFuture<Throwable>();
+    var stream = ZipUtil.zipStreaming(out -> {
+      try {
+        // write more than the pipe can hold to block until the reader closes the stream
+        var data = new byte[4 * 1024 * 1024];
+        ThreadLocalRandom.current().nextBytes(data);
+        ZipUtil.putEntry(out, "data.bin", new ByteArrayInputStream(data));
+      } catch (Throwable throwable) {
+        cancelled.complete(throwable);
+        throw throwable;
+      }
+    });
+
+    stream.readNBytes(1024);
+    stream.close();
+
+    Assertions.assertInstanceOf(CancellationException.class, cancelled.get(10, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void testStreamingZipPropagatesFailure() {
+    var stream = ZipUtil.zipStreaming(out -> {
+      throw new IOException("failure");
+    });
+    Assertions.assertThrows(IOException.class, () -> {
+      try (stream) {
+        stream.readAllBytes();
+      }
+    });
+  }
 }
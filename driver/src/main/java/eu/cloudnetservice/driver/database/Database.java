@@ -16,12 +16,15 @@
 
 package eu.cloudnetservice.driver.database;
 
+import com.google.common.base.Preconditions;
 import eu.cloudnetservice.common.Nameable;
 import eu.cloudnetservice.common.concurrent.Task;
 import eu.cloudnetservice.common.document.gson.JsonDocument;
 import eu.cloudnetservice.driver.network.rpc.annotation.RPCValidation;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.function.BiConsumer;
 import lombok.NonNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -66,6 +69,23 @@ public interface Database extends Nameable, AutoCloseable {
    */
   boolean insert(@NonNull String key, @NonNull JsonDocument document);
 
+  /**
+   * Associates all given keys with the document mapped to them in the database. If a key already exists it will get
+   * overridden. Implementations should write all entries in a single operation, by default each entry is inserted
+   * separately.
+   *
+   * @param documents the key-document pairs to insert into the database.
+   * @return true if all documents were associated with their keys successfully, false otherwise.
+   * @throws NullPointerException if the given document map is null.
+   */
+  default boolean insertAll(@NonNull Map<String, JsonDocument> documents) {
+    var success = true;
+    for (var entry : documents.entrySet()) {
+      success &= this.insert(entry.getKey(), entry.getValue());
+    }
+    return success;
+  }
+
   /**
    * Tests whether a document is associated with the given key.
    *
@@ -75,6 +95,23 @@ public interface Database extends Nameable, AutoCloseable {
    */
   boolean contains(@NonNull String key);
 
+  /**
+   * Tests whether a document is associated with each of the given keys. Implementations should check all keys in a
+   * single operation, by default each key is checked separately.
+   *
+   * @param keys the keys to check.
+   * @return true if the database contains all the given keys, false otherwise.
+   * @throws NullPointerException if the given key collection is null.
+   */
+  default boolean containsAll(@NonNull Collection<String> keys) {
+    for (var key : keys) {
+      if (!this.contains(key)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   /**
    * Removes the key and the associated document from the database.
    *
@@ -84,6 +121,24 @@ public interface Database extends Nameable, AutoCloseable {
    */
   boolean delete(@NonNull String key);
 
+  /**
+   * Removes all given keys and the associated documents from the database. Implementations should remove all keys in a
+   * single operation, by default each key is removed separately.
+   *
+   * @param keys the keys to remove.
+   * @return the amount of keys which were removed from the database.
+   * @throws NullPointerException if the given key collection is null.
+   */
+  default int deleteAll(@NonNull Collection<String> keys) {
+    var deleted = 0;
+    for (var key : keys) {
+      if (this.delete(key)) {
+        deleted++;
+      }
+    }
+    return deleted;
+  }
+
   /**
    * Gets the associated document with the given key from the database. If the returned document is null than there is
    * no document associated with the given key.
@@ -94,6 +149,26 @@ public interface Database extends Nameable, AutoCloseable {
    */
   @Nullable JsonDocument get(@NonNull String key);
 
+  /**
+   * Gets the associated documents of all given keys from the database. Keys which are not associated with a document
+   * are not contained in the returned map. Implementations should read all keys in a single operation, by default each
+   * key is read separately.
+   *
+   * @param keys the keys of the documents to get.
+   * @return the documents associated with the given keys, mapped by their key.
+   * @throws NullPointerException if the given key collection is null.
+   */
+  default @NonNull Map<String, JsonDocument> getAll(@NonNull Collection<String> keys) {
+    Map<String, JsonDocument> documents = new HashMap<>();
+    for (var key : keys) {
+      var document = this.get(key);
+      if (document != null) {
+        documents.put(key, document);
+      }
+    }
+    return documents;
+  }
+
   /**
    * Searches for all entries in the database which value contains the given field and the field value matches the given
    * value. Null as the field value is permitted and will be used as literally null. The search is not deep meaning that
@@ -141,6 +216,40 @@ public interface Database extends Nameable, AutoCloseable {
    */
   @NonNull Map<String, JsonDocument> entries();
 
+  /**
+   * Reads the next chunk of key-value pairs from the database, ordered by their key. The returned chunk contains at most
+   * the given amount of entries, all of them having a key which comes after the given previous key in the order of the
+   * database. The last key of the returned chunk should be passed as the previous key to read the next chunk, null
+   * starts at the first key of the database. The database does not hold any state between two chunk reads.
+   *
+   * @param previousKey the last key of the previously read chunk, null to read the first chunk.
+   * @param chunkSize   the maximum amount of key-value pairs to read.
+   * @return the next chunk of key-value pairs, empty if there are no more entries in the database.
+   */
+  @NonNull DatabaseChunk readChunkAfter(@Nullable String previousKey, int chunkSize);
+
+  /**
+   * Iterates over all key-value pairs in the database, reading them in chunks of the given size. At most one chunk is
+   * held in memory at a time, which makes this method safe to use with huge databases, especially from components
+   * which are not a node. Changes made to the database during the iteration might not be visible to the consumer.
+   *
+   * @param consumer  the consumer to pass all key-value pairs to.
+   * @param chunkSize the amount of key-value pairs to read at once.
+   * @throws NullPointerException     if the given consumer is null.
+   * @throws IllegalArgumentException if the given chunk size is not positive.
+   */
+  default void iterate(@NonNull BiConsumer<String, JsonDocument> consumer, int chunkSize) {
+    Preconditions.checkArgument(chunkSize > 0, "chunk size must be positive");
+
+    DatabaseChunk chunk;
+    String previousKey = null;
+    do {
+      chunk = this.readChunkAfter(previousKey, chunkSize);
+      chunk.entries().forEach(consumer);
+      previousKey = chunk.lastKey();
+    } while (previousKey != null && chunk.size() >= chunkSize);
+  }
+
   /**
    * Removes all key-value pairs which are currently stored in the database. This operation will not remove the
    * database.
@@ -179,6 +288,21 @@ public interface Database extends Nameable, AutoCloseable {
     return Task.supply(() -> this.insert(key, document));
   }
 
+  /**
+   * Associates all given keys with the document mapped to them in the database. If a key already exists it will get
+   * overridden.
+   * <p>
+   * The returned future, if completed successfully, completes with true to indicate that all values were written into
+   * the database successfully. Will be completed with false if any value wasn't written without specifying a reason.
+   *
+   * @param documents the key-document pairs to insert into the database.
+   * @return a future completed with the write operation status.
+   * @throws NullPointerException if the given document map is null.
+   */
+  default @NonNull Task<Boolean> insertAllAsync(@NonNull Map<String, JsonDocument> documents) {
+    return Task.supply(() -> this.insertAll(documents));
+  }
+
   /**
    * Tests whether a document is associated with the given key.
    * <p>
@@ -194,6 +318,21 @@ public interface Database extends Nameable, AutoCloseable {
     return Task.supply(() -> this.contains(key));
   }
 
+  /**
+   * Tests whether a document is associated with each of the given keys.
+   * <p>
+   * The returned future, if completed successfully, completes with true to indicate that the database contains all the
+   * given keys and with false to indicate that either the database is missing one of the keys or the lookup failed
+   * without giving a reason for that.
+   *
+   * @param keys the keys to check.
+   * @return a future completed with the lookup status when completed.
+   * @throws NullPointerException if the given key collection is null.
+   */
+  default @NonNull Task<Boolean> containsAllAsync(@NonNull Collection<String> keys) {
+    return Task.supply(() -> this.containsAll(keys));
+  }
+
   /**
    * Removes the key and the associated document from the database.
    * <p>
@@ -209,6 +348,20 @@ public interface Database extends Nameable, AutoCloseable {
     return Task.supply(() -> this.delete(key));
   }
 
+  /**
+   * Removes all given keys and the associated documents from the database.
+   * <p>
+   * The returned future, if completed successfully, completes with the amount of keys which were removed from the
+   * database.
+   *
+   * @param keys the keys to remove.
+   * @return a future completed with the amount of removed keys.
+   * @throws NullPointerException if the given key collection is null.
+   */
+  default @NonNull Task<Integer> deleteAllAsync(@NonNull Collection<String> keys) {
+    return Task.supply(() -> this.deleteAll(keys));
+  }
+
   /**
    * Gets the associated document with the given key from the database. If the returned document is null than there is
    * no document associated with the given key.
@@ -225,6 +378,21 @@ public interface Database extends Nameable, AutoCloseable {
     return Task.supply(() -> this.get(key));
   }
 
+  /**
+   * Gets the associated documents of all given keys from the database. Keys which are not associated with a document
+   * are not contained in the resulting map.
+   * <p>
+   * The returned future, if completed successfully, completes with the documents mapped to the given keys in the
+   * database or with an empty map if either the lookup failed or no document is associated with any of the keys.
+   *
+   * @param keys the keys of the documents to get.
+   * @return a future completed with the documents associated with the given keys.
+   * @throws NullPointerException if the given key collection is null.
+   */
+  default @NonNull Task<Map<String, JsonDocument>> getAllAsync(@NonNull Collection<String> keys) {
+    return Task.supply(() -> this.getAll(keys));
+  }
+
   /**
    * Searches for all entries in the database which value contains the given field and the field value matches the given
    * value. Null as the field value is permitted and will be used as literally null. The search is not deep meaning that
@@ -299,6 +467,21 @@ public interface Database extends Nameable, AutoCloseable {
     return Task.supply(this::entries);
   }
 
+  /**
+   * Reads the next chunk of key-value pairs from the database, ordered by their key. The last key of the returned chunk
+   * should be passed as the previous key to read the next chunk, null starts at the first key of the database.
+   * <p>
+   * The returned future, if completed successfully, completes with the next chunk of key-value pairs which is empty if
+   * there are no more entries in the database.
+   *
+   * @param previousKey the last key of the previously read chunk, null to read the first chunk.
+   * @param chunkSize   the maximum amount of key-value pairs to read.
+   * @return a future completed with the next chunk of key-value pairs.
+   */
+  default @NonNull Task<DatabaseChunk> readChunkAfterAsync(@Nullable String previousKey, int chunkSize) {
+    return Task.supply(() -> this.readChunkAfter(previousKey, chunkSize));
+  }
+
   /**
    * Removes all key-value pairs which are currently stored in the database. This operation will not remove the
    * database.
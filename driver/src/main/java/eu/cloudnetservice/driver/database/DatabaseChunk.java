@@ -0,0 +1,42 @@
+/*
+ * Copyright 2019-2023 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.driver.database;
+
+import eu.cloudnetservice.common.document.gson.JsonDocument;
+import java.util.Map;
+import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Represents a chunk of key-value pairs read from a database, ordered by their key. The last key of a chunk is the
+ * cursor to read the next chunk from the database, see {@link Database#readChunkAfter(String, int)}.
+ *
+ * @param entries the key-value pairs of this chunk.
+ * @param lastKey the highest key in this chunk in the order of the database, null if this chunk is empty.
+ * @since 4.0
+ */
+public record DatabaseChunk(@NonNull Map<String, JsonDocument> entries, @Nullable String lastKey) {
+
+  /**
+   * Get the amount of key-value pairs in this chunk.
+   *
+   * @return the amount of key-value pairs in this chunk.
+   */
+  public int size() {
+    return this.entries.size();
+  }
+}
@@ -57,6 +57,24 @@ public interface DatabaseProvider {
    */
   @NonNull Database database(@NonNull String name);
 
+  /**
+   * Retrieves or creates a facade for a database which caches the read results locally. The cache holds at most the
+   * given amount of documents and gets invalidated by the node whenever an entry of the database changes. Components
+   * which have direct access to the database (like a node) return the same facade as {@link #database(String)}.
+   * <p>
+   * Note that only the size of the cache is taken from the first call for a database, subsequent calls with a different
+   * size return the same cached database facade.
+   *
+   * @param name        the unique name of the database.
+   * @param maximumSize the maximum amount of documents to cache.
+   * @return a facade for a database which caches read results locally.
+   * @throws NullPointerException     if the given name is null.
+   * @throws IllegalArgumentException if the given maximum size is negative.
+   */
+  default @NonNull Database cachedDatabase(@NonNull String name, long maximumSize) {
+    return this.database(name);
+  }
+
   /**
    * Checks whether the database with the given name already exists. When a call to {@link #database(String)} is made
    * there is no requirement for the database to get created.
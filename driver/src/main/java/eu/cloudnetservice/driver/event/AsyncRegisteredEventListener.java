@@ -0,0 +1,192 @@
+/*
+ * Copyright 2019-2023 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.driver.event;
+
+import eu.cloudnetservice.common.log.LogManager;
+import eu.cloudnetservice.common.log.Logger;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.NonNull;
+
+/**
+ * A registered event listener which posts all events to the wrapped listener asynchronously. The events are queued
+ * and delivered by at most one thread at a time, which preserves the order in which the events were fired. The amount
+ * of queued events is bounded, events fired while the queue is full are dropped.
+ *
+ * @since 4.0
+ */
+final class AsyncRegisteredEventListener implements RegisteredEventListener {
+
+  private static final Logger LOGGER = LogManager.logger(AsyncRegisteredEventListener.class);
+  // the maximum events to post in one run before giving other listeners a chance to use the thread
+  private static final int MAX_EVENTS_PER_RUN = 64;
+
+  private final Executor executor;
+  private final int maxPendingEvents;
+  private final RegisteredEventListener delegate;
+
+  private final Queue<Event> pendingEvents = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger pendingEventCount = new AtomicInteger();
+  private final AtomicInteger droppedEventCount = new AtomicInteger();
+  private final AtomicBoolean scheduled = new AtomicBoolean();
+
+  private volatile boolean cancelled;
+
+  /**
+   * Constructs a new async registered event listener instance.
+   *
+   * @param executor         the executor to post the events to the wrapped listener on.
+   * @param delegate         the listener to post the events to.
+   * @param maxPendingEvents the maximum amount of events which are waiting to be posted to the listener.
+   * @throws NullPointerException if the given executor or delegate listener is null.
+   */
+  AsyncRegisteredEventListener(
+    @NonNull Executor executor,
+    @NonNull RegisteredEventListener delegate,
+    int maxPendingEvents
+  ) {
+    this.executor = executor;
+    this.delegate = delegate;
+    this.maxPendingEvents = maxPendingEvents;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void fireEvent(@NonNull Event event) {
+    if (this.cancelled) {
+      return;
+    }
+
+    // drop the event if the listener does not keep up with the fired events
+    if (this.pendingEventCount.incrementAndGet() > this.maxPendingEvents) {
+      this.pendingEventCount.decrementAndGet();
+      if (this.droppedEventCount.getAndIncrement() == 0) {
+        LOGGER.warning(
+          "Async listener %s for %s is not keeping up, dropping events until its queue drains",
+          null,
+          this.instance().getClass().getName(),
+          this.eventClass().getName());
+      }
+      return;
+    }
+
+    this.pendingEvents.add(event);
+    this.schedulePost();
+  }
+
+  /**
+   * Cancels this listener, the pending events are discarded and no more events are posted to the wrapped listener.
+   * An event which is currently posted to the listener is not interrupted.
+   */
+  void cancel() {
+    this.cancelled = true;
+    this.pendingEvents.clear();
+    this.pendingEventCount.set(0);
+  }
+
+  /**
+   * Schedules the posting of the pending events to the wrapped listener, unless a post run is already scheduled.
+   */
+  private void schedulePost() {
+    if (this.scheduled.compareAndSet(false, true)) {
+      this.executor.execute(this::postPendingEvents);
+    }
+  }
+
+  /**
+   * Posts the pending events to the wrapped listener, rescheduling if there are still events left afterwards.
+   */
+  private void postPendingEvents() {
+    try {
+      for (var i = 0; i < MAX_EVENTS_PER_RUN && !this.cancelled; i++) {
+        var event = this.pendingEvents.poll();
+        if (event == null) {
+          break;
+        }
+        this.pendingEventCount.decrementAndGet();
+
+        try {
+          this.delegate.fireEvent(event);
+        } catch (RuntimeException exception) {
+          // there is no caller we could rethrow the exception to
+          LOGGER.severe("Exception while posting event to async listener", exception);
+        }
+      }
+    } finally {
+      var droppedEvents = this.droppedEventCount.getAndSet(0);
+      if (droppedEvents > 0) {
+        LOGGER.warning(
+          "Async listener %s for %s dropped %d events because its queue was full",
+          null,
+          this.instance().getClass().getName(),
+          this.eventClass().getName(),
+          droppedEvents);
+      }
+
+      // reschedule if events were added while running (or events are left over)
+      this.scheduled.set(false);
+      if (!this.cancelled && !this.pendingEvents.isEmpty()) {
+        this.schedulePost();
+      }
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public @NonNull EventListener eventListener() {
+    return this.delegate.eventListener();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public @NonNull InvocationOrder order() {
+    return this.delegate.order();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public @NonNull String channel() {
+    return this.delegate.channel();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public @NonNull Object instance() {
+    return this.delegate.instance();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public @NonNull Class<?> eventClass() {
+    return this.delegate.eventClass();
+  }
+}
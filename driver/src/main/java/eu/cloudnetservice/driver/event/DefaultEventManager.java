@@ -16,16 +16,23 @@
 
 package eu.cloudnetservice.driver.event;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import dev.derklaro.aerogel.auto.Provides;
+import eu.cloudnetservice.driver.event.events.channel.ChannelMessageReceiveEvent;
 import eu.cloudnetservice.driver.inject.InjectionLayer;
 import jakarta.inject.Singleton;
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Predicate;
@@ -40,9 +47,22 @@
 @Provides(EventManager.class)
 public class DefaultEventManager implements EventManager {
 
+  protected static final int ASYNC_LISTENER_THREADS = Integer.getInteger(
+    "cloudnet.event.async-listener-threads",
+    Math.max(2, Runtime.getRuntime().availableProcessors()));
+  protected static final int ASYNC_LISTENER_MAX_PENDING_EVENTS = Integer.getInteger(
+    "cloudnet.event.async-listener-max-pending-events",
+    10_000);
+
   protected final Lock bakeLock = new ReentrantLock(true);
   protected final Map<Class<?>, List<RegisteredEventListener>> listeners = new HashMap<>();
 
+  // the dispatch tables are baked lazily per event class and the whole map is replaced when the listeners change
+  protected volatile Map<Class<?>, DispatchTable> dispatchTables = new ConcurrentHashMap<>();
+
+  // created lazily when the first async listener gets registered
+  protected ExecutorService asyncListenerExecutor;
+
   /**
    * {@inheritDoc}
    */
@@ -69,30 +89,26 @@ public class DefaultEventManager implements EventManager {
    */
   @Override
   public <T extends Event> @NonNull T callEvent(@NonNull String channel, @NonNull T event) {
-    // get all registered listeners of the event
-    var listeners = this.listeners.get(event.getClass());
-    if (listeners != null && !listeners.isEmpty()) {
-      // check if there is only one listener
-      if (listeners.size() == 1) {
-        var listener = listeners.get(0);
-        // check if the event gets called on the same channel as the listener is listening to
-        if (listener.channel().equals(channel)) {
-          listener.fireEvent(event);
-        }
-      } else {
-        // post the event to the listeners
-        for (var listener : listeners) {
-          // check if the event gets called on the same channel as the listener is listening to
-          if (listener.channel().equals(channel)) {
-            listener.fireEvent(event);
-          }
-        }
+    // get all listeners of the event which are listening to the given channel
+    var listeners = this.dispatchTable(event.getClass()).channelListeners().get(channel);
+    if (listeners != null) {
+      // post the event to the listeners
+      for (var listener : listeners) {
+        listener.fireEvent(event);
       }
     }
     // for chaining
     return event;
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean hasListeners(@NonNull Class<? extends Event> eventClass) {
+    return !this.dispatchTable(eventClass).channelListeners().isEmpty();
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -125,7 +141,8 @@ public class DefaultEventManager implements EventManager {
    * @param listener the instance of the listener to register the methods in.
    * @return the same event manager as used to call the method, for chaining.
    * @throws NullPointerException     if the given listener or injection layer is null.
-   * @throws IllegalArgumentException if an event listener target doesn't take an event as it's first argument.
+   * @throws IllegalArgumentException if an event listener target doesn't take an event as it's first argument, or if
+   *                                  an async listener is listening to an event which result is read by the caller.
    */
   protected @NonNull EventManager registerListener(@NonNull InjectionLayer<?> layer, @NonNull Object listener) {
     // get all methods of the listener
@@ -143,16 +160,37 @@ public class DefaultEventManager implements EventManager {
             listener.getClass().getName()));
         }
 
+        // the changes of async listeners to an event are not visible to the caller, which waits for their result
+        if (annotation.async()
+          && (Cancelable.class.isAssignableFrom(eventClass)
+          || ChannelMessageReceiveEvent.class.isAssignableFrom(eventClass))) {
+          throw new IllegalArgumentException(String.format(
+            "Listener method %s in %s listens to %s which result is read by the caller, it cannot be async",
+            method.getName(),
+            listener.getClass().getName(),
+            eventClass.getName()));
+        }
+
         // bring the information together
-        var eventListener = new DefaultRegisteredEventListener(listener, method, annotation, layer);
+        RegisteredEventListener eventListener = new DefaultRegisteredEventListener(listener, method, annotation, layer);
 
         this.bakeLock.lock();
         try {
+          // async listeners get the events posted on the async listener executor
+          if (annotation.async()) {
+            eventListener = new AsyncRegisteredEventListener(
+              this.asyncListenerExecutor(),
+              eventListener,
+              ASYNC_LISTENER_MAX_PENDING_EVENTS);
+          }
+
           // bake an event listener from the information
-          var listeners = this.listeners.computeIfAbsent(eventClass, $ -> new CopyOnWriteArrayList<>());
+          var listeners = this.listeners.computeIfAbsent(eventClass, $ -> new ArrayList<>());
           listeners.add(eventListener);
           // sort now - we don't need to sort lather then
           Collections.sort(listeners);
+          // the dispatch tables must be re-baked to include the new listener
+          this.dispatchTables = new ConcurrentHashMap<>();
         } finally {
           this.bakeLock.unlock();
         }
@@ -163,7 +201,8 @@ public class DefaultEventManager implements EventManager {
   }
 
   /**
-   * Safely removes the all registered event listeners which are matching the given predicate.
+   * Safely removes the all registered event listeners which are matching the given predicate. The pending events of
+   * removed async listeners are discarded.
    *
    * @param predicate the predicate all listeners to remove must match.
    * @throws NullPointerException if the given predicate is null.
@@ -175,14 +214,124 @@ protected void safeRemove(@NonNull Predicate<RegisteredEventListener> predicate)
       while (iterator.hasNext()) {
         // remove all listeners which are matching the predicate
         var entry = iterator.next();
-        entry.removeIf(predicate);
+        entry.removeIf(listener -> {
+          if (predicate.test(listener)) {
+            if (listener instanceof AsyncRegisteredEventListener asyncListener) {
+              asyncListener.cancel();
+            }
+            return true;
+          }
+          return false;
+        });
         // check if the entry is still needed
         if (entry.isEmpty()) {
           iterator.remove();
         }
       }
+      // the dispatch tables must be re-baked to exclude the removed listeners
+      this.dispatchTables = new ConcurrentHashMap<>();
+    } finally {
+      this.bakeLock.unlock();
+    }
+  }
+
+  /**
+   * Gets or creates the executor which is used to post events to async listeners. The executor uses a bounded amount
+   * of daemon threads which are stopped when idling. This method must only be called while holding the bake lock.
+   *
+   * @return the executor to use for posting events to async listeners.
+   */
+  protected @NonNull ExecutorService asyncListenerExecutor() {
+    if (this.asyncListenerExecutor == null) {
+      var threadFactory = new ThreadFactoryBuilder()
+        .setNameFormat("Async-Event-Listener-%d")
+        .setDaemon(true)
+        .build();
+      var executor = new ThreadPoolExecutor(
+        ASYNC_LISTENER_THREADS,
+        ASYNC_LISTENER_THREADS,
+        30L,
+        TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(),
+        threadFactory);
+      executor.allowCoreThreadTimeOut(true);
+      this.asyncListenerExecutor = executor;
+    }
+    return this.asyncListenerExecutor;
+  }
+
+  /**
+   * Gets the dispatch table for the given event class, baking it if no table for the event class is present yet.
+   *
+   * @param eventClass the event class to get the dispatch table of.
+   * @return the dispatch table for the given event class.
+   * @throws NullPointerException if the given event class is null.
+   */
+  protected @NonNull DispatchTable dispatchTable(@NonNull Class<?> eventClass) {
+    // fast path: the table was already baked
+    var table = this.dispatchTables.get(eventClass);
+    if (table != null) {
+      return table;
+    }
+
+    this.bakeLock.lock();
+    try {
+      // re-read the tables, they might have been replaced while waiting for the lock
+      return this.dispatchTables.computeIfAbsent(eventClass, this::bakeDispatchTable);
     } finally {
       this.bakeLock.unlock();
     }
   }
+
+  /**
+   * Bakes the dispatch table for the given event class. The table contains all listeners which are listening to the
+   * given event class or one of its supertypes, grouped by their channel and sorted by their invocation order. This
+   * method must only be called while holding the bake lock.
+   *
+   * @param eventClass the event class to bake the dispatch table for.
+   * @return the baked dispatch table for the given event class.
+   * @throws NullPointerException if the given event class is null.
+   */
+  protected @NonNull DispatchTable bakeDispatchTable(@NonNull Class<?> eventClass) {
+    // collect all listeners which are listening to the event class or one of its supertypes
+    List<RegisteredEventListener> listeners = new ArrayList<>();
+    for (var entry : this.listeners.entrySet()) {
+      if (entry.getKey().isAssignableFrom(eventClass)) {
+        listeners.addAll(entry.getValue());
+      }
+    }
+
+    // no listeners, no need to do anything else
+    if (listeners.isEmpty()) {
+      return DispatchTable.EMPTY;
+    }
+
+    // sort the listeners (stable) & group them by their channel
+    Collections.sort(listeners);
+    Map<String, List<RegisteredEventListener>> listenersByChannel = new HashMap<>();
+    for (var listener : listeners) {
+      listenersByChannel.computeIfAbsent(listener.channel(), $ -> new ArrayList<>()).add(listener);
+    }
+
+    // convert the grouped listeners to arrays for a fast iteration when dispatching
+    Map<String, RegisteredEventListener[]> channelListeners = new HashMap<>();
+    for (var entry : listenersByChannel.entrySet()) {
+      channelListeners.put(entry.getKey(), entry.getValue().toArray(RegisteredEventListener[]::new));
+    }
+    return new DispatchTable(Map.copyOf(channelListeners));
+  }
+
+  /**
+   * An immutable dispatch table of an event class, containing the listeners to call for each channel.
+   *
+   * @param channelListeners the sorted listeners to call, mapped by the channel they are listening to.
+   * @since 4.0
+   */
+  protected record DispatchTable(@NonNull Map<String, RegisteredEventListener[]> channelListeners) {
+
+    /**
+     * A jvm-static dispatch table for event classes without any listener.
+     */
+    public static final DispatchTable EMPTY = new DispatchTable(Map.of());
+  }
 }
@@ -16,14 +16,17 @@
 
 package eu.cloudnetservice.driver.event;
 
+import dev.derklaro.aerogel.ContextualProvider;
 import dev.derklaro.aerogel.Element;
-import dev.derklaro.reflexion.MethodAccessor;
+import dev.derklaro.aerogel.util.Scopes;
 import dev.derklaro.reflexion.Reflexion;
 import eu.cloudnetservice.common.log.LogManager;
 import eu.cloudnetservice.common.log.Logger;
 import eu.cloudnetservice.driver.inject.InjectUtil;
 import eu.cloudnetservice.driver.inject.InjectionLayer;
 import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
 import lombok.NonNull;
 
 /**
@@ -34,6 +37,9 @@
 final class DefaultRegisteredEventListener implements RegisteredEventListener {
 
   private static final Logger LOGGER = LogManager.logger(DefaultRegisteredEventListener.class);
+  // the time a listener may take to process an event before a warning is logged, 0 or less to disable the check
+  private static final long LISTENER_TIME_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(
+    Long.getLong("cloudnet.event.listener-time-budget", 250));
 
   private final Object instance;
   private final Class<?> eventClass;
@@ -41,7 +47,9 @@ final class DefaultRegisteredEventListener implements RegisteredEventListener {
 
   private final String methodName;
   private final Element[] methodArguments;
-  private final MethodAccessor<?> methodAccessor;
+  private final Object[] resolvedArguments;
+  private final boolean[] resolvedArgumentScopes;
+  private final EventListenerInvoker invoker;
 
   private final InjectionLayer<?> injectionLayer;
 
@@ -70,11 +78,48 @@ final class DefaultRegisteredEventListener implements RegisteredEventListener {
     this.eventClass = targetMethod.getParameterTypes()[0];
 
     // method access
-    var reflexion = Reflexion.onBound(instance);
-    this.methodAccessor = reflexion.unreflect(targetMethod);
+    this.invoker = makeInvoker(instance, targetMethod);
 
     // injection stuff, ignore the first element (the event itself)
     this.methodArguments = InjectUtil.buildElementsForParameters(targetMethod.getParameters(), 1);
+    this.resolvedArguments = new Object[this.methodArguments.length];
+    this.resolvedArgumentScopes = new boolean[this.methodArguments.length];
+  }
+
+  /**
+   * Generates a direct invoker for the given listener method. If the generation fails for some reason, an invoker
+   * which calls the method using reflection is returned instead.
+   *
+   * @param instance     the instance to call the listener method on.
+   * @param targetMethod the listener method to make the invoker for.
+   * @return an invoker for the given listener method.
+   * @throws NullPointerException if the given instance or target method is null.
+   */
+  private static @NonNull EventListenerInvoker makeInvoker(@NonNull Object instance, @NonNull Method targetMethod) {
+    try {
+      return EventListenerInvokerGenerator.makeInvoker(instance, targetMethod);
+    } catch (IllegalStateException exception) {
+      LOGGER.fine(
+        "Unable to generate invoker for listener method %s in %s, falling back to reflection",
+        exception,
+        targetMethod.getName(),
+        targetMethod.getDeclaringClass().getName());
+
+      // fall back to a reflective call of the method
+      var accessor = Reflexion.onBound(instance).unreflect(targetMethod);
+      return (event, arguments) -> {
+        // put the event in front of the other arguments
+        var instances = new Object[arguments.length + 1];
+        instances[0] = event;
+        System.arraycopy(arguments, 0, instances, 1, arguments.length);
+
+        // invoke the method and rethrow the exception thrown by it
+        var result = accessor.invokeWithArgs(instances);
+        if (result.wasExceptional()) {
+          throw result.getException();
+        }
+      };
+    }
   }
 
   /**
@@ -82,25 +127,100 @@ final class DefaultRegisteredEventListener implements RegisteredEventListener {
    */
   @Override
   public void fireEvent(@NonNull Event event) {
-    LOGGER.fine(
-      "Calling event %s on listener %s",
-      null,
-      event.getClass().getName(),
-      this.instance().getClass().getName());
-
-    // find the parameter instances, set the first argument to the event instance
-    var instances = InjectUtil.findAllInstances(this.injectionLayer, this.methodArguments, 1);
-    instances[0] = event;
+    if (LOGGER.isLoggable(Level.FINE)) {
+      LOGGER.fine(
+        "Calling event %s on listener %s",
+        null,
+        event.getClass().getName(),
+        this.instance().getClass().getName());
+    }
 
     // invoke the event listener & rethrow any thrown exceptions wrapped
-    var result = this.methodAccessor.invokeWithArgs(instances);
-    if (result.wasExceptional()) {
+    var startTime = System.nanoTime();
+    try {
+      this.invoker.invoke(event, this.resolveArguments());
+    } catch (Throwable throwable) {
       throw new EventListenerException(String.format(
         "Error while invoking event listener %s in class %s",
         this.methodName,
         this.instance.getClass().getName()
-      ), result.getException());
+      ), throwable);
+    } finally {
+      this.checkTimeBudget(event, System.nanoTime() - startTime);
+    }
+  }
+
+  /**
+   * Logs a warning if the time the listener took to process the given event exceeded the configured time budget.
+   * Listeners exceeding the budget are delaying the thread which fired the event (unless the listener is async).
+   *
+   * @param event        the event which was processed by the listener.
+   * @param elapsedNanos the time in nanoseconds which the listener took to process the event.
+   * @throws NullPointerException if the given event is null.
+   */
+  private void checkTimeBudget(@NonNull Event event, long elapsedNanos) {
+    if (LISTENER_TIME_BUDGET_NANOS > 0 && elapsedNanos > LISTENER_TIME_BUDGET_NANOS) {
+      LOGGER.warning(
+        "Event listener %s in class %s took %dms to process event %s (budget: %dms) on thread %s",
+        null,
+        this.methodName,
+        this.instance.getClass().getName(),
+        TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+        event.getClass().getName(),
+        TimeUnit.NANOSECONDS.toMillis(LISTENER_TIME_BUDGET_NANOS),
+        Thread.currentThread().getName());
+    }
+  }
+
+  /**
+   * Resolves the additional arguments of the listener method from the injection layer. Arguments which are bound in
+   * the singleton scope are only resolved once and re-used for all following calls, all other arguments are resolved
+   * each time.
+   *
+   * @return the resolved additional arguments of the listener method.
+   */
+  private @NonNull Object[] resolveArguments() {
+    // no need to allocate a new array if the method has no additional arguments
+    if (this.methodArguments.length == 0) {
+      return this.resolvedArguments;
     }
+
+    var arguments = new Object[this.methodArguments.length];
+    for (var i = 0; i < arguments.length; i++) {
+      // check if the argument was resolved before and can be re-used
+      var argument = this.resolvedArguments[i];
+      if (argument == null) {
+        var element = this.methodArguments[i];
+        argument = this.injectionLayer.instance(element);
+        // instances of singleton scoped bindings will not change, so we can re-use them for the next calls. The scope
+        // is only checked once, the binding was created when resolving the argument for the first time
+        if (argument != null && !this.resolvedArgumentScopes[i]) {
+          this.resolvedArgumentScopes[i] = true;
+          if (isSingletonScoped(this.injectionLayer.injector().binding(element).provider(element))) {
+            this.resolvedArguments[i] = argument;
+          }
+        }
+      }
+      arguments[i] = argument;
+    }
+    return arguments;
+  }
+
+  /**
+   * Checks if the given provider is scoped as singleton, meaning that it returns the same instance for each call. The
+   * check compares the provider with the provider the singleton scope would wrap it into, as the injector does not
+   * expose the scopes of a binding.
+   *
+   * @param provider the provider of the binding to check.
+   * @return true if the given provider is scoped as singleton, false otherwise.
+   * @throws NullPointerException if the given provider is null.
+   */
+  private static boolean isSingletonScoped(@NonNull ContextualProvider<Object> provider) {
+    var singletonProvider = Scopes.SINGLETON.applyScope(
+      provider.constructingType(),
+      provider.elementMatcher(),
+      provider);
+    return provider.getClass() == singletonProvider.getClass();
   }
 
   /**
@@ -69,4 +69,19 @@
    * @return the priority of the listener.
    */
   InvocationOrder order() default InvocationOrder.NORMAL;
+
+  /**
+   * Defines if this listener should be called asynchronously on a separate executor instead of the thread which fired
+   * the event. Async listeners are useful for slow operations (for example database writes) which would otherwise block
+   * the firing thread. All events posted to an async listener are still delivered in the order they were fired.
+   * <p>
+   * Note that changes made to the event by an async listener are not visible to the caller of the event, and that
+   * exceptions thrown by the listener are only logged. Therefore, listeners which want to modify the event should not
+   * be async. Listeners for cancelable events and for received channel messages are rejected when registered as async.
+   * If an async listener does not keep up with the fired events, events are dropped once too many events are pending.
+   * Defaults to false.
+   *
+   * @return true if the listener should be called asynchronously, false otherwise.
+   */
+  boolean async() default false;
 }
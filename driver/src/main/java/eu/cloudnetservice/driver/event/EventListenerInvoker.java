@@ -0,0 +1,42 @@
+/*
+ * Copyright 2019-2023 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.driver.event;
+
+import lombok.NonNull;
+import org.jetbrains.annotations.ApiStatus;
+
+/**
+ * An invoker for a single event listener method which is bound to the listener instance. Implementations of this
+ * interface are generated at runtime when registering a listener and call the target method directly instead of using
+ * reflection. This interface is only public as the generated classes are defined in the package of the listener.
+ *
+ * @since 4.0
+ */
+@FunctionalInterface
+@ApiStatus.Internal
+public interface EventListenerInvoker {
+
+  /**
+   * Calls the underlying listener method with the given event and the given additional arguments.
+   *
+   * @param event     the event to pass as the first argument to the listener method.
+   * @param arguments the additional (injected) arguments of the listener method, in declaration order.
+   * @throws NullPointerException if the given event or argument array is null.
+   * @throws Throwable            any exception which was thrown by the listener method.
+   */
+  void invoke(@NonNull Event event, @NonNull Object[] arguments) throws Throwable;
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2019-2023 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.driver.event;
+
+import static org.objectweb.asm.Opcodes.AALOAD;
+import static org.objectweb.asm.Opcodes.ACC_FINAL;
+import static org.objectweb.asm.Opcodes.ACC_PRIVATE;
+import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
+import static org.objectweb.asm.Opcodes.ALOAD;
+import static org.objectweb.asm.Opcodes.CHECKCAST;
+import static org.objectweb.asm.Opcodes.GETFIELD;
+import static org.objectweb.asm.Opcodes.INVOKESPECIAL;
+import static org.objectweb.asm.Opcodes.INVOKEVIRTUAL;
+import static org.objectweb.asm.Opcodes.POP;
+import static org.objectweb.asm.Opcodes.POP2;
+import static org.objectweb.asm.Opcodes.PUTFIELD;
+import static org.objectweb.asm.Opcodes.RETURN;
+import static org.objectweb.asm.Opcodes.V17;
+
+import eu.cloudnetservice.common.StringUtil;
+import eu.cloudnetservice.driver.util.asm.AsmHelper;
+import eu.cloudnetservice.driver.util.define.ClassDefiners;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import lombok.NonNull;
+import org.jetbrains.annotations.ApiStatus;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Type;
+
+/**
+ * A utility class to generate an invoker for an event listener method which calls the method directly rather than
+ * going through reflection on each event call.
+ *
+ * @since 4.0
+ */
+@ApiStatus.Internal
+final class EventListenerInvokerGenerator {
+
+  private static final String SUPER = "java/lang/Object";
+  private static final String OBJ_DESCRIPTOR = Type.getDescriptor(Object.class);
+  // EventListenerInvoker related stuff
+  private static final String[] LISTENER_INVOKER = new String[]{Type.getInternalName(EventListenerInvoker.class)};
+  private static final String INVOKE_METHOD_DESCRIPTOR = Type.getMethodDescriptor(
+    Type.VOID_TYPE,
+    Type.getType(Event.class),
+    Type.getType(Object[].class));
+  // Constructor stuff
+  private static final String CONSTRUCTOR_DESCRIPTOR = Type.getMethodDescriptor(
+    Type.VOID_TYPE,
+    Type.getType(Object.class));
+  // generated classes related stuff
+  private static final String CLASS_NAME_FORMAT = "%s$GeneratedListenerInvoker_%s_%s";
+
+  private EventListenerInvokerGenerator() {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Generates an invoker for the given listener method which is bound to the given listener instance. The first
+   * parameter of the target method must be the event, all other parameters are passed from the argument array given to
+   * the invoker.
+   *
+   * @param instance     the instance of the listener to bind the generated invoker to.
+   * @param targetMethod the listener method to generate the invoker for.
+   * @return the generated invoker for the given listener method.
+   * @throws NullPointerException  if the given instance or target method is null.
+   * @throws IllegalStateException if the generated class would be unable to access the target method or if something
+   *                               goes wrong during the class generation.
+   */
+  static @NonNull EventListenerInvoker makeInvoker(@NonNull Object instance, @NonNull Method targetMethod) {
+    var definingClass = targetMethod.getDeclaringClass();
+    if (!ClassDefiners.definesNestmates() && !isPubliclyAccessible(targetMethod)) {
+      throw new IllegalStateException(String.format(
+        "Cannot generate invoker for non-public listener method %s in %s without nestmate class defining support",
+        targetMethod.getName(),
+        definingClass.getName()));
+    }
+
+    try {
+      var className = String.format(
+        CLASS_NAME_FORMAT,
+        Type.getInternalName(definingClass),
+        targetMethod.getName(),
+        StringUtil.generateRandomString(25));
+      // init the class writer for a public final class implementing the EventListenerInvoker
+      var cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
+      cw.visit(V17, ACC_PUBLIC | ACC_FINAL, className, null, SUPER, LISTENER_INVOKER);
+      // visit the instance field
+      cw.visitField(ACC_PRIVATE | ACC_FINAL, "instance", OBJ_DESCRIPTOR, null, null).visitEnd();
+      // generate the constructor taking the listener instance
+      {
+        var mv = cw.visitMethod(ACC_PUBLIC, "<init>", CONSTRUCTOR_DESCRIPTOR, null, null);
+        mv.visitCode();
+        // call super()
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitMethodInsn(INVOKESPECIAL, SUPER, "<init>", "()V", false);
+        // assign the instance field
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitFieldInsn(PUTFIELD, className, "instance", OBJ_DESCRIPTOR);
+        // finish the constructor
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+      }
+      {
+        var mv = cw.visitMethod(ACC_PUBLIC, "invoke", INVOKE_METHOD_DESCRIPTOR, null, null);
+        mv.visitCode();
+        // get the instance field
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, className, "instance", OBJ_DESCRIPTOR);
+        mv.visitTypeInsn(CHECKCAST, Type.getInternalName(definingClass));
+        // load the event as the first argument
+        var parameterTypes = targetMethod.getParameterTypes();
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitTypeInsn(CHECKCAST, Type.getInternalName(parameterTypes[0]));
+        // load all other arguments from the given argument array
+        for (var i = 1; i < parameterTypes.length; i++) {
+          mv.visitVarInsn(ALOAD, 2);
+          AsmHelper.pushInt(mv, i - 1);
+          mv.visitInsn(AALOAD);
+          // check if the parameter type is primitive
+          if (parameterTypes[i].isPrimitive()) {
+            AsmHelper.wrapperToPrimitive(mv, parameterTypes[i]);
+          } else {
+            mv.visitTypeInsn(CHECKCAST, Type.getInternalName(parameterTypes[i]));
+          }
+        }
+        // invoke the method, listener methods are never declared in interfaces (no default methods are collected)
+        mv.visitMethodInsn(
+          INVOKEVIRTUAL,
+          Type.getInternalName(definingClass),
+          targetMethod.getName(),
+          Type.getMethodDescriptor(targetMethod),
+          false);
+        // discard the return value of the method (if any)
+        var returnType = targetMethod.getReturnType();
+        if (returnType == long.class || returnType == double.class) {
+          mv.visitInsn(POP2);
+        } else if (returnType != void.class) {
+          mv.visitInsn(POP);
+        }
+        // finish the method
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+      }
+      // finish the class
+      cw.visitEnd();
+      // define and make the constructor accessible
+      var constructor = ClassDefiners.current()
+        .defineClass(className, definingClass, cw.toByteArray())
+        .getDeclaredConstructor(Object.class);
+      constructor.setAccessible(true);
+      // instantiate
+      return (EventListenerInvoker) constructor.newInstance(instance);
+    } catch (Exception exception) {
+      throw new IllegalStateException(String.format(
+        "Cannot generate invoker for listener method %s in %s",
+        targetMethod.getName(),
+        definingClass.getName()
+      ), exception);
+    }
+  }
+
+  /**
+   * Checks if the given method, its declaring class and all its parameter types are public and can therefore be
+   * accessed from a class which is not a nestmate of the declaring class.
+   *
+   * @param method the method to check.
+   * @return true if the method is accessible from any class, false otherwise.
+   * @throws NullPointerException if the given method is null.
+   */
+  private static boolean isPubliclyAccessible(@NonNull Method method) {
+    return Modifier.isPublic(method.getModifiers())
+      && Modifier.isPublic(method.getDeclaringClass().getModifiers())
+      && Arrays.stream(method.getParameterTypes())
+      .allMatch(type -> type.isPrimitive() || Modifier.isPublic(type.getModifiers()));
+  }
+}
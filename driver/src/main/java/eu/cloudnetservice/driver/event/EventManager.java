@@ -88,6 +88,17 @@ public interface EventManager {
    */
   @NonNull <T extends Event> T callEvent(@NonNull String channel, @NonNull T event);
 
+  /**
+   * Checks if at least one listener is registered which would be called for an event of the given type on any channel,
+   * including listeners for a supertype of the given event type. This check is cheap and can be used to skip the
+   * construction of events which no listener would receive anyway.
+   *
+   * @param eventClass the type of the event to check.
+   * @return true if at least one listener would be called for the given event type, false otherwise.
+   * @throws NullPointerException if the given event class is null.
+   */
+  boolean hasListeners(@NonNull Class<? extends Event> eventClass);
+
   /**
    * Registers all methods in the given listener class which are annotated with {@link EventListener} and are taking
    * only one argument with a subtype of {@link Event}. The instance the constructed event listeners are bound to are
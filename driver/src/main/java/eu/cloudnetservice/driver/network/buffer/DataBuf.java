@@ -17,7 +17,9 @@
 package eu.cloudnetservice.driver.network.buffer;
 
 import eu.cloudnetservice.driver.network.rpc.object.ObjectMapper;
+import java.io.IOException;
 import java.lang.reflect.Type;
+import java.nio.channels.WritableByteChannel;
 import java.util.UUID;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
@@ -158,6 +160,20 @@ public interface DataBuf extends AutoCloseable {
    */
   byte[] readByteArray();
 
+  /**
+   * Reads the next array of bytes from the buffer and transfers them directly into the given channel rather than into a
+   * newly allocated array. See {@link #readByteArray()} about the expected format. This method blocks until all bytes
+   * of the array were accepted by the given channel.
+   *
+   * @param target the channel to transfer the bytes of the next array to.
+   * @return the number of bytes which were transferred into the given channel.
+   * @throws IOException               if an i/o error occurs while writing to the given channel.
+   * @throws NullPointerException      if the given target channel is null.
+   * @throws IndexOutOfBoundsException if there are fewer bytes than expected in the buffer.
+   * @throws IllegalStateException     if this buffer was released.
+   */
+  int readByteArray(@NonNull WritableByteChannel target) throws IOException;
+
   /**
    * Reads the next unique id from the buffer at the current reader index. The operation reads two longs from the
    * buffer: the most significant bits of the unique id, and the least significant bits of the unique id. This totals to
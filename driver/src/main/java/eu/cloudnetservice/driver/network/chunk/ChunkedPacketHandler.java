@@ -50,10 +50,50 @@ public interface ChunkedPacketHandler extends ChunkedPacketProvider {
    *
    * @param chunkPosition the position of the chunk, starting from 0.
    * @param dataBuf       the data in the chunk.
-   * @return true, if the chunk was the last chunk and the callback was called, false otherwise or in case of a failure.
+   * @return true, if the chunk was the last chunk and the session is complete, false otherwise or in case of a failure.
    */
   boolean handleChunkPart(int chunkPosition, @NonNull DataBuf dataBuf);
 
+  /**
+   * Get the amount of chunks which were received and validated without a gap, starting from the first chunk. A sender
+   * which resumes an interrupted transfer will skip this amount of chunks. Handlers which are not able to resume a
+   * transfer should return 0, which is the default.
+   *
+   * @return the amount of chunks which were received in order.
+   */
+  default int acknowledgedChunks() {
+    return 0;
+  }
+
+  /**
+   * Get the crc32c checksums of the chunks which were received and validated without a gap, starting from the first
+   * chunk. A sender which resumes an interrupted transfer compares these checksums to the content it would send to
+   * detect changes of its source. Handlers which are not able to resume a transfer should return an empty array, which
+   * is the default.
+   *
+   * @return the checksums of the chunks which were received in order.
+   */
+  default int @NonNull [] acknowledgedChecksums() {
+    return new int[0];
+  }
+
+  /**
+   * Discards all chunks which were received at or after the given chunk index, as the sender resumes the transfer at
+   * the given index and sends these chunks again. Handlers which are not able to resume a transfer can ignore this
+   * call, which is the default.
+   *
+   * @param chunkIndex the index of the first chunk which will be sent again.
+   */
+  default void resumeAt(int chunkIndex) {
+  }
+
+  /**
+   * Cancels this session, for example because it was abandoned by the sender. All resources held by the session are
+   * released and all data received so far is discarded. Further chunk parts are not handled anymore.
+   */
+  default void cancel() {
+  }
+
   /**
    * A callback called once the full data of the chunk session was received successfully.
    *
@@ -164,6 +164,33 @@ interface Builder {
      */
     @NonNull Builder packetSplitter(@NonNull Consumer<Packet> splitter);
 
+    /**
+     * Sets the amount of chunks which can be sent to the target channels without being acknowledged by them. If set to
+     * a value greater than 0, each chunk is sent as a query and resent if the receiver was unable to validate the chunk
+     * content. Chunks which were already acknowledged by all targets in a previous transfer using the same session id
+     * are skipped, which allows to resume an interrupted transfer by building a new sender with a fresh source. Note
+     * that all chunks in the window are held in memory until they are acknowledged, the window is reduced if it would
+     * exceed the in-flight memory limit of the sender. This option requires the target channels to be set using
+     * {@code toChannels}. This defaults to 0, sending all chunks without acknowledgement.
+     *
+     * @param acknowledgeWindow the amount of chunks which can be unacknowledged at the same time.
+     * @return the same builder as used to call the method, for chaining.
+     */
+    @NonNull Builder acknowledgeWindow(int acknowledgeWindow);
+
+    /**
+     * Sets the amount of streams which read and send the chunks of the transfer in parallel. Parallel streams are only
+     * used if the source of the transfer is a file, each stream reads its chunks directly from the file. A source stream
+     * is always transferred by a single stream as it can only be read in order. The chunks might arrive at the target
+     * out of order. The streams are reduced if their read buffers and pending chunks would exceed the in-flight memory
+     * limit of the sender. When using a custom packet splitter, it must be thread safe if more than one stream is used.
+     * This defaults to 1.
+     *
+     * @param parallelStreams the amount of streams transferring chunks in parallel.
+     * @return the same builder as used to call the method, for chaining.
+     */
+    @NonNull Builder parallelStreams(int parallelStreams);
+
     /**
      * Sets the extra information provided to each target component when opening a chunked session. The data is mainly
      * used for identifying specific parts of the transfer, for example the target file name might be a use case. This
@@ -180,7 +207,8 @@ interface Builder {
      *
      * @return the instance build from the information.
      * @throws NullPointerException     if no source, splitter or channel were given.
-     * @throws IllegalArgumentException if the chunk size is not greater than 0.
+     * @throws IllegalArgumentException if the chunk size or amount of parallel streams is not greater than 0.
+     * @throws IllegalStateException    if an acknowledge window is set but no target channels were given.
      */
     @NonNull ChunkedPacketSender build();
   }
@@ -17,19 +17,49 @@
 package eu.cloudnetservice.driver.network.chunk.defaults;
 
 import eu.cloudnetservice.common.concurrent.Task;
+import eu.cloudnetservice.common.log.LogManager;
+import eu.cloudnetservice.common.log.Logger;
+import eu.cloudnetservice.driver.network.NetworkChannel;
 import eu.cloudnetservice.driver.network.chunk.ChunkedPacketSender;
 import eu.cloudnetservice.driver.network.chunk.TransferStatus;
 import eu.cloudnetservice.driver.network.chunk.data.ChunkSessionInformation;
 import eu.cloudnetservice.driver.network.chunk.network.ChunkedPacket;
 import eu.cloudnetservice.driver.network.protocol.Packet;
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
+import java.util.zip.CRC32C;
 import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Represents a default implementation of a chunked packet sender specifically created for chunked transferring of a
  * huge file, e.g. a zip archive.
  * <p>
+ * If the source of the transfer is a file, the chunks can be read and sent by multiple parallel streams, each reading
+ * the chunks it sends directly from the file. A source stream can only be read in order, therefore it is always
+ * transferred by a single stream. The amount of chunk data held in memory (the read buffer of each stream and the
+ * chunks waiting for an acknowledgement) is limited, reducing the streams and the acknowledge window if needed.
+ * <p>
  * This class shouldn't get instantiated directly, use {@link ChunkedPacketSender#forFileTransfer()} instead.
  *
  * @since 4.0
@@ -37,9 +67,31 @@
 public class DefaultFileChunkPacketSender extends DefaultChunkedPacketProvider implements ChunkedPacketSender {
 
   protected static final byte[] EMPTY_BYTE_ARRAY = new byte[0];
+  protected static final int MAX_CHUNK_SEND_ATTEMPTS = 3;
+  protected static final long MAX_IN_FLIGHT_BYTES = Long.getLong(
+    "cloudnet.chunk.max-in-flight-bytes",
+    64 * 1024 * 1024);
+
+  private static final Logger LOGGER = LogManager.logger(DefaultFileChunkPacketSender.class);
 
   protected final InputStream source;
+  protected final Path sourceFile;
   protected final Consumer<Packet> packetSplitter;
+  protected final Collection<NetworkChannel> targetChannels;
+  protected final int acknowledgeWindow;
+  protected final int parallelStreams;
+
+  // the state of the chunk reading, the index of the next chunk and if the source stream ended. The source stream is
+  // only read by a single stream
+  protected final AtomicInteger nextChunkIndex = new AtomicInteger();
+  protected boolean sourceExhausted;
+  protected InputStream remainingSource;
+  protected volatile boolean transferFailed;
+
+  // transfer metrics of this session
+  protected final LongAdder sentBytes = new LongAdder();
+  protected final LongAdder acknowledgeNanos = new LongAdder();
+  protected final LongAdder acknowledgedChunks = new LongAdder();
 
   /**
    * Constructs a new chunked packet sender for file transfer.
@@ -53,11 +105,51 @@ public DefaultFileChunkPacketSender(
     @NonNull ChunkSessionInformation sessionInformation,
     @NonNull InputStream source,
     @NonNull Consumer<Packet> packetSplitter
+  ) {
+    this(sessionInformation, source, null, packetSplitter, null, 0, 1);
+  }
+
+  /**
+   * Constructs a new chunked packet sender for file transfer. If the given acknowledge window is greater than 0, the
+   * chunks are sent to the given target channels directly and must be acknowledged by them. Parallel streams are only
+   * used if a source file is given, they read the chunks directly from the file rather than from the given source
+   * stream. The streams and the acknowledge window are reduced if their chunks would exceed the in-flight memory limit.
+   *
+   * @param sessionInformation the information about the chunked session.
+   * @param source             the source stream of the file, will be closed automatically.
+   * @param sourceFile         the file the source stream was opened for, null if the source is not a file.
+   * @param packetSplitter     the splitter for each chunk part to transfer, must be thread safe if using streams.
+   * @param targetChannels     the channels to send the chunks to, required when using an acknowledge window.
+   * @param acknowledgeWindow  the amount of chunks which can be unacknowledged at the same time.
+   * @param parallelStreams    the amount of streams reading and sending chunks in parallel, ignored without a file.
+   * @throws NullPointerException if either the information, source or splitter is null.
+   */
+  public DefaultFileChunkPacketSender(
+    @NonNull ChunkSessionInformation sessionInformation,
+    @NonNull InputStream source,
+    @Nullable Path sourceFile,
+    @NonNull Consumer<Packet> packetSplitter,
+    @Nullable Collection<NetworkChannel> targetChannels,
+    int acknowledgeWindow,
+    int parallelStreams
   ) {
     super(sessionInformation);
 
     this.source = source;
+    this.remainingSource = source;
+    this.sourceFile = sourceFile;
     this.packetSplitter = packetSplitter;
+    this.targetChannels = targetChannels == null ? List.of() : targetChannels;
+
+    // each stream holds a read buffer and at least one pending chunk when acknowledging, limit both to the in-flight
+    // memory limit. A source stream cannot be read in parallel, there is nothing to gain by using multiple streams
+    var maxInFlightChunks = Math.max(2, MAX_IN_FLIGHT_BYTES / sessionInformation.chunkSize());
+    var requestedWindow = targetChannels == null ? 0 : acknowledgeWindow;
+    var requestedStreams = sourceFile == null ? 1 : Math.max(1, parallelStreams);
+    this.parallelStreams = (int) Math.min(requestedStreams, requestedWindow > 0
+      ? maxInFlightChunks / 2
+      : maxInFlightChunks);
+    this.acknowledgeWindow = (int) Math.min(requestedWindow, maxInFlightChunks - this.parallelStreams);
   }
 
   /**
@@ -82,29 +174,329 @@ public DefaultFileChunkPacketSender(
   @Override
   public @NonNull Task<TransferStatus> transferChunkedData() {
     return Task.supply(() -> {
-      var readCalls = 0;
-      var backingArray = new byte[this.chunkSessionInformation.chunkSize()];
-
-      while (true) {
-        var bytesRead = this.source.read(backingArray);
-        if (bytesRead != -1 && bytesRead == backingArray.length) {
-          this.packetSplitter.accept(
-            ChunkedPacket.createChunk(this.chunkSessionInformation, readCalls++, backingArray));
+      var startNanos = System.nanoTime();
+      // open the source file for positional reads if possible
+      var chunkSize = this.chunkSessionInformation.chunkSize();
+      var sourceFile = this.sourceFile;
+      try (var fileChannel = sourceFile == null ? null : FileChannel.open(sourceFile, StandardOpenOption.READ)) {
+        // the last chunk of a file is known, it might be empty if the file size is a multiple of the chunk size
+        var lastChunkIndex = fileChannel == null ? -1 : Math.toIntExact(fileChannel.size() / chunkSize);
+
+        // resume after the chunks which were already received by all targets and match the content of the source
+        if (this.acknowledgeWindow > 0) {
+          this.nextChunkIndex.set(this.resumeTransfer(fileChannel));
+        }
+
+        // start the additional streams, the current thread is used as the first stream
+        List<CompletableFuture<Void>> streams = new ArrayList<>(this.parallelStreams - 1);
+        for (var stream = 1; stream < this.parallelStreams; stream++) {
+          streams.add(Task.supply(() -> {
+            this.transferChunks(fileChannel, lastChunkIndex);
+            return null;
+          }));
+        }
+
+        this.transferChunks(fileChannel, lastChunkIndex);
+        CompletableFuture.allOf(streams.toArray(CompletableFuture[]::new)).get();
+      } finally {
+        // close the stream after reading the final chunk
+        this.source.close();
+      }
+
+      // release the extra content now
+      this.chunkSessionInformation.transferInformation().enableReleasing().release();
+      this.logTransferMetrics(startNanos);
+      // successful transfer
+      return TransferStatus.SUCCESS;
+    });
+  }
+
+  /**
+   * Reads and sends chunks until no chunks are left to send. If acknowledgements are required, at most the configured
+   * window of chunks (divided by the amount of streams) is unacknowledged at the same time for this stream.
+   *
+   * @param fileChannel    the channel to the source file, null if the source stream should be used.
+   * @param lastChunkIndex the index of the last chunk of the source file, -1 if the source is not a file.
+   * @throws Exception if an exception occurs while reading from the source or any chunk was not acknowledged.
+   */
+  protected void transferChunks(@Nullable FileChannel fileChannel, int lastChunkIndex) throws Exception {
+    var chunkSize = this.chunkSessionInformation.chunkSize();
+    var backingArray = new byte[chunkSize];
+
+    var windowSize = Math.max(1, this.acknowledgeWindow / this.parallelStreams);
+    Queue<PendingChunk> window = new ArrayDeque<>(windowSize);
+    try {
+      // stop reading chunks if another stream failed
+      while (!this.transferFailed) {
+        // wait for the oldest chunk to be acknowledged if the window is full
+        if (this.acknowledgeWindow > 0 && window.size() >= windowSize) {
+          this.awaitAcknowledgement(window.remove());
+        }
+
+        // read the next chunk, stop if there are no chunks left
+        int chunkIndex;
+        int bytesRead;
+        boolean finalChunk;
+        if (fileChannel == null) {
+          if (this.sourceExhausted) {
+            break;
+          }
+          // fill the whole chunk, a single read call might return fewer bytes even if the stream did not end yet
+          chunkIndex = this.nextChunkIndex.getAndIncrement();
+          bytesRead = this.remainingSource.readNBytes(backingArray, 0, chunkSize);
+          finalChunk = this.sourceExhausted = bytesRead < chunkSize;
         } else {
-          this.packetSplitter.accept(ChunkedPacket.createChunk(
-            this.chunkSessionInformation,
-            readCalls,
-            readCalls,
-            bytesRead == -1 ? 0 : bytesRead,
-            bytesRead == -1 ? EMPTY_BYTE_ARRAY : backingArray));
-          // close the stream after reading the final chunk
-          this.source.close();
-          // release the extra content now
-          this.chunkSessionInformation.transferInformation().enableReleasing().release();
-          // successful transfer
-          return TransferStatus.SUCCESS;
+          chunkIndex = this.nextChunkIndex.getAndIncrement();
+          if (chunkIndex > lastChunkIndex) {
+            break;
+          }
+          finalChunk = chunkIndex == lastChunkIndex;
+          bytesRead = this.readFileChunk(fileChannel, chunkIndex, backingArray);
         }
+
+        var packet = finalChunk
+          ? ChunkedPacket.createChunk(this.chunkSessionInformation, chunkIndex, chunkIndex, bytesRead, backingArray)
+          : ChunkedPacket.createChunk(this.chunkSessionInformation, chunkIndex, backingArray);
+        this.sentBytes.add(bytesRead);
+
+        if (this.acknowledgeWindow > 0) {
+          // send the chunk to all targets, keeping the content until all targets acknowledged the chunk
+          packet.content().disableReleasing();
+          var pending = new PendingChunk(chunkIndex, packet, new HashMap<>());
+          for (var channel : this.targetChannels) {
+            pending.responses().put(channel, this.sendChunk(channel, packet));
+          }
+          window.add(pending);
+        } else {
+          this.packetSplitter.accept(packet);
+        }
+      }
+
+      // wait for the remaining chunks to get acknowledged
+      while (!window.isEmpty()) {
+        this.awaitAcknowledgement(window.remove());
+      }
+    } catch (Exception exception) {
+      this.transferFailed = true;
+      throw exception;
+    } finally {
+      // release the content of all chunks which are still pending due to a failure
+      for (var pending : window) {
+        pending.packet().content().enableReleasing().release();
+      }
+    }
+  }
+
+  /**
+   * Reads the chunk at the given index from the given file channel into the given array, using positional reads.
+   *
+   * @param fileChannel the channel of the source file.
+   * @param chunkIndex  the index of the chunk to read.
+   * @param target      the array to read the chunk content into.
+   * @return the amount of bytes read into the given array.
+   * @throws IOException          if an i/o error occurs while reading from the file.
+   * @throws NullPointerException if the given channel or target array is null.
+   */
+  protected int readFileChunk(@NonNull FileChannel fileChannel, int chunkIndex, byte[] target) throws IOException {
+    var position = (long) chunkIndex * this.chunkSessionInformation.chunkSize();
+    var length = (int) Math.max(0, Math.min(target.length, fileChannel.size() - position));
+
+    var buffer = ByteBuffer.wrap(target, 0, length);
+    while (buffer.hasRemaining()) {
+      if (fileChannel.read(buffer, position + buffer.position()) == -1) {
+        throw new EOFException("Source file was truncated during transfer");
       }
+    }
+    return length;
+  }
+
+  /**
+   * Determines the chunk index to resume the transfer at and tells all targets which know the session about it. The
+   * transfer is resumed after the chunks which were received by all targets, but only as long as the checksums of the
+   * received chunks match the checksums of the chunks read from the source. This prevents mixing the content of two
+   * different sources, for example if the source is generated on the fly and differs between two attempts.
+   * <p>
+   * If the source is a stream, the chunks up to the resume index are consumed from it. The first chunk which did not
+   * match is kept to be sent as the first chunk of the resumed transfer.
+   *
+   * @param fileChannel the channel to the source file, null if the source stream should be used.
+   * @return the index of the first chunk to send.
+   * @throws Exception if any target channel did not respond or an i/o error occurs while reading the source.
+   */
+  protected int resumeTransfer(@Nullable FileChannel fileChannel) throws Exception {
+    var acknowledgedChecksums = this.requestAcknowledgedChecksums();
+    if (acknowledgedChecksums.isEmpty()) {
+      // no target knows the session, start from the beginning
+      return 0;
+    }
+
+    // the transfer can at most be resumed after the chunks which were received by all targets
+    var maxResumeIndex = Integer.MAX_VALUE;
+    for (var checksums : acknowledgedChecksums.values()) {
+      maxResumeIndex = Math.min(maxResumeIndex, checksums.length);
+    }
+
+    var resumeIndex = 0;
+    var chunkSize = this.chunkSessionInformation.chunkSize();
+    var backingArray = new byte[chunkSize];
+    var checksum = new CRC32C();
+    while (resumeIndex < maxResumeIndex) {
+      var bytesRead = fileChannel == null
+        ? this.source.readNBytes(backingArray, 0, chunkSize)
+        : this.readFileChunk(fileChannel, resumeIndex, backingArray);
+
+      checksum.reset();
+      checksum.update(backingArray, 0, bytesRead);
+
+      // check if all targets received the same content as read from the source
+      var expectedChecksum = (int) checksum.getValue();
+      var index = resumeIndex;
+      var matching = acknowledgedChecksums.values().stream()
+        .allMatch(checksums -> checksums[index] == expectedChecksum);
+      if (!matching || bytesRead < chunkSize) {
+        // resend the chunk, keep it to read it again when reading from the source stream
+        var remainingChunk = new ByteArrayInputStream(Arrays.copyOf(backingArray, bytesRead));
+        this.remainingSource = new SequenceInputStream(remainingChunk, this.source);
+        break;
+      }
+
+      resumeIndex++;
+    }
+
+    // tell all targets where the transfer gets resumed, discarding all chunks received after that
+    List<Task<Packet>> responses = new ArrayList<>();
+    for (var channel : acknowledgedChecksums.keySet()) {
+      responses.add(channel.sendQueryAsync(
+        ChunkedPacket.createSessionResumeRequest(this.chunkSessionInformation, resumeIndex)));
+    }
+    for (var response : responses) {
+      response.get();
+    }
+
+    LOGGER.fine(
+      "Resuming chunk session %s (%s) at chunk %d",
+      null,
+      this.chunkSessionInformation.sessionUniqueId(),
+      this.chunkSessionInformation.transferChannel(),
+      resumeIndex);
+    return resumeIndex;
+  }
+
+  /**
+   * Requests the checksums of the chunks which were received in order by each target channel which knows the session
+   * of this sender.
+   *
+   * @return the checksums of the received chunks, mapped by the target channel which knows the session.
+   * @throws Exception if any target channel did not respond to the request.
+   */
+  protected @NonNull Map<NetworkChannel, int[]> requestAcknowledgedChecksums() throws Exception {
+    Map<NetworkChannel, Task<Packet>> responses = new HashMap<>();
+    for (var channel : this.targetChannels) {
+      var request = ChunkedPacket.createSessionStatusRequest(this.chunkSessionInformation);
+      responses.put(channel, channel.sendQueryAsync(request));
+    }
+
+    Map<NetworkChannel, int[]> acknowledgedChecksums = new HashMap<>();
+    for (var entry : responses.entrySet()) {
+      var content = entry.getValue().get().content();
+      // check if the target knows the session
+      if (content.readBoolean()) {
+        var checksums = new int[content.readInt()];
+        for (var index = 0; index < checksums.length; index++) {
+          checksums[index] = content.readInt();
+        }
+        acknowledgedChecksums.put(entry.getKey(), checksums);
+      }
+    }
+    return acknowledgedChecksums;
+  }
+
+  /**
+   * Sends the given chunk packet as a query to the given channel.
+   *
+   * @param channel the channel to send the chunk to.
+   * @param packet  the chunk packet to send.
+   * @return a task completed with the acknowledgement of the target.
+   * @throws NullPointerException if the given channel or packet is null.
+   */
+  protected @NonNull Task<Packet> sendChunk(@NonNull NetworkChannel channel, @NonNull Packet packet) {
+    var sendNanos = System.nanoTime();
+    // mark the current indexes of the packet to allow further writes
+    packet.content().startTransaction();
+    var response = channel.sendQueryAsync(packet);
+    packet.content().redoTransaction();
+
+    response.thenRun(() -> {
+      this.acknowledgeNanos.add(System.nanoTime() - sendNanos);
+      this.acknowledgedChunks.increment();
     });
+    return response;
+  }
+
+  /**
+   * Waits until the given chunk was acknowledged by all targets, resending the chunk to targets which were unable to
+   * validate the content of the chunk. The content of the chunk is released afterwards.
+   *
+   * @param chunk the chunk to wait for.
+   * @throws Exception             if a target did not respond in time.
+   * @throws IllegalStateException if a target did not accept the chunk after multiple attempts.
+   * @throws NullPointerException  if the given chunk is null.
+   */
+  protected void awaitAcknowledgement(@NonNull PendingChunk chunk) throws Exception {
+    try {
+      for (var entry : chunk.responses().entrySet()) {
+        var response = entry.getValue();
+        for (var attempt = 1; !response.get().content().readBoolean(); attempt++) {
+          if (attempt >= MAX_CHUNK_SEND_ATTEMPTS) {
+            throw new IllegalStateException(String.format(
+              "Chunk %d of session %s was not accepted after %d attempts",
+              chunk.chunkIndex(),
+              this.chunkSessionInformation.sessionUniqueId(),
+              attempt));
+          }
+          // the receiver was unable to validate the chunk content, resend it
+          response = this.sendChunk(entry.getKey(), chunk.packet());
+        }
+      }
+    } finally {
+      chunk.packet().content().enableReleasing().release();
+    }
+  }
+
+  /**
+   * Logs the throughput of this session and the average acknowledge latency of the chunks, if acknowledged.
+   *
+   * @param startNanos the nano time when the transfer was started.
+   */
+  protected void logTransferMetrics(long startNanos) {
+    var sessionMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+    var sentBytes = this.sentBytes.sum();
+    var acknowledged = Math.max(1, this.acknowledgedChunks.sum());
+    LOGGER.fine(
+      "Sent chunk session %s (%s): %d bytes with %d streams after %d ms (%.2f MiB/s, %.3f ms avg acknowledge latency)",
+      null,
+      this.chunkSessionInformation.sessionUniqueId(),
+      this.chunkSessionInformation.transferChannel(),
+      sentBytes,
+      this.parallelStreams,
+      sessionMillis,
+      (sentBytes / 1048576D) / (sessionMillis / 1000D),
+      (this.acknowledgeNanos.sum() / (double) acknowledged) / 1_000_000D);
+  }
+
+  /**
+   * A chunk which was sent to the target channels and is waiting to get acknowledged.
+   *
+   * @param chunkIndex the index of the chunk.
+   * @param packet     the packet holding the chunk content, kept to resend the chunk if needed.
+   * @param responses  the pending acknowledgement of each target channel.
+   * @since 4.0
+   */
+  protected record PendingChunk(
+    int chunkIndex,
+    @NonNull Packet packet,
+    @NonNull Map<NetworkChannel, Task<Packet>> responses
+  ) {
+
   }
 }
@@ -17,36 +17,58 @@
 package eu.cloudnetservice.driver.network.chunk.defaults;
 
 import com.google.common.base.Preconditions;
+import eu.cloudnetservice.common.concurrent.Task;
 import eu.cloudnetservice.common.io.FileUtil;
+import eu.cloudnetservice.common.log.LogManager;
+import eu.cloudnetservice.common.log.Logger;
 import eu.cloudnetservice.driver.network.buffer.DataBuf;
 import eu.cloudnetservice.driver.network.chunk.ChunkedPacketHandler;
 import eu.cloudnetservice.driver.network.chunk.TransferStatus;
 import eu.cloudnetservice.driver.network.chunk.data.ChunkSessionInformation;
 import java.io.IOException;
-import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
 import lombok.NonNull;
 import org.jetbrains.annotations.Nullable;
 
 /**
- * Represents a handler for a chunked packet transfer which transfers a file.
+ * Represents a handler for a chunked packet transfer which transfers a file. Each chunk is validated using the crc32c
+ * checksum transferred with it and written to its position in the target file. Chunks which fail the validation are
+ * not counted as received and can be resent by the sender. The file content is only forced to the disk once, when the
+ * last chunk of the transfer was written. The complete handler is called asynchronously afterwards, which allows to
+ * acknowledge the last chunk without waiting for the (possibly slow) processing of the received data.
  *
  * @since 4.0
  */
 public class DefaultFileChunkedPacketHandler extends DefaultChunkedPacketProvider implements ChunkedPacketHandler {
 
+  private static final Logger LOGGER = LogManager.logger(DefaultFileChunkedPacketHandler.class);
+
   protected final Path tempFilePath;
-  protected final RandomAccessFile targetFile;
+  protected final FileChannel targetChannel;
   protected final Callback writeCompleteHandler;
   protected final Lock lock = new ReentrantLock(true);
+  protected final BitSet writtenFileParts = new BitSet();
+  protected final Map<Integer, Integer> writtenPartChecksums = new HashMap<>();
 
-  protected int writtenFileParts = -1;
   protected Integer expectedFileParts;
 
+  // transfer metrics of this session
+  protected final long sessionStartNanos = System.nanoTime();
+  protected long writtenBytes;
+  protected long chunkWriteNanos;
+
   /**
    * Creates the session handler initially. Sessions should be manged by some sort of handler which is responsible for
    * handling incoming chunk parts as well.
@@ -81,16 +103,11 @@ public DefaultFileChunkedPacketHandler(
     // general information
     this.tempFilePath = tempFilePath;
     this.writeCompleteHandler = completeHandler;
-    // open the temp file raf access
+    // open the channel to the temp file, creating it if needed
     try {
-      // create the file
-      if (Files.notExists(tempFilePath)) {
-        Files.createFile(tempFilePath);
-      }
-      // open the file
-      this.targetFile = new RandomAccessFile(this.tempFilePath.toFile(), "rwd");
+      this.targetChannel = FileChannel.open(tempFilePath, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
     } catch (IOException exception) {
-      throw new AssertionError("Unable to open raf to temp file, this should not happen", exception);
+      throw new AssertionError("Unable to open channel to temp file, this should not happen", exception);
     }
   }
 
@@ -107,31 +124,36 @@ public boolean handleChunkPart(int chunkPosition, @NonNull DataBuf dataBuf) {
     Preconditions.checkState(this.transferStatus == TransferStatus.RUNNING, "Received transfer part after success");
     // extract some information from the body
     var isFinalPacket = dataBuf.readBoolean();
-    if (isFinalPacket) {
-      this.expectedFileParts = dataBuf.readInt();
-    }
+    var expectedParts = isFinalPacket ? dataBuf.readInt() : null;
+    var expectedChecksum = dataBuf.readInt();
     // execute the write operation with the content of the packet
     try {
       // we can only perform one write operation at a time
       this.lock.lock();
-      // execute
-      this.writePacketContent(chunkPosition, dataBuf);
+      // execute, only count the chunk if the content matches the checksum
+      if (!this.writePacketContent(chunkPosition, dataBuf, expectedChecksum)) {
+        throw new IllegalStateException(String.format(
+          "Checksum mismatch of chunk %d in session %s",
+          chunkPosition,
+          this.chunkSessionInformation.sessionUniqueId()));
+      }
+      // only take the expected part count after the final chunk was written successfully
+      if (expectedParts != null) {
+        this.expectedFileParts = expectedParts;
+      }
       // update the data transfer status
       this.updateStatus();
       // check if the expected ending is reached
       if (this.transferStatus == TransferStatus.SUCCESS) {
-        // the file was written completely
-        this.targetFile.close();
-        // post the result to the complete handler
-        if (this.writeCompleteHandler == null) {
-          // no handler - will be handled otherwise
-          return true;
-        }
-        // delete the file after posting
-        try (var inputStream = Files.newInputStream(this.tempFilePath, StandardOpenOption.DELETE_ON_CLOSE)) {
-          this.writeCompleteHandler.handleSessionComplete(this.chunkSessionInformation, inputStream);
-          return true;
+        // the file was written completely, flush the content to the disk once and close it
+        this.targetChannel.force(false);
+        this.targetChannel.close();
+        this.logTransferMetrics();
+        // post the result to the complete handler, if there is no handler the completion will be handled otherwise
+        if (this.writeCompleteHandler != null) {
+          Task.supply(this::postSessionComplete);
         }
+        return true;
       }
       // not completed yet
       return false;
@@ -143,6 +165,89 @@ public boolean handleChunkPart(int chunkPosition, @NonNull DataBuf dataBuf) {
     }
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int acknowledgedChunks() {
+    try {
+      this.lock.lock();
+      return this.writtenFileParts.nextClearBit(0);
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int @NonNull [] acknowledgedChecksums() {
+    try {
+      this.lock.lock();
+      var checksums = new int[this.writtenFileParts.nextClearBit(0)];
+      for (var index = 0; index < checksums.length; index++) {
+        checksums[index] = this.writtenPartChecksums.get(index);
+      }
+      return checksums;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void resumeAt(int chunkIndex) {
+    try {
+      this.lock.lock();
+      if (this.transferStatus == TransferStatus.RUNNING) {
+        // forget about all chunks which will be sent again, the final chunk will be sent again as well
+        this.writtenFileParts.clear(Math.max(0, chunkIndex), Integer.MAX_VALUE);
+        this.writtenPartChecksums.keySet().removeIf(index -> index >= chunkIndex);
+        this.expectedFileParts = null;
+      }
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void cancel() {
+    try {
+      this.lock.lock();
+      // only cancel sessions which are still running, completed sessions are cleaned up by their completion
+      if (this.transferStatus == TransferStatus.RUNNING) {
+        this.transferStatus = TransferStatus.FAILURE;
+        this.targetChannel.close();
+        Files.deleteIfExists(this.tempFilePath);
+      }
+    } catch (IOException exception) {
+      LOGGER.fine("Unable to clean up cancelled chunk session %s", exception, this.chunkSessionInformation);
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * Posts the completely received file to the complete handler of this session and deletes the file afterwards.
+   */
+  protected void postSessionComplete() {
+    try (var inputStream = Files.newInputStream(this.tempFilePath, StandardOpenOption.DELETE_ON_CLOSE)) {
+      this.writeCompleteHandler.handleSessionComplete(this.chunkSessionInformation, inputStream);
+    } catch (Exception exception) {
+      LOGGER.severe(
+        "Exception while completing chunk session %s (%s)",
+        exception,
+        this.chunkSessionInformation.sessionUniqueId(),
+        this.chunkSessionInformation.transferChannel());
+    }
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -152,22 +257,39 @@ public boolean handleChunkPart(int chunkPosition, @NonNull DataBuf dataBuf) {
   }
 
   /**
-   * Writes the content of a chunk part to the backing file, increasing the amount of written bytes by one.
+   * Writes the content of a chunk part to its position in the backing file, marking the chunk as written if the content
+   * matches the given checksum. The content is transferred directly from the buffer into the file, without copying it
+   * into an intermediate array first.
    *
-   * @param chunkPosition the index of the chunk to write.
-   * @param dataBuf       the buf transferred to this handler, the next content should be the actual chunk data.
+   * @param chunkPosition    the index of the chunk to write.
+   * @param dataBuf          the buf transferred to this handler, the next content should be the actual chunk data.
+   * @param expectedChecksum the crc32c checksum of the chunk content sent by the other component.
+   * @return true if the written content matched the expected checksum, false otherwise.
    * @throws IOException          if an i/o error occurs during the chunk write.
    * @throws NullPointerException if the given buffer is null.
    */
-  protected void writePacketContent(int chunkPosition, @NonNull DataBuf dataBuf) throws IOException {
-    // calculate the index of to which we need to sink in order to write
-    var targetIndex = chunkPosition * this.chunkSessionInformation.chunkSize();
-    // sink to the index of the chunk position we need to write to
-    this.targetFile.seek(targetIndex);
-    // write the content into the file at the current offset we sunk to
-    this.targetFile.write(dataBuf.readByteArray());
+  protected boolean writePacketContent(int chunkPosition, @NonNull DataBuf dataBuf, int expectedChecksum)
+    throws IOException {
+    var writeStart = System.nanoTime();
+    // calculate the index of to which we need to write the chunk content
+    var targetIndex = (long) chunkPosition * this.chunkSessionInformation.chunkSize();
+    var target = new ChecksumPositionalChannel(this.targetChannel, targetIndex);
+    // transfer the content of the chunk into the file
+    var written = dataBuf.readByteArray(target);
+    if ((int) target.checksum.getValue() != expectedChecksum) {
+      // the content at the chunk position was overwritten, the chunk must be received again
+      this.writtenFileParts.clear(chunkPosition);
+      this.writtenPartChecksums.remove(chunkPosition);
+      return false;
+    }
     // notify our index about the write operation
-    this.writtenFileParts++;
+    this.writtenPartChecksums.put(chunkPosition, expectedChecksum);
+    if (!this.writtenFileParts.get(chunkPosition)) {
+      this.writtenFileParts.set(chunkPosition);
+      this.writtenBytes += written;
+      this.chunkWriteNanos += System.nanoTime() - writeStart;
+    }
+    return true;
   }
 
   /**
@@ -175,16 +297,92 @@ protected void writePacketContent(int chunkPosition, @NonNull DataBuf dataBuf) t
    * <ol>
    *   <li>The current status is {@code RUNNING}.
    *   <li>The amount of chunk parts of the transfer is known.
-   *   <li>The amount of written chunk parts matches the amount of expected chunk parts.
+   *   <li>All chunks up to the last chunk of the transfer were written.
    * </ol>
    */
   protected void updateStatus() {
     // we only need to update the status when the transfer is running but the whole content was written
     if (this.transferStatus == TransferStatus.RUNNING
       && this.expectedFileParts != null
-      && this.expectedFileParts == this.writtenFileParts
+      && this.writtenFileParts.nextClearBit(0) > this.expectedFileParts
     ) {
       this.transferStatus = TransferStatus.SUCCESS;
     }
   }
+
+  /**
+   * Logs the throughput and the average write latency of the chunks in this session.
+   */
+  protected void logTransferMetrics() {
+    var sessionMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - this.sessionStartNanos));
+    var chunks = Math.max(1, this.writtenFileParts.cardinality());
+    LOGGER.fine(
+      "Received chunk session %s (%s): %d bytes in %d chunks after %d ms (%.2f MiB/s, %.3f ms avg chunk write)",
+      null,
+      this.chunkSessionInformation.sessionUniqueId(),
+      this.chunkSessionInformation.transferChannel(),
+      this.writtenBytes,
+      chunks,
+      sessionMillis,
+      (this.writtenBytes / 1048576D) / (sessionMillis / 1000D),
+      (this.chunkWriteNanos / (double) chunks) / 1_000_000D);
+  }
+
+  /**
+   * A channel which writes all content to a fixed position in a file channel, while updating a checksum of the content.
+   *
+   * @since 4.0
+   */
+  protected static final class ChecksumPositionalChannel implements WritableByteChannel {
+
+    private final FileChannel target;
+    private final CRC32C checksum = new CRC32C();
+
+    private long position;
+
+    /**
+     * Constructs a new positional channel.
+     *
+     * @param target   the file channel to write to.
+     * @param position the position in the file to start writing at.
+     * @throws NullPointerException if the given target channel is null.
+     */
+    private ChecksumPositionalChannel(@NonNull FileChannel target, long position) {
+      this.target = target;
+      this.position = position;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int write(@NonNull ByteBuffer src) throws IOException {
+      // update the checksum with a view of the buffer, the position of the source buffer is moved by the write
+      this.checksum.update(src.duplicate());
+
+      var written = 0;
+      while (src.hasRemaining()) {
+        var bytes = this.target.write(src, this.position);
+        this.position += bytes;
+        written += bytes;
+      }
+      return written;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isOpen() {
+      return this.target.isOpen();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() {
+      // the target channel is managed by the handler
+    }
+  }
 }
@@ -44,10 +44,13 @@ public abstract class DefaultChunkedPacketSenderBuilder implements ChunkedPacket
   protected InputStream source;
   protected String transferChannel;
   protected Consumer<Packet> packetSplitter;
+  protected Collection<NetworkChannel> targetChannels;
 
   protected int chunkSize = DEFAULT_CHUNK_SIZE;
+  protected int acknowledgeWindow = 0;
+  protected int parallelStreams = 1;
   protected UUID sessionUniqueId = UUID.randomUUID();
-  protected DataBuf transferInformation = DataBuf.empty();
+  protected DataBuf transferInformation = DataBuf.empty().disableReleasing();
 
   /**
    * {@inheritDoc}
@@ -98,7 +101,9 @@ public abstract class DefaultChunkedPacketSenderBuilder implements ChunkedPacket
    */
   @Override
   public @NonNull ChunkedPacketSender.Builder toChannels(@NonNull Collection<NetworkChannel> channels) {
-    return this.packetSplitter(new NetworkChannelsPacketSplitter(channels));
+    this.packetSplitter(new NetworkChannelsPacketSplitter(channels));
+    this.targetChannels = channels;
+    return this;
   }
 
   /**
@@ -107,6 +112,25 @@ public abstract class DefaultChunkedPacketSenderBuilder implements ChunkedPacket
   @Override
   public @NonNull ChunkedPacketSender.Builder packetSplitter(@NonNull Consumer<Packet> splitter) {
     this.packetSplitter = splitter;
+    this.targetChannels = null;
+    return this;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public @NonNull ChunkedPacketSender.Builder acknowledgeWindow(int acknowledgeWindow) {
+    this.acknowledgeWindow = acknowledgeWindow;
+    return this;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public @NonNull ChunkedPacketSender.Builder parallelStreams(int parallelStreams) {
+    this.parallelStreams = parallelStreams;
     return this;
   }
 
@@ -129,6 +153,10 @@ public abstract class DefaultChunkedPacketSenderBuilder implements ChunkedPacket
     Preconditions.checkNotNull(this.transferChannel, "no transfer channel provided");
     Preconditions.checkNotNull(this.sessionUniqueId, "no session unique id provided");
     Preconditions.checkArgument(this.chunkSize > 0, "chunk size must be more than 0");
+    Preconditions.checkArgument(this.parallelStreams > 0, "parallel streams must be more than 0");
+    Preconditions.checkState(
+      this.acknowledgeWindow <= 0 || this.targetChannels != null,
+      "acknowledged transfers require target channels");
 
     return this.doBuild();
   }
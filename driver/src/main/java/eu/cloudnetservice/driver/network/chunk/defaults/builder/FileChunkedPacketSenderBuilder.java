@@ -20,6 +20,7 @@
 import eu.cloudnetservice.driver.network.chunk.data.ChunkSessionInformation;
 import eu.cloudnetservice.driver.network.chunk.defaults.DefaultFileChunkPacketSender;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import lombok.NonNull;
@@ -33,8 +34,11 @@
  */
 public class FileChunkedPacketSenderBuilder extends DefaultChunkedPacketSenderBuilder {
 
+  protected Path sourceFile;
+
   /**
-   * Sets the file to transfer in the session. The file path must exist.
+   * Sets the file to transfer in the session. The file path must exist. Parallel streams read their chunks directly
+   * from the given file.
    *
    * @param path the path to the file to transfer.
    * @return the same builder instance as used to call the method, for chaining.
@@ -44,22 +48,39 @@ public class FileChunkedPacketSenderBuilder extends DefaultChunkedPacketSenderBu
   public @NonNull FileChunkedPacketSenderBuilder forFile(@NonNull Path path) {
     try {
       this.source(Files.newInputStream(path));
+      this.sourceFile = path;
       return this;
     } catch (IOException exception) {
       throw new AssertionError("Unexpected exception opening file stream", exception);
     }
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public @NonNull ChunkedPacketSender.Builder source(@NonNull InputStream source) {
+    this.sourceFile = null;
+    return super.source(source);
+  }
+
   /**
    * {@inheritDoc}
    */
   @Override
   protected @NonNull ChunkedPacketSender doBuild() {
-    return new DefaultFileChunkPacketSender(new ChunkSessionInformation(
+    var sessionInformation = new ChunkSessionInformation(
       this.chunkSize,
       this.sessionUniqueId,
       this.transferChannel,
-      this.transferInformation
-    ), this.source, this.packetSplitter);
+      this.transferInformation);
+    return new DefaultFileChunkPacketSender(
+      sessionInformation,
+      this.source,
+      this.sourceFile,
+      this.packetSplitter,
+      this.targetChannels,
+      this.acknowledgeWindow,
+      this.parallelStreams);
   }
 }
@@ -20,6 +20,7 @@
 import eu.cloudnetservice.driver.network.chunk.data.ChunkSessionInformation;
 import eu.cloudnetservice.driver.network.def.NetworkConstants;
 import eu.cloudnetservice.driver.network.protocol.BasePacket;
+import java.util.zip.CRC32C;
 import lombok.NonNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -31,6 +32,15 @@
  */
 public class ChunkedPacket extends BasePacket {
 
+  /**
+   * The chunk index which is used to request the acknowledged chunks of a session rather than transferring a chunk.
+   */
+  public static final int SESSION_STATUS_INDEX = -1;
+  /**
+   * The chunk index which is used to tell the receiver from which chunk on the sender resumes the transfer.
+   */
+  public static final int SESSION_RESUME_INDEX = -2;
+
   /**
    * Creates a new chunk part. The given buffer must contain all needed information for the receiver.
    * <p>
@@ -95,7 +105,44 @@ public ChunkedPacket(@NonNull DataBuf dataBuf) {
     if (chunkAmount != null) {
       dataBuf.writeInt(chunkAmount);
     }
+    // write the checksum of the chunk content, allowing the receiver to validate the content
+    var checksum = new CRC32C();
+    checksum.update(data, 0, dataLength);
+    dataBuf.writeInt((int) checksum.getValue());
     // write the actual content of the chunk
     return new ChunkedPacket(dataBuf.writeByteArray(data, dataLength));
   }
+
+  /**
+   * Creates a packet which requests the status of the given chunk session from the receiver. The receiver responds
+   * with if the session is known and the checksums of the chunks which were received in order, starting from the first
+   * chunk. This allows a sender to resume a transfer which was interrupted, for example by a dropped connection, after
+   * verifying that the chunks already received match the content it would send.
+   *
+   * @param information the session information to request the status of.
+   * @return the created status request packet.
+   * @throws NullPointerException if the given chunk information is null.
+   */
+  public static @NonNull ChunkedPacket createSessionStatusRequest(@NonNull ChunkSessionInformation information) {
+    return new ChunkedPacket(DataBuf.empty().writeObject(information).writeInt(SESSION_STATUS_INDEX));
+  }
+
+  /**
+   * Creates a packet which tells the receiver that the sender resumes the given chunk session at the given chunk index.
+   * The receiver discards all chunks it received at or after the given index, as they will be sent again.
+   *
+   * @param information the session information of the session to resume.
+   * @param resumeIndex the index of the first chunk that will be sent again.
+   * @return the created resume request packet.
+   * @throws NullPointerException if the given chunk information is null.
+   */
+  public static @NonNull ChunkedPacket createSessionResumeRequest(
+    @NonNull ChunkSessionInformation information,
+    int resumeIndex
+  ) {
+    return new ChunkedPacket(DataBuf.empty()
+      .writeObject(information)
+      .writeInt(SESSION_RESUME_INDEX)
+      .writeInt(resumeIndex));
+  }
 }
@@ -17,14 +17,19 @@
 package eu.cloudnetservice.driver.network.chunk.network;
 
 import eu.cloudnetservice.driver.network.NetworkChannel;
+import eu.cloudnetservice.driver.network.buffer.DataBuf;
 import eu.cloudnetservice.driver.network.chunk.ChunkedPacketHandler;
+import eu.cloudnetservice.driver.network.chunk.TransferStatus;
 import eu.cloudnetservice.driver.network.chunk.data.ChunkSessionInformation;
 import eu.cloudnetservice.driver.network.protocol.Packet;
 import eu.cloudnetservice.driver.network.protocol.PacketListener;
+import java.time.Duration;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * A listener for chunked packets, opening the chunked pocket sessions.
@@ -33,8 +38,13 @@
  */
 public class ChunkedPacketListener implements PacketListener {
 
+  private static final long COMPLETED_SESSION_RETENTION_NANOS = TimeUnit.MILLISECONDS.toNanos(
+    Long.getLong("cloudnet.chunk.completed-session-retention", 60_000));
+
   private final Function<ChunkSessionInformation, ChunkedPacketHandler> handlerFactory;
   private final Map<ChunkSessionInformation, ChunkedPacketHandler> runningSessions = new ConcurrentHashMap<>();
+  private final Map<ChunkSessionInformation, Long> lastSessionActivity = new ConcurrentHashMap<>();
+  private final Map<ChunkSessionInformation, CompletedSession> completedSessions = new ConcurrentHashMap<>();
 
   /**
    * Creates a new packet listener instance.
@@ -55,12 +65,163 @@ public void handle(@NonNull NetworkChannel channel, @NonNull Packet packet) thro
     var information = packet.content().readObject(ChunkSessionInformation.class);
     // read the chunk index
     var chunkIndex = packet.content().readInt();
-    // get or create the session associated with the packet
-    var handler = this.runningSessions.computeIfAbsent(information, this.handlerFactory);
-    // post the packet and check if the session is done
-    if (handler.handleChunkPart(chunkIndex, packet.content())) {
-      // done, remove the session
-      this.runningSessions.remove(information);
+    // check if the sender requests the status of the session to resume it
+    if (chunkIndex == ChunkedPacket.SESSION_STATUS_INDEX) {
+      var handler = this.runningSessions.get(information);
+      if (handler == null) {
+        var completed = this.completedSessions.get(information);
+        handler = completed == null ? null : completed.handler();
+      }
+      this.respondSessionStatus(channel, packet, handler);
+      return;
+    }
+    // check if the sender resumes the session, discarding the chunks which will be sent again
+    if (chunkIndex == ChunkedPacket.SESSION_RESUME_INDEX) {
+      var handler = this.runningSessions.get(information);
+      if (handler != null) {
+        handler.resumeAt(packet.content().readInt());
+        this.lastSessionActivity.put(information, System.nanoTime());
+        this.respond(channel, packet, true, handler.acknowledgedChunks());
+      } else {
+        // the session might have completed already, there is nothing to resume then
+        var completed = this.completedSessions.get(information);
+        this.respond(
+          channel,
+          packet,
+          completed != null && completed.accepted(),
+          completed == null ? 0 : completed.handler().acknowledgedChunks());
+      }
+      return;
+    }
+    // get or create the session associated with the packet, unless the session already completed. Completed sessions
+    // are registered before they get removed from the running ones, therefore no new session is created for them
+    var handler = this.runningSessions.computeIfAbsent(
+      information,
+      info -> this.completedSessions.containsKey(info) ? null : this.handlerFactory.apply(info));
+    if (handler == null) {
+      // a chunk of a completed session was sent again, for example because the acknowledgement got lost
+      var completed = this.completedSessions.get(information);
+      if (completed != null) {
+        this.respond(channel, packet, completed.accepted(), completed.handler().acknowledgedChunks());
+      } else {
+        // the session expired in the meantime, let the sender retry to start a new session
+        this.respond(channel, packet, false, 0);
+      }
+      return;
+    }
+
+    this.lastSessionActivity.put(information, System.nanoTime());
+    try {
+      // post the packet and check if the session is done
+      if (handler.handleChunkPart(chunkIndex, packet.content())) {
+        // done, remember the session for a short time to answer chunks which are sent again, then remove it
+        var accepted = handler.transferStatus() != TransferStatus.FAILURE;
+        this.completedSessions.put(information, new CompletedSession(handler, accepted, System.nanoTime()));
+        this.runningSessions.remove(information);
+        this.lastSessionActivity.remove(information);
+        this.expireCompletedSessions();
+      }
+      var accepted = handler.transferStatus() != TransferStatus.FAILURE;
+      this.respond(channel, packet, accepted, handler.acknowledgedChunks());
+    } catch (Exception exception) {
+      // tell the sender to resend the chunk if it expects an acknowledgement, rethrow otherwise
+      if (packet.uniqueId() == null) {
+        throw exception;
+      }
+      this.respond(channel, packet, false, handler.acknowledgedChunks());
+    }
+  }
+
+  /**
+   * Cancels and removes all sessions which did not receive a packet for the given duration, releasing the resources
+   * (for example open files) held by them. A sender which comes back after that will start the transfer from the
+   * beginning.
+   *
+   * @param maxIdleTime the time a session may be idle before it gets cancelled.
+   * @throws NullPointerException if the given idle time is null.
+   */
+  public void expireIdleSessions(@NonNull Duration maxIdleTime) {
+    this.expireCompletedSessions();
+
+    var now = System.nanoTime();
+    for (var entry : this.lastSessionActivity.entrySet()) {
+      var idle = now - entry.getValue() > maxIdleTime.toNanos();
+      // only remove the session if there was no activity in the meantime
+      if (idle && this.lastSessionActivity.remove(entry.getKey(), entry.getValue())) {
+        var handler = this.runningSessions.remove(entry.getKey());
+        if (handler != null) {
+          handler.cancel();
+        }
+      }
     }
   }
+
+  /**
+   * Removes all completed sessions which were completed longer ago than the retention time of completed sessions. A
+   * chunk of a session which is sent after that starts a new session.
+   */
+  private void expireCompletedSessions() {
+    var now = System.nanoTime();
+    this.completedSessions.values()
+      .removeIf(session -> now - session.completedAt() > COMPLETED_SESSION_RETENTION_NANOS);
+  }
+
+  /**
+   * Get the amount of sessions which are currently running.
+   *
+   * @return the amount of sessions which are currently running.
+   */
+  public int runningSessionCount() {
+    return this.runningSessions.size();
+  }
+
+  /**
+   * Responds to a session status request with if the session is known and the checksums of the chunks the session
+   * received in order, starting from the first chunk.
+   *
+   * @param channel the channel the status request was received from.
+   * @param packet  the status request packet to respond to.
+   * @param handler the handler of the requested session, null if the session is unknown.
+   * @throws NullPointerException if the given channel or packet is null.
+   */
+  private void respondSessionStatus(
+    @NonNull NetworkChannel channel,
+    @NonNull Packet packet,
+    @Nullable ChunkedPacketHandler handler
+  ) {
+    var checksums = handler == null ? new int[0] : handler.acknowledgedChecksums();
+    var response = DataBuf.empty().writeBoolean(handler != null).writeInt(checksums.length);
+    for (var checksum : checksums) {
+      response.writeInt(checksum);
+    }
+    channel.sendPacket(packet.constructResponse(response));
+  }
+
+  /**
+   * Responds to the given chunk packet if the sender expects an acknowledgement of it. The response contains if the
+   * chunk was accepted and the amount of chunks which were received without a gap, starting from the first chunk.
+   *
+   * @param channel      the channel the chunk packet was received from.
+   * @param packet       the chunk packet to respond to.
+   * @param accepted     if the chunk was written and validated successfully.
+   * @param acknowledged the amount of chunks the session received in order.
+   * @throws NullPointerException if the given channel or packet is null.
+   */
+  private void respond(@NonNull NetworkChannel channel, @NonNull Packet packet, boolean accepted, int acknowledged) {
+    if (packet.uniqueId() != null) {
+      channel.sendPacket(packet.constructResponse(DataBuf.empty().writeBoolean(accepted).writeInt(acknowledged)));
+    }
+  }
+
+  /**
+   * A session which completed recently. Chunks of the session which are sent again, for example because the sender did
+   * not receive the acknowledgement of them, are answered based on it rather than opening a new session.
+   *
+   * @param handler     the handler of the completed session.
+   * @param accepted    if the session completed successfully.
+   * @param completedAt the nano time at which the session completed.
+   */
+  private record CompletedSession(@NonNull ChunkedPacketHandler handler, boolean accepted, long completedAt) {
+
+  }
 }
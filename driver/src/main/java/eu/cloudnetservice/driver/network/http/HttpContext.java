@@ -19,6 +19,7 @@
 import eu.cloudnetservice.common.concurrent.Task;
 import eu.cloudnetservice.driver.network.http.websocket.WebSocketChannel;
 import java.util.Collection;
+import java.util.concurrent.CompletionStage;
 import lombok.NonNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -110,6 +111,18 @@ public interface HttpContext {
    */
   @NonNull HttpContext cancelNext(boolean cancelNext);
 
+  /**
+   * Defers the further processing of the request until the given stage completes. When the current handler returns,
+   * the next handlers in the chain are not called and no response is sent to the client until the given stage is done.
+   * If the stage completes exceptionally, the exception is handled the same way as if it was thrown by the handler.
+   * Only one stage can be deferred to per handler call, setting a new stage replaces the previous one.
+   *
+   * @param stage the stage to wait for before continuing the request processing.
+   * @return the same context as used to call the method, for chaining.
+   * @throws NullPointerException if the given stage is null.
+   */
+  @NonNull HttpContext deferUntil(@NonNull CompletionStage<?> stage);
+
   /**
    * Get the http component which received the request wrapped by this context.
    *
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2019-2023 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package eu.cloudnetservice.driver.network.http;
+
+/**
+ * The policies which define on which thread a http handler gets called.
+ *
+ * @see HttpHandler#executionPolicy(HttpExecutionPolicy)
+ * @since 4.0
+ */
+public enum HttpExecutionPolicy {
+
+  /**
+   * The handler is called directly on the network thread which received the request. This policy should only be used
+   * for handlers which are never blocking, as all other connections handled by the same thread have to wait for the
+   * handler to complete.
+   */
+  INLINE,
+  /**
+   * The handler is called on a separate, bounded executor dedicated to blocking http handlers. Use this policy for
+   * handlers which are for example accessing a database or the file system. If the executor has no capacity left the
+   * request is answered with {@code 503 Service Unavailable}.
+   */
+  BLOCKING
+}
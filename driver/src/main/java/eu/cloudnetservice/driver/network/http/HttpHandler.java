@@ -39,6 +39,10 @@ public abstract class HttpHandler {
 
   private final Deque<HttpContextPreprocessor> preprocessors = new LinkedList<>();
 
+  private volatile HttpExecutionPolicy executionPolicy = HttpExecutionPolicy.INLINE;
+  private volatile long maxRequestBodySize = -1;
+  private volatile boolean streamRequestBody = false;
+
   /**
    * Adds a preprocessor which is applied to the context before calling this handler. The pre-processors are called in
    * the order they were added, using this method the handler is put at the head of the listeners, meaning that all
@@ -77,6 +81,78 @@ public abstract class HttpHandler {
     return Collections.unmodifiableCollection(this.preprocessors);
   }
 
+  /**
+   * Gets the execution policy of this handler, which defines on which thread this handler and its preprocessors are
+   * called. Defaults to {@link HttpExecutionPolicy#INLINE}.
+   *
+   * @return the execution policy of this handler.
+   */
+  public @NonNull HttpExecutionPolicy executionPolicy() {
+    return this.executionPolicy;
+  }
+
+  /**
+   * Sets the execution policy of this handler, which defines on which thread this handler and its preprocessors are
+   * called. Handlers which are doing blocking operations should use {@link HttpExecutionPolicy#BLOCKING} in order to
+   * not stall other connections.
+   *
+   * @param executionPolicy the new execution policy of this handler.
+   * @return the same instance as used to call the method, for chaining.
+   * @throws NullPointerException if the given execution policy is null.
+   */
+  public @NonNull HttpHandler executionPolicy(@NonNull HttpExecutionPolicy executionPolicy) {
+    this.executionPolicy = executionPolicy;
+    return this;
+  }
+
+  /**
+   * Gets the maximum size in bytes of request bodies accepted by this handler, or -1 if the default limit of the http
+   * server should be used. Requests with bodies exceeding the limit are answered with {@code 413 Payload Too Large}.
+   * If multiple handlers are matching a request, the highest limit of them is applied.
+   *
+   * @return the maximum request body size accepted by this handler, -1 to use the default of the server.
+   */
+  public long maxRequestBodySize() {
+    return this.maxRequestBodySize;
+  }
+
+  /**
+   * Sets the maximum size in bytes of request bodies accepted by this handler, -1 to use the default limit of the http
+   * server. For handlers which are not streaming the request body, the limit is capped to the maximum size of a
+   * buffer. For streaming handlers no limit is applied by default.
+   *
+   * @param maxRequestBodySize the maximum request body size accepted by this handler, -1 to use the default.
+   * @return the same instance as used to call the method, for chaining.
+   */
+  public @NonNull HttpHandler maxRequestBodySize(long maxRequestBodySize) {
+    this.maxRequestBodySize = maxRequestBodySize;
+    return this;
+  }
+
+  /**
+   * Gets if this handler streams the request body rather than waiting for the full body to be received. If enabled,
+   * the handler is called as soon as the request headers were received and the body is provided chunk by chunk through
+   * the body stream of the request. Streaming handlers are always called off the network threads.
+   *
+   * @return true if this handler streams the request body, false otherwise.
+   */
+  public boolean streamRequestBody() {
+    return this.streamRequestBody;
+  }
+
+  /**
+   * Sets if this handler streams the request body rather than waiting for the full body to be received. Handlers which
+   * are accepting large request bodies, for example file uploads, should stream the body in order to not buffer the
+   * full request in memory.
+   *
+   * @param streamRequestBody if this handler should stream the request body.
+   * @return the same instance as used to call the method, for chaining.
+   */
+  public @NonNull HttpHandler streamRequestBody(boolean streamRequestBody) {
+    this.streamRequestBody = streamRequestBody;
+    return this;
+  }
+
   /**
    * Handles a http request whose path (and other supplied attributes) while registering is matching the requested path
    * of the client. A request is only processed by one handler at a time, giving the handler full control about changing
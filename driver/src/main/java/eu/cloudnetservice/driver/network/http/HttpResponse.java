@@ -16,7 +16,9 @@
 
 package eu.cloudnetservice.driver.network.http;
 
+import java.nio.file.Path;
 import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Represents a response http message transferred from a server to a client.
@@ -42,4 +44,21 @@ public interface HttpResponse extends HttpMessage<HttpResponse> {
    * @throws NullPointerException if the given response code is null.
    */
   @NonNull HttpResponse status(@NonNull HttpResponseCode code);
+
+  /**
+   * Gets the file which is used as the body of this response, null if no file body was set.
+   *
+   * @return the file used as the body of this response, null if no file body was set.
+   */
+  @Nullable Path bodyFile();
+
+  /**
+   * Sets the body of this response to the content of the given file. The file content is transferred directly from
+   * the file system to the client where possible, without copying it into memory first. A file body takes precedence
+   * over all other bodies set in this response.
+   *
+   * @param file the file to send as the body of this response, null to remove the file body.
+   * @return the same instance as used to call the method, for chaining.
+   */
+  @NonNull HttpResponse body(@Nullable Path file);
 }
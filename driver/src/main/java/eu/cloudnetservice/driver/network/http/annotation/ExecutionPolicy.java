@@ -0,0 +1,46 @@
+/*
+ * Copyright 2019-2023 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package eu.cloudnetservice.driver.network.http.annotation;
+
+import eu.cloudnetservice.driver.network.http.HttpExecutionPolicy;
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import lombok.NonNull;
+
+/**
+ * Sets the execution policy of a http request handler method. If this annotation is present on a class, all handler
+ * methods in it are using the given execution policy unless overridden by an annotation on the method itself. Handler
+ * methods without this annotation are using {@link HttpExecutionPolicy#INLINE}.
+ *
+ * @since 4.0
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface ExecutionPolicy {
+
+  /**
+   * Get the execution policy to use for the annotated handler methods.
+   *
+   * @return the execution policy of the annotated handler methods.
+   */
+  @NonNull HttpExecutionPolicy value();
+}
@@ -26,7 +26,8 @@
 
 /**
  * Represents a method which can handle http requests sent to one of the provided paths using and request methods. The
- * first parameter of an annotated method must (and will) be the request HttpContext.
+ * first parameter of an annotated method must (and will) be the request HttpContext. If an annotated method returns a
+ * {@link java.util.concurrent.CompletionStage}, the request is completed asynchronously once the returned stage is done.
  *
  * @since 4.0
  */
@@ -62,4 +63,22 @@
    * @return the port this handler is listening to.
    */
   int port() default -1;
+
+  /**
+   * Get the maximum size in bytes of request bodies accepted by the handling method, -1 to use the default limit of the
+   * http server.
+   *
+   * @return the maximum request body size accepted by the handling method.
+   * @see HttpHandler#maxRequestBodySize(long)
+   */
+  long maxBodySize() default -1;
+
+  /**
+   * Get if the handling method streams the request body rather than waiting for the full body to be received. The
+   * body should be injected as an {@link java.io.InputStream} into streaming handling methods.
+   *
+   * @return true if the handling method streams the request body, false otherwise.
+   * @see HttpHandler#streamRequestBody(boolean)
+   */
+  boolean streamBody() default false;
 }
@@ -24,6 +24,7 @@
 import eu.cloudnetservice.driver.network.http.HttpComponent;
 import eu.cloudnetservice.driver.network.http.HttpContext;
 import eu.cloudnetservice.driver.network.http.HttpContextPreprocessor;
+import eu.cloudnetservice.driver.network.http.annotation.ExecutionPolicy;
 import eu.cloudnetservice.driver.network.http.annotation.FirstRequestQueryParam;
 import eu.cloudnetservice.driver.network.http.annotation.HttpRequestHandler;
 import eu.cloudnetservice.driver.network.http.annotation.Optional;
@@ -210,6 +211,16 @@ public DefaultHttpAnnotationParser(@NonNull T component) {
         try {
           // build the http handler
           var handler = new MethodHttpHandlerInvoker(handlerInstance, method, supportedMethods);
+          handler.maxRequestBodySize(annotation.maxBodySize()).streamRequestBody(annotation.streamBody());
+
+          // apply the execution policy, the annotation on the method takes precedence over the one on the class
+          var executionPolicy = method.getAnnotation(ExecutionPolicy.class);
+          if (executionPolicy == null) {
+            executionPolicy = method.getDeclaringClass().getAnnotation(ExecutionPolicy.class);
+          }
+          if (executionPolicy != null) {
+            handler.executionPolicy(executionPolicy.value());
+          }
 
           // add all pre-processing handlers
           for (var processor : this.processors) {
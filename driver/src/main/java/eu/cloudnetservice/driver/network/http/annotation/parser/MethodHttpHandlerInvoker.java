@@ -24,6 +24,7 @@
 import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.util.Collection;
+import java.util.concurrent.CompletionStage;
 import lombok.NonNull;
 
 /**
@@ -83,7 +84,12 @@ public void handle(@NonNull String path, @NonNull HttpContext context) throws Th
     // check if this handler supports the request method, if not just ignore the request
     if (this.supportedMethods.contains(StringUtil.toUpper(context.request().method()))) {
       var arguments = this.buildInvocationArguments(path, context);
-      this.handlerMethod.invoke(this.instance, arguments);
+      var result = this.handlerMethod.invoke(this.instance, arguments);
+
+      // handler methods can return a future to complete the request asynchronously
+      if (result instanceof CompletionStage<?> stage) {
+        context.deferUntil(stage);
+      }
     }
   }
 
@@ -0,0 +1,317 @@
+/*
+ * Copyright 2019-2023 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.driver.network.http.websocket;
+
+import com.google.common.base.Preconditions;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import lombok.NonNull;
+
+/**
+ * Pushes messages to all subscribed web socket channels which are interested in them. Each published message is only
+ * serialized once, regardless of the amount of subscribers it is sent to. Messages which are published for the same
+ * subscriber in a short time frame are coalesced: if there are multiple messages with the same key, only the latest
+ * one is sent to the subscriber. Messages without a key are never coalesced.
+ * <p>
+ * Pending messages are only sent while the channel of a subscriber is writable. If a subscriber does not keep up with
+ * the published messages, the subscription is cancelled and the channel is closed, as the subscriber would otherwise
+ * miss messages.
+ *
+ * @param <T> the type of messages which are published through this broadcaster.
+ * @since 4.0
+ */
+public final class WebSocketBroadcaster<T> {
+
+  /**
+   * The default maximum amount of messages which are waiting to be sent to a single subscriber.
+   */
+  public static final int DEFAULT_MAX_PENDING_MESSAGES = 1024;
+
+  // the close status code indicating that the subscriber should reconnect later
+  private static final int TRY_AGAIN_LATER_STATUS = 1013;
+
+  private final int maxPendingMessages;
+  private final long coalesceWindowMillis;
+  private final Function<T, Object> keyExtractor;
+  private final Function<T, String> serializer;
+  private final ScheduledExecutorService flushExecutor;
+
+  private final Collection<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Constructs a new web socket broadcaster instance, allowing {@link #DEFAULT_MAX_PENDING_MESSAGES} pending messages
+   * per subscriber.
+   *
+   * @param keyExtractor   the function to extract the key of a message, messages with equal keys are coalesced.
+   *                       Messages for which the function returns null are never coalesced.
+   * @param serializer     the function to serialize a message to the text which is sent to the subscribers.
+   * @param coalesceWindow the time to wait for other messages before sending a message to a subscriber.
+   * @param flushExecutor  the executor to send the pending messages of the subscribers on.
+   * @throws NullPointerException if one of the given parameters is null.
+   */
+  public WebSocketBroadcaster(
+    @NonNull Function<T, Object> keyExtractor,
+    @NonNull Function<T, String> serializer,
+    @NonNull Duration coalesceWindow,
+    @NonNull ScheduledExecutorService flushExecutor
+  ) {
+    this(keyExtractor, serializer, coalesceWindow, flushExecutor, DEFAULT_MAX_PENDING_MESSAGES);
+  }
+
+  /**
+   * Constructs a new web socket broadcaster instance.
+   *
+   * @param keyExtractor       the function to extract the key of a message, messages with equal keys are coalesced.
+   *                           Messages for which the function returns null are never coalesced.
+   * @param serializer         the function to serialize a message to the text which is sent to the subscribers.
+   * @param coalesceWindow     the time to wait for other messages before sending a message to a subscriber.
+   * @param flushExecutor      the executor to send the pending messages of the subscribers on.
+   * @param maxPendingMessages the maximum amount of messages which are waiting to be sent to a single subscriber.
+   * @throws NullPointerException     if one of the given parameters is null.
+   * @throws IllegalArgumentException if the given maximum amount of pending messages is not positive.
+   */
+  public WebSocketBroadcaster(
+    @NonNull Function<T, Object> keyExtractor,
+    @NonNull Function<T, String> serializer,
+    @NonNull Duration coalesceWindow,
+    @NonNull ScheduledExecutorService flushExecutor,
+    int maxPendingMessages
+  ) {
+    Preconditions.checkArgument(maxPendingMessages > 0, "maxPendingMessages must be positive");
+
+    this.keyExtractor = keyExtractor;
+    this.serializer = serializer;
+    this.flushExecutor = flushExecutor;
+    this.maxPendingMessages = maxPendingMessages;
+    this.coalesceWindowMillis = coalesceWindow.toMillis();
+  }
+
+  /**
+   * Subscribes the given channel to this broadcaster. All messages published after this method call which are
+   * accepted by the given filter are sent to the channel, until either the subscription is cancelled or the channel is
+   * closed.
+   *
+   * @param channel the channel to send the messages to.
+   * @param filter  the filter for the messages the channel is interested in.
+   * @return the subscription of the channel.
+   * @throws NullPointerException if the given channel or filter is null.
+   */
+  public @NonNull Subscription subscribe(@NonNull WebSocketChannel channel, @NonNull Predicate<? super T> filter) {
+    var subscription = new Subscription(channel, filter);
+    this.subscriptions.add(subscription);
+    channel.addListener(subscription);
+    return subscription;
+  }
+
+  /**
+   * Publishes the given message to all subscribers which are accepting the message. The message is not sent directly,
+   * but after the configured coalesce window passed.
+   *
+   * @param message the message to publish.
+   * @throws NullPointerException if the given message is null.
+   */
+  public void publish(@NonNull T message) {
+    Object key = null;
+    byte[] payload = null;
+
+    for (var subscription : this.subscriptions) {
+      if (subscription.filter.test(message)) {
+        // only serialize the message if there is at least one subscriber for it
+        if (payload == null) {
+          // a message without a key gets a key which is not equal to any other key, it is never coalesced
+          key = Objects.requireNonNullElseGet(this.keyExtractor.apply(message), Object::new);
+          payload = this.serializer.apply(message).getBytes(StandardCharsets.UTF_8);
+        }
+
+        subscription.enqueue(key, payload);
+      }
+    }
+  }
+
+  /**
+   * Get the amount of channels which are currently subscribed to this broadcaster.
+   *
+   * @return the amount of subscribed channels.
+   */
+  public int subscriberCount() {
+    return this.subscriptions.size();
+  }
+
+  /**
+   * Cancels all subscriptions to this broadcaster. Pending messages are discarded, the subscribed channels are not
+   * closed.
+   */
+  public void cancelAll() {
+    for (var subscription : this.subscriptions) {
+      subscription.cancel();
+    }
+  }
+
+  /**
+   * The subscription of a web socket channel to a broadcaster.
+   *
+   * @since 4.0
+   */
+  public final class Subscription implements WebSocketListener {
+
+    private final WebSocketChannel channel;
+    private final Predicate<? super T> filter;
+
+    // the messages which are waiting to be sent, in the order they were last published
+    private final Map<Object, byte[]> pendingMessages = new LinkedHashMap<>();
+    private final AtomicInteger coalescedMessages = new AtomicInteger();
+    private final WebSocketFrameFlusher flusher;
+
+    private volatile boolean cancelled;
+
+    /**
+     * Constructs a new subscription instance.
+     *
+     * @param channel the subscribed channel.
+     * @param filter  the filter for the messages the channel is interested in.
+     * @throws NullPointerException if the given channel or filter is null.
+     */
+    private Subscription(@NonNull WebSocketChannel channel, @NonNull Predicate<? super T> filter) {
+      this.channel = channel;
+      this.filter = filter;
+      this.flusher = new WebSocketFrameFlusher(
+        this,
+        channel,
+        WebSocketBroadcaster.this.coalesceWindowMillis,
+        WebSocketBroadcaster.this.flushExecutor,
+        () -> !this.cancelled && !this.pendingMessages.isEmpty(),
+        this::drainPendingMessages,
+        this.pendingMessages::clear);
+    }
+
+    /**
+     * Get the channel which is subscribed.
+     *
+     * @return the subscribed channel.
+     */
+    public @NonNull WebSocketChannel channel() {
+      return this.channel;
+    }
+
+    /**
+     * Get the amount of messages which were not sent to the channel because a newer message with the same key was
+     * published within the coalesce window.
+     *
+     * @return the amount of coalesced messages.
+     */
+    public int coalescedMessages() {
+      return this.coalescedMessages.get();
+    }
+
+    /**
+     * Get if this subscription was cancelled, either explicitly or because the channel was closed.
+     *
+     * @return true if this subscription was cancelled, false otherwise.
+     */
+    public boolean cancelled() {
+      return this.cancelled;
+    }
+
+    /**
+     * Cancels this subscription, no more messages are sent to the channel.
+     */
+    public void cancel() {
+      this.cancelled = true;
+      this.channel.removeListener(this);
+      WebSocketBroadcaster.this.subscriptions.remove(this);
+
+      synchronized (this) {
+        this.pendingMessages.clear();
+      }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void handle(@NonNull WebSocketChannel channel, @NonNull WebSocketFrameType type, byte[] bytes) {
+      // subscribers are not expected to send any data
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void handleClose(
+      @NonNull WebSocketChannel channel,
+      @NonNull AtomicInteger statusCode,
+      @NonNull AtomicReference<String> reasonText
+    ) {
+      this.cancel();
+    }
+
+    /**
+     * Adds the given message to the end of the messages which are waiting to be sent to the channel, replacing a
+     * pending message with the same key. Schedules the sending of the pending messages if not already scheduled. If there are too many
+     * pending messages, the subscription is cancelled and the channel is closed.
+     *
+     * @param key     the key of the message.
+     * @param payload the serialized message.
+     * @throws NullPointerException if the given key or payload is null.
+     */
+    private void enqueue(@NonNull Object key, byte @NonNull [] payload) {
+      synchronized (this) {
+        if (this.cancelled) {
+          return;
+        }
+
+        // remove the replaced message first, the newest message must be sent after all messages published before it
+        if (this.pendingMessages.remove(key) != null) {
+          this.coalescedMessages.incrementAndGet();
+        }
+        this.pendingMessages.put(key, payload);
+
+        if (this.pendingMessages.size() <= WebSocketBroadcaster.this.maxPendingMessages) {
+          this.flusher.scheduleFlush();
+          return;
+        }
+      }
+
+      // the subscriber does not keep up with the published messages, dropping messages would leave it with a stale state
+      this.cancel();
+      this.channel.close(TRY_AGAIN_LATER_STATUS, "Too many pending messages");
+    }
+
+    /**
+     * Removes and returns all messages which are waiting to be sent, in the order they should be sent. This method must
+     * be called while holding the lock of this subscription.
+     *
+     * @return the messages which are waiting to be sent.
+     */
+    private @NonNull List<byte[]> drainPendingMessages() {
+      List<byte[]> messages = List.copyOf(this.pendingMessages.values());
+      this.pendingMessages.clear();
+      return messages;
+    }
+  }
+}
@@ -96,6 +96,14 @@ public interface WebSocketChannel extends AutoCloseable {
    */
   @NonNull WebSocketChannel sendWebSocketFrame(@NonNull WebSocketFrameType webSocketFrameType, byte[] bytes);
 
+  /**
+   * Get if frames sent into this channel are transferred to the recipient directly. If this method returns false, the
+   * recipient is not reading the sent data fast enough and new frames are queued in memory until it catches up.
+   *
+   * @return true if frames can be sent without being queued, false otherwise.
+   */
+  boolean writable();
+
   /**
    * Sends a close frame into this channel and closes the connection to the recipient without waiting for any kind of
    * response. Any listener added to this channel can change the given reason status code and the reason text. The given
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2019-2023 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.driver.network.http.websocket;
+
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+import lombok.NonNull;
+
+/**
+ * Sends the frames collected by a web socket component to a channel after a time window passed. The frames are only
+ * sent while the channel is writable, otherwise they stay pending and the sending is retried after the time window.
+ * <p>
+ * All methods of the frame source, as well as {@link #scheduleFlush()}, are called while holding the lock of the given
+ * owner. The frames themselves are sent without holding the lock.
+ *
+ * @since 4.0
+ */
+final class WebSocketFrameFlusher {
+
+  private final Object owner;
+  private final long windowMillis;
+  private final WebSocketChannel channel;
+  private final ScheduledExecutorService flushExecutor;
+
+  private final BooleanSupplier hasPendingFrames;
+  private final Supplier<List<byte[]>> pendingFramesDrainer;
+  private final Runnable rejectionHandler;
+
+  private boolean flushScheduled;
+
+  /**
+   * Constructs a new web socket frame flusher instance.
+   *
+   * @param owner                the object whose lock guards the pending frames.
+   * @param channel              the channel to send the frames to.
+   * @param windowMillis         the time in milliseconds to wait before sending the pending frames.
+   * @param flushExecutor        the executor to send the pending frames on.
+   * @param hasPendingFrames     checks if there are frames waiting to be sent.
+   * @param pendingFramesDrainer removes and returns the frames which are waiting to be sent.
+   * @param rejectionHandler     called when the executor no longer accepts tasks and no more frames can be sent.
+   * @throws NullPointerException if one of the given parameters is null.
+   */
+  WebSocketFrameFlusher(
+    @NonNull Object owner,
+    @NonNull WebSocketChannel channel,
+    long windowMillis,
+    @NonNull ScheduledExecutorService flushExecutor,
+    @NonNull BooleanSupplier hasPendingFrames,
+    @NonNull Supplier<List<byte[]>> pendingFramesDrainer,
+    @NonNull Runnable rejectionHandler
+  ) {
+    this.owner = owner;
+    this.channel = channel;
+    this.windowMillis = windowMillis;
+    this.flushExecutor = flushExecutor;
+    this.hasPendingFrames = hasPendingFrames;
+    this.pendingFramesDrainer = pendingFramesDrainer;
+    this.rejectionHandler = rejectionHandler;
+  }
+
+  /**
+   * Schedules the sending of the pending frames after the time window, if not already scheduled. This method must be
+   * called while holding the lock of the owner.
+   */
+  void scheduleFlush() {
+    if (!this.flushScheduled) {
+      try {
+        this.flushExecutor.schedule(this::flush, this.windowMillis, TimeUnit.MILLISECONDS);
+        this.flushScheduled = true;
+      } catch (RejectedExecutionException exception) {
+        // the executor was shut down, no more frames can be sent
+        this.rejectionHandler.run();
+      }
+    }
+  }
+
+  /**
+   * Sends all pending frames to the channel. If the channel is not writable, the frames stay pending and the sending
+   * is retried after the time window.
+   */
+  private void flush() {
+    List<byte[]> frames;
+    synchronized (this.owner) {
+      this.flushScheduled = false;
+      if (!this.hasPendingFrames.getAsBoolean()) {
+        return;
+      }
+
+      // wait for the recipient to catch up before sending more data
+      if (!this.channel.writable()) {
+        this.scheduleFlush();
+        return;
+      }
+
+      frames = this.pendingFramesDrainer.get();
+    }
+
+    for (var frame : frames) {
+      this.channel.sendWebSocketFrame(WebSocketFrameType.TEXT, frame);
+    }
+  }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2019-2023 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.driver.network.http.websocket;
+
+import com.google.common.base.Preconditions;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.NonNull;
+
+/**
+ * Sends lines of text to a web socket channel in batches. All lines which are appended within a time window are sent
+ * in a single text frame, separated by a line break. The amount of lines waiting to be sent is limited: if more lines
+ * are appended, the oldest lines are dropped and a marker line is sent to inform the recipient about the amount of
+ * dropped lines. While the recipient is not reading the sent data fast enough, no frames are sent to it.
+ * <p>
+ * A batcher registers itself as listener to the given channel and stops sending lines once the channel is closed.
+ *
+ * @since 4.0
+ */
+public final class WebSocketLineBatcher implements WebSocketListener {
+
+  private static final String DROPPED_LINES_FORMAT = "[%d lines dropped]";
+
+  private final int maxBufferedLines;
+  private final WebSocketChannel channel;
+  private final WebSocketFrameFlusher flusher;
+
+  private final Deque<String> bufferedLines = new ArrayDeque<>();
+  private final AtomicInteger totalDroppedLines = new AtomicInteger();
+
+  private int droppedLines;
+  private boolean closed;
+
+  /**
+   * Constructs a new web socket line batcher instance and registers it as listener to the given channel.
+   *
+   * @param channel          the channel to send the lines to.
+   * @param maxBufferedLines the maximum amount of lines which are waiting to be sent.
+   * @param batchWindow      the time window in which appended lines are collected before sending them.
+   * @param flushExecutor    the executor to send the collected lines on.
+   * @throws NullPointerException     if the given channel, batch window or executor is null.
+   * @throws IllegalArgumentException if the given maximum amount of buffered lines is not positive.
+   */
+  public WebSocketLineBatcher(
+    @NonNull WebSocketChannel channel,
+    int maxBufferedLines,
+    @NonNull Duration batchWindow,
+    @NonNull ScheduledExecutorService flushExecutor
+  ) {
+    Preconditions.checkArgument(maxBufferedLines > 0, "maxBufferedLines must be positive");
+
+    this.channel = channel;
+    this.maxBufferedLines = maxBufferedLines;
+    this.flusher = new WebSocketFrameFlusher(
+      this,
+      channel,
+      batchWindow.toMillis(),
+      flushExecutor,
+      () -> !this.closed && !this.bufferedLines.isEmpty(),
+      this::drainBufferedLines,
+      this::close);
+
+    channel.addListener(this);
+  }
+
+  /**
+   * Appends the given line to the lines which are sent with the next batch. If the maximum amount of buffered lines is
+   * reached, the oldest buffered line is dropped.
+   *
+   * @param line the line to append.
+   * @throws NullPointerException if the given line is null.
+   */
+  public synchronized void append(@NonNull String line) {
+    if (this.closed) {
+      return;
+    }
+
+    // drop the oldest line if the buffer is full
+    if (this.bufferedLines.size() >= this.maxBufferedLines) {
+      this.bufferedLines.pollFirst();
+      this.droppedLines++;
+      this.totalDroppedLines.incrementAndGet();
+    }
+
+    this.bufferedLines.addLast(line);
+    this.flusher.scheduleFlush();
+  }
+
+  /**
+   * Get the total amount of lines which were dropped because the recipient was not able to keep up with the appended
+   * lines.
+   *
+   * @return the total amount of dropped lines.
+   */
+  public int droppedLines() {
+    return this.totalDroppedLines.get();
+  }
+
+  /**
+   * Stops sending lines to the channel and discards all buffered lines. The channel itself is not closed.
+   */
+  public synchronized void close() {
+    this.closed = true;
+    this.bufferedLines.clear();
+    this.channel.removeListener(this);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void handle(@NonNull WebSocketChannel channel, @NonNull WebSocketFrameType type, byte[] bytes) {
+    // received frames are handled by other listeners
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void handleClose(
+    @NonNull WebSocketChannel channel,
+    @NonNull AtomicInteger statusCode,
+    @NonNull AtomicReference<String> reasonText
+  ) {
+    this.close();
+  }
+
+  /**
+   * Removes all buffered lines and joins them into a single frame, preceded by a marker line if lines were dropped
+   * since the last frame. This method must be called while holding the lock of this batcher.
+   *
+   * @return the frame holding all buffered lines.
+   */
+  private @NonNull List<byte[]> drainBufferedLines() {
+    var builder = new StringBuilder();
+    if (this.droppedLines > 0) {
+      builder.append(String.format(DROPPED_LINES_FORMAT, this.droppedLines)).append('\n');
+      this.droppedLines = 0;
+    }
+
+    for (var line : this.bufferedLines) {
+      builder.append(line).append('\n');
+    }
+
+    this.bufferedLines.clear();
+    return List.of(builder.substring(0, builder.length() - 1).getBytes(StandardCharsets.UTF_8));
+  }
+}
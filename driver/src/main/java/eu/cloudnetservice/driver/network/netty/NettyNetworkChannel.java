@@ -149,11 +149,14 @@ public void close() {
    * @throws NullPointerException if the given packet is null.
    */
   private @Nullable Future<Void> writePacket(@NonNull Packet packet, boolean flushAfter) {
-    var event = this.eventManager.callEvent(new NetworkChannelPacketSendEvent(this, packet));
-    if (!event.cancelled()) {
-      return flushAfter ? this.channel.writeAndFlush(packet) : this.channel.write(packet);
-    } else {
-      return null;
+    // only construct & call the event if someone is listening to it, as this happens for every packet
+    if (this.eventManager.hasListeners(NetworkChannelPacketSendEvent.class)) {
+      var event = this.eventManager.callEvent(new NetworkChannelPacketSendEvent(this, packet));
+      if (event.cancelled()) {
+        return null;
+      }
     }
+
+    return flushAfter ? this.channel.writeAndFlush(packet) : this.channel.write(packet);
   }
 }
@@ -20,7 +20,9 @@
 import eu.cloudnetservice.driver.network.netty.NettyUtil;
 import eu.cloudnetservice.driver.network.rpc.defaults.object.DefaultObjectMapper;
 import io.netty5.buffer.Buffer;
+import java.io.IOException;
 import java.lang.reflect.Type;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.util.UUID;
 import java.util.function.Function;
@@ -129,6 +131,30 @@ public byte[] readByteArray() {
     });
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int readByteArray(@NonNull WritableByteChannel target) throws IOException {
+    try {
+      var length = NettyUtil.readVarInt(this.buffer);
+      var remaining = length;
+      while (remaining > 0) {
+        var transferred = this.buffer.transferTo(target, remaining);
+        if (transferred <= 0) {
+          throw new IOException("Target channel accepted no bytes");
+        }
+        remaining -= transferred;
+      }
+      return length;
+    } finally {
+      // release the buffer in case we reached the end, same as a hot read
+      if (this.buffer.readableBytes() <= 0) {
+        this.release();
+      }
+    }
+  }
+
   /**
    * {@inheritDoc}
    */
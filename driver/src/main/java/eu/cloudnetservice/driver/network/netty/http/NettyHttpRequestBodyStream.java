@@ -0,0 +1,239 @@
+/*
+ * Copyright 2019-2023 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package eu.cloudnetservice.driver.network.netty.http;
+
+import eu.cloudnetservice.driver.network.http.HttpHandleException;
+import eu.cloudnetservice.driver.network.http.HttpResponseCode;
+import io.netty5.buffer.Buffer;
+import io.netty5.channel.Channel;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Objects;
+import lombok.NonNull;
+import org.jetbrains.annotations.ApiStatus;
+
+/**
+ * An input stream which provides the body of a http request chunk by chunk while it is received from the client. Only
+ * a limited amount of received data is buffered, reading from the client is paused until the consumer of the stream
+ * read enough of the buffered data. The stream must not be read from the event loop of the associated channel, as it
+ * would be blocked until data arrives which can only be received by the event loop.
+ *
+ * @since 4.0
+ */
+@ApiStatus.Internal
+final class NettyHttpRequestBodyStream extends InputStream {
+
+  // the amount of buffered bytes after which the reading from the client is paused
+  private static final int HIGH_WATER_MARK = Integer.getInteger("cloudnet.http.body-stream-buffer-size", 1024 * 1024);
+  private static final int LOW_WATER_MARK = HIGH_WATER_MARK / 2;
+
+  private final Channel channel;
+  private final long maxBodySize;
+  private final Deque<Buffer> chunks = new ArrayDeque<>();
+
+  private long queuedBytes;
+  private long receivedBytes;
+
+  private boolean closed;
+  private boolean finished;
+  private RuntimeException failure;
+
+  /**
+   * Constructs a new request body stream instance.
+   *
+   * @param channel     the channel from which the request body is received.
+   * @param maxBodySize the maximum amount of bytes the request body is allowed to have.
+   * @throws NullPointerException if the given channel is null.
+   */
+  public NettyHttpRequestBodyStream(@NonNull Channel channel, long maxBodySize) {
+    this.channel = channel;
+    this.maxBodySize = maxBodySize;
+  }
+
+  /**
+   * Appends the given chunk of the request body to this stream. The ownership of the given buffer is transferred to
+   * this stream. If the stream was closed by the consumer the chunk is discarded.
+   *
+   * @param chunk the received chunk of the request body.
+   * @throws NullPointerException if the given chunk is null.
+   */
+  synchronized void offer(@NonNull Buffer chunk) {
+    // discard the chunk if the consumer is no longer interested in the body
+    if (this.closed || this.failure != null) {
+      chunk.close();
+      return;
+    }
+
+    // check if the request body exceeds the configured limit
+    var chunkSize = chunk.readableBytes();
+    this.receivedBytes += chunkSize;
+    if (this.receivedBytes > this.maxBodySize) {
+      chunk.close();
+      this.fail(new HttpHandleException(
+        HttpResponseCode.PAYLOAD_TOO_LARGE,
+        "Request body too large".getBytes(StandardCharsets.UTF_8),
+        "Request body exceeds the limit of " + this.maxBodySize + " bytes"));
+      return;
+    }
+
+    if (chunkSize > 0) {
+      this.chunks.addLast(chunk);
+      this.queuedBytes += chunkSize;
+      this.notifyAll();
+    } else {
+      chunk.close();
+    }
+  }
+
+  /**
+   * Marks that the complete request body was received.
+   */
+  synchronized void finish() {
+    this.finished = true;
+    this.notifyAll();
+  }
+
+  /**
+   * Fails this stream with the given exception, which is thrown to the consumer of the stream on the next read call.
+   * All chunks which were buffered but not yet read are released.
+   *
+   * @param exception the exception to fail the stream with.
+   * @throws NullPointerException if the given exception is null.
+   */
+  synchronized void fail(@NonNull RuntimeException exception) {
+    if (this.failure == null) {
+      this.failure = exception;
+      this.releaseChunks();
+      this.notifyAll();
+    }
+  }
+
+  /**
+   * Get if this stream wants to receive more data from the client, which is the case when the stream is still open and
+   * the amount of buffered data is below the configured limit.
+   *
+   * @return true if more data should be read from the client, false otherwise.
+   */
+  synchronized boolean wantsMoreData() {
+    return !this.closed && !this.finished && this.failure == null && this.queuedBytes < HIGH_WATER_MARK;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int read() throws IOException {
+    var buffer = new byte[1];
+    var read = this.read(buffer, 0, 1);
+    return read == -1 ? -1 : buffer[0] & 0xFF;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public synchronized int read(byte @NonNull [] target, int offset, int length) throws IOException {
+    Objects.checkFromIndexSize(offset, length, target.length);
+    if (length == 0) {
+      return 0;
+    }
+
+    // waiting for data on the event loop would never complete
+    if (this.channel.executor().inEventLoop()) {
+      throw new IllegalStateException("Streamed request bodies must not be read on the event loop");
+    }
+
+    while (true) {
+      if (this.closed) {
+        throw new IOException("Stream closed");
+      }
+
+      if (this.failure != null) {
+        throw this.failure;
+      }
+
+      var chunk = this.chunks.peekFirst();
+      if (chunk != null) {
+        // copy as much data as possible out of the first chunk
+        var readBytes = Math.min(length, chunk.readableBytes());
+        chunk.readBytes(target, offset, readBytes);
+        if (chunk.readableBytes() == 0) {
+          this.chunks.pollFirst();
+          chunk.close();
+        }
+
+        // request more data from the client if enough of the buffered data was consumed
+        this.queuedBytes -= readBytes;
+        if (!this.finished && this.queuedBytes < LOW_WATER_MARK) {
+          this.channel.read();
+        }
+
+        return readBytes;
+      }
+
+      // no more data to read and the body was fully received
+      if (this.finished) {
+        return -1;
+      }
+
+      try {
+        // request more data and wait until the data arrives
+        this.channel.read();
+        this.wait();
+      } catch (InterruptedException exception) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while waiting for request body");
+      }
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public synchronized int available() {
+    return (int) Math.min(Integer.MAX_VALUE, this.queuedBytes);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public synchronized void close() {
+    if (!this.closed) {
+      this.closed = true;
+      this.releaseChunks();
+      this.notifyAll();
+    }
+  }
+
+  /**
+   * Releases all chunks which are currently buffered in this stream.
+   */
+  private void releaseChunks() {
+    Buffer chunk;
+    while ((chunk = this.chunks.pollFirst()) != null) {
+      chunk.close();
+    }
+    this.queuedBytes = 0;
+  }
+}
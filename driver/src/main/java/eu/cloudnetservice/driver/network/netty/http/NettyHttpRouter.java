@@ -0,0 +1,295 @@
+/*
+ * Copyright 2019-2023 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package eu.cloudnetservice.driver.network.netty.http;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.NonNull;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An immutable segment trie compiled from the registered http handlers of a http server. Each node of the trie
+ * represents one path segment, literal segments are resolved using a lookup while path parameters ({@code {name}})
+ * and single segment wildcards ({@code *}) share one dynamic child node. A trailing wildcard matches all remaining
+ * segments (at least one). Matching a request path therefore only depends on the length of the path rather than the
+ * amount of registered handlers.
+ * <p>
+ * A router is never modified after compilation, the http server compiles a new router instance each time the
+ * registered handlers change and swaps it with the old one.
+ *
+ * @since 4.0
+ */
+@ApiStatus.Internal
+final class NettyHttpRouter {
+
+  static final NettyHttpRouter EMPTY = new NettyHttpRouter(new Node(Map.of(), null, List.of(), List.of()));
+
+  private static final Comparator<Route> ROUTE_ORDER = Comparator.comparingInt(Route::order);
+
+  private final Node root;
+
+  /**
+   * Constructs a new router instance.
+   *
+   * @param root the root node of the route trie.
+   * @throws NullPointerException if the given root node is null.
+   */
+  private NettyHttpRouter(@NonNull Node root) {
+    this.root = root;
+  }
+
+  /**
+   * Compiles the given handler entries into a new router. The order in which handlers are returned from the router
+   * is based on their priority, handlers with the same priority are ordered by their position in the given
+   * collection.
+   *
+   * @param entries the handler entries to compile.
+   * @return a new router for the given handler entries.
+   * @throws NullPointerException if the given entry collection is null.
+   */
+  static @NonNull NettyHttpRouter compile(@NonNull Collection<NettyHttpServer.HttpHandlerEntry> entries) {
+    if (entries.isEmpty()) {
+      return EMPTY;
+    }
+
+    // sort the entries once, the index of each entry is used to restore the order of the matching routes later
+    var sortedEntries = new ArrayList<>(entries);
+    sortedEntries.sort(Comparator.comparingInt(NettyHttpServer.HttpHandlerEntry::priority));
+
+    var root = new NodeBuilder();
+    for (var order = 0; order < sortedEntries.size(); order++) {
+      var entry = sortedEntries.get(order);
+      var segments = splitPath(entry.path());
+      var parameterNames = new String[segments.length];
+
+      var node = root;
+      for (var index = 0; index < segments.length; index++) {
+        var segment = segments[index];
+        if (segment.equals("*")) {
+          // a wildcard as the last segment matches all upcoming segments
+          if (index == segments.length - 1) {
+            node.catchAllRoutes.add(new Route(entry, order, parameterNames));
+            node = null;
+            break;
+          }
+
+          node = node.dynamicChild();
+          continue;
+        }
+
+        // check for a path parameter in the form {name}
+        if (segment.length() > 2 && segment.startsWith("{") && segment.endsWith("}")) {
+          parameterNames[index] = segment.substring(1, segment.length() - 1);
+          node = node.dynamicChild();
+          continue;
+        }
+
+        node = node.literalChildren.computeIfAbsent(segment, $ -> new NodeBuilder());
+      }
+
+      // register the route as terminal route if it was not registered as a catch-all route
+      if (node != null) {
+        node.routes.add(new Route(entry, order, parameterNames));
+      }
+    }
+
+    return new NettyHttpRouter(root.build());
+  }
+
+  /**
+   * Splits the given path into its segments, ignoring the leading slash of the path.
+   *
+   * @param path the path to split.
+   * @return the segments of the given path.
+   * @throws NullPointerException if the given path is null.
+   */
+  static @NonNull String[] splitPath(@NonNull String path) {
+    var segments = path.split("/");
+    if (segments.length == 0) {
+      return segments;
+    }
+
+    var result = new String[segments.length - 1];
+    System.arraycopy(segments, 1, result, 0, result.length);
+    return result;
+  }
+
+  /**
+   * Resolves all routes which are matching the given path segments and are either bound to all ports or to the given
+   * port. The returned routes are ordered in the order in which they should get invoked.
+   *
+   * @param segments the segments of the requested path.
+   * @param port     the port to which the request was sent.
+   * @return all routes matching the given path, in invocation order.
+   * @throws NullPointerException if the given segment array is null.
+   */
+  @NonNull List<Route> match(@NonNull String[] segments, int port) {
+    List<Route> target = new ArrayList<>();
+    this.collect(this.root, segments, 0, port, target);
+
+    // restore the priority order if the routes were collected from different branches
+    if (target.size() > 1) {
+      target.sort(ROUTE_ORDER);
+    }
+    return target;
+  }
+
+  /**
+   * Collects all routes which are matching the given path segments starting at the given segment index.
+   *
+   * @param node     the node which matched the segment before the given index.
+   * @param segments the segments of the requested path.
+   * @param index    the index of the segment to match.
+   * @param port     the port to which the request was sent.
+   * @param target   the list to add the matching routes to.
+   * @throws NullPointerException if one of the given parameters is null.
+   */
+  private void collect(
+    @NonNull Node node,
+    @NonNull String[] segments,
+    int index,
+    int port,
+    @NonNull List<Route> target
+  ) {
+    if (index == segments.length) {
+      addMatchingRoutes(node.routes(), port, target);
+      return;
+    }
+
+    // catch-all routes match if there is at least one segment left
+    addMatchingRoutes(node.catchAllRoutes(), port, target);
+
+    var literalChild = node.literalChildren().get(segments[index]);
+    if (literalChild != null) {
+      this.collect(literalChild, segments, index + 1, port, target);
+    }
+
+    if (node.dynamicChild() != null) {
+      this.collect(node.dynamicChild(), segments, index + 1, port, target);
+    }
+  }
+
+  /**
+   * Adds all the given routes which are bound to all ports or the given port to the given target list.
+   *
+   * @param routes the routes to check.
+   * @param port   the port to which the request was sent.
+   * @param target the list to add the matching routes to.
+   * @throws NullPointerException if the given route list or target list is null.
+   */
+  private static void addMatchingRoutes(@NonNull List<Route> routes, int port, @NonNull List<Route> target) {
+    for (var route : routes) {
+      var routePort = route.entry().port();
+      if (routePort == null || routePort == port) {
+        target.add(route);
+      }
+    }
+  }
+
+  /**
+   * A handler entry compiled into the router.
+   *
+   * @param entry          the handler entry associated with this route.
+   * @param order          the position of this route in the invocation order.
+   * @param parameterNames the path parameter names, indexed by the segment index they are located at.
+   * @since 4.0
+   */
+  record Route(@NonNull NettyHttpServer.HttpHandlerEntry entry, int order, @NonNull String[] parameterNames) {
+
+    /**
+     * Puts all path parameters of this route, extracted from the given request path segments, into the given map.
+     *
+     * @param segments the segments of the requested path.
+     * @param target   the map to put the path parameters into.
+     * @throws NullPointerException if the given segment array or target map is null.
+     */
+    void extractPathParameters(@NonNull String[] segments, @NonNull Map<String, String> target) {
+      for (var index = 0; index < this.parameterNames.length; index++) {
+        var parameterName = this.parameterNames[index];
+        if (parameterName != null) {
+          target.put(parameterName, segments[index]);
+        }
+      }
+    }
+  }
+
+  /**
+   * A compiled, immutable node of the route trie.
+   *
+   * @param literalChildren the child nodes for literal segments, by segment.
+   * @param dynamicChild    the child node for path parameters and wildcard segments, null if there is none.
+   * @param routes          the routes which end at this node.
+   * @param catchAllRoutes  the routes which match all segments following this node.
+   * @since 4.0
+   */
+  private record Node(
+    @NonNull Map<String, Node> literalChildren,
+    @Nullable Node dynamicChild,
+    @NonNull List<Route> routes,
+    @NonNull List<Route> catchAllRoutes
+  ) {
+
+  }
+
+  /**
+   * A mutable node used while compiling the route trie.
+   *
+   * @since 4.0
+   */
+  private static final class NodeBuilder {
+
+    private final Map<String, NodeBuilder> literalChildren = new HashMap<>();
+    private final List<Route> routes = new ArrayList<>();
+    private final List<Route> catchAllRoutes = new ArrayList<>();
+
+    private NodeBuilder dynamicChild;
+
+    /**
+     * Get the child node for path parameters and wildcard segments, creating it if needed.
+     *
+     * @return the child node for dynamic segments.
+     */
+    private @NonNull NodeBuilder dynamicChild() {
+      if (this.dynamicChild == null) {
+        this.dynamicChild = new NodeBuilder();
+      }
+      return this.dynamicChild;
+    }
+
+    /**
+     * Converts this builder and all of its children into an immutable node.
+     *
+     * @return the immutable node representing this builder.
+     */
+    private @NonNull Node build() {
+      Map<String, Node> children = new HashMap<>(this.literalChildren.size());
+      this.literalChildren.forEach((segment, child) -> children.put(segment, child.build()));
+
+      return new Node(
+        Map.copyOf(children),
+        this.dynamicChild == null ? null : this.dynamicChild.build(),
+        List.copyOf(this.routes),
+        List.copyOf(this.catchAllRoutes));
+    }
+  }
+}
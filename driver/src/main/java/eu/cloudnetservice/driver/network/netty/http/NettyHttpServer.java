@@ -27,6 +27,7 @@
 import eu.cloudnetservice.driver.network.netty.NettySslServer;
 import eu.cloudnetservice.driver.network.netty.NettyUtil;
 import eu.cloudnetservice.driver.network.ssl.SSLConfiguration;
+import eu.cloudnetservice.driver.util.ExecutorServiceUtil;
 import io.netty5.bootstrap.ServerBootstrap;
 import io.netty5.channel.ChannelOption;
 import io.netty5.channel.EventLoopGroup;
@@ -35,6 +36,13 @@
 import java.util.Collection;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import lombok.NonNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -46,16 +54,39 @@
 @Singleton
 public class NettyHttpServer extends NettySslServer implements HttpServer {
 
+  // the maximum size of a request body which is aggregated if the handlers did not configure a limit
+  static final long DEFAULT_MAX_REQUEST_BODY_SIZE = Long.getLong("cloudnet.http.max-request-body-size", Short.MAX_VALUE);
+
   private static final Logger LOGGER = LogManager.logger(NettyHttpServer.class);
 
+  // the maximum amount of blocking handler invocations which can be running or waiting for execution at the same time
+  private static final int BLOCKING_HANDLER_LIMIT = Integer.getInteger("cloudnet.http.blocking-handler-limit", 256);
+  // the amount of threads to use for blocking handlers if virtual threads are not available
+  private static final int BLOCKING_HANDLER_THREADS = Integer.getInteger(
+    "cloudnet.http.blocking-handler-threads",
+    Runtime.getRuntime().availableProcessors() * 2);
+
   protected final Map<HostAndPort, Future<Void>> channelFutures = new ConcurrentHashMap<>();
-  protected final Collection<HttpHandlerEntry> registeredHandlers = ConcurrentHashMap.newKeySet();
+  protected final Collection<HttpHandlerEntry> registeredHandlers = new CopyOnWriteArraySet<>();
 
   protected final EventLoopGroup bossGroup = NettyUtil.newEventLoopGroup(1);
   protected final EventLoopGroup workerGroup = NettyUtil.newEventLoopGroup(0);
 
+  protected final Semaphore blockingHandlerPermits = new Semaphore(BLOCKING_HANDLER_LIMIT);
+  protected final ExecutorService blockingHandlerExecutor = ExecutorServiceUtil.newVirtualThreadExecutor(
+    "HTTP-Blocking-Handler-",
+    threadFactory -> new ThreadPoolExecutor(
+      BLOCKING_HANDLER_THREADS,
+      BLOCKING_HANDLER_THREADS,
+      30L,
+      TimeUnit.SECONDS,
+      new LinkedBlockingQueue<>(),
+      threadFactory));
+
   protected final HttpAnnotationParser<HttpServer> annoParser = DefaultHttpAnnotationParser.withDefaultProcessors(this);
 
+  volatile NettyHttpRouter router = NettyHttpRouter.EMPTY;
+
   /**
    * Constructs a new instance of a netty http server instance. Equivalent to {@code new NettyHttpServer(null)}.
    */
@@ -175,6 +206,7 @@ public boolean sslEnabled() {
       this.registeredHandlers.add(new HttpHandlerEntry(path, httpHandler, port, priority));
     }
 
+    this.rebuildRouter();
     return this;
   }
 
@@ -184,6 +216,7 @@ public boolean sslEnabled() {
   @Override
   public @NonNull HttpServer removeHandler(@NonNull HttpHandler handler) {
     this.registeredHandlers.removeIf(registeredHandler -> registeredHandler.httpHandler.equals(handler));
+    this.rebuildRouter();
     return this;
   }
 
@@ -193,6 +226,7 @@ public boolean sslEnabled() {
   @Override
   public @NonNull HttpServer removeHandler(@NonNull ClassLoader classLoader) {
     this.registeredHandlers.removeIf(handler -> handler.httpHandler.getClass().getClassLoader().equals(classLoader));
+    this.rebuildRouter();
     return this;
   }
 
@@ -212,6 +246,7 @@ public boolean sslEnabled() {
   @Override
   public @NonNull HttpServer clearHandlers() {
     this.registeredHandlers.clear();
+    this.rebuildRouter();
     return this;
   }
 
@@ -226,9 +261,47 @@ public void close() {
 
     this.bossGroup.shutdownGracefully();
     this.workerGroup.shutdownGracefully();
+    this.blockingHandlerExecutor.shutdown();
     this.clearHandlers();
   }
 
+  /**
+   * Executes the given task in the executor for blocking handlers, if the limit of concurrently processed blocking
+   * handler invocations was not reached yet.
+   *
+   * @param task the task to execute.
+   * @return true if the task was scheduled for execution, false if the executor has no capacity left.
+   * @throws NullPointerException if the given task is null.
+   */
+  boolean executeBlocking(@NonNull Runnable task) {
+    if (!this.blockingHandlerPermits.tryAcquire()) {
+      return false;
+    }
+
+    try {
+      this.blockingHandlerExecutor.execute(() -> {
+        try {
+          task.run();
+        } finally {
+          this.blockingHandlerPermits.release();
+        }
+      });
+      return true;
+    } catch (RejectedExecutionException exception) {
+      // the executor was shut down
+      this.blockingHandlerPermits.release();
+      return false;
+    }
+  }
+
+  /**
+   * Compiles the currently registered handlers into a new router and replaces the current router with it. Requests
+   * which are currently being processed continue to use the previous router.
+   */
+  protected synchronized void rebuildRouter() {
+    this.router = NettyHttpRouter.compile(this.registeredHandlers);
+  }
+
   /**
    * Represents a registered http handler, holding all the information needed for later calling of it.
    *
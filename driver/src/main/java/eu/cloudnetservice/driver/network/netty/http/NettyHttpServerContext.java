@@ -38,6 +38,7 @@
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.CompletionStage;
 import lombok.NonNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -48,6 +49,7 @@
  */
 final class NettyHttpServerContext implements HttpContext {
 
+  final NettyHttpServerRequest httpServerRequest;
   final NettyHttpServerResponse httpServerResponse;
   final Multimap<String, Object> invocationHints = ArrayListMultimap.create();
 
@@ -56,13 +58,13 @@ final class NettyHttpServerContext implements HttpContext {
 
   private final NettyHttpChannel channel;
   private final NettyHttpServer nettyHttpServer;
-  private final NettyHttpServerRequest httpServerRequest;
 
   private final Collection<HttpCookie> cookies = new ArrayList<>();
 
   volatile boolean closeAfter = true;
   volatile boolean cancelNext = false;
   volatile boolean cancelSendResponse = false;
+  volatile CompletionStage<?> deferredStage;
 
   private volatile String pathPrefix;
   private volatile HttpHandler lastHandler;
@@ -76,6 +78,7 @@ final class NettyHttpServerContext implements HttpContext {
    * @param uri             the uri of the request.
    * @param pathParameters  the path parameters pre-parsed, by default an empty map.
    * @param httpRequest     the http request which was received originally.
+   * @param bodyStream      the stream providing the request body if the body is streamed, null otherwise.
    * @throws NullPointerException if one of the constructor parameters is null.
    */
   public NettyHttpServerContext(
@@ -83,14 +86,15 @@ public NettyHttpServerContext(
     @NonNull NettyHttpChannel channel,
     @NonNull URI uri,
     @NonNull Map<String, String> pathParameters,
-    @NonNull io.netty5.handler.codec.http.HttpRequest httpRequest
+    @NonNull io.netty5.handler.codec.http.HttpRequest httpRequest,
+    @Nullable NettyHttpRequestBodyStream bodyStream
   ) {
     this.nettyHttpServer = nettyHttpServer;
     this.channel = channel;
     this.httpRequest = httpRequest;
     this.nettyChannel = channel.channel();
 
-    this.httpServerRequest = new NettyHttpServerRequest(this, httpRequest, pathParameters, uri);
+    this.httpServerRequest = new NettyHttpServerRequest(this, httpRequest, pathParameters, uri, bodyStream);
     this.httpServerResponse = new NettyHttpServerResponse(this, httpRequest);
 
     var cookiesIterator = this.httpRequest.headers().getCookiesIterator();
@@ -215,6 +219,15 @@ public boolean cancelNext() {
     return this;
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public @NonNull HttpContext deferUntil(@NonNull CompletionStage<?> stage) {
+    this.deferredStage = stage;
+    return this;
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -21,28 +21,52 @@
 import eu.cloudnetservice.common.log.Logger;
 import eu.cloudnetservice.driver.network.HostAndPort;
 import eu.cloudnetservice.driver.network.http.HttpContext;
+import eu.cloudnetservice.driver.network.http.HttpExecutionPolicy;
 import eu.cloudnetservice.driver.network.http.HttpHandleException;
 import eu.cloudnetservice.driver.network.http.HttpResponseCode;
+import io.netty5.buffer.CompositeBuffer;
 import io.netty5.channel.Channel;
 import io.netty5.channel.ChannelFutureListeners;
 import io.netty5.channel.ChannelHandlerContext;
+import io.netty5.channel.ChannelOption;
+import io.netty5.channel.ChannelShutdownDirection;
+import io.netty5.channel.DefaultFileRegion;
 import io.netty5.channel.SimpleChannelInboundHandler;
+import io.netty5.handler.codec.http.DefaultFullHttpRequest;
+import io.netty5.handler.codec.http.DefaultFullHttpResponse;
+import io.netty5.handler.codec.http.DefaultHttpContent;
 import io.netty5.handler.codec.http.DefaultHttpResponse;
 import io.netty5.handler.codec.http.EmptyLastHttpContent;
+import io.netty5.handler.codec.http.FullHttpRequest;
+import io.netty5.handler.codec.http.FullHttpResponse;
 import io.netty5.handler.codec.http.HttpChunkedInput;
+import io.netty5.handler.codec.http.HttpContent;
 import io.netty5.handler.codec.http.HttpHeaderNames;
 import io.netty5.handler.codec.http.HttpHeaderValues;
+import io.netty5.handler.codec.http.HttpObject;
 import io.netty5.handler.codec.http.HttpRequest;
+import io.netty5.handler.codec.http.HttpResponseStatus;
 import io.netty5.handler.codec.http.HttpUtil;
-import io.netty5.handler.stream.ChunkedStream;
+import io.netty5.handler.codec.http.LastHttpContent;
+import io.netty5.handler.ssl.SslHandler;
+import io.netty5.handler.stream.ChunkedNioFile;
 import io.netty5.handler.timeout.ReadTimeoutException;
+import io.netty5.util.Resource;
 import io.netty5.util.concurrent.Future;
+import io.netty5.util.concurrent.Promise;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
-import java.util.ArrayList;
-import java.util.Comparator;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 import lombok.NonNull;
 import org.jetbrains.annotations.ApiStatus;
 
@@ -53,14 +77,29 @@
  * @since 4.0
  */
 @ApiStatus.Internal
-final class NettyHttpServerHandler extends SimpleChannelInboundHandler<HttpRequest> {
+final class NettyHttpServerHandler extends SimpleChannelInboundHandler<HttpObject> {
 
   private static final Logger LOGGER = LogManager.logger(NettyHttpServerHandler.class);
 
+  // the maximum size of a request body which is not streamed is limited by the maximum size of a buffer
+  private static final long MAX_AGGREGATED_BODY_SIZE = Integer.MAX_VALUE - 8;
+  // the size of the segments in which files are transferred to the client
+  private static final long FILE_REGION_SEGMENT_SIZE = 16 * 1024 * 1024;
+  // the size of the chunks in which response streams are transferred to the client
+  private static final int RESPONSE_STREAM_CHUNK_SIZE = 64 * 1024;
+  // the time to wait for the client to read the rejection of a request before closing the connection
+  private static final long REJECTED_REQUEST_LINGER_MILLIS = 1000;
+
   private final NettyHttpServer nettyHttpServer;
   private final HostAndPort connectedAddress;
 
   private NettyHttpChannel channel;
+  private volatile boolean readingSuspended;
+
+  // the request of which the body is currently received, only accessed from the event loop
+  private PendingRequest pendingRequest;
+  private NettyHttpRequestBodyStream streamingBody;
+  private boolean requestRejected;
 
   /**
    * Constructs a new http server handler instance.
@@ -70,6 +109,8 @@ final class NettyHttpServerHandler extends SimpleChannelInboundHandler<HttpReque
    * @throws NullPointerException if the given server or host and port are null.
    */
   public NettyHttpServerHandler(@NonNull NettyHttpServer nettyHttpServer, @NonNull HostAndPort connectedAddress) {
+    // the received messages are released manually as requests might be processed asynchronously
+    super(false);
     this.nettyHttpServer = nettyHttpServer;
     this.connectedAddress = connectedAddress;
   }
@@ -88,6 +129,17 @@ public void channelActive(@NonNull ChannelHandlerContext ctx) {
    */
   @Override
   public void channelInactive(@NonNull ChannelHandlerContext ctx) {
+    // release the request body which is currently received
+    if (this.pendingRequest != null) {
+      this.pendingRequest.body().close();
+      this.pendingRequest = null;
+    }
+
+    if (this.streamingBody != null) {
+      this.streamingBody.fail(new UncheckedIOException(new IOException("Connection closed while receiving body")));
+      this.streamingBody = null;
+    }
+
     if (!ctx.channel().isActive() || !ctx.channel().isOpen() || !ctx.channel().isWritable()) {
       ctx.channel().close();
     }
@@ -109,30 +161,52 @@ public void channelExceptionCaught(@NonNull ChannelHandlerContext ctx, @NonNull
   @Override
   public void channelReadComplete(@NonNull ChannelHandlerContext ctx) {
     ctx.flush();
+
+    // continue reading if the consumer of a streamed body is waiting for more data
+    if (this.streamingBody != null && this.streamingBody.wantsMoreData()) {
+      ctx.read();
+    }
   }
 
   /**
    * {@inheritDoc}
    */
   @Override
-  protected void messageReceived(@NonNull ChannelHandlerContext ctx, @NonNull HttpRequest msg) {
-    // validate that the request was actually decoded before processing
+  protected void messageReceived(@NonNull ChannelHandlerContext ctx, @NonNull HttpObject msg) {
+    // validate that the message was actually decoded before processing
     if (msg.decoderResult().isFailure()) {
+      Resource.dispose(msg);
       ctx.channel().close();
       return;
     }
 
-    this.handleMessage(ctx.channel(), msg);
+    if (this.requestRejected) {
+      // discard everything the client sends until the connection is closed
+      Resource.dispose(msg);
+      return;
+    }
+
+    if (msg instanceof FullHttpRequest request) {
+      // the full request is already available
+      this.handleRequestHead(ctx.channel(), request);
+    } else if (msg instanceof HttpRequest request) {
+      this.handleRequestHead(ctx.channel(), request);
+    } else if (msg instanceof HttpContent<?> content) {
+      this.handleRequestContent(ctx.channel(), content);
+    } else {
+      Resource.dispose(msg);
+    }
   }
 
   /**
-   * Handles an incoming http request, posting it to the correct handler while parsing everything from it beforehand.
+   * Handles the head of an incoming http request. Based on the handlers which are matching the request, the request is
+   * either posted to them directly while streaming the request body, or after the full body was received.
    *
    * @param channel     the channel from which the request came.
-   * @param httpRequest the decoded request to handle.
+   * @param httpRequest the decoded request head to handle.
    * @throws NullPointerException if the given channel or request is null.
    */
-  private void handleMessage(@NonNull Channel channel, @NonNull HttpRequest httpRequest) {
+  private void handleRequestHead(@NonNull Channel channel, @NonNull HttpRequest httpRequest) {
     var uri = URI.create(httpRequest.uri());
     var fullPath = uri.getPath();
 
@@ -141,23 +215,241 @@ private void handleMessage(@NonNull Channel channel, @NonNull HttpRequest httpRe
       fullPath = fullPath.substring(0, fullPath.length() - 1);
     }
 
-    // get all handlers which should be tested if they can accept the http request
-    var entries = new ArrayList<>(this.nettyHttpServer.registeredHandlers);
-    entries.sort(Comparator.comparingInt(NettyHttpServer.HttpHandlerEntry::priority));
+    // resolve all handlers which are matching the request path, already in the order they should get invoked
+    var pathEntries = NettyHttpRouter.splitPath(fullPath);
+    var routes = this.nettyHttpServer.router.match(pathEntries, this.connectedAddress.port());
+
+    // resolve how the request body should be received, based on the settings of the matching handlers
+    var streamBody = false;
+    var maxBodySize = -1L;
+    for (var route : routes) {
+      var httpHandler = route.entry().httpHandler();
+      streamBody |= httpHandler.streamRequestBody();
+      maxBodySize = Math.max(maxBodySize, httpHandler.maxRequestBodySize());
+    }
+
+    if (maxBodySize < 0) {
+      maxBodySize = streamBody ? Long.MAX_VALUE : NettyHttpServer.DEFAULT_MAX_REQUEST_BODY_SIZE;
+    }
+    if (!streamBody) {
+      maxBodySize = Math.min(maxBodySize, MAX_AGGREGATED_BODY_SIZE);
+    }
+
+    var state = new RequestState(routes, pathEntries, fullPath, streamBody);
+    if (httpRequest instanceof FullHttpRequest fullRequest) {
+      // the request is complete, no need to wait for the body
+      if (fullRequest.payload().readableBytes() > maxBodySize) {
+        fullRequest.close();
+        this.rejectOversizedRequest(channel, fullRequest);
+        return;
+      }
+
+      var context = new NettyHttpServerContext(this.nettyHttpServer, this.channel, uri, new HashMap<>(), fullRequest, null);
+      this.processRoutes(channel, context, state, 0);
+      return;
+    }
+
+    // reject the request early if the announced body is too large
+    if (HttpUtil.getContentLength(httpRequest, -1L) > maxBodySize) {
+      this.rejectOversizedRequest(channel, httpRequest);
+      return;
+    }
+
+    // tell the client to send the request body if it is waiting for that
+    if (HttpUtil.is100ContinueExpected(httpRequest)) {
+      HttpUtil.set100ContinueExpected(httpRequest, false);
+      channel.writeAndFlush(new DefaultFullHttpResponse(
+        httpRequest.protocolVersion(),
+        HttpResponseStatus.CONTINUE,
+        channel.bufferAllocator().allocate(0)));
+    }
+
+    if (streamBody) {
+      // post the request to the handlers directly, the body is provided while it is received
+      var bodyStream = new NettyHttpRequestBodyStream(channel, maxBodySize);
+      this.streamingBody = bodyStream;
+
+      var context = new NettyHttpServerContext(
+        this.nettyHttpServer,
+        this.channel,
+        uri,
+        new HashMap<>(),
+        httpRequest,
+        bodyStream);
+      this.processRoutes(channel, context, state, 0);
+    } else {
+      // wait for the full body to arrive before posting the request to the handlers
+      this.pendingRequest = new PendingRequest(httpRequest, uri, state, channel.bufferAllocator().compose(), maxBodySize);
+    }
+  }
+
+  /**
+   * Handles a received chunk of the body of the request which is currently received.
+   *
+   * @param channel the channel from which the request came.
+   * @param content the received chunk of the request body.
+   * @throws NullPointerException if the given channel or content is null.
+   */
+  private void handleRequestContent(@NonNull Channel channel, @NonNull HttpContent<?> content) {
+    var pendingRequest = this.pendingRequest;
+    if (pendingRequest != null) {
+      // check if the request body exceeds the limit
+      var body = pendingRequest.body();
+      if (body.readableBytes() + (long) content.payload().readableBytes() > pendingRequest.maxBodySize()) {
+        content.close();
+        body.close();
+
+        this.pendingRequest = null;
+        this.rejectOversizedRequest(channel, pendingRequest.request());
+        return;
+      }
+
+      body.extendWith(content.payload().send());
+      if (content instanceof LastHttpContent<?> lastContent) {
+        // the full body was received, post the request to the handlers
+        this.pendingRequest = null;
+
+        var request = pendingRequest.request();
+        var fullRequest = new DefaultFullHttpRequest(
+          request.protocolVersion(),
+          request.method(),
+          request.uri(),
+          body,
+          request.headers(),
+          lastContent.trailingHeaders());
+        if (HttpUtil.isTransferEncodingChunked(fullRequest)) {
+          HttpUtil.setTransferEncodingChunked(fullRequest, false);
+          HttpUtil.setContentLength(fullRequest, body.readableBytes());
+        }
+
+        var context = new NettyHttpServerContext(
+          this.nettyHttpServer,
+          this.channel,
+          pendingRequest.uri(),
+          new HashMap<>(),
+          fullRequest,
+          null);
+        this.processRoutes(channel, context, pendingRequest.state(), 0);
+      }
+      return;
+    }
+
+    var streamingBody = this.streamingBody;
+    if (streamingBody != null) {
+      // pass the chunk to the consumer of the body
+      streamingBody.offer(content.payload());
+      if (content instanceof LastHttpContent<?>) {
+        streamingBody.finish();
+        this.streamingBody = null;
+      }
+      return;
+    }
+
+    // the content belongs to a request which was rejected
+    content.close();
+  }
+
+  /**
+   * Answers the given request with {@code 413 Payload Too Large} and closes the connection afterwards.
+   *
+   * @param channel     the channel from which the request came.
+   * @param httpRequest the request which body is too large.
+   * @throws NullPointerException if the given channel or request is null.
+   */
+  private void rejectOversizedRequest(@NonNull Channel channel, @NonNull HttpRequest httpRequest) {
+    var response = new DefaultFullHttpResponse(
+      httpRequest.protocolVersion(),
+      HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE,
+      channel.bufferAllocator().allocate(0));
+    HttpUtil.setContentLength(response, 0);
+    HttpUtil.setKeepAlive(response, false);
+
+    // closing the connection while the client is still sending the body resets the connection, which might drop the
+    // response on the client side. Keep discarding the body for a moment to give the client the chance to read it
+    this.requestRejected = true;
+    channel.writeAndFlush(response).addListener(channel, (ch, future) -> {
+      if (future.isFailed()) {
+        ch.close();
+      } else {
+        ch.shutdown(ChannelShutdownDirection.Outbound);
+        ch.executor().schedule(ch::close, REJECTED_REQUEST_LINGER_MILLIS, TimeUnit.MILLISECONDS);
+      }
+    });
+  }
 
-    // build the context around the http request
-    var pathEntries = fullPath.split("/");
-    var context = new NettyHttpServerContext(this.nettyHttpServer, this.channel, uri, new HashMap<>(), httpRequest);
+  /**
+   * Posts the request to the matching handlers, starting at the given route index. If a handler must be executed off
+   * the event loop or defers its response, the processing of the remaining routes continues asynchronously. Reading
+   * from the channel is suspended while a request is processed asynchronously, to ensure that responses are sent in
+   * the same order as the requests were received.
+   *
+   * @param channel    the channel from which the request came.
+   * @param context    the context of the request.
+   * @param state      the information about the request which are needed to post it to the handlers.
+   * @param startIndex the index of the first route to post the request to.
+   * @throws NullPointerException if the given channel, context or state is null.
+   */
+  private void processRoutes(
+    @NonNull Channel channel,
+    @NonNull NettyHttpServerContext context,
+    @NonNull RequestState state,
+    int startIndex
+  ) {
+    for (var index = startIndex; index < state.routes().size(); index++) {
+      var route = state.routes().get(index);
+      var httpHandlerEntry = route.entry();
+
+      // move the processing of blocking handlers and handlers which are reading a streamed body off the event loop
+      var policy = httpHandlerEntry.httpHandler().executionPolicy();
+      var blocking = policy == HttpExecutionPolicy.BLOCKING || state.streamBody();
+      if (blocking && channel.executor().inEventLoop()) {
+        var routeIndex = index;
+        this.suspendReading(channel);
+        var scheduled = this.nettyHttpServer.executeBlocking(
+          () -> this.continueAsync(channel, context, () -> this.processRoutes(channel, context, state, routeIndex)));
+        if (!scheduled) {
+          // the executor has no capacity left, drop the request
+          context.closeAfter(true)
+            .response()
+            .status(HttpResponseCode.SERVICE_UNAVAILABLE)
+            .body("Service temporarily unavailable");
+          this.sendResponse(channel, context);
+        }
+        return;
+      }
 
-    // loop over each handler, posting the message to the handlers which are matching the request uri
-    for (var httpHandlerEntry : entries) {
       // prepare the context to post to the handler
       context.invocationHints.clear();
       context.pathPrefix(httpHandlerEntry.path());
+      route.extractPathParameters(state.pathEntries(), context.request().pathParameters());
+
+      // post to the handler
+      if (this.handleMessage0(httpHandlerEntry, context, state.fullPath())) {
+        // check if the handler requested to complete the request asynchronously
+        var deferredStage = context.deferredStage;
+        if (deferredStage != null) {
+          context.deferredStage = null;
+          this.suspendReading(channel);
+
+          var nextIndex = index + 1;
+          deferredStage.whenComplete(($, throwable) -> this.continueAsync(channel, context, () -> {
+            if (throwable != null) {
+              // the handler failed to handle the request, continue with the next handler
+              this.handleInvocationException(httpHandlerEntry, context, throwable);
+            } else {
+              // the handler completed the request, check if the next handlers should get called
+              context.pushChain(httpHandlerEntry.httpHandler());
+              if (context.cancelNext) {
+                this.sendResponse(channel, context);
+                return;
+              }
+            }
+
+            this.processRoutes(channel, context, state, nextIndex);
+          }));
+          return;
+        }
 
-      // check and post to the handler if matching
-      var handlerPathEntries = httpHandlerEntry.path().split("/");
-      if (this.handleMessage0(httpHandlerEntry, context, fullPath, pathEntries, handlerPathEntries)) {
         // update the last handler in the pipeline which handled the request
         context.pushChain(httpHandlerEntry.httpHandler());
         // stop processing the request if a handler requested that
@@ -167,6 +459,19 @@ private void handleMessage(@NonNull Channel channel, @NonNull HttpRequest httpRe
       }
     }
 
+    this.sendResponse(channel, context);
+  }
+
+  /**
+   * Sends the response which was set in the given context to the client, unless the sending was cancelled. Reading
+   * from the channel is resumed if it was suspended while processing the request.
+   *
+   * @param channel the channel from which the request came.
+   * @param context the context of the request.
+   * @throws NullPointerException if the given channel or context is null.
+   */
+  private void sendResponse(@NonNull Channel channel, @NonNull NettyHttpServerContext context) {
+    var transferringBody = false;
     // check if the response set in the context should actually be transferred to the client
     if (!context.cancelSendResponse) {
       var response = context.httpServerResponse;
@@ -175,24 +480,24 @@ private void handleMessage(@NonNull Channel channel, @NonNull HttpRequest httpRe
         response.body("Resource not found!");
       }
 
-      // append the keep-alive header if requested
+      // tell the client if the connection can be reused, it would otherwise send the next request into a closing channel
       var netty = response.httpResponse;
-      if (!context.closeAfter) {
+      if (context.closeAfter) {
+        netty.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE);
+      } else {
         netty.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.KEEP_ALIVE);
       }
 
-      // transfer the data chunked to the client if a response stream was set, indicating a huge data chunk
+      // transfer the response body to the client, based on the type of the body
       Future<Void> future;
-      if (response.bodyStream() != null) {
-        // set the chunk transfer header
-        HttpUtil.setTransferEncodingChunked(netty, true);
-
-        // write the initial response to the client, use a void future as no monitoring is required
-        channel.write(new DefaultHttpResponse(netty.protocolVersion(), netty.status(), netty.headers()));
-        // write the actual content of the transfer into the channel using a progressive future
-        future = channel.writeAndFlush(new HttpChunkedInput(
-          new ChunkedStream(response.bodyStream()),
-          new EmptyLastHttpContent(channel.bufferAllocator())));
+      if (response.bodyFile() != null) {
+        future = this.writeFileResponse(channel, netty, response.bodyFile());
+      } else if (response.bodyStream() != null) {
+        // do not read the next request while the body is transferred, the responses would get mixed up
+        transferringBody = true;
+        this.suspendReading(channel);
+        future = this.writeStreamResponse(channel, netty, response.bodyStream());
+        future.addListener(channel, (ch, $) -> this.resumeReading(ch));
       } else {
         // do not mark the request data as chunked
         HttpUtil.setTransferEncodingChunked(netty, false);
@@ -208,71 +513,209 @@ private void handleMessage(@NonNull Channel channel, @NonNull HttpRequest httpRe
         future.addListener(channel, ChannelFutureListeners.CLOSE);
       }
     }
+
+    // release the request and continue reading the next request, unless a body is still transferred
+    context.httpServerRequest.release();
+    if (!transferringBody) {
+      this.resumeReading(channel);
+    }
   }
 
   /**
-   * Handles the incoming request and posts it the given handler if the data matches the settings of the handler.
+   * Writes a response to the given channel which body is read from the given stream. Reading from the stream might
+   * block (for example while the content is produced), therefore the stream is never read on the event loop.
    *
-   * @param httpHandlerEntry   the handler to post to if everything matches.
-   * @param context            the context of the request.
-   * @param fullPath           the full requested path.
-   * @param pathEntries        the entries one by one of the path uri.
-   * @param handlerPathEntries the entries of the http handler.
-   * @return true if the message was posted to the handler, false otherwise.
-   * @throws NullPointerException if one of the given parameters is null.
+   * @param channel  the channel to write the response to.
+   * @param response the response to write.
+   * @param stream   the stream to read the response body from.
+   * @return a future completed when the response was written.
+   * @throws NullPointerException if the given channel, response or stream is null.
    */
-  private boolean handleMessage0(
-    @NonNull NettyHttpServer.HttpHandlerEntry httpHandlerEntry,
-    @NonNull HttpContext context,
-    @NonNull String fullPath,
-    @NonNull String[] pathEntries,
-    @NonNull String[] handlerPathEntries
+  private @NonNull Future<Void> writeStreamResponse(
+    @NonNull Channel channel,
+    @NonNull FullHttpResponse response,
+    @NonNull InputStream stream
   ) {
-    var path = StringUtil.toLower(fullPath);
-
-    // validate that the port (if given) of the server and entry are matching
-    if (httpHandlerEntry.port() != null && httpHandlerEntry.port() != this.connectedAddress.port()) {
-      return false;
+    HttpUtil.setTransferEncodingChunked(response, true);
+    channel.write(new DefaultHttpResponse(response.protocolVersion(), response.status(), response.headers()));
+    response.close();
+
+    var promise = channel.<Void>newPromise();
+    Runnable transfer = () -> this.transferStream(channel, stream, promise);
+    if (!channel.executor().inEventLoop()) {
+      // the response is sent from a blocking handler, continue to use the thread
+      transfer.run();
+    } else if (!this.nettyHttpServer.executeBlocking(transfer)) {
+      // the executor has no capacity left, abort the transfer
+      this.closeQuietly(stream);
+      promise.setFailure(new IllegalStateException("No capacity left to transfer the response body"));
     }
 
-    // check if the path either ends with a wildcard or if the path entry length are matching
-    if (!httpHandlerEntry.path().endsWith("*") && pathEntries.length != handlerPathEntries.length) {
-      return false;
+    return promise.asFuture();
+  }
+
+  /**
+   * Transfers the content of the given stream to the given channel in chunks. Each chunk is written before the next
+   * chunk gets read, to not buffer the full body in memory when the client reads slowly.
+   *
+   * @param channel the channel to write the content to.
+   * @param stream  the stream to transfer.
+   * @param promise the promise to complete when the transfer completed.
+   * @throws NullPointerException if the given channel, stream or promise is null.
+   */
+  private void transferStream(@NonNull Channel channel, @NonNull InputStream stream, @NonNull Promise<Void> promise) {
+    try (stream) {
+      var buffer = new byte[RESPONSE_STREAM_CHUNK_SIZE];
+      int read;
+      while ((read = stream.read(buffer)) != -1) {
+        if (read > 0) {
+          var chunk = channel.bufferAllocator().allocate(read).writeBytes(buffer, 0, read);
+          channel.writeAndFlush(new DefaultHttpContent(chunk)).asStage().sync();
+        }
+      }
+
+      channel.writeAndFlush(new EmptyLastHttpContent(channel.bufferAllocator())).cascadeTo(promise);
+    } catch (Exception exception) {
+      if (exception instanceof InterruptedException) {
+        Thread.currentThread().interrupt();
+      }
+      promise.tryFailure(exception);
     }
+  }
 
-    // wildcard path check, if the path handler expects more entries than the original requested path
-    if (pathEntries.length < handlerPathEntries.length) {
-      return false;
+  /**
+   * Closes the given stream, ignoring all exceptions which occur while closing.
+   *
+   * @param stream the stream to close.
+   * @throws NullPointerException if the given stream is null.
+   */
+  private void closeQuietly(@NonNull InputStream stream) {
+    try {
+      stream.close();
+    } catch (IOException exception) {
+      LOGGER.fine("Unable to close response stream", exception);
     }
+  }
 
-    // validate that all path entries are matching
-    if (pathEntries.length != 1 || handlerPathEntries.length != 1) {
-      for (var index = 1; index < pathEntries.length; ++index) {
-        // check if the current index of the handler entries is a wildcard char and continue without further checking
-        var entry = handlerPathEntries[index];
-        if (entry.equals("*")) {
-          // special case: if the entry is the last entry of the path entries we can stop the check as it should
-          // match all upcoming uri path parts
-          if (handlerPathEntries.length - 1 == index) {
-            break;
-          }
-          continue;
-        }
+  /**
+   * Writes a response to the given channel which body is the content of the given file. If possible, the file content
+   * is transferred directly from the file system to the client without copying it into the user space.
+   *
+   * @param channel  the channel to write the response to.
+   * @param response the response to write.
+   * @param file     the file to write as the response body.
+   * @return a future completed when the response was written.
+   * @throws NullPointerException if the given channel, response or file is null.
+   */
+  private @NonNull Future<Void> writeFileResponse(
+    @NonNull Channel channel,
+    @NonNull FullHttpResponse response,
+    @NonNull Path file
+  ) {
+    long fileSize;
+    try {
+      fileSize = Files.size(file);
+    } catch (IOException exception) {
+      // the file is not accessible, respond with the fallback body
+      LOGGER.fine("Unable to read size of response file %s", exception, file);
+      response.setStatus(HttpResponseStatus.NOT_FOUND);
+      HttpUtil.setContentLength(response, response.payload().readableBytes());
+      return channel.writeAndFlush(response);
+    }
 
-        // check for a path parameter in the form {name}
-        if (entry.startsWith("{") && entry.endsWith("}") && entry.length() > 2) {
-          // remove the initial { and ending } and register the name with the provided value in the path
-          // parameters in the context and continue.
-          context.request().pathParameters().put(entry.substring(1, entry.length() - 1), pathEntries[index]);
-          continue;
-        }
+    // the content is sent as-is, ensure that it is not encoded by the compressor
+    HttpUtil.setTransferEncodingChunked(response, false);
+    HttpUtil.setContentLength(response, fileSize);
+    response.headers().set(HttpHeaderNames.CONTENT_ENCODING, HttpHeaderValues.IDENTITY);
+    channel.write(new DefaultHttpResponse(response.protocolVersion(), response.status(), response.headers()));
+    response.close();
+
+    if (channel.pipeline().get(SslHandler.class) == null) {
+      // transfer the file in segments, each segment opens the file only when it is actually transferred
+      for (var position = 0L; position < fileSize; position += FILE_REGION_SEGMENT_SIZE) {
+        var segmentSize = Math.min(FILE_REGION_SEGMENT_SIZE, fileSize - position);
+        channel.write(new DefaultFileRegion(file.toFile(), position, segmentSize));
+      }
 
-        // check if the uri does match at the position
-        if (!entry.equals(pathEntries[index])) {
-          return false;
-        }
+      return channel.writeAndFlush(new EmptyLastHttpContent(channel.bufferAllocator()));
+    } else {
+      // the file content must be encrypted, so it needs to be loaded into memory chunk by chunk
+      try {
+        var fileChannel = FileChannel.open(file, StandardOpenOption.READ);
+        return channel.writeAndFlush(new HttpChunkedInput(
+          new ChunkedNioFile(fileChannel, 0, fileSize, 8192),
+          new EmptyLastHttpContent(channel.bufferAllocator())));
+      } catch (IOException exception) {
+        LOGGER.fine("Unable to open response file %s", exception, file);
+        return channel.close();
       }
     }
+  }
+
+  /**
+   * Runs the given continuation of an asynchronously processed request. If the continuation fails unexpectedly the
+   * exception is logged and the connection to the client is closed.
+   *
+   * @param channel      the channel from which the request came.
+   * @param context      the context of the request.
+   * @param continuation the continuation to run.
+   * @throws NullPointerException if the given channel, context or continuation is null.
+   */
+  private void continueAsync(
+    @NonNull Channel channel,
+    @NonNull NettyHttpServerContext context,
+    @NonNull Runnable continuation
+  ) {
+    try {
+      continuation.run();
+    } catch (Throwable throwable) {
+      LOGGER.severe("Exception processing http request to %s", throwable, context.request().path());
+      channel.close();
+    }
+  }
+
+  /**
+   * Suspends the reading of new requests from the given channel until the current request was processed.
+   *
+   * @param channel the channel to suspend the reading of.
+   * @throws NullPointerException if the given channel is null.
+   */
+  private void suspendReading(@NonNull Channel channel) {
+    if (!this.readingSuspended) {
+      this.readingSuspended = true;
+      channel.setOption(ChannelOption.AUTO_READ, false);
+    }
+  }
+
+  /**
+   * Resumes the reading of new requests from the given channel if it was suspended before.
+   *
+   * @param channel the channel to resume the reading of.
+   * @throws NullPointerException if the given channel is null.
+   */
+  private void resumeReading(@NonNull Channel channel) {
+    if (this.readingSuspended) {
+      this.readingSuspended = false;
+      channel.setOption(ChannelOption.AUTO_READ, true);
+      channel.read();
+    }
+  }
+
+  /**
+   * Posts the incoming request to the given handler, after passing it to the preprocessors of the handler.
+   *
+   * @param httpHandlerEntry the handler to post to.
+   * @param context          the context of the request.
+   * @param fullPath         the full requested path.
+   * @return true if the message was posted to the handler, false otherwise.
+   * @throws NullPointerException if one of the given parameters is null.
+   */
+  private boolean handleMessage0(
+    @NonNull NettyHttpServer.HttpHandlerEntry httpHandlerEntry,
+    @NonNull HttpContext context,
+    @NonNull String fullPath
+  ) {
+    var path = StringUtil.toLower(fullPath);
 
     // post the context to the invocation handlers (if any registered)
     var preprocessors = httpHandlerEntry.httpHandler().preprocessors();
@@ -291,22 +734,81 @@ private boolean handleMessage0(
       httpHandlerEntry.httpHandler().handle(path, context);
       return true;
     } catch (Throwable throwable) {
-      // catch a http handle exception - that one is expected to be thrown
-      if (throwable instanceof HttpHandleException handleException) {
-        context.response()
-          .status(handleException.responseCode())
-          .body(Objects.requireNonNullElse(handleException.responseBody(), new byte[0]));
-        return false;
-      }
-
-      // assume that the request was bad so that the handler was unable to handle it
-      LOGGER.finer(
-        "Exception posting http request to handler %s",
-        throwable,
-        httpHandlerEntry.httpHandler().getClass().getName());
-      context.response().status(HttpResponseCode.BAD_REQUEST);
+      this.handleInvocationException(httpHandlerEntry, context, throwable);
       // continue with the next handler in the chain
       return false;
     }
   }
+
+  /**
+   * Handles an exception which was thrown by the given handler while processing a request.
+   *
+   * @param httpHandlerEntry the handler which threw the exception.
+   * @param context          the context of the request.
+   * @param throwable        the exception thrown by the handler.
+   * @throws NullPointerException if one of the given parameters is null.
+   */
+  private void handleInvocationException(
+    @NonNull NettyHttpServer.HttpHandlerEntry httpHandlerEntry,
+    @NonNull HttpContext context,
+    @NonNull Throwable throwable
+  ) {
+    // unwrap the exception if it was thrown during the completion of a future
+    if (throwable instanceof CompletionException && throwable.getCause() != null) {
+      throwable = throwable.getCause();
+    }
+
+    // catch a http handle exception - that one is expected to be thrown
+    if (throwable instanceof HttpHandleException handleException) {
+      context.response()
+        .status(handleException.responseCode())
+        .body(Objects.requireNonNullElse(handleException.responseBody(), new byte[0]));
+      return;
+    }
+
+    // assume that the request was bad so that the handler was unable to handle it
+    LOGGER.finer(
+      "Exception posting http request to handler %s",
+      throwable,
+      httpHandlerEntry.httpHandler().getClass().getName());
+    context.response().status(HttpResponseCode.BAD_REQUEST);
+  }
+
+  /**
+   * Holds the information about a request which are needed to post it to the matching handlers.
+   *
+   * @param routes      the routes which are matching the request, in invocation order.
+   * @param pathEntries the segments of the requested path.
+   * @param fullPath    the full requested path.
+   * @param streamBody  if the request body is streamed to the handlers.
+   * @since 4.0
+   */
+  private record RequestState(
+    @NonNull List<NettyHttpRouter.Route> routes,
+    @NonNull String[] pathEntries,
+    @NonNull String fullPath,
+    boolean streamBody
+  ) {
+
+  }
+
+  /**
+   * A request of which the body is currently received and aggregated.
+   *
+   * @param request     the head of the request.
+   * @param uri         the uri of the request.
+   * @param state       the information about the request which are needed to post it to the handlers.
+   * @param body        the buffer the received body is aggregated into.
+   * @param maxBodySize the maximum size of the request body.
+   * @since 4.0
+   */
+  private record PendingRequest(
+    @NonNull HttpRequest request,
+    @NonNull URI uri,
+    @NonNull RequestState state,
+    @NonNull CompositeBuffer body,
+    long maxBodySize
+  ) {
+
+  }
 }
@@ -20,7 +20,6 @@
 import io.netty5.channel.Channel;
 import io.netty5.channel.ChannelInitializer;
 import io.netty5.handler.codec.http.HttpContentCompressor;
-import io.netty5.handler.codec.http.HttpObjectAggregator;
 import io.netty5.handler.codec.http.HttpRequestDecoder;
 import io.netty5.handler.codec.http.HttpResponseEncoder;
 import io.netty5.handler.stream.ChunkedWriteHandler;
@@ -62,7 +61,6 @@ protected void initChannel(@NonNull Channel ch) {
     ch.pipeline()
       .addLast("read-timeout-handler", new NettyIdleStateHandler(30))
       .addLast("http-request-decoder", new HttpRequestDecoder())
-      .addLast("http-object-aggregator", new HttpObjectAggregator<>(Short.MAX_VALUE))
       .addLast("http-response-encoder", new HttpResponseEncoder())
       .addLast("http-response-compressor", new HttpContentCompressor())
       .addLast("http-chunk-handler", new ChunkedWriteHandler())
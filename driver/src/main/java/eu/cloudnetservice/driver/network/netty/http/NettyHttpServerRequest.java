@@ -22,8 +22,11 @@
 import eu.cloudnetservice.driver.network.http.HttpVersion;
 import io.netty5.buffer.BufferInputStream;
 import io.netty5.handler.codec.http.FullHttpRequest;
+import io.netty5.handler.codec.http.HttpUtil;
 import io.netty5.handler.codec.http.QueryStringDecoder;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
@@ -46,6 +49,7 @@ final class NettyHttpServerRequest extends NettyHttpMessage implements HttpReque
 
   private final Map<String, String> pathParameters;
   private final Map<String, List<String>> queryParameters;
+  private final NettyHttpRequestBodyStream bodyStream;
 
   private byte[] body;
 
@@ -56,18 +60,21 @@ final class NettyHttpServerRequest extends NettyHttpMessage implements HttpReque
    * @param httpRequest    the original netty request which gets wrapped.
    * @param pathParameters the extracted path parameters from the uri.
    * @param uri            the original uri of the request.
+   * @param bodyStream     the stream providing the request body if the body is streamed, null otherwise.
    * @throws NullPointerException if one of the given properties is null.
    */
   public NettyHttpServerRequest(
     @NonNull NettyHttpServerContext context,
     @NonNull io.netty5.handler.codec.http.HttpRequest httpRequest,
     @NonNull Map<String, String> pathParameters,
-    @NonNull URI uri
+    @NonNull URI uri,
+    @Nullable NettyHttpRequestBodyStream bodyStream
   ) {
     this.context = context;
     this.httpRequest = httpRequest;
     this.uri = uri;
     this.pathParameters = pathParameters;
+    this.bodyStream = bodyStream;
     this.queryParameters = new QueryStringDecoder(httpRequest.uri()).parameters();
   }
 
@@ -233,6 +240,19 @@ public byte[] body() {
       return this.body;
     }
 
+    if (this.bodyStream != null) {
+      if (this.body == null) {
+        try {
+          // read the full body from the stream
+          this.body = this.bodyStream.readAllBytes();
+        } catch (IOException exception) {
+          throw new UncheckedIOException("Unable to read streamed request body", exception);
+        }
+      }
+
+      return this.body;
+    }
+
     return new byte[0];
   }
 
@@ -265,6 +285,10 @@ public byte[] body() {
    */
   @Override
   public @Nullable InputStream bodyStream() {
+    if (this.bodyStream != null) {
+      return this.bodyStream;
+    }
+
     if (this.httpRequest instanceof FullHttpRequest fullHttpRequest) {
       return new BufferInputStream(fullHttpRequest.payload().send());
     } else {
@@ -285,6 +309,24 @@ public byte[] body() {
    */
   @Override
   public boolean hasBody() {
+    if (this.bodyStream != null) {
+      return HttpUtil.isTransferEncodingChunked(this.httpRequest) || HttpUtil.getContentLength(this.httpRequest, 0L) > 0;
+    }
+
     return this.httpRequest instanceof FullHttpRequest request && request.payload().readableBytes() > 0;
   }
+
+  /**
+   * Releases the resources held by this request after it was processed.
+   */
+  void release() {
+    if (this.bodyStream != null) {
+      this.bodyStream.close();
+    }
+
+    // the payload is no longer accessible if the body stream of the request was requested
+    if (this.httpRequest instanceof FullHttpRequest request && request.isAccessible()) {
+      request.close();
+    }
+  }
 }
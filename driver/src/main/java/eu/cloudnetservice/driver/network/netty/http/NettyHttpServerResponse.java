@@ -29,6 +29,7 @@
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Map;
 import lombok.NonNull;
@@ -44,6 +45,7 @@ final class NettyHttpServerResponse extends NettyHttpMessage implements HttpResp
   final FullHttpResponse httpResponse;
   private final NettyHttpServerContext context;
 
+  private Path responseFile;
   private InputStream responseInputStream;
 
   /**
@@ -250,11 +252,33 @@ public InputStream bodyStream() {
     return this;
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public @Nullable Path bodyFile() {
+    return this.responseFile;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public @NonNull HttpResponse body(@Nullable Path file) {
+    this.responseFile = file;
+    return this;
+  }
+
   /**
    * {@inheritDoc}
    */
   @Override
   public boolean hasBody() {
-    return this.httpResponse.payload().readableBytes() > 0 || this.responseInputStream != null;
+    return this.httpResponse.payload().readableBytes() > 0
+      || this.responseInputStream != null
+      || this.responseFile != null;
   }
 }
@@ -32,6 +32,7 @@
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import lombok.NonNull;
@@ -45,6 +46,7 @@
 final class NettyWebSocketServerChannel implements WebSocketChannel {
 
   private final Collection<WebSocketListener> webSocketListeners = ConcurrentHashMap.newKeySet();
+  private final AtomicBoolean closeHandled = new AtomicBoolean();
 
   private final Channel channel;
   private final HttpChannel httpChannel;
@@ -132,6 +134,14 @@ public NettyWebSocketServerChannel(@NonNull HttpChannel httpChannel, @NonNull Ch
     return this;
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean writable() {
+    return this.channel.isWritable();
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -147,10 +157,7 @@ public NettyWebSocketServerChannel(@NonNull HttpChannel httpChannel, @NonNull Ch
   public void close(int statusCode, @Nullable String reasonText) {
     var statusCodeReference = new AtomicInteger(statusCode);
     var reasonTextReference = new AtomicReference<>(reasonText);
-
-    for (var listener : this.webSocketListeners) {
-      listener.handleClose(this, statusCodeReference, reasonTextReference);
-    }
+    this.notifyClose(statusCodeReference, reasonTextReference);
 
     this.channel
       .writeAndFlush(new CloseWebSocketFrame(
@@ -167,4 +174,28 @@ public void close(int statusCode, @Nullable String reasonText) {
   public void close() {
     this.close(1000, "goodbye");
   }
+
+  /**
+   * Notifies all listeners that the connection was closed without a close frame being sent by either side.
+   */
+  void handleDisconnect() {
+    // 1006 indicates that the connection was closed abnormally
+    this.notifyClose(new AtomicInteger(1006), new AtomicReference<>());
+  }
+
+  /**
+   * Calls the close handler of all registered listeners, unless they were already notified about the close of this
+   * channel.
+   *
+   * @param statusCode the reference to the status code of the close.
+   * @param reasonText the reference to the reason text of the close.
+   * @throws NullPointerException if the given status code or reason text reference is null.
+   */
+  private void notifyClose(@NonNull AtomicInteger statusCode, @NonNull AtomicReference<String> reasonText) {
+    if (this.closeHandled.compareAndSet(false, true)) {
+      for (var listener : this.webSocketListeners) {
+        listener.handleClose(this, statusCode, reasonText);
+      }
+    }
+  }
 }
@@ -76,6 +76,7 @@ public void channelReadComplete(@NonNull ChannelHandlerContext ctx) {
    */
   @Override
   public void channelInactive(@NonNull ChannelHandlerContext ctx) {
+    this.webSocketServerChannel.handleDisconnect();
     if (!ctx.channel().isActive() || !ctx.channel().isOpen() || !ctx.channel().isWritable()) {
       ctx.channel().close();
     }
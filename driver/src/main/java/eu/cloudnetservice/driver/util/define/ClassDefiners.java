@@ -54,4 +54,14 @@ private ClassDefiners() {
   public static @NonNull ClassDefiner current() {
     return DEFINER;
   }
+
+  /**
+   * Get if the current definer defines classes as nestmates of the given parent class, which allows the defined classes
+   * to access private members of the parent class and all other classes in the same nest.
+   *
+   * @return true if the defined classes are nestmates of their parent class, false otherwise.
+   */
+  public static boolean definesNestmates() {
+    return DEFINER instanceof LookupClassDefiner;
+  }
 }
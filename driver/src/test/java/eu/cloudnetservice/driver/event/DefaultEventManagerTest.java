@@ -17,7 +17,15 @@
 package eu.cloudnetservice.driver.event;
 
 import com.google.common.collect.Iterables;
+import eu.cloudnetservice.driver.event.events.channel.ChannelMessageReceiveEvent;
 import eu.cloudnetservice.driver.event.events.service.CloudServiceLifecycleChangeEvent;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Order;
@@ -89,6 +97,156 @@ void testUnregisterListenerByClassLoader() {
     Assertions.assertEquals(0, eventManager.listeners.size());
   }
 
+  @Test
+  @Order(40)
+  void testPrivateListenerCallAndExceptionWrapping() {
+    var eventManager = new DefaultEventManager();
+    eventManager.registerListener(new PrivateTestListener());
+
+    var event = new TestEvent(1);
+    var exception = Assertions.assertThrows(EventListenerException.class, () -> eventManager.callEvent(event));
+
+    Assertions.assertEquals(2, event.number);
+    Assertions.assertInstanceOf(IllegalStateException.class, exception.getCause());
+  }
+
+  @Test
+  @Order(50)
+  void testSupertypeListenerDispatch() {
+    var eventManager = new DefaultEventManager();
+    Assertions.assertFalse(eventManager.hasListeners(TestEvent.class));
+
+    var listener = new SupertypeTestListener();
+    eventManager.registerListener(listener);
+
+    Assertions.assertTrue(eventManager.hasListeners(TestEvent.class));
+    Assertions.assertTrue(eventManager.hasListeners(CloudServiceLifecycleChangeEvent.class));
+
+    eventManager.callEvent(new TestEvent(1));
+    eventManager.callEvent("123", new TestEvent(1));
+    Assertions.assertEquals(1, listener.calls);
+
+    eventManager.unregisterListener(listener);
+    Assertions.assertFalse(eventManager.hasListeners(TestEvent.class));
+  }
+
+  @Test
+  @Order(60)
+  void testAsyncListenerOrdering() throws InterruptedException {
+    var eventManager = new DefaultEventManager();
+    var listener = new AsyncTestListener(1000);
+    eventManager.registerListener(listener);
+
+    for (var i = 0; i < 1000; i++) {
+      eventManager.callEvent(new TestEvent(i));
+    }
+
+    Assertions.assertTrue(listener.latch.await(10, TimeUnit.SECONDS));
+    Assertions.assertEquals(1000, listener.receivedNumbers.size());
+    for (var i = 0; i < 1000; i++) {
+      Assertions.assertEquals(i, listener.receivedNumbers.get(i));
+    }
+    Assertions.assertNotEquals(Thread.currentThread(), listener.thread);
+  }
+
+  @Test
+  @Order(70)
+  void testAsyncListenerIsolation() throws InterruptedException {
+    var eventManager = new DefaultEventManager();
+    var blockingListener = new BlockingAsyncTestListener();
+    var listener = new AsyncTestListener(2);
+    eventManager.registerListeners(blockingListener, listener);
+
+    // neither the blocked nor the failing listener must delay the caller or other listeners
+    var event = new TestEvent(0);
+    Assertions.assertSame(event, eventManager.callEvent(event));
+    eventManager.callEvent(new TestEvent(1));
+
+    Assertions.assertTrue(listener.latch.await(10, TimeUnit.SECONDS));
+    Assertions.assertEquals(List.of(0, 1), listener.receivedNumbers);
+
+    blockingListener.release.countDown();
+  }
+
+  @Test
+  @Order(80)
+  void testAsyncListenerRejectedForResultEvents() {
+    var eventManager = new DefaultEventManager();
+
+    Assertions.assertThrows(
+      IllegalArgumentException.class,
+      () -> eventManager.registerListener(new AsyncCancelableTestListener()));
+    Assertions.assertThrows(
+      IllegalArgumentException.class,
+      () -> eventManager.registerListener(new AsyncChannelMessageTestListener()));
+    Assertions.assertFalse(eventManager.hasListeners(CancelableTestEvent.class));
+    Assertions.assertFalse(eventManager.hasListeners(ChannelMessageReceiveEvent.class));
+  }
+
+  @Test
+  @Order(90)
+  void testAsyncListenerQueueIsBounded() throws InterruptedException {
+    var eventManager = new DefaultEventManager();
+    var listener = new BlockingAsyncTestListener();
+    eventManager.registerListener(listener);
+
+    // block the listener with the first event, the following events are queued
+    eventManager.callEvent(new TestEvent(0));
+    Assertions.assertTrue(listener.started.await(10, TimeUnit.SECONDS));
+
+    var maxPendingEvents = DefaultEventManager.ASYNC_LISTENER_MAX_PENDING_EVENTS;
+    for (var i = 1; i <= maxPendingEvents + 10; i++) {
+      eventManager.callEvent(new TestEvent(i));
+    }
+
+    // only the events which fitted into the queue are delivered
+    listener.release.countDown();
+    var deadline = System.currentTimeMillis() + 10_000;
+    while (listener.receivedEvents.get() <= maxPendingEvents && System.currentTimeMillis() < deadline) {
+      //noinspection BusyWait
+      Thread.sleep(10);
+    }
+
+    Thread.sleep(100);
+    Assertions.assertEquals(maxPendingEvents + 1, listener.receivedEvents.get());
+  }
+
+  @Test
+  @Order(100)
+  void testUnregisterDiscardsPendingAsyncEvents() throws InterruptedException {
+    var eventManager = new DefaultEventManager();
+    var listener = new BlockingAsyncTestListener();
+    eventManager.registerListener(listener);
+
+    eventManager.callEvent(new TestEvent(0));
+    Assertions.assertTrue(listener.started.await(10, TimeUnit.SECONDS));
+    for (var i = 1; i <= 10; i++) {
+      eventManager.callEvent(new TestEvent(i));
+    }
+
+    // the event which is currently posted completes, the queued events are discarded
+    eventManager.unregisterListeners(BlockingAsyncTestListener.class.getClassLoader());
+    listener.release.countDown();
+    Thread.sleep(100);
+    Assertions.assertEquals(1, listener.receivedEvents.get());
+  }
+
+  @Test
+  @Order(110)
+  void testOnlySingletonScopedArgumentsAreReused() {
+    var eventManager = new DefaultEventManager();
+    var listener = new InjectingTestListener();
+    eventManager.registerListener(listener);
+
+    eventManager.callEvent(new TestEvent(0));
+    eventManager.callEvent(new TestEvent(1));
+
+    Assertions.assertEquals(2, listener.singletonArguments.size());
+    Assertions.assertSame(listener.singletonArguments.get(0), listener.singletonArguments.get(1));
+    Assertions.assertEquals(2, listener.unscopedArguments.size());
+    Assertions.assertNotSame(listener.unscopedArguments.get(0), listener.unscopedArguments.get(1));
+  }
+
   private DefaultEventManager newEventManagerWithListener() {
     var eventManager = new DefaultEventManager();
 
@@ -132,6 +290,118 @@ public boolean equals(Object obj) {
     }
   }
 
+  private static final class PrivateTestListener {
+
+    @EventListener
+    private void handle(TestEvent event) {
+      event.number++;
+      throw new IllegalStateException("expected");
+    }
+  }
+
+  private static final class SupertypeTestListener {
+
+    private int calls;
+
+    @EventListener
+    public void handle(Event event) {
+      this.calls++;
+    }
+  }
+
+  private static final class AsyncTestListener {
+
+    private final CountDownLatch latch;
+    private final List<Integer> receivedNumbers = new CopyOnWriteArrayList<>();
+
+    private volatile Thread thread;
+
+    public AsyncTestListener(int expectedEvents) {
+      this.latch = new CountDownLatch(expectedEvents);
+    }
+
+    @EventListener(async = true)
+    public void handle(TestEvent event) {
+      this.thread = Thread.currentThread();
+      this.receivedNumbers.add(event.number);
+      this.latch.countDown();
+    }
+  }
+
+  private static final class BlockingAsyncTestListener {
+
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger receivedEvents = new AtomicInteger();
+
+    @EventListener(async = true)
+    public void handle(TestEvent event) throws InterruptedException {
+      if (event.number == 0) {
+        this.started.countDown();
+        this.release.await();
+      }
+
+      this.receivedEvents.incrementAndGet();
+      throw new IllegalStateException("expected");
+    }
+  }
+
+  private static final class InjectingTestListener {
+
+    private final List<SingletonArgument> singletonArguments = new CopyOnWriteArrayList<>();
+    private final List<UnscopedArgument> unscopedArguments = new CopyOnWriteArrayList<>();
+
+    @EventListener
+    public void handle(TestEvent event, SingletonArgument singletonArgument, UnscopedArgument unscopedArgument) {
+      this.singletonArguments.add(singletonArgument);
+      this.unscopedArguments.add(unscopedArgument);
+    }
+  }
+
+  @Singleton
+  public static final class SingletonArgument {
+
+    @Inject
+    public SingletonArgument() {
+    }
+  }
+
+  public static final class UnscopedArgument {
+
+    @Inject
+    public UnscopedArgument() {
+    }
+  }
+
+  private static final class AsyncCancelableTestListener {
+
+    @EventListener(async = true)
+    public void handle(CancelableTestEvent event) {
+    }
+  }
+
+  private static final class AsyncChannelMessageTestListener {
+
+    @EventListener(async = true)
+    public void handle(ChannelMessageReceiveEvent event) {
+    }
+  }
+
+  private static final class CancelableTestEvent extends Event implements Cancelable {
+
+    private boolean cancelled;
+
+    @Override
+    public boolean cancelled() {
+      return this.cancelled;
+    }
+
+    @Override
+    public void cancelled(boolean value) {
+      this.cancelled = value;
+    }
+  }
+
   private static final class TestEvent extends Event {
 
     private int number;
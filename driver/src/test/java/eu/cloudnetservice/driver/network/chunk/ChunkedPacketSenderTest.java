@@ -16,19 +16,38 @@
 
 package eu.cloudnetservice.driver.network.chunk;
 
+import eu.cloudnetservice.common.concurrent.Task;
 import eu.cloudnetservice.driver.network.NetworkChannel;
 import eu.cloudnetservice.driver.network.buffer.DataBuf;
 import eu.cloudnetservice.driver.network.chunk.data.ChunkSessionInformation;
+import eu.cloudnetservice.driver.network.chunk.defaults.DefaultFileChunkedPacketHandler;
 import eu.cloudnetservice.driver.network.chunk.defaults.splitter.NetworkChannelsPacketSplitter;
+import eu.cloudnetservice.driver.network.chunk.network.ChunkedPacket;
+import eu.cloudnetservice.driver.network.chunk.network.ChunkedPacketListener;
+import eu.cloudnetservice.driver.network.protocol.BasePacket;
 import eu.cloudnetservice.driver.network.protocol.Packet;
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.zip.CRC32C;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Order;
@@ -95,6 +114,337 @@ void testNetworkChannelSplitter() throws Exception {
       .get());
   }
 
+  @Test
+  @Order(20)
+  @Timeout(20)
+  void testChecksumValidationAndResume() throws Exception {
+    var chunkData = this.generateRandomChunkData();
+    var information = new ChunkSessionInformation(256, UUID.randomUUID(), "hello_world", DataBuf.empty());
+
+    var receivedData = new CompletableFuture<byte[]>();
+    var tempFile = Files.createTempFile("chunk_test", null);
+    var handler = new DefaultFileChunkedPacketHandler(
+      information,
+      ($, stream) -> receivedData.complete(stream.readAllBytes()),
+      tempFile);
+
+    var chunks = chunkData.length / 256;
+    for (var index = 0; index <= chunks; index++) {
+      var packet = index == chunks
+        ? ChunkedPacket.createChunk(information, chunks, index, 0, new byte[0])
+        : ChunkedPacket.createChunk(information, index, Arrays.copyOfRange(chunkData, index * 256, (index + 1) * 256));
+      var content = packet.content();
+      content.readObject(ChunkSessionInformation.class);
+      var chunkIndex = content.readInt();
+
+      if (index == 5) {
+        // send the chunk with a checksum which doesn't match the content, the chunk must be rejected
+        var corruptedContent = DataBuf.empty()
+          .writeBoolean(false)
+          .writeInt(0)
+          .writeByteArray(Arrays.copyOfRange(chunkData, index * 256, (index + 1) * 256));
+        Assertions.assertThrows(IllegalStateException.class, () -> handler.handleChunkPart(5, corruptedContent));
+        Assertions.assertEquals(5, handler.acknowledgedChunks());
+        Assertions.assertEquals(TransferStatus.RUNNING, handler.transferStatus());
+      }
+
+      Assertions.assertEquals(index == chunks, handler.handleChunkPart(chunkIndex, content));
+      Assertions.assertEquals(index + 1, handler.acknowledgedChunks());
+    }
+
+    // the session is completed asynchronously, the temp file is deleted after the callback returned
+    Assertions.assertEquals(TransferStatus.SUCCESS, handler.transferStatus());
+    Assertions.assertArrayEquals(chunkData, receivedData.get());
+    while (Files.exists(tempFile)) {
+      Thread.sleep(10);
+    }
+  }
+
+  @Test
+  @Order(30)
+  @Timeout(20)
+  void testParallelStreams() throws Exception {
+    var chunkData = new byte[256 * 64 + 100];
+    ThreadLocalRandom.current().nextBytes(chunkData);
+
+    var sourceFile = Files.createTempFile("chunk_test", null);
+    Files.write(sourceFile, chunkData);
+
+    // transfer the data once from a file and once from a stream
+    for (var fromFile : new boolean[]{true, false}) {
+      var receivedData = new CompletableFuture<byte[]>();
+      var information = new ChunkSessionInformation(256, UUID.randomUUID(), "hello_world", DataBuf.empty());
+      var handler = new DefaultFileChunkedPacketHandler(
+        information,
+        ($, stream) -> receivedData.complete(stream.readAllBytes()),
+        Files.createTempFile("chunk_test", null));
+
+      var builder = ChunkedPacketSender.forFileTransfer();
+      if (fromFile) {
+        builder.forFile(sourceFile);
+      } else {
+        builder.source(new ByteArrayInputStream(chunkData));
+      }
+
+      List<Integer> sentChunkIndexes = new CopyOnWriteArrayList<>();
+      Assertions.assertEquals(TransferStatus.SUCCESS, builder
+        .chunkSize(256)
+        .parallelStreams(4)
+        .sessionUniqueId(information.sessionUniqueId())
+        .transferChannel("hello_world")
+        .packetSplitter(packet -> {
+          packet.content().readObject(ChunkSessionInformation.class);
+          var chunkIndex = packet.content().readInt();
+          sentChunkIndexes.add(chunkIndex);
+          handler.handleChunkPart(chunkIndex, packet.content());
+        })
+        .build()
+        .transferChunkedData()
+        .get());
+
+      Assertions.assertEquals(TransferStatus.SUCCESS, handler.transferStatus());
+      Assertions.assertArrayEquals(chunkData, receivedData.get());
+
+      // a source stream can only be read in order, it must be transferred by a single stream
+      if (!fromFile) {
+        Assertions.assertEquals(IntStream.rangeClosed(0, 64).boxed().toList(), sentChunkIndexes);
+      }
+    }
+
+    Files.delete(sourceFile);
+  }
+
+  @Test
+  @Order(40)
+  @Timeout(20)
+  void testAcknowledgeWindow() throws Exception {
+    var chunkData = this.generateRandomChunkData();
+    var target = new TestTarget();
+
+    // acknowledge the chunks delayed, the sender must wait for them once the window is full
+    var pendingResponses = new AtomicInteger();
+    var maxPendingResponses = new AtomicInteger();
+    var channel = target.mockChannel((chunkIndex, delivery) -> {
+      var response = delivery.call();
+      var task = new Task<Packet>();
+      maxPendingResponses.accumulateAndGet(pendingResponses.incrementAndGet(), Math::max);
+      Task.supply(() -> {
+        Thread.sleep(5);
+        pendingResponses.decrementAndGet();
+        return task.complete(response);
+      });
+      return task;
+    });
+
+    Assertions.assertEquals(TransferStatus.SUCCESS, this.transferToTargets(
+      UUID.randomUUID(),
+      new ByteArrayInputStream(chunkData),
+      4,
+      channel));
+    Assertions.assertArrayEquals(chunkData, target.receivedData.get());
+    Assertions.assertTrue(maxPendingResponses.get() > 1 && maxPendingResponses.get() <= 4);
+    Assertions.assertEquals(0, target.listener.runningSessionCount());
+  }
+
+  @Test
+  @Order(50)
+  @Timeout(20)
+  void testRejectedChunkIsResent() throws Exception {
+    var chunkData = this.generateRandomChunkData();
+    var target = new TestTarget();
+
+    // reject the chunk at index 3 once, as if the receiver was unable to validate its content
+    var rejected = new AtomicBoolean();
+    var sentQueries = new AtomicInteger();
+    var channel = target.mockChannel((chunkIndex, delivery) -> {
+      sentQueries.incrementAndGet();
+      if (chunkIndex == 3 && !rejected.getAndSet(true)) {
+        return Task.completedTask(new BasePacket(-1, DataBuf.empty().writeBoolean(false).writeInt(3)));
+      }
+      return Task.completedTask(delivery.call());
+    });
+
+    Assertions.assertEquals(TransferStatus.SUCCESS, this.transferToTargets(
+      UUID.randomUUID(),
+      new ByteArrayInputStream(chunkData),
+      4,
+      channel));
+    Assertions.assertArrayEquals(chunkData, target.receivedData.get());
+    // the status request, 17 chunks and the rejected chunk which was sent again
+    Assertions.assertEquals(19, sentQueries.get());
+
+    // a chunk which is never accepted must fail the transfer
+    var failingChannel = new TestTarget().mockChannel((chunkIndex, delivery) -> chunkIndex == 3
+      ? Task.completedTask(new BasePacket(-1, DataBuf.empty().writeBoolean(false).writeInt(3)))
+      : Task.completedTask(delivery.call()));
+    var exception = Assertions.assertThrows(ExecutionException.class, () -> this.transferToTargets(
+      UUID.randomUUID(),
+      new ByteArrayInputStream(chunkData),
+      4,
+      failingChannel));
+    Assertions.assertInstanceOf(IllegalStateException.class, exception.getCause());
+  }
+
+  @Test
+  @Order(60)
+  @Timeout(20)
+  void testResumeSession() throws Exception {
+    var chunkData = this.generateRandomChunkData();
+    var sessionId = UUID.randomUUID();
+    var target = new TestTarget();
+
+    // the first attempt loses the connection when sending the chunk at index 8
+    var sentChunkIndexes = new ArrayList<Integer>();
+    var channel = this.mockDisconnectingChannel(target, sentChunkIndexes);
+    Assertions.assertThrows(ExecutionException.class, () -> this.transferToTargets(
+      sessionId,
+      new ByteArrayInputStream(chunkData),
+      1,
+      channel));
+    Assertions.assertEquals(1, target.listener.runningSessionCount());
+    Assertions.assertEquals(8, target.handler.get().acknowledgedChunks());
+
+    // the second attempt uses the same session and source, only the missing chunks are sent
+    sentChunkIndexes.clear();
+    Assertions.assertEquals(TransferStatus.SUCCESS, this.transferToTargets(
+      sessionId,
+      new ByteArrayInputStream(chunkData),
+      4,
+      channel));
+    Assertions.assertArrayEquals(chunkData, target.receivedData.get());
+    Assertions.assertEquals(
+      List.of(ChunkedPacket.SESSION_STATUS_INDEX, ChunkedPacket.SESSION_RESUME_INDEX, 8, 9, 10, 11, 12, 13, 14, 15, 16),
+      sentChunkIndexes);
+  }
+
+  @Test
+  @Order(70)
+  @Timeout(20)
+  void testResumeSessionWithChangedSource() throws Exception {
+    var chunkData = this.generateRandomChunkData();
+    var sessionId = UUID.randomUUID();
+    var target = new TestTarget();
+
+    // the first attempt loses the connection when sending the chunk at index 8
+    var sentChunkIndexes = new ArrayList<Integer>();
+    var channel = this.mockDisconnectingChannel(target, sentChunkIndexes);
+    Assertions.assertThrows(ExecutionException.class, () -> this.transferToTargets(
+      sessionId,
+      new ByteArrayInputStream(chunkData),
+      1,
+      channel));
+
+    // the second attempt uses a source which differs from the chunk at index 4 on, for example a newly generated zip
+    // file. The chunks received after the change must be replaced rather than mixing the content of both sources
+    var changedData = Arrays.copyOf(chunkData, chunkData.length);
+    changedData[4 * 256 + 10] ^= 1;
+
+    var sourceFile = Files.createTempFile("chunk_test", null);
+    Files.write(sourceFile, changedData);
+
+    sentChunkIndexes.clear();
+    Assertions.assertEquals(TransferStatus.SUCCESS, ChunkedPacketSender.forFileTransfer()
+      .forFile(sourceFile)
+      .chunkSize(256)
+      .acknowledgeWindow(4)
+      .sessionUniqueId(sessionId)
+      .transferChannel("hello_world")
+      .toChannels(channel)
+      .build()
+      .transferChunkedData()
+      .get());
+    Assertions.assertArrayEquals(changedData, target.receivedData.get());
+    Assertions.assertEquals(
+      List.of(ChunkedPacket.SESSION_STATUS_INDEX, ChunkedPacket.SESSION_RESUME_INDEX, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14,
+        15, 16),
+      sentChunkIndexes);
+
+    Files.delete(sourceFile);
+  }
+
+  @Test
+  @Order(80)
+  @Timeout(20)
+  void testIdleSessionExpiry() throws Exception {
+    var target = new TestTarget();
+    var information = new ChunkSessionInformation(256, UUID.randomUUID(), "hello_world", DataBuf.empty());
+
+    var channel = target.mockChannel((chunkIndex, delivery) -> Task.completedTask(delivery.call()));
+    channel.sendQueryAsync(ChunkedPacket.createChunk(information, 0, new byte[256])).get();
+    Assertions.assertEquals(1, target.listener.runningSessionCount());
+
+    // the session is still in use
+    target.listener.expireIdleSessions(Duration.ofMinutes(1));
+    Assertions.assertEquals(1, target.listener.runningSessionCount());
+
+    // the session is abandoned, the temp file must be removed
+    Thread.sleep(5);
+    target.listener.expireIdleSessions(Duration.ofMillis(1));
+    Assertions.assertEquals(0, target.listener.runningSessionCount());
+    Assertions.assertEquals(TransferStatus.FAILURE, target.handler.get().transferStatus());
+    Assertions.assertTrue(Files.notExists(target.tempFile));
+  }
+
+  @Test
+  @Order(90)
+  @Timeout(20)
+  void testChunkOfCompletedSessionIsAcknowledged() throws Exception {
+    var target = new TestTarget();
+    var information = new ChunkSessionInformation(256, UUID.randomUUID(), "hello_world", DataBuf.empty());
+    var data = new byte[256];
+    ThreadLocalRandom.current().nextBytes(data);
+
+    var channel = target.mockChannel((chunkIndex, delivery) -> Task.completedTask(delivery.call()));
+    channel.sendQueryAsync(ChunkedPacket.createChunk(information, 0, data)).get();
+    var finalChunk = channel.sendQueryAsync(ChunkedPacket.createChunk(information, 1, 1, 0, new byte[0])).get();
+    Assertions.assertTrue(finalChunk.content().readBoolean());
+    Assertions.assertArrayEquals(data, target.receivedData.get());
+
+    // the acknowledgement of the final chunk got lost, the sender sends the chunks again
+    var completedHandler = target.handler.get();
+    for (var chunk : List.of(
+      ChunkedPacket.createChunk(information, 0, data),
+      ChunkedPacket.createChunk(information, 1, 1, 0, new byte[0]))
+    ) {
+      var response = channel.sendQueryAsync(chunk).get();
+      Assertions.assertTrue(response.content().readBoolean());
+      Assertions.assertEquals(2, response.content().readInt());
+    }
+
+    // no new session must be opened for the completed one
+    Assertions.assertSame(completedHandler, target.handler.get());
+    Assertions.assertEquals(0, target.listener.runningSessionCount());
+  }
+
+  private NetworkChannel mockDisconnectingChannel(TestTarget target, List<Integer> sentChunkIndexes) {
+    var disconnected = new AtomicBoolean();
+    return target.mockChannel((chunkIndex, delivery) -> {
+      if (chunkIndex == 8 && !disconnected.getAndSet(true)) {
+        return Task.wrapFuture(CompletableFuture.failedFuture(new IllegalStateException("disconnected")));
+      }
+      sentChunkIndexes.add(chunkIndex);
+      return Task.completedTask(delivery.call());
+    });
+  }
+
+  private TransferStatus transferToTargets(
+    UUID sessionId,
+    InputStream source,
+    int acknowledgeWindow,
+    NetworkChannel... channels
+  ) throws Exception {
+    return ChunkedPacketSender.forFileTransfer()
+      .chunkSize(256)
+      .acknowledgeWindow(acknowledgeWindow)
+      .sessionUniqueId(sessionId)
+      .transferChannel("hello_world")
+      .source(source)
+      .toChannels(channels)
+      .build()
+      .transferChunkedData()
+      .get();
+  }
+
   private byte[] generateRandomChunkData() {
     var data = new byte[4096];
     ThreadLocalRandom.current().nextBytes(data);
@@ -120,6 +470,8 @@ private void validatePacket(Packet packet, UUID sessionId, AtomicInteger splits,
       Assertions.assertEquals(data.length / 256, packet.content().readInt());
     }
 
+    var checksum = packet.content().readInt();
+
     // this prevents a weird bug happening. When copying an array beginning at the length of the array (in this case
     // 4096) it will not throw an exception as expected but give you back an array with the expected 256 size full
     // of zeros which will cause this test to fail.
@@ -128,11 +480,81 @@ private void validatePacket(Packet packet, UUID sessionId, AtomicInteger splits,
       ? new byte[0]
       : Arrays.copyOfRange(data, sourcePosition, (splits.get() + 1) * 256);
 
+    var expectedChecksum = new CRC32C();
+    expectedChecksum.update(contentAtPosition);
+    Assertions.assertEquals((int) expectedChecksum.getValue(), checksum);
+
     Assertions.assertArrayEquals(
       contentAtPosition,
       packet.content().readByteArray());
   }
 
+  /**
+   * Handles the packets sent as queries to a mocked channel using a chunked packet listener, as the receiving side of a
+   * connection would do.
+   */
+  private static final class TestTarget {
+
+    private final Path tempFile;
+    private final CompletableFuture<byte[]> receivedData = new CompletableFuture<>();
+    private final AtomicReference<DefaultFileChunkedPacketHandler> handler = new AtomicReference<>();
+    private final ChunkedPacketListener listener;
+
+    private TestTarget() throws IOException {
+      this.tempFile = Files.createTempFile("chunk_test", null);
+      this.listener = new ChunkedPacketListener(information -> {
+        var handler = new DefaultFileChunkedPacketHandler(
+          information,
+          ($, stream) -> this.receivedData.complete(stream.readAllBytes()),
+          this.tempFile);
+        this.handler.set(handler);
+        return handler;
+      });
+    }
+
+    /**
+     * Creates a channel which passes the queries to the given handler. The handler decides about the response of the
+     * query, calling the given delivery passes the query to the listener of this target and returns its response.
+     */
+    private NetworkChannel mockChannel(QueryHandler queryHandler) {
+      var channel = Mockito.mock(NetworkChannel.class);
+      var response = new ThreadLocal<Packet>();
+      Mockito
+        .doAnswer(invocation -> {
+          response.set(invocation.getArgument(0));
+          return null;
+        })
+        .when(channel)
+        .sendPacket(Mockito.any(Packet.class));
+      Mockito
+        .doAnswer(invocation -> {
+          Packet packet = invocation.getArgument(0);
+          packet.uniqueId(UUID.randomUUID());
+
+          // read the chunk index, then reset the content for the listener. The content is read multiple times here,
+          // while a real connection hands a copy of it to the listener
+          packet.content().disableReleasing().startTransaction();
+          packet.content().readObject(ChunkSessionInformation.class);
+          var chunkIndex = packet.content().readInt();
+          packet.content().redoTransaction();
+
+          return queryHandler.handle(chunkIndex, () -> {
+            this.listener.handle(channel, packet);
+            return response.get();
+          });
+        })
+        .when(channel)
+        .sendQueryAsync(Mockito.any(Packet.class));
+      return channel;
+    }
+  }
+
+  @FunctionalInterface
+  private interface QueryHandler {
+
+    Task<Packet> handle(int chunkIndex, Callable<Packet> delivery) throws Exception;
+  }
+
   private NetworkChannel mockNetworkChannel(Consumer<Packet> packetSyncSendHandler) {
     var channel = Mockito.mock(NetworkChannel.class);
     Mockito
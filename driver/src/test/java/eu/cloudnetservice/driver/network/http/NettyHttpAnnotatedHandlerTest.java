@@ -20,6 +20,7 @@
 
 import eu.cloudnetservice.common.document.gson.JsonDocument;
 import eu.cloudnetservice.driver.network.NetworkTestCase;
+import eu.cloudnetservice.driver.network.http.annotation.ExecutionPolicy;
 import eu.cloudnetservice.driver.network.http.annotation.FirstRequestQueryParam;
 import eu.cloudnetservice.driver.network.http.annotation.HttpRequestHandler;
 import eu.cloudnetservice.driver.network.http.annotation.Optional;
@@ -33,6 +34,8 @@
 import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -100,8 +103,30 @@ void testHandlerCalledCorrectlyWithBody() throws Exception {
     Assertions.assertEquals(HttpURLConnection.HTTP_ACCEPTED, connection2.getResponseCode());
   }
 
+  @Test
+  void testBlockingHandlerCompletedAsynchronously() throws Exception {
+    var port = this.randomFreePort();
+    var server = new NettyHttpServer();
+
+    Assertions.assertDoesNotThrow(() -> server.addListener(port).join());
+    Assertions.assertDoesNotThrow(() -> server.annotationParser().parseAndRegister(new AnnotatedHandler()));
+
+    var connection = Assertions.assertDoesNotThrow(() -> connectTo(port, "test/async"));
+    Assertions.assertEquals(HttpURLConnection.HTTP_OK, connection.getResponseCode());
+    Assertions.assertEquals("Async", connection.getHeaderField("Test"));
+  }
+
   public static final class AnnotatedHandler {
 
+    @ExecutionPolicy(HttpExecutionPolicy.BLOCKING)
+    @HttpRequestHandler(paths = "/test/async", priority = 0)
+    public CompletableFuture<Void> handleAsync(HttpContext context) {
+      Assertions.assertTrue(Thread.currentThread().getName().startsWith("HTTP-Blocking-Handler-"));
+      return CompletableFuture.runAsync(
+        () -> context.cancelNext(true).response().status(HttpResponseCode.OK).header("Test", "Async"),
+        CompletableFuture.delayedExecutor(50, TimeUnit.MILLISECONDS));
+    }
+
     @HttpRequestHandler(paths = "/test/hello/{id}", priority = 0)
     public void handleTestHello(
       HttpContext context,
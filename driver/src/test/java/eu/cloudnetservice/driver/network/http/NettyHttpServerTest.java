@@ -20,19 +20,42 @@
 import eu.cloudnetservice.common.document.gson.JsonDocument;
 import eu.cloudnetservice.common.function.ThrowableConsumer;
 import eu.cloudnetservice.driver.network.NetworkTestCase;
+import eu.cloudnetservice.driver.network.http.websocket.WebSocketBroadcaster;
 import eu.cloudnetservice.driver.network.http.websocket.WebSocketFrameType;
+import eu.cloudnetservice.driver.network.http.websocket.WebSocketLineBatcher;
 import eu.cloudnetservice.driver.network.netty.http.NettyHttpServer;
 import io.netty5.handler.codec.http.headers.DefaultHttpCookiePair;
 import io.netty5.handler.codec.http.headers.DefaultHttpSetCookie;
+import jakarta.websocket.ClientEndpointConfig;
+import jakarta.websocket.Endpoint;
+import jakarta.websocket.EndpointConfig;
+import jakarta.websocket.Session;
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.io.SequenceInputStream;
 import java.net.HttpURLConnection;
 import java.net.URI;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 import java.util.zip.GZIPInputStream;
 import org.glassfish.tyrus.client.ClientManager;
 import org.junit.jupiter.api.Assertions;
@@ -73,6 +96,17 @@ static URL httpUrl(int port, String path) throws Exception {
     return new URL(String.format("http://127.0.0.1:%d/%s", port, path == null ? "" : path));
   }
 
+  static Path createSparseFile(long size) throws Exception {
+    // only the trailing bytes are written, the file system does not allocate the space before them
+    var file = Files.createTempFile("http_file_test", null);
+    try (var randomAccessFile = new RandomAccessFile(file.toFile(), "rw")) {
+      randomAccessFile.setLength(size);
+      randomAccessFile.seek(size - 4);
+      randomAccessFile.write("test".getBytes(StandardCharsets.UTF_8));
+    }
+    return file;
+  }
+
   @Test
   @Order(0)
   void testHttpHandlerRegister() {
@@ -477,4 +511,570 @@ public void handle(String path, HttpContext context) {
       Thread.sleep(50);
     }
   }
+
+  @Test
+  @Order(110)
+  @Timeout(60)
+  void testBlockingHandlersDoNotStallOtherRequests() throws Exception {
+    var port = this.randomFreePort();
+    HttpServer server = new NettyHttpServer();
+
+    server.registerHandler("/slow", new HttpHandler() {
+      @Override
+      public void handle(String path, HttpContext context) throws Exception {
+        Thread.sleep(500);
+        context.response().status(HttpResponseCode.OK).context().cancelNext(true);
+      }
+    }.executionPolicy(HttpExecutionPolicy.BLOCKING));
+    server.registerHandler("/fast", new HttpHandler() {
+      @Override
+      public void handle(String path, HttpContext context) {
+        context.response().status(HttpResponseCode.OK).context().cancelNext(true);
+      }
+    });
+    Assertions.assertDoesNotThrow(() -> server.addListener(port).join());
+
+    // occupy more connections with slow requests than there are event loop threads
+    var slowRequestCount = Runtime.getRuntime().availableProcessors() * 4;
+    var executor = Executors.newFixedThreadPool(slowRequestCount);
+    try {
+      List<CompletableFuture<Integer>> slowRequests = new ArrayList<>();
+      for (var i = 0; i < slowRequestCount; i++) {
+        slowRequests.add(CompletableFuture.supplyAsync(() -> {
+          try {
+            return connectTo(port, "slow").getResponseCode();
+          } catch (Exception exception) {
+            throw new CompletionException(exception);
+          }
+        }, executor));
+      }
+
+      // wait until the slow requests are being processed, then measure the latency of the fast requests
+      Thread.sleep(100);
+      List<Long> fastLatencies = new ArrayList<>();
+      for (var i = 0; i < 20; i++) {
+        var start = System.nanoTime();
+        Assertions.assertEquals(200, connectTo(port, "fast").getResponseCode());
+        fastLatencies.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+      }
+
+      for (var slowRequest : slowRequests) {
+        Assertions.assertEquals(200, slowRequest.join());
+      }
+
+      // the slowest fast request must not have waited for a slow request
+      var maxFastLatency = fastLatencies.stream().mapToLong(Long::longValue).max().orElseThrow();
+      Assertions.assertTrue(maxFastLatency < 500, "Fast request took " + maxFastLatency + "ms");
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  @Order(115)
+  @Timeout(20)
+  void testBlockingHandlerReadsRequestBody() throws Exception {
+    var port = this.randomFreePort();
+    HttpServer server = new NettyHttpServer();
+
+    server.registerHandler("/echo", new HttpHandler() {
+      @Override
+      public void handle(String path, HttpContext context) throws Exception {
+        // the request is handled after the event loop finished processing it, the body must still be readable
+        Thread.sleep(100);
+        var request = context.request();
+        context.response()
+          .status(HttpResponseCode.OK)
+          .header("Request-Header", request.header("Test-Header"))
+          .body(request.body())
+          .context()
+          .cancelNext(true);
+      }
+    }.executionPolicy(HttpExecutionPolicy.BLOCKING));
+    Assertions.assertDoesNotThrow(() -> server.addListener(port).join());
+
+    var body = new byte[8 * 1024];
+    ThreadLocalRandom.current().nextBytes(body);
+    for (var i = 0; i < 5; i++) {
+      var connection = connectTo(port, "echo", con -> {
+        con.setDoOutput(true);
+        con.setRequestMethod("POST");
+        con.setRequestProperty("Test-Header", "passed");
+      });
+      try (var out = connection.getOutputStream()) {
+        out.write(body);
+      }
+
+      Assertions.assertEquals(200, connection.getResponseCode());
+      Assertions.assertEquals("passed", connection.getHeaderField("Request-Header"));
+      Assertions.assertArrayEquals(body, connection.getInputStream().readAllBytes());
+    }
+  }
+
+  @Test
+  @Order(120)
+  @Timeout(20)
+  void testDeferredResponse() throws Exception {
+    var port = this.randomFreePort();
+    HttpServer server = new NettyHttpServer();
+
+    server.registerHandler("/deferred", HttpHandler.PRIORITY_LOW, new HttpHandler() {
+      @Override
+      public void handle(String path, HttpContext context) {
+        context.deferUntil(CompletableFuture.runAsync(
+          () -> context.response().status(HttpResponseCode.CREATED).body("deferred"),
+          CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS)));
+      }
+    });
+    server.registerHandler("/deferred", HttpHandler.PRIORITY_HIGH, new HttpHandler() {
+      @Override
+      public void handle(String path, HttpContext context) {
+        // only called after the deferred response of the first handler completed
+        var response = context.response();
+        response.header("Previous-Status", Integer.toString(response.status().code()));
+      }
+    });
+    server.registerHandler("/failing", new HttpHandler() {
+      @Override
+      public void handle(String path, HttpContext context) {
+        context.deferUntil(CompletableFuture.failedFuture(
+          new HttpHandleException(HttpResponseCode.CONFLICT, new byte[0], "failed")));
+      }
+    });
+    Assertions.assertDoesNotThrow(() -> server.addListener(port).join());
+
+    var connection = connectTo(port, "deferred");
+    Assertions.assertEquals(201, connection.getResponseCode());
+    Assertions.assertEquals("201", connection.getHeaderField("Previous-Status"));
+    Assertions.assertEquals("deferred", new String(connection.getInputStream().readAllBytes()));
+
+    Assertions.assertEquals(409, connectTo(port, "failing").getResponseCode());
+  }
+
+  @Test
+  @Order(130)
+  @Timeout(60)
+  void testStreamedRequestBody() throws Exception {
+    var port = this.randomFreePort();
+    HttpServer server = new NettyHttpServer();
+
+    // the handler must receive the first bytes while the client is still uploading the body
+    var bodySize = 8L * 1024 * 1024;
+    var firstBytesRead = new CountDownLatch(1);
+    server.registerHandler("/upload", new HttpHandler() {
+      @Override
+      public void handle(String path, HttpContext context) throws Exception {
+        var readBytes = 0L;
+        var buffer = new byte[64 * 1024];
+        try (var stream = context.request().bodyStream()) {
+          int read;
+          while ((read = stream.read(buffer)) != -1) {
+            readBytes += read;
+            firstBytesRead.countDown();
+          }
+        }
+
+        context.response().status(HttpResponseCode.OK).body(Long.toString(readBytes)).context().cancelNext(true);
+      }
+    }.streamRequestBody(true));
+    Assertions.assertDoesNotThrow(() -> server.addListener(port).join());
+
+    var connection = connectTo(port, "upload", con -> {
+      con.setDoOutput(true);
+      con.setRequestMethod("POST");
+      con.setFixedLengthStreamingMode(bodySize);
+    });
+    try (var out = connection.getOutputStream()) {
+      var buffer = new byte[64 * 1024];
+      out.write(buffer);
+      out.flush();
+      Assertions.assertTrue(firstBytesRead.await(10, TimeUnit.SECONDS));
+
+      for (var written = (long) buffer.length; written < bodySize; written += buffer.length) {
+        out.write(buffer, 0, (int) Math.min(buffer.length, bodySize - written));
+      }
+    }
+
+    Assertions.assertEquals(200, connection.getResponseCode());
+    Assertions.assertEquals(Long.toString(bodySize), new String(connection.getInputStream().readAllBytes()));
+  }
+
+  @Test
+  @Order(140)
+  @Timeout(20)
+  void testRequestBodyLimit() throws Exception {
+    var port = this.randomFreePort();
+    HttpServer server = new NettyHttpServer();
+
+    server.registerHandler("/limited", new HttpHandler() {
+      @Override
+      public void handle(String path, HttpContext context) {
+        context.response().status(HttpResponseCode.OK).body(context.request().body()).context().cancelNext(true);
+      }
+    }.maxRequestBodySize(16));
+    Assertions.assertDoesNotThrow(() -> server.addListener(port).join());
+
+    for (var chunked : new boolean[]{false, true}) {
+      var connection = connectTo(port, "limited", con -> {
+        con.setDoOutput(true);
+        con.setRequestMethod("POST");
+        if (chunked) {
+          con.setChunkedStreamingMode(4);
+        }
+      });
+      try (var out = connection.getOutputStream()) {
+        out.write("small".getBytes(StandardCharsets.UTF_8));
+      }
+
+      Assertions.assertEquals(200, connection.getResponseCode());
+      Assertions.assertEquals("small", new String(connection.getInputStream().readAllBytes()));
+
+      var rejectedConnection = connectTo(port, "limited", con -> {
+        con.setDoOutput(true);
+        con.setRequestMethod("POST");
+        if (chunked) {
+          con.setChunkedStreamingMode(4);
+        }
+      });
+      try (var out = rejectedConnection.getOutputStream()) {
+        out.write(new byte[32]);
+      } catch (IOException ignored) {
+        // the server might close the connection before the full body was written
+      }
+
+      Assertions.assertEquals(413, rejectedConnection.getResponseCode());
+    }
+  }
+
+  @Test
+  @Order(150)
+  @Timeout(60)
+  void testFileResponse() throws Exception {
+    var port = this.randomFreePort();
+    HttpServer server = new NettyHttpServer();
+
+    // the size is no multiple of the read buffer size, the last read is shorter than the expected trailing bytes
+    var fileSize = 4L * 1024 * 1024 + 2;
+    var file = createSparseFile(fileSize);
+    // larger than the maximum size of a buffer, the file can only be transferred without loading it into memory
+    var largeFileSize = Integer.MAX_VALUE + 1024L;
+    var largeFile = createSparseFile(largeFileSize);
+    try {
+      server.registerHandler("/file", new HttpHandler() {
+        @Override
+        public void handle(String path, HttpContext context) {
+          context.response().status(HttpResponseCode.OK).body(file).context().cancelNext(true);
+        }
+      });
+      server.registerHandler("/large", new HttpHandler() {
+        @Override
+        public void handle(String path, HttpContext context) {
+          context.response().status(HttpResponseCode.OK).body(largeFile).context().cancelNext(true);
+        }
+      });
+      server.registerHandler("/missing", new HttpHandler() {
+        @Override
+        public void handle(String path, HttpContext context) {
+          context.response()
+            .status(HttpResponseCode.OK)
+            .body(file.resolveSibling("missing"))
+            .context()
+            .cancelNext(true);
+        }
+      });
+      Assertions.assertDoesNotThrow(() -> server.addListener(port).join());
+
+      var connection = connectTo(port, "file");
+      Assertions.assertEquals(200, connection.getResponseCode());
+      Assertions.assertEquals(fileSize, connection.getContentLengthLong());
+
+      var readBytes = 0L;
+      var lastBytes = new byte[4];
+      try (var stream = connection.getInputStream()) {
+        var buffer = new byte[64 * 1024];
+        int read;
+        while ((read = stream.read(buffer)) != -1) {
+          readBytes += read;
+          // keep the bytes of previous reads which are still part of the last bytes
+          var keptBytes = Math.max(0, lastBytes.length - read);
+          System.arraycopy(lastBytes, lastBytes.length - keptBytes, lastBytes, 0, keptBytes);
+          var newBytes = lastBytes.length - keptBytes;
+          System.arraycopy(buffer, read - newBytes, lastBytes, keptBytes, newBytes);
+        }
+      }
+
+      Assertions.assertEquals(fileSize, readBytes);
+      Assertions.assertEquals("test", new String(lastBytes, StandardCharsets.UTF_8));
+
+      // only the start of the large file is read, the server must announce and start the transfer without buffering it
+      var largeConnection = connectTo(port, "large");
+      Assertions.assertEquals(200, largeConnection.getResponseCode());
+      Assertions.assertEquals(largeFileSize, largeConnection.getContentLengthLong());
+      try (var stream = largeConnection.getInputStream()) {
+        Assertions.assertEquals(64 * 1024, stream.readNBytes(64 * 1024).length);
+      } finally {
+        largeConnection.disconnect();
+      }
+
+      Assertions.assertEquals(404, connectTo(port, "missing").getResponseCode());
+    } finally {
+      Files.deleteIfExists(file);
+      Files.deleteIfExists(largeFile);
+    }
+  }
+
+  @Test
+  @Order(155)
+  @Timeout(60)
+  void testSlowStreamResponsesDoNotStallOtherRequests() throws Exception {
+    var port = this.randomFreePort();
+    HttpServer server = new NettyHttpServer();
+
+    var content = new byte[256 * 1024];
+    ThreadLocalRandom.current().nextBytes(content);
+    var release = new CountDownLatch(1);
+
+    server.registerHandler("/stream", new HttpHandler() {
+      @Override
+      public void handle(String path, HttpContext context) {
+        // the stream blocks after the content was read until the test releases it
+        var blockingEnd = new InputStream() {
+          @Override
+          public int read() throws IOException {
+            try {
+              release.await();
+              return -1;
+            } catch (InterruptedException exception) {
+              throw new IOException(exception);
+            }
+          }
+        };
+        context.response()
+          .status(HttpResponseCode.OK)
+          .body(new SequenceInputStream(new ByteArrayInputStream(content), blockingEnd))
+          .context()
+          .cancelNext(true);
+      }
+    });
+    server.registerHandler("/fast", new HttpHandler() {
+      @Override
+      public void handle(String path, HttpContext context) {
+        context.response().status(HttpResponseCode.OK).context().cancelNext(true);
+      }
+    });
+    Assertions.assertDoesNotThrow(() -> server.addListener(port).join());
+
+    // occupy more connections with blocked streams than there are event loop threads
+    var streamCount = Runtime.getRuntime().availableProcessors() * 4;
+    var executor = Executors.newFixedThreadPool(streamCount);
+    try {
+      List<CompletableFuture<byte[]>> streams = new ArrayList<>();
+      for (var i = 0; i < streamCount; i++) {
+        streams.add(CompletableFuture.supplyAsync(() -> {
+          try {
+            var connection = connectTo(port, "stream", con -> con.setReadTimeout(0));
+            Assertions.assertEquals(200, connection.getResponseCode());
+            try (var stream = connection.getInputStream()) {
+              return stream.readAllBytes();
+            }
+          } catch (Exception exception) {
+            throw new CompletionException(exception);
+          }
+        }, executor));
+      }
+
+      // the streams are blocked now, other requests must still be answered
+      Thread.sleep(200);
+      for (var i = 0; i < 20; i++) {
+        Assertions.assertEquals(200, connectTo(port, "fast").getResponseCode());
+      }
+
+      release.countDown();
+      for (var stream : streams) {
+        Assertions.assertArrayEquals(content, stream.join());
+      }
+    } finally {
+      release.countDown();
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  @Order(160)
+  @Timeout(60)
+  void testWebSocketBroadcast() throws Exception {
+    var port = this.randomFreePort();
+    HttpServer server = new NettyHttpServer();
+
+    var scheduler = Executors.newSingleThreadScheduledExecutor();
+    var broadcaster = new WebSocketBroadcaster<String>(
+      message -> message.split(":")[0],
+      Function.identity(),
+      Duration.ofMillis(100),
+      scheduler);
+    server.registerHandler("/events", new HttpHandler() {
+      @Override
+      public void handle(String path, HttpContext context) {
+        // subscribe to all messages or only to the messages of the requested type
+        var type = context.request().queryParameters().get("type");
+        context.upgrade().thenAccept(channel -> broadcaster.subscribe(
+          channel,
+          message -> type == null || message.startsWith(type.get(0))));
+      }
+    });
+    Assertions.assertDoesNotThrow(() -> server.addListener(port).join());
+
+    var subscriberCount = 50;
+    var client = ClientManager.createClient();
+    List<Map<String, String>> receivedMessages = new ArrayList<>();
+    List<AtomicInteger> receivedCounts = new ArrayList<>();
+    List<Session> sessions = new ArrayList<>();
+    try {
+      for (var i = 0; i < subscriberCount; i++) {
+        Map<String, String> latestMessages = new ConcurrentHashMap<>();
+        var receivedCount = new AtomicInteger();
+        receivedMessages.add(latestMessages);
+        receivedCounts.add(receivedCount);
+
+        // every second subscriber is only interested in messages of type a
+        var uri = URI.create(String.format("ws://127.0.0.1:%d/events%s", port, i % 2 == 0 ? "?type=a" : ""));
+        sessions.add(client.connectToServer(new Endpoint() {
+          @Override
+          public void onOpen(Session session, EndpointConfig config) {
+            session.addMessageHandler(String.class, message -> {
+              receivedCount.incrementAndGet();
+              latestMessages.put(message.split(":")[0], message);
+            });
+          }
+        }, ClientEndpointConfig.Builder.create().build(), uri));
+      }
+
+      while (broadcaster.subscriberCount() < subscriberCount) {
+        //noinspection BusyWait
+        Thread.sleep(10);
+      }
+
+      // publish the messages from multiple threads at the same time
+      var keyCount = 10;
+      var versionCount = 50;
+      var publishers = Executors.newFixedThreadPool(4);
+      try {
+        List<CompletableFuture<Void>> publishFutures = new ArrayList<>();
+        for (var type : List.of("a", "b")) {
+          for (var key = 0; key < keyCount; key++) {
+            var messageKey = type + key;
+            publishFutures.add(CompletableFuture.runAsync(() -> {
+              for (var version = 0; version < versionCount; version++) {
+                broadcaster.publish(messageKey + ":" + version);
+              }
+            }, publishers));
+          }
+        }
+        CompletableFuture.allOf(publishFutures.toArray(CompletableFuture[]::new)).join();
+      } finally {
+        publishers.shutdownNow();
+      }
+
+      // wait until each subscriber received the latest version of each message it is interested in
+      for (var i = 0; i < subscriberCount; i++) {
+        var expectedKeys = i % 2 == 0 ? keyCount : keyCount * 2;
+        var latestMessages = receivedMessages.get(i);
+        while (latestMessages.size() < expectedKeys
+          || !latestMessages.values().stream().allMatch(message -> message.endsWith(":" + (versionCount - 1)))) {
+          //noinspection BusyWait
+          Thread.sleep(10);
+        }
+
+        Assertions.assertEquals(expectedKeys, latestMessages.size());
+        // messages published within the coalesce window must have been merged
+        Assertions.assertTrue(receivedCounts.get(i).get() < expectedKeys * versionCount);
+      }
+
+      // closing the connections must remove the subscriptions
+      for (var session : sessions) {
+        session.close();
+      }
+      while (broadcaster.subscriberCount() > 0) {
+        //noinspection BusyWait
+        Thread.sleep(10);
+      }
+    } finally {
+      broadcaster.cancelAll();
+      scheduler.shutdownNow();
+    }
+  }
+
+  @Test
+  @Order(170)
+  @Timeout(60)
+  void testWebSocketLineBatching() throws Exception {
+    var port = this.randomFreePort();
+    HttpServer server = new NettyHttpServer();
+
+    var lineCount = 200_000;
+    var scheduler = Executors.newSingleThreadScheduledExecutor();
+    var batcherReference = new AtomicReference<WebSocketLineBatcher>();
+    server.registerHandler("/log", new HttpHandler() {
+      @Override
+      public void handle(String path, HttpContext context) {
+        context.upgrade().thenAccept(channel -> {
+          var batcher = new WebSocketLineBatcher(channel, 1000, Duration.ofMillis(50), scheduler);
+          batcherReference.set(batcher);
+
+          // simulate a service which is flooding its log
+          var floodThread = new Thread(() -> {
+            for (var i = 0; i < lineCount; i++) {
+              batcher.append("line " + i);
+            }
+            batcher.append("end");
+          });
+          floodThread.start();
+        });
+      }
+    });
+    Assertions.assertDoesNotThrow(() -> server.addListener(port).join());
+
+    var frames = new AtomicInteger();
+    var receivedLines = new AtomicInteger();
+    var reportedDroppedLines = new AtomicInteger();
+    var endReceived = new CompletableFuture<Void>();
+    var session = ClientManager.createClient().connectToServer(new Endpoint() {
+      @Override
+      public void onOpen(Session session, EndpointConfig config) {
+        session.addMessageHandler(String.class, message -> {
+          frames.incrementAndGet();
+          for (var line : message.split("\n")) {
+            if (line.startsWith("[") && line.endsWith(" lines dropped]")) {
+              reportedDroppedLines.addAndGet(Integer.parseInt(line.substring(1, line.indexOf(' '))));
+            } else {
+              receivedLines.incrementAndGet();
+              if (line.equals("end")) {
+                endReceived.complete(null);
+              }
+            }
+          }
+
+          try {
+            // simulate a slow client
+            Thread.sleep(5);
+          } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+          }
+        });
+      }
+    }, ClientEndpointConfig.Builder.create().build(), URI.create(String.format("ws://127.0.0.1:%d/log", port)));
+
+    try {
+      endReceived.get(50, TimeUnit.SECONDS);
+
+      // each line was either received or reported as dropped
+      Assertions.assertEquals(lineCount + 1, receivedLines.get() + reportedDroppedLines.get());
+      Assertions.assertEquals(batcherReference.get().droppedLines(), reportedDroppedLines.get());
+      // the lines must have been sent in batches
+      Assertions.assertTrue(frames.get() < lineCount / 100, "Received " + frames.get() + " frames");
+    } finally {
+      session.close();
+      scheduler.shutdownNow();
+    }
+  }
 }
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2019-2023 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package eu.cloudnetservice.driver.network.http.websocket;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Function;
+import lombok.NonNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class WebSocketBroadcasterTest {
+
+  private final Queue<Runnable> scheduledFlushes = new ArrayDeque<>();
+  private final List<String> sentMessages = new ArrayList<>();
+
+  private ScheduledExecutorService executor;
+  private WebSocketChannel channel;
+
+  @BeforeEach
+  void setup() {
+    this.scheduledFlushes.clear();
+    this.sentMessages.clear();
+
+    // flushes are only executed when the test requests it
+    this.executor = Mockito.mock(ScheduledExecutorService.class);
+    Mockito.when(this.executor.schedule(Mockito.any(Runnable.class), Mockito.anyLong(), Mockito.any()))
+      .thenAnswer(invocation -> {
+        this.scheduledFlushes.add(invocation.getArgument(0));
+        return null;
+      });
+
+    this.channel = Mockito.mock(WebSocketChannel.class);
+    Mockito.when(this.channel.writable()).thenReturn(true);
+    Mockito.when(this.channel.sendWebSocketFrame(Mockito.eq(WebSocketFrameType.TEXT), Mockito.any(byte[].class)))
+      .thenAnswer(invocation -> {
+        this.sentMessages.add(new String(invocation.<byte[]>getArgument(1), StandardCharsets.UTF_8));
+        return this.channel;
+      });
+  }
+
+  private @NonNull WebSocketBroadcaster<String> broadcaster(int maxPendingMessages) {
+    // messages starting with "state" are coalesced by the text before the colon, other messages are never coalesced
+    return new WebSocketBroadcaster<>(
+      message -> message.startsWith("state") ? message.split(":")[0] : null,
+      Function.identity(),
+      Duration.ofMillis(100),
+      this.executor,
+      maxPendingMessages);
+  }
+
+  private void runScheduledFlushes() {
+    Runnable flush;
+    while ((flush = this.scheduledFlushes.poll()) != null) {
+      flush.run();
+    }
+  }
+
+  @Test
+  void testOnlyKeyedMessagesAreCoalesced() {
+    var broadcaster = this.broadcaster(WebSocketBroadcaster.DEFAULT_MAX_PENDING_MESSAGES);
+    var subscription = broadcaster.subscribe(this.channel, $ -> true);
+
+    broadcaster.publish("state:1");
+    broadcaster.publish("change:a");
+    broadcaster.publish("state:2");
+    broadcaster.publish("change:b");
+    broadcaster.publish("change:b");
+    this.runScheduledFlushes();
+
+    Assertions.assertEquals(List.of("change:a", "state:2", "change:b", "change:b"), this.sentMessages);
+    Assertions.assertEquals(1, subscription.coalescedMessages());
+  }
+
+  @Test
+  void testCoalescedMessageIsSentAfterPreviousMessages() {
+    var broadcaster = this.broadcaster(WebSocketBroadcaster.DEFAULT_MAX_PENDING_MESSAGES);
+    broadcaster.subscribe(this.channel, $ -> true);
+
+    broadcaster.publish("state-a:1");
+    broadcaster.publish("state-b:1");
+    broadcaster.publish("change:a");
+    broadcaster.publish("state-a:2");
+    this.runScheduledFlushes();
+
+    // the latest state of a must not be overtaken by messages which were published before it
+    Assertions.assertEquals(List.of("state-b:1", "change:a", "state-a:2"), this.sentMessages);
+  }
+
+  @Test
+  void testMessagesWaitForWritableChannel() {
+    var broadcaster = this.broadcaster(WebSocketBroadcaster.DEFAULT_MAX_PENDING_MESSAGES);
+    broadcaster.subscribe(this.channel, $ -> true);
+
+    Mockito.when(this.channel.writable()).thenReturn(false);
+    broadcaster.publish("change:a");
+    this.scheduledFlushes.poll().run();
+
+    // the messages stay pending and the flush is retried
+    Assertions.assertTrue(this.sentMessages.isEmpty());
+    Assertions.assertEquals(1, this.scheduledFlushes.size());
+
+    Mockito.when(this.channel.writable()).thenReturn(true);
+    broadcaster.publish("change:b");
+    this.runScheduledFlushes();
+    Assertions.assertEquals(List.of("change:a", "change:b"), this.sentMessages);
+  }
+
+  @Test
+  void testSlowSubscriberIsClosed() {
+    var broadcaster = this.broadcaster(4);
+    var subscription = broadcaster.subscribe(this.channel, $ -> true);
+
+    Mockito.when(this.channel.writable()).thenReturn(false);
+    for (var i = 0; i < 5; i++) {
+      broadcaster.publish("change:" + i);
+    }
+
+    Assertions.assertTrue(subscription.cancelled());
+    Assertions.assertEquals(0, broadcaster.subscriberCount());
+    Mockito.verify(this.channel).close(Mockito.eq(1013), Mockito.anyString());
+
+    Mockito.when(this.channel.writable()).thenReturn(true);
+    this.runScheduledFlushes();
+    Assertions.assertTrue(this.sentMessages.isEmpty());
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2019-2023 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package eu.cloudnetservice.driver.network.netty.http;
+
+import eu.cloudnetservice.driver.network.http.HttpContext;
+import eu.cloudnetservice.driver.network.http.HttpHandler;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class NettyHttpRouterTest {
+
+  private static NettyHttpServer.HttpHandlerEntry entry(String path, Integer port, int priority) {
+    return new NettyHttpServer.HttpHandlerEntry(path, new TestHandler(), port, priority);
+  }
+
+  private static List<String> matchedPaths(NettyHttpRouter router, String path, int port) {
+    return router.match(NettyHttpRouter.splitPath(path), port).stream()
+      .map(route -> route.entry().path())
+      .toList();
+  }
+
+  @Test
+  void testLiteralAndParameterMatching() {
+    var router = NettyHttpRouter.compile(List.of(
+      entry("/", null, 0),
+      entry("/api/v2/service", null, 0),
+      entry("/api/v2/service/{id}", null, 0),
+      entry("/api/v2/service/{id}/logs", null, 0)));
+
+    Assertions.assertEquals(List.of("/"), matchedPaths(router, "/", 80));
+    Assertions.assertEquals(List.of("/api/v2/service"), matchedPaths(router, "/api/v2/service", 80));
+    Assertions.assertEquals(List.of("/api/v2/service/{id}/logs"), matchedPaths(router, "/api/v2/service/abc/logs", 80));
+    Assertions.assertEquals(List.of(), matchedPaths(router, "/api/v2", 80));
+    Assertions.assertEquals(List.of(), matchedPaths(router, "/api/v2/service/abc/logs/1", 80));
+
+    var segments = NettyHttpRouter.splitPath("/api/v2/service/abc/logs");
+    Map<String, String> parameters = new HashMap<>();
+    router.match(segments, 80).get(0).extractPathParameters(segments, parameters);
+    Assertions.assertEquals(Map.of("id", "abc"), parameters);
+  }
+
+  @Test
+  void testWildcardMatching() {
+    var router = NettyHttpRouter.compile(List.of(
+      entry("/files/*", null, 0),
+      entry("/files/*/meta", null, 1),
+      entry("/files/static", null, 2)));
+
+    Assertions.assertEquals(List.of(), matchedPaths(router, "/files", 80));
+    Assertions.assertEquals(List.of("/files/*", "/files/static"), matchedPaths(router, "/files/static", 80));
+    Assertions.assertEquals(List.of("/files/*", "/files/*/meta"), matchedPaths(router, "/files/a/meta", 80));
+    Assertions.assertEquals(List.of("/files/*"), matchedPaths(router, "/files/a/b/c", 80));
+  }
+
+  @Test
+  void testPriorityAndPortFiltering() {
+    var router = NettyHttpRouter.compile(List.of(
+      entry("/test", null, HttpHandler.PRIORITY_LOW),
+      entry("/{name}", 8080, HttpHandler.PRIORITY_HIGH),
+      entry("/test", 8081, HttpHandler.PRIORITY_NORMAL)));
+
+    var onFirstPort = router.match(NettyHttpRouter.splitPath("/test"), 8080).stream()
+      .map(route -> route.entry().priority())
+      .toList();
+    Assertions.assertEquals(List.of(HttpHandler.PRIORITY_LOW, HttpHandler.PRIORITY_HIGH), onFirstPort);
+
+    var onSecondPort = router.match(NettyHttpRouter.splitPath("/test"), 8081).stream()
+      .map(route -> route.entry().priority())
+      .toList();
+    Assertions.assertEquals(List.of(HttpHandler.PRIORITY_LOW, HttpHandler.PRIORITY_NORMAL), onSecondPort);
+  }
+
+  @Test
+  void testManyRoutes() {
+    List<NettyHttpServer.HttpHandlerEntry> entries = new ArrayList<>();
+    for (var i = 0; i < 50; i++) {
+      entries.add(entry("/api/v2/resource" + i, null, 0));
+      entries.add(entry("/api/v2/resource" + i + "/{id}", null, 0));
+      entries.add(entry("/api/v2/resource" + i + "/{id}/sub", null, 0));
+      entries.add(entry("/api/v2/resource" + i + "/{id}/files/*", null, 0));
+    }
+
+    var router = NettyHttpRouter.compile(entries);
+    for (var i = 0; i < 50; i++) {
+      var base = "/api/v2/resource" + i;
+      Assertions.assertEquals(List.of(base), matchedPaths(router, base, 80));
+      Assertions.assertEquals(List.of(base + "/{id}"), matchedPaths(router, base + "/x", 80));
+      Assertions.assertEquals(List.of(base + "/{id}/sub"), matchedPaths(router, base + "/x/sub", 80));
+      Assertions.assertEquals(List.of(base + "/{id}/files/*"), matchedPaths(router, base + "/x/files/a/b", 80));
+    }
+  }
+
+  private static final class TestHandler extends HttpHandler {
+
+    @Override
+    public void handle(String path, HttpContext context) {
+    }
+  }
+}
@@ -218,7 +218,10 @@ public long registeredCount() {
 
   @Override
   public @NonNull List<CloudOfflinePlayer> offlinePlayers(@NonNull String name) {
-    return this.database().find("name", name).stream()
+    var database = this.database();
+    // players are frequently looked up by their name, request an index for it
+    database.indexField("name");
+    return database.find("name", name).stream()
       .map(document -> document.toInstanceOf(CloudOfflinePlayer.class))
       .toList();
   }
@@ -17,19 +17,28 @@
 package eu.cloudnetservice.modules.mongodb;
 
 import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
 import com.mongodb.client.model.Filters;
 import com.mongodb.client.model.IndexOptions;
 import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOneModel;
 import com.mongodb.client.model.UpdateOptions;
 import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
 import eu.cloudnetservice.common.document.gson.JsonDocument;
+import eu.cloudnetservice.driver.database.DatabaseChunk;
 import eu.cloudnetservice.node.database.AbstractDatabase;
 import eu.cloudnetservice.node.database.NodeDatabaseProvider;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.BiConsumer;
 import lombok.NonNull;
 import org.bson.Document;
@@ -38,11 +47,23 @@
 
 public class MongoDBDatabase extends AbstractDatabase {
 
+  protected static final String ID_NAME = "_id";
   protected static final String KEY_NAME = "Key";
   protected static final String VALUE_NAME = "Value";
 
+  protected static final Bson ID_ASCENDING = Sorts.ascending(ID_NAME);
+  protected static final Bson KEY_ASCENDING = Sorts.ascending(KEY_NAME);
+  protected static final Bson KEY_PROJECTION = Projections.fields(Projections.include(KEY_NAME), Projections.excludeId());
+  protected static final Bson VALUE_PROJECTION = Projections.fields(
+    Projections.include(VALUE_NAME),
+    Projections.excludeId());
+  protected static final Bson ENTRY_PROJECTION = Projections.fields(
+    Projections.include(KEY_NAME, VALUE_NAME),
+    Projections.excludeId());
+
   protected static final IndexOptions UNIQUE_KEY_OPTIONS = new IndexOptions().unique(true);
   protected static final UpdateOptions INSERT_OR_REPLACE_OPTIONS = new UpdateOptions().upsert(true);
+  protected static final BulkWriteOptions UNORDERED_BULK_OPTIONS = new BulkWriteOptions().ordered(false);
 
   protected final MongoCollection<Document> collection;
 
@@ -65,22 +86,59 @@ public boolean insert(@NonNull String key, @NonNull JsonDocument document) {
   protected boolean insertOrUpdate(String key, JsonDocument document) {
     var result = this.collection.updateOne(
       Filters.eq(KEY_NAME, key),
-      Updates.combine(
-        Updates.setOnInsert(new Document(KEY_NAME, key)),
-        Updates.set(VALUE_NAME, Document.parse(document.toString()))
-      ),
+      this.upsertValue(key, document),
       INSERT_OR_REPLACE_OPTIONS);
+    this.publishChange(Set.of(key));
     return result.getUpsertedId() != null || result.getMatchedCount() > 0;
   }
 
+  @Override
+  public boolean insertAll(@NonNull Map<String, JsonDocument> documents) {
+    if (documents.isEmpty()) {
+      return true;
+    }
+
+    // write all documents in a single bulk operation
+    List<WriteModel<Document>> writes = new ArrayList<>(documents.size());
+    documents.forEach((key, document) -> writes.add(new UpdateOneModel<>(
+      Filters.eq(KEY_NAME, key),
+      this.upsertValue(key, document),
+      INSERT_OR_REPLACE_OPTIONS)));
+
+    var result = this.collection.bulkWrite(writes, UNORDERED_BULK_OPTIONS);
+    this.publishChange(documents.keySet());
+    return result.getMatchedCount() + result.getUpserts().size() == documents.size();
+  }
+
   @Override
   public boolean contains(@NonNull String key) {
     return this.collection.find(Filters.eq(KEY_NAME, key)).first() != null;
   }
 
+  @Override
+  public boolean containsAll(@NonNull Collection<String> keys) {
+    var distinctKeys = new HashSet<>(keys);
+    if (distinctKeys.isEmpty()) {
+      return true;
+    }
+    return this.collection.countDocuments(Filters.in(KEY_NAME, distinctKeys)) == distinctKeys.size();
+  }
+
   @Override
   public boolean delete(@NonNull String key) {
-    return this.collection.deleteOne(Filters.eq(KEY_NAME, key)).getDeletedCount() > 0;
+    var deletedCount = this.collection.deleteOne(Filters.eq(KEY_NAME, key)).getDeletedCount();
+    this.publishChange(Set.of(key));
+    return deletedCount > 0;
+  }
+
+  @Override
+  public int deleteAll(@NonNull Collection<String> keys) {
+    if (keys.isEmpty()) {
+      return 0;
+    }
+    var deletedCount = this.collection.deleteMany(Filters.in(KEY_NAME, keys)).getDeletedCount();
+    this.publishChange(keys);
+    return (int) deletedCount;
   }
 
   @Override
@@ -89,6 +147,24 @@ public JsonDocument get(@NonNull String key) {
     return document == null ? null : JsonDocument.fromJsonString(document.get(VALUE_NAME, Document.class).toJson());
   }
 
+  @Override
+  public @NonNull Map<String, JsonDocument> getAll(@NonNull Collection<String> keys) {
+    Map<String, JsonDocument> documents = new HashMap<>();
+    if (keys.isEmpty()) {
+      return documents;
+    }
+
+    try (var cursor = this.collection.find(Filters.in(KEY_NAME, keys)).projection(ENTRY_PROJECTION).iterator()) {
+      while (cursor.hasNext()) {
+        var document = cursor.next();
+        documents.put(
+          document.getString(KEY_NAME),
+          JsonDocument.fromJsonString(document.get(VALUE_NAME, Document.class).toJson()));
+      }
+    }
+    return documents;
+  }
+
   @Override
   public @NonNull List<JsonDocument> find(@NonNull String fieldName, @Nullable String fieldValue) {
     List<JsonDocument> documents = new ArrayList<>();
@@ -121,7 +197,7 @@ public JsonDocument get(@NonNull String key) {
   @Override
   public @NonNull Collection<String> keys() {
     Collection<String> keys = new ArrayList<>();
-    try (var cursor = this.collection.find().iterator()) {
+    try (var cursor = this.collection.find().projection(KEY_PROJECTION).iterator()) {
       while (cursor.hasNext()) {
         keys.add(cursor.next().getString(KEY_NAME));
       }
@@ -132,7 +208,7 @@ public JsonDocument get(@NonNull String key) {
   @Override
   public @NonNull Collection<JsonDocument> documents() {
     Collection<JsonDocument> documents = new ArrayList<>();
-    try (var cursor = this.collection.find().iterator()) {
+    try (var cursor = this.collection.find().projection(VALUE_PROJECTION).iterator()) {
       while (cursor.hasNext()) {
         documents.add(JsonDocument.fromJsonString(cursor.next().get(VALUE_NAME, Document.class).toJson()));
       }
@@ -156,12 +232,46 @@ public JsonDocument get(@NonNull String key) {
 
   @Override
   public void iterate(@NonNull BiConsumer<String, JsonDocument> consumer) {
-    this.entries().forEach(consumer);
+    try (var cursor = this.collection.find().iterator()) {
+      while (cursor.hasNext()) {
+        var document = cursor.next();
+        consumer.accept(
+          document.getString(KEY_NAME),
+          JsonDocument.fromJsonString(document.get(VALUE_NAME, Document.class).toJson()));
+      }
+    }
+  }
+
+  @Override
+  public void iterate(@NonNull BiConsumer<String, JsonDocument> consumer, int chunkSize) {
+    // page through the collection by the object id rather than skipping, which needs to walk all skipped documents
+    Object lastId = null;
+    while (true) {
+      var filter = lastId == null ? new Document() : Filters.gt(ID_NAME, lastId);
+      var readDocuments = 0;
+      try (var cursor = this.collection.find(filter).sort(ID_ASCENDING).limit(chunkSize).iterator()) {
+        while (cursor.hasNext()) {
+          var document = cursor.next();
+          lastId = document.get(ID_NAME);
+          readDocuments++;
+
+          consumer.accept(
+            document.getString(KEY_NAME),
+            JsonDocument.fromJsonString(document.get(VALUE_NAME, Document.class).toJson()));
+        }
+      }
+
+      // the last chunk was read if there are less documents than requested
+      if (readDocuments < chunkSize) {
+        break;
+      }
+    }
   }
 
   @Override
   public void clear() {
     this.collection.deleteMany(new Document());
+    this.publishClear();
   }
 
   @Override
@@ -174,10 +284,27 @@ public boolean synced() {
     return true;
   }
 
+  @Override
+  public @NonNull DatabaseChunk readChunkAfter(@Nullable String previousKey, int chunkSize) {
+    var filter = previousKey == null ? new Document() : Filters.gt(KEY_NAME, previousKey);
+    var chunk = this.collection.find(filter).sort(KEY_ASCENDING).limit(chunkSize).projection(ENTRY_PROJECTION);
+
+    String lastKey = null;
+    Map<String, JsonDocument> entries = new LinkedHashMap<>();
+    try (var cursor = chunk.iterator()) {
+      while (cursor.hasNext()) {
+        var document = cursor.next();
+        lastKey = document.getString(KEY_NAME);
+        entries.put(lastKey, JsonDocument.fromJsonString(document.get(VALUE_NAME, Document.class).toJson()));
+      }
+    }
+    return new DatabaseChunk(entries, lastKey);
+  }
+
   @Override
   public @Nullable Map<String, JsonDocument> readChunk(long beginIndex, int chunkSize) {
     Map<String, JsonDocument> result = new HashMap<>();
-    try (var cursor = this.collection.find().skip((int) beginIndex).limit(chunkSize).iterator()) {
+    try (var cursor = this.collection.find().sort(ID_ASCENDING).skip((int) beginIndex).limit(chunkSize).iterator()) {
       while (cursor.hasNext()) {
         var document = cursor.next();
         var key = document.getString(KEY_NAME);
@@ -194,6 +321,12 @@ public boolean synced() {
   public void close() {
   }
 
+  protected @NonNull Bson upsertValue(@NonNull String key, @NonNull JsonDocument document) {
+    return Updates.combine(
+      Updates.setOnInsert(new Document(KEY_NAME, key)),
+      Updates.set(VALUE_NAME, Document.parse(document.toString())));
+  }
+
   protected @NonNull <T> Bson valueEq(@NonNull String fieldName, @Nullable final T value) {
     return Filters.eq(VALUE_NAME + '.' + fieldName, value);
   }
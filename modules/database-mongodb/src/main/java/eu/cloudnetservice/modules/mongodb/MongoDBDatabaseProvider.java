@@ -63,6 +63,7 @@ public boolean containsDatabase(@NonNull String name) {
   public boolean deleteDatabase(@NonNull String name) {
     this.databaseCache.invalidate(name);
     this.mongoDatabase.getCollection(name).drop();
+    this.publishChange(name, null);
 
     return true;
   }
@@ -19,8 +19,11 @@
 import eu.cloudnetservice.common.document.gson.JsonDocument;
 import eu.cloudnetservice.modules.mongodb.config.MongoDBConnectionConfig;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -171,4 +174,31 @@ void testChunkedDataRead() {
     Assertions.assertEquals(expectedReadCounts, readsCalled);
     Assertions.assertTrue(keys.isEmpty());
   }
+
+  @Test
+  void testBulkOperationsAndChunkedIteration() {
+    var database = this.databaseProvider.database("test");
+    Assertions.assertNotNull(database);
+
+    Map<String, JsonDocument> documents = new HashMap<>();
+    for (var i = 0; i < 235; i++) {
+      documents.put(UUID.randomUUID().toString(), JsonDocument.newDocument("index", i));
+    }
+
+    Assertions.assertTrue(database.insertAll(documents));
+    Assertions.assertEquals(235, database.documentCount());
+    Assertions.assertEquals(documents.keySet(), new HashSet<>(database.keys()));
+
+    // updating existing documents in bulk must replace the values
+    var updatedKey = documents.keySet().iterator().next();
+    Assertions.assertTrue(database.insertAll(Map.of(updatedKey, JsonDocument.newDocument("index", -1))));
+    Assertions.assertEquals(-1, database.get(updatedKey).getInt("index"));
+
+    Set<String> iteratedKeys = new HashSet<>();
+    database.iterate((key, document) -> Assertions.assertTrue(iteratedKeys.add(key)), 50);
+    Assertions.assertEquals(documents.keySet(), iteratedKeys);
+
+    Assertions.assertEquals(235, database.deleteAll(documents.keySet()));
+    Assertions.assertEquals(0, database.documentCount());
+  }
 }
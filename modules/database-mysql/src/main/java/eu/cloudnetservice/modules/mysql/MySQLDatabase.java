@@ -52,7 +52,7 @@ public MySQLDatabase(@NonNull SQLDatabaseProvider provider, @NonNull String name
 
   @Override
   public boolean insert(@NonNull String key, @NonNull JsonDocument document) {
-    return this.databaseProvider.executeUpdate(
+    var inserted = this.databaseProvider.executeUpdate(
       String.format(
         "INSERT INTO `%s` (%s, %s) VALUES (?, ?) ON DUPLICATE KEY UPDATE %s = ?;",
         this.name,
@@ -60,6 +60,28 @@ public boolean insert(@NonNull String key, @NonNull JsonDocument document) {
         TABLE_COLUMN_VAL,
         TABLE_COLUMN_VAL),
       key, document, document) > 0;
+    this.publishChange(Set.of(key));
+    return inserted;
+  }
+
+  @Override
+  public boolean insertAll(@NonNull Map<String, JsonDocument> documents) {
+    if (documents.isEmpty()) {
+      return true;
+    }
+
+    Collection<Object[]> batch = new ArrayList<>(documents.size());
+    documents.forEach((key, document) -> batch.add(new Object[]{key, document, document}));
+    var inserted = this.databaseProvider.executeBatch(
+      String.format(
+        "INSERT INTO `%s` (%s, %s) VALUES (?, ?) ON DUPLICATE KEY UPDATE %s = ?;",
+        this.name,
+        TABLE_COLUMN_KEY,
+        TABLE_COLUMN_VAL,
+        TABLE_COLUMN_VAL),
+      batch) != -1;
+    this.publishChange(documents.keySet());
+    return inserted;
   }
 
   @Override
@@ -73,9 +95,11 @@ public boolean contains(@NonNull String key) {
 
   @Override
   public boolean delete(@NonNull String key) {
-    return this.databaseProvider.executeUpdate(
+    var deleted = this.databaseProvider.executeUpdate(
       String.format("DELETE FROM %s WHERE `%s` = ?;", this.name, TABLE_COLUMN_KEY),
       key) > 0;
+    this.publishChange(Set.of(key));
+    return deleted;
   }
 
   @Override
@@ -189,6 +213,7 @@ public boolean delete(@NonNull String key) {
   @Override
   public void clear() {
     this.databaseProvider.executeUpdate(String.format("TRUNCATE TABLE `%s`;", this.name));
+    this.publishClear();
   }
 
   @Override
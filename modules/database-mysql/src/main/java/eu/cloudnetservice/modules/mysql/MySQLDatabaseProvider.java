@@ -90,6 +90,7 @@ public boolean init() {
 
   @Override
   public boolean deleteDatabase(@NonNull String name) {
+    this.publishChange(name, null);
     return this.executeUpdate(String.format("DROP TABLE IF EXISTS `%s`;", name)) != -1;
   }
 
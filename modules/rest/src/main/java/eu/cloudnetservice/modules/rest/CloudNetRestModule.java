@@ -16,6 +16,7 @@
 
 package eu.cloudnetservice.modules.rest;
 
+import eu.cloudnetservice.driver.event.EventManager;
 import eu.cloudnetservice.driver.module.ModuleTask;
 import eu.cloudnetservice.driver.module.driver.DriverModule;
 import eu.cloudnetservice.driver.network.http.HttpServer;
@@ -23,6 +24,7 @@
 import eu.cloudnetservice.modules.rest.v2.V2HttpHandlerCluster;
 import eu.cloudnetservice.modules.rest.v2.V2HttpHandlerDatabase;
 import eu.cloudnetservice.modules.rest.v2.V2HttpHandlerDocumentation;
+import eu.cloudnetservice.modules.rest.v2.V2HttpHandlerEvent;
 import eu.cloudnetservice.modules.rest.v2.V2HttpHandlerGroup;
 import eu.cloudnetservice.modules.rest.v2.V2HttpHandlerModule;
 import eu.cloudnetservice.modules.rest.v2.V2HttpHandlerNode;
@@ -50,6 +52,11 @@ public void installSecurityExtensions(
     securityAnnotationExtension.install(httpServer.annotationParser(), authentication);
   }
 
+  @ModuleTask
+  public void registerListeners(@NonNull EventManager eventManager) {
+    eventManager.registerListener(V2HttpHandlerEvent.class);
+  }
+
   @ModuleTask
   public void registerHandlers(@NonNull HttpServer httpServer) {
     httpServer.annotationParser()
@@ -57,6 +64,7 @@ public void registerHandlers(@NonNull HttpServer httpServer) {
       .parseAndRegister(V2HttpHandlerCluster.class)
       .parseAndRegister(V2HttpHandlerDatabase.class)
       .parseAndRegister(V2HttpHandlerDocumentation.class)
+      .parseAndRegister(V2HttpHandlerEvent.class)
       .parseAndRegister(V2HttpHandlerGroup.class)
       .parseAndRegister(V2HttpHandlerModule.class)
       .parseAndRegister(V2HttpHandlerModule.class)
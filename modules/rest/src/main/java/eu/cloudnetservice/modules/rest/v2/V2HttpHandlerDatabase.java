@@ -20,6 +20,8 @@
 import eu.cloudnetservice.common.document.gson.JsonDocument;
 import eu.cloudnetservice.driver.database.DatabaseProvider;
 import eu.cloudnetservice.driver.network.http.HttpContext;
+import eu.cloudnetservice.driver.network.http.HttpExecutionPolicy;
+import eu.cloudnetservice.driver.network.http.annotation.ExecutionPolicy;
 import eu.cloudnetservice.driver.network.http.annotation.FirstRequestQueryParam;
 import eu.cloudnetservice.driver.network.http.annotation.HttpRequestHandler;
 import eu.cloudnetservice.driver.network.http.annotation.RequestBody;
@@ -37,6 +39,7 @@
 
 @Singleton
 @HandlerPermission("http.v2.database")
+@ExecutionPolicy(HttpExecutionPolicy.BLOCKING)
 public final class V2HttpHandlerDatabase extends V2HttpHandler {
 
   private static final Type MAP_TYPE = TypeToken.getParameterized(Map.class, String.class, String.class).getType();
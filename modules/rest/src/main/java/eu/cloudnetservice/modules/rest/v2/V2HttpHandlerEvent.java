@@ -0,0 +1,148 @@
+/*
+ * Copyright 2019-2023 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.modules.rest.v2;
+
+import eu.cloudnetservice.common.document.gson.JsonDocument;
+import eu.cloudnetservice.driver.event.EventListener;
+import eu.cloudnetservice.driver.event.events.service.CloudServiceLifecycleChangeEvent;
+import eu.cloudnetservice.driver.event.events.service.CloudServiceUpdateEvent;
+import eu.cloudnetservice.driver.network.http.HttpContext;
+import eu.cloudnetservice.driver.network.http.annotation.HttpRequestHandler;
+import eu.cloudnetservice.driver.network.http.annotation.Optional;
+import eu.cloudnetservice.driver.network.http.annotation.RequestQueryParam;
+import eu.cloudnetservice.driver.network.http.websocket.WebSocketBroadcaster;
+import eu.cloudnetservice.driver.service.ServiceInfoSnapshot;
+import eu.cloudnetservice.node.config.Configuration;
+import eu.cloudnetservice.node.event.cluster.NetworkClusterNodeInfoUpdateEvent;
+import eu.cloudnetservice.node.http.HttpSession;
+import eu.cloudnetservice.node.http.V2HttpHandler;
+import eu.cloudnetservice.node.http.annotation.BearerAuth;
+import eu.cloudnetservice.node.http.annotation.HandlerPermission;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
+
+@Singleton
+@HandlerPermission("http.v2.event")
+public final class V2HttpHandlerEvent extends V2HttpHandler {
+
+  private static final Duration COALESCE_WINDOW = Duration.ofMillis(
+    Long.getLong("cloudnet.rest.event-coalesce-window", 250));
+  private static final int MAX_PENDING_EVENTS = Integer.getInteger("cloudnet.rest.event-max-pending", 8192);
+
+  // the types of events which are only describing the current state, older events of these types can be dropped
+  private static final Set<String> COALESCED_EVENT_TYPES = Set.of("service_update", "node_update");
+
+  private final WebSocketBroadcaster<PushedEvent> broadcaster;
+
+  @Inject
+  public V2HttpHandlerEvent(
+    @NonNull Configuration configuration,
+    @NonNull @Named("taskScheduler") ScheduledExecutorService executorService
+  ) {
+    super(configuration.restConfiguration());
+    this.broadcaster = new WebSocketBroadcaster<>(
+      PushedEvent::key,
+      PushedEvent::serialize,
+      COALESCE_WINDOW,
+      executorService,
+      MAX_PENDING_EVENTS);
+  }
+
+  @HttpRequestHandler(paths = "/api/v2/event")
+  private void handleEventSubscribeRequest(
+    @NonNull HttpContext context,
+    @NonNull @BearerAuth HttpSession session,
+    @NonNull @Optional @RequestQueryParam("type") List<String> types,
+    @NonNull @Optional @RequestQueryParam("task") List<String> tasks,
+    @NonNull @Optional @RequestQueryParam("group") List<String> groups
+  ) {
+    context.upgrade().thenAccept(channel -> this.broadcaster.subscribe(
+      channel,
+      event -> event.matches(types, tasks, groups)));
+  }
+
+  @EventListener
+  public void handleServiceLifecycleChange(@NonNull CloudServiceLifecycleChangeEvent event) {
+    this.broadcaster.publish(new PushedEvent(
+      "service_lifecycle_change",
+      event.serviceInfo().serviceId().uniqueId().toString(),
+      event.serviceInfo(),
+      JsonDocument.newDocument("lastLifeCycle", event.lastLifeCycle()).append("service", event.serviceInfo())));
+  }
+
+  @EventListener
+  public void handleServiceUpdate(@NonNull CloudServiceUpdateEvent event) {
+    this.broadcaster.publish(new PushedEvent(
+      "service_update",
+      event.serviceInfo().serviceId().uniqueId().toString(),
+      event.serviceInfo(),
+      JsonDocument.newDocument("service", event.serviceInfo())));
+  }
+
+  @EventListener
+  public void handleNodeInfoUpdate(@NonNull NetworkClusterNodeInfoUpdateEvent event) {
+    this.broadcaster.publish(new PushedEvent(
+      "node_update",
+      event.snapshot().node().uniqueId(),
+      null,
+      JsonDocument.newDocument("node", event.snapshot())));
+  }
+
+  private record PushedEvent(
+    @NonNull String type,
+    @NonNull String id,
+    @Nullable ServiceInfoSnapshot service,
+    @NonNull JsonDocument data
+  ) {
+
+    public @Nullable String key() {
+      // only the latest state update of a service or node needs to be sent to the client, other events (for example
+      // lifecycle changes) are transitions which must all be delivered
+      return COALESCED_EVENT_TYPES.contains(this.type) ? this.type + ':' + this.id : null;
+    }
+
+    public @NonNull String serialize() {
+      return JsonDocument.newDocument("type", this.type).append("data", this.data).toString();
+    }
+
+    public boolean matches(
+      @NonNull List<String> types,
+      @NonNull List<String> tasks,
+      @NonNull List<String> groups
+    ) {
+      if (!types.isEmpty() && !types.contains(this.type)) {
+        return false;
+      }
+
+      // events which are not related to a service are filtered out when the client is only interested in some services
+      if (this.service == null) {
+        return tasks.isEmpty() && groups.isEmpty();
+      }
+
+      return (tasks.isEmpty() || tasks.contains(this.service.serviceId().taskName()))
+        && (groups.isEmpty() || !Collections.disjoint(groups, this.service.configuration().groups()));
+    }
+  }
+}
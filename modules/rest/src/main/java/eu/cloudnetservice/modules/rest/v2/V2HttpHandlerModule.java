@@ -22,7 +22,9 @@
 import eu.cloudnetservice.driver.module.ModuleWrapper;
 import eu.cloudnetservice.driver.module.driver.DriverModule;
 import eu.cloudnetservice.driver.network.http.HttpContext;
+import eu.cloudnetservice.driver.network.http.HttpExecutionPolicy;
 import eu.cloudnetservice.driver.network.http.HttpResponseCode;
+import eu.cloudnetservice.driver.network.http.annotation.ExecutionPolicy;
 import eu.cloudnetservice.driver.network.http.annotation.HttpRequestHandler;
 import eu.cloudnetservice.driver.network.http.annotation.RequestBody;
 import eu.cloudnetservice.driver.network.http.annotation.RequestPathParam;
@@ -41,8 +43,11 @@
 
 @Singleton
 @HandlerPermission("http.v2.module")
+@ExecutionPolicy(HttpExecutionPolicy.BLOCKING)
 public final class V2HttpHandlerModule extends V2HttpHandler {
 
+  private static final long MAX_MODULE_SIZE = 256L << 20;
+
   private final ModuleProvider moduleProvider;
 
   @Inject
@@ -112,7 +117,11 @@ private void handleModuleUnloadRequest(@NonNull HttpContext ctx, @NonNull @Reque
   }
 
   @BearerAuth
-  @HttpRequestHandler(paths = "/api/v2/module/{module}/load", methods = "PUT")
+  @HttpRequestHandler(
+    paths = "/api/v2/module/{module}/load",
+    methods = "PUT",
+    streamBody = true,
+    maxBodySize = MAX_MODULE_SIZE)
   private void handleModuleLoadRequest(
     @NonNull HttpContext context,
     @NonNull @RequestPathParam("module") String name,
@@ -18,7 +18,9 @@
 
 import eu.cloudnetservice.common.document.gson.JsonDocument;
 import eu.cloudnetservice.driver.network.http.HttpContext;
+import eu.cloudnetservice.driver.network.http.HttpExecutionPolicy;
 import eu.cloudnetservice.driver.network.http.HttpResponseCode;
+import eu.cloudnetservice.driver.network.http.annotation.ExecutionPolicy;
 import eu.cloudnetservice.driver.network.http.annotation.HttpRequestHandler;
 import eu.cloudnetservice.driver.network.http.annotation.RequestBody;
 import eu.cloudnetservice.driver.network.http.annotation.RequestPathParam;
@@ -37,6 +39,7 @@
 
 @Singleton
 @HandlerPermission("http.v2.permission")
+@ExecutionPolicy(HttpExecutionPolicy.BLOCKING)
 public final class V2HttpHandlerPermission extends V2HttpHandler {
 
   private final PermissionManagement permissionManagement;
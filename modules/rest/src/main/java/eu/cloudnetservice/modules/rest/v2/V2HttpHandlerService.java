@@ -26,6 +26,7 @@
 import eu.cloudnetservice.driver.network.http.annotation.RequestPathParam;
 import eu.cloudnetservice.driver.network.http.websocket.WebSocketChannel;
 import eu.cloudnetservice.driver.network.http.websocket.WebSocketFrameType;
+import eu.cloudnetservice.driver.network.http.websocket.WebSocketLineBatcher;
 import eu.cloudnetservice.driver.network.http.websocket.WebSocketListener;
 import eu.cloudnetservice.driver.provider.CloudServiceFactory;
 import eu.cloudnetservice.driver.provider.ServiceTaskProvider;
@@ -45,9 +46,12 @@
 import eu.cloudnetservice.node.service.ServiceConsoleLineHandler;
 import eu.cloudnetservice.node.service.ServiceConsoleLogCache;
 import jakarta.inject.Inject;
+import jakarta.inject.Named;
 import jakarta.inject.Singleton;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.UUID;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
@@ -57,21 +61,28 @@
 @HandlerPermission("http.v2.services")
 public final class V2HttpHandlerService extends V2HttpHandler {
 
+  private static final int LIVE_LOG_BUFFER_SIZE = Integer.getInteger("cloudnet.rest.live-log-buffer-size", 1000);
+  private static final Duration LIVE_LOG_BATCH_WINDOW = Duration.ofMillis(
+    Long.getLong("cloudnet.rest.live-log-batch-window", 100));
+
   private final CloudServiceFactory serviceFactory;
   private final CloudServiceManager serviceManager;
   private final ServiceTaskProvider serviceTaskProvider;
+  private final ScheduledExecutorService executorService;
 
   @Inject
   public V2HttpHandlerService(
     @NonNull Configuration config,
     @NonNull CloudServiceFactory serviceFactory,
     @NonNull CloudServiceManager serviceManager,
-    @NonNull ServiceTaskProvider serviceTaskProvider
+    @NonNull ServiceTaskProvider serviceTaskProvider,
+    @NonNull @Named("taskScheduler") ScheduledExecutorService executorService
   ) {
     super(config.restConfiguration());
     this.serviceFactory = serviceFactory;
     this.serviceManager = serviceManager;
     this.serviceTaskProvider = serviceTaskProvider;
+    this.executorService = executorService;
   }
 
   @BearerAuth
@@ -199,9 +210,13 @@ private void handleLiveLogRequest(@NonNull HttpContext context, @NonNull @Reques
       var cloudService = this.serviceManager.localCloudService(service.serviceId().uniqueId());
       if (cloudService != null) {
         context.upgrade().thenAccept(channel -> {
-          ServiceConsoleLineHandler handler = (console, line, stderr) -> channel.sendWebSocketFrame(
-            WebSocketFrameType.TEXT,
-            line);
+          // send the lines in batches to not flood the client with frames
+          var batcher = new WebSocketLineBatcher(
+            channel,
+            LIVE_LOG_BUFFER_SIZE,
+            LIVE_LOG_BATCH_WINDOW,
+            this.executorService);
+          ServiceConsoleLineHandler handler = (console, line, stderr) -> batcher.append(line);
           cloudService.serviceConsoleLogCache().addHandler(handler);
 
           channel.addListener(new ConsoleHandlerWebSocketListener(
@@ -20,8 +20,10 @@
 import eu.cloudnetservice.common.log.LogManager;
 import eu.cloudnetservice.common.log.Logger;
 import eu.cloudnetservice.driver.network.http.HttpContext;
+import eu.cloudnetservice.driver.network.http.HttpExecutionPolicy;
 import eu.cloudnetservice.driver.network.http.HttpResponse;
 import eu.cloudnetservice.driver.network.http.HttpResponseCode;
+import eu.cloudnetservice.driver.network.http.annotation.ExecutionPolicy;
 import eu.cloudnetservice.driver.network.http.annotation.FirstRequestQueryParam;
 import eu.cloudnetservice.driver.network.http.annotation.HttpRequestHandler;
 import eu.cloudnetservice.driver.network.http.annotation.Optional;
@@ -46,10 +48,15 @@
 
 @Singleton
 @HandlerPermission("http.v2.template")
+@ExecutionPolicy(HttpExecutionPolicy.BLOCKING)
 public final class V2HttpHandlerTemplate extends V2HttpHandler {
 
   private static final Logger LOGGER = LogManager.logger(V2HttpHandlerTemplate.class);
 
+  // uploads are streamed to the storage, the limits only guard against unbounded requests
+  private static final long MAX_DEPLOY_SIZE = 2L << 30;
+  private static final long MAX_FILE_SIZE = 512L << 20;
+
   private final ServiceVersionProvider versionProvider;
 
   @Inject
@@ -201,7 +208,11 @@ private void handleCreateRequest(
   }
 
   @BearerAuth
-  @HttpRequestHandler(paths = "/api/v2/template/{storage}/{prefix}/{name}/deploy", methods = "POST")
+  @HttpRequestHandler(
+    paths = "/api/v2/template/{storage}/{prefix}/{name}/deploy",
+    methods = "POST",
+    streamBody = true,
+    maxBodySize = MAX_DEPLOY_SIZE)
   private void handleDeployRequest(
     @NonNull HttpContext context,
     @NonNull @RequestPathParam("storage") String storageName,
@@ -330,7 +341,11 @@ private void handleDirectoryCreateRequest(
   }
 
   @BearerAuth
-  @HttpRequestHandler(paths = "/api/v2/template/{storage}/{prefix}/{name}/file/create", methods = "POST")
+  @HttpRequestHandler(
+    paths = "/api/v2/template/{storage}/{prefix}/{name}/file/create",
+    methods = "POST",
+    streamBody = true,
+    maxBodySize = MAX_FILE_SIZE)
   private void handleFileCreateRequest(
     @NonNull HttpContext context,
     @NonNull @RequestPathParam("storage") String storageName,
@@ -343,7 +358,11 @@ private void handleFileCreateRequest(
   }
 
   @BearerAuth
-  @HttpRequestHandler(paths = "/api/v2/template/{storage}/{prefix}/{name}/file/append", methods = "POST")
+  @HttpRequestHandler(
+    paths = "/api/v2/template/{storage}/{prefix}/{name}/file/append",
+    methods = "POST",
+    streamBody = true,
+    maxBodySize = MAX_FILE_SIZE)
   private void handleFileAppendRequest(
     @NonNull HttpContext context,
     @NonNull @RequestPathParam("storage") String storageName,
@@ -17,6 +17,8 @@
 package eu.cloudnetservice.modules.rest.v2;
 
 import eu.cloudnetservice.driver.network.http.HttpContext;
+import eu.cloudnetservice.driver.network.http.HttpExecutionPolicy;
+import eu.cloudnetservice.driver.network.http.annotation.ExecutionPolicy;
 import eu.cloudnetservice.driver.network.http.annotation.HttpRequestHandler;
 import eu.cloudnetservice.driver.network.http.annotation.RequestPathParam;
 import eu.cloudnetservice.driver.template.TemplateStorage;
@@ -32,6 +34,7 @@
 
 @Singleton
 @HandlerPermission("http.v2.template.storage")
+@ExecutionPolicy(HttpExecutionPolicy.BLOCKING)
 public final class V2HttpHandlerTemplateStorage extends V2HttpHandler {
 
   private final TemplateStorageProvider templateStorageProvider;
@@ -16,6 +16,8 @@
 
 package eu.cloudnetservice.modules.s3;
 
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import eu.cloudnetservice.common.function.ThrowableConsumer;
 import eu.cloudnetservice.common.io.FileUtil;
 import eu.cloudnetservice.common.io.ZipUtil;
@@ -31,25 +33,41 @@
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Predicate;
 import lombok.NonNull;
 import org.jetbrains.annotations.Nullable;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.core.retry.RetryPolicy;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
 import software.amazon.awssdk.services.s3.model.BucketAlreadyExistsException;
 import software.amazon.awssdk.services.s3.model.BucketAlreadyOwnedByYouException;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
 import software.amazon.awssdk.services.s3.model.CreateBucketRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
 import software.amazon.awssdk.services.s3.model.Delete;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
 import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
@@ -62,16 +80,28 @@
 import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 import software.amazon.awssdk.services.s3.model.S3Object;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
 
 public class S3TemplateStorage implements TemplateStorage {
 
   private static final Logger LOGGER = LogManager.logger(S3TemplateStorage.class);
 
   private final S3Client client;
+  private final ExecutorService transferExecutor;
   private final S3TemplateStorageModule module;
 
   public S3TemplateStorage(@NonNull S3TemplateStorageModule module) {
     this.module = module;
+    this.transferExecutor = Executors.newFixedThreadPool(
+      this.config().transferConcurrency(),
+      new ThreadFactoryBuilder().setNameFormat("S3-Transfer-%d").setDaemon(true).build());
+
+    // apply the retry count if configured, use the sdk default otherwise
+    var overrideConfiguration = ClientOverrideConfiguration.builder();
+    if (this.config().maxRetries() != null) {
+      overrideConfiguration.retryPolicy(RetryPolicy.builder().numRetries(this.config().maxRetries()).build());
+    }
+
     this.client = S3Client.builder()
       .region(Region.of(this.config().region()))
       .endpointOverride(this.config().resolveEndpointOverride())
@@ -85,6 +115,7 @@ public S3TemplateStorage(@NonNull S3TemplateStorageModule module) {
         .chunkedEncodingEnabled(this.config().chunkedEncoding())
         .checksumValidationEnabled(this.config().checksumValidation())
         .build())
+      .overrideConfiguration(overrideConfiguration.build())
       .build();
 
     // init the bucket
@@ -112,26 +143,24 @@ public boolean deployDirectory(
     @Nullable Predicate<Path> filter
   ) {
     var result = new AtomicBoolean(true);
-    // walk down the file tree
+    Collection<CompletableFuture<Void>> uploads = new ArrayList<>();
+    // walk down the file tree, the uploads are executed in parallel (bounded by the transfer executor)
     FileUtil.walkFileTree(directory, ($, file) -> {
       if (!Files.isDirectory(file)) {
-        try {
-          var request = PutObjectRequest.builder()
-            .bucket(this.config().bucket())
-            .key(this.getBucketPath(target, directory, file))
-            .contentType(this.getContentType(file))
-            .contentLength(Files.size(file))
-            .build();
-          this.client.putObject(request, RequestBody.fromFile(file));
-        } catch (Exception exception) {
+        var key = this.getBucketPath(target, directory, file);
+        uploads.add(this.uploadFile(key, file).exceptionally(throwable -> {
           LOGGER.severe("Exception putting file %s into s3 bucket %s",
-            exception,
+            throwable,
             file.toAbsolutePath(),
             this.config().bucket());
           result.set(false);
-        }
+          return null;
+        }));
       }
     }, true, filter == null ? path -> true : filter::test);
+
+    // wait for all uploads to complete
+    this.awaitTransfers(uploads);
     return result.get();
   }
 
@@ -151,10 +180,13 @@ public boolean deploy(@NonNull ServiceTemplate target, @NonNull InputStream inpu
   @Override
   public boolean pull(@NonNull ServiceTemplate template, @NonNull Path directory) {
     try {
+      var result = new AtomicBoolean(true);
+      Collection<CompletableFuture<Void>> downloads = new ArrayList<>();
+
       // get the repo path
       var templatePath = this.getBucketPath(template);
       // list all files
-      return this.listAllObjects(templatePath, null, content -> {
+      var listSuccess = this.listAllObjects(templatePath, null, content -> {
         // filter the content key
         var target = directory.resolve(content.key().substring(templatePath.length() + 1));
 
@@ -180,15 +212,20 @@ public boolean pull(@NonNull ServiceTemplate template, @NonNull Path directory)
         // now we can just create the parent as a directory (if we need to)
         FileUtil.createDirectory(parent);
 
-        // get the file
-        var req = GetObjectRequest.builder()
-          .key(content.key())
-          .bucket(this.config().bucket())
-          .build();
-        try (InputStream stream = this.client.getObject(req); var out = Files.newOutputStream(target)) {
-          FileUtil.copy(stream, out);
-        }
+        // download the file in the background
+        downloads.add(this.downloadFile(content, target).exceptionally(throwable -> {
+          LOGGER.severe("Exception downloading file %s from s3 bucket %s",
+            throwable,
+            content.key(),
+            this.config().bucket());
+          result.set(false);
+          return null;
+        }));
       });
+
+      // wait for all downloads to complete
+      this.awaitTransfers(downloads);
+      return listSuccess && result.get();
     } catch (Exception exception) {
       LOGGER.severe("Exception requesting object list from bucket for downloading", exception);
       return false;
@@ -197,12 +234,27 @@ public boolean pull(@NonNull ServiceTemplate template, @NonNull Path directory)
 
   @Override
   public @Nullable InputStream zipTemplate(@NonNull ServiceTemplate template) {
-    var localTarget = FileUtil.createTempFile();
-    if (this.pull(template, localTarget)) {
-      return ZipUtil.zipToStream(localTarget);
-    } else {
+    if (!this.contains(template)) {
       return null;
     }
+
+    // stream the objects directly into the zip while the zip gets consumed
+    var templatePath = this.getBucketPath(template);
+    return ZipUtil.zipStreaming(out -> {
+      var success = this.listAllObjects(templatePath, null, content -> {
+        var request = GetObjectRequest.builder()
+          .key(content.key())
+          .bucket(this.config().bucket())
+          .build();
+        try (InputStream stream = this.client.getObject(request)) {
+          ZipUtil.putEntry(out, content.key().substring(templatePath.length() + 1), stream);
+        }
+      });
+      // fail the stream if the listing was not successful
+      if (!success) {
+        throw new IOException("Unable to list all objects of template " + template);
+      }
+    });
   }
 
   @Override
@@ -434,9 +486,176 @@ public boolean deleteFile(@NonNull ServiceTemplate template, @NonNull String pat
 
   @Override
   public void close() {
+    this.transferExecutor.shutdownNow();
     this.client.close();
   }
 
+  protected @NonNull CompletableFuture<Void> uploadFile(@NonNull String key, @NonNull Path file) {
+    try {
+      var size = Files.size(file);
+      if (size < this.config().multipartThreshold()) {
+        // small file, just put the whole content in one request
+        return CompletableFuture.runAsync(() -> {
+          var request = PutObjectRequest.builder()
+            .bucket(this.config().bucket())
+            .key(key)
+            .contentType(this.getContentType(file))
+            .contentLength(size)
+            .build();
+          this.client.putObject(request, RequestBody.fromFile(file));
+        }, this.transferExecutor);
+      }
+
+      // initiate the multipart upload
+      var uploadId = this.client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+        .bucket(this.config().bucket())
+        .key(key)
+        .contentType(this.getContentType(file))
+        .build()).uploadId();
+
+      // upload all parts of the file in parallel
+      var partSize = this.config().multipartPartSize();
+      List<CompletableFuture<CompletedPart>> parts = new ArrayList<>();
+      for (long offset = 0, partNumber = 1; offset < size; offset += partSize, partNumber++) {
+        var partOffset = offset;
+        var partIndex = (int) partNumber;
+        var partLength = Math.min(partSize, size - offset);
+        parts.add(CompletableFuture.supplyAsync(
+          () -> this.uploadPart(key, uploadId, file, partIndex, partOffset, partLength),
+          this.transferExecutor));
+      }
+
+      // complete the upload once all parts were uploaded, abort it if one of the parts failed
+      return CompletableFuture.allOf(parts.toArray(CompletableFuture[]::new))
+        .thenRun(() -> {
+          var completedParts = parts.stream().map(CompletableFuture::join).toList();
+          this.client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+            .bucket(this.config().bucket())
+            .key(key)
+            .uploadId(uploadId)
+            .multipartUpload(CompletedMultipartUpload.builder().parts(completedParts).build())
+            .build());
+        })
+        .whenComplete(($, throwable) -> {
+          if (throwable != null) {
+            this.client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+              .bucket(this.config().bucket())
+              .key(key)
+              .uploadId(uploadId)
+              .build());
+          }
+        });
+    } catch (Exception exception) {
+      return CompletableFuture.failedFuture(exception);
+    }
+  }
+
+  protected @NonNull CompletedPart uploadPart(
+    @NonNull String key,
+    @NonNull String uploadId,
+    @NonNull Path file,
+    int partNumber,
+    long offset,
+    long length
+  ) {
+    var request = UploadPartRequest.builder()
+      .bucket(this.config().bucket())
+      .key(key)
+      .uploadId(uploadId)
+      .partNumber(partNumber)
+      .contentLength(length)
+      .build();
+    // the stream provider is called again by the sdk when a request gets retried
+    var body = RequestBody.fromContentProvider(() -> {
+      try {
+        var stream = Files.newInputStream(file);
+        stream.skipNBytes(offset);
+        return ByteStreams.limit(stream, length);
+      } catch (IOException exception) {
+        throw new UncheckedIOException(exception);
+      }
+    }, length, "application/octet-stream");
+
+    var response = this.client.uploadPart(request, body);
+    return CompletedPart.builder().partNumber(partNumber).eTag(response.eTag()).build();
+  }
+
+  protected @NonNull CompletableFuture<Void> downloadFile(@NonNull S3Object object, @NonNull Path target) {
+    if (object.size() < this.config().multipartThreshold()) {
+      // small file, just download it in one request
+      return CompletableFuture.runAsync(() -> {
+        var request = GetObjectRequest.builder()
+          .key(object.key())
+          .bucket(this.config().bucket())
+          .build();
+        try (InputStream stream = this.client.getObject(request); var out = Files.newOutputStream(target)) {
+          FileUtil.copy(stream, out);
+        } catch (IOException exception) {
+          throw new UncheckedIOException(exception);
+        }
+      }, this.transferExecutor);
+    }
+
+    try {
+      // open the channel to which all ranges are written
+      var channel = FileChannel.open(
+        target,
+        StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING);
+
+      // download all ranges of the object in parallel
+      var size = object.size();
+      var rangeSize = this.config().multipartPartSize();
+      List<CompletableFuture<Void>> ranges = new ArrayList<>();
+      for (long offset = 0; offset < size; offset += rangeSize) {
+        var rangeStart = offset;
+        var rangeEnd = Math.min(offset + rangeSize, size) - 1;
+        ranges.add(CompletableFuture.runAsync(
+          () -> this.downloadRange(object.key(), channel, rangeStart, rangeEnd),
+          this.transferExecutor));
+      }
+
+      // close the channel once all ranges were written
+      return CompletableFuture.allOf(ranges.toArray(CompletableFuture[]::new)).whenComplete(($, throwable) -> {
+        try {
+          channel.close();
+        } catch (IOException exception) {
+          LOGGER.fine("Unable to close file channel to %s", exception, target);
+        }
+      });
+    } catch (IOException exception) {
+      return CompletableFuture.failedFuture(exception);
+    }
+  }
+
+  protected void downloadRange(@NonNull String key, @NonNull FileChannel channel, long start, long end) {
+    var request = GetObjectRequest.builder()
+      .key(key)
+      .bucket(this.config().bucket())
+      .range(String.format("bytes=%d-%d", start, end))
+      .build();
+    try (InputStream stream = this.client.getObject(request)) {
+      var position = start;
+      var buffer = new byte[8192];
+
+      int read;
+      while ((read = stream.read(buffer)) != -1) {
+        var byteBuffer = ByteBuffer.wrap(buffer, 0, read);
+        while (byteBuffer.hasRemaining()) {
+          position += channel.write(byteBuffer, position);
+        }
+      }
+    } catch (IOException exception) {
+      throw new UncheckedIOException(exception);
+    }
+  }
+
+  protected void awaitTransfers(@NonNull Collection<CompletableFuture<Void>> transfers) {
+    // all futures are completing exceptionally into a null value, join will never throw
+    CompletableFuture.allOf(transfers.toArray(CompletableFuture[]::new)).join();
+  }
+
   protected boolean listAllObjects(
     @NonNull String prefix,
     @Nullable String marker,
@@ -460,6 +679,9 @@ protected boolean listAllObjects(
         // no need to continue - success!
         return true;
       }
+    } catch (CancellationException exception) {
+      // the handler cancelled the listing (for example the consumer of a zip stream closed it), not an error
+      throw exception;
     } catch (Exception exception) {
       LOGGER.severe("Exception listing content of bucket %s with prefix %s",
         exception,
@@ -49,7 +49,11 @@ public void handleInit(@NonNull ServiceRegistry serviceRegistry, @NonNull DataSy
         false,
         true,
         true,
-        false));
+        false,
+        S3TemplateStorageConfig.DEFAULT_TRANSFER_CONCURRENCY,
+        S3TemplateStorageConfig.DEFAULT_MULTIPART_THRESHOLD,
+        S3TemplateStorageConfig.DEFAULT_MULTIPART_PART_SIZE,
+        null));
     // init the storage
     this.storage = new S3TemplateStorage(this);
     serviceRegistry.registerProvider(TemplateStorage.class, this.config.name(), this.storage);
@@ -33,11 +33,32 @@ public record S3TemplateStorageConfig(
   boolean pathStyleAccess,
   boolean chunkedEncoding,
   boolean checksumValidation,
-  boolean dualstackEndpointEnabled
+  boolean dualstackEndpointEnabled,
+  int transferConcurrency,
+  long multipartThreshold,
+  long multipartPartSize,
+  @Nullable Integer maxRetries
 ) {
 
+  public static final int DEFAULT_TRANSFER_CONCURRENCY = 8;
+  public static final long DEFAULT_MULTIPART_THRESHOLD = 16 * 1024 * 1024;
+  public static final long DEFAULT_MULTIPART_PART_SIZE = 8 * 1024 * 1024;
+
+  // s3 rejects multipart uploads with parts (except the last one) smaller than 5 MiB
+  private static final long MINIMUM_PART_SIZE = 5 * 1024 * 1024;
   private static final Logger LOGGER = LogManager.logger(S3TemplateStorageConfig.class);
 
+  public S3TemplateStorageConfig {
+    // fill in the defaults for configurations which were created before the transfer options were introduced
+    if (transferConcurrency <= 0) {
+      transferConcurrency = DEFAULT_TRANSFER_CONCURRENCY;
+    }
+    if (multipartThreshold <= 0) {
+      multipartThreshold = DEFAULT_MULTIPART_THRESHOLD;
+    }
+    multipartPartSize = multipartPartSize <= 0 ? DEFAULT_MULTIPART_PART_SIZE : Math.max(MINIMUM_PART_SIZE, multipartPartSize);
+  }
+
   public @Nullable URI resolveEndpointOverride() {
     if (this.endpointOverride != null) {
       try {
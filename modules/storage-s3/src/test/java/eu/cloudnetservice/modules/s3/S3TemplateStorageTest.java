@@ -16,12 +16,15 @@
 
 package eu.cloudnetservice.modules.s3;
 
+import eu.cloudnetservice.common.io.FileUtil;
 import eu.cloudnetservice.driver.service.ServiceTemplate;
 import eu.cloudnetservice.modules.s3.config.S3TemplateStorageConfig;
 import java.io.IOException;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.ThreadLocalRandom;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
@@ -72,7 +75,11 @@ static void setupServer() throws UnknownHostException {
       false,
       true,
       true,
-      false));
+      false,
+      4,
+      S3TemplateStorageConfig.DEFAULT_MULTIPART_THRESHOLD,
+      S3TemplateStorageConfig.DEFAULT_MULTIPART_PART_SIZE,
+      null));
 
     storage = new S3TemplateStorage(module);
   }
@@ -194,6 +201,30 @@ void testTemplateListing() {
     Assertions.assertEquals(TEMPLATE, templates.iterator().next());
   }
 
+  @Test
+  @Order(105)
+  void testMultipartDeployAndPull() throws IOException {
+    var source = FileUtil.createTempFile();
+    var target = FileUtil.createTempFile();
+    try {
+      // write a file which exceeds the multipart threshold and is not aligned to the part size
+      var content = new byte[(int) S3TemplateStorageConfig.DEFAULT_MULTIPART_THRESHOLD + 1337];
+      ThreadLocalRandom.current().nextBytes(content);
+      Files.createDirectories(source.resolve("plugins"));
+      Files.write(source.resolve("plugins").resolve("large.jar"), content);
+
+      Assertions.assertTrue(storage.deployDirectory(TEMPLATE, source, null));
+      Assertions.assertTrue(storage.pull(TEMPLATE, target));
+
+      var pulled = target.resolve("plugins").resolve("large.jar");
+      Assertions.assertTrue(Files.exists(pulled));
+      Assertions.assertArrayEquals(content, Files.readAllBytes(pulled));
+    } finally {
+      FileUtil.delete(source);
+      FileUtil.delete(target);
+    }
+  }
+
   @Test
   @Order(110)
   void testTemplateDelete() {
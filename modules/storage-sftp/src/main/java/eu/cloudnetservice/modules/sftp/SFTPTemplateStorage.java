@@ -16,6 +16,7 @@
 
 package eu.cloudnetservice.modules.sftp;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import eu.cloudnetservice.common.function.ThrowableFunction;
 import eu.cloudnetservice.common.io.FileUtil;
 import eu.cloudnetservice.common.io.ZipUtil;
@@ -26,18 +27,26 @@
 import eu.cloudnetservice.driver.template.TemplateStorage;
 import eu.cloudnetservice.modules.sftp.config.SFTPTemplateStorageConfig;
 import eu.cloudnetservice.modules.sftp.sshj.ActiveHeartbeatKeepAliveProvider;
-import eu.cloudnetservice.modules.sftp.sshj.FilteringLocalFileSource;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Predicate;
+import java.util.zip.ZipOutputStream;
 import lombok.NonNull;
 import net.schmizz.sshj.Config;
 import net.schmizz.sshj.DefaultConfig;
@@ -48,7 +57,6 @@
 import net.schmizz.sshj.sftp.OpenMode;
 import net.schmizz.sshj.sftp.SFTPClient;
 import net.schmizz.sshj.transport.verification.PromiscuousVerifier;
-import net.schmizz.sshj.xfer.FileSystemFile;
 import org.jetbrains.annotations.Nullable;
 
 public class SFTPTemplateStorage implements TemplateStorage {
@@ -58,6 +66,7 @@ public class SFTPTemplateStorage implements TemplateStorage {
 
   private final Config config;
   private final SFTPClientPool pool;
+  private final ExecutorService transferExecutor;
   private final SFTPTemplateStorageConfig storageConfig;
 
   private volatile SSHClient sshClient;
@@ -68,6 +77,10 @@ public SFTPTemplateStorage(@NonNull SFTPTemplateStorageConfig config) {
     this.config = new DefaultConfig();
     this.config.setLoggerFactory(NopLoggerFactory.INSTANCE);
     this.config.setKeepAliveProvider(ActiveHeartbeatKeepAliveProvider.INSTANCE);
+    // init the executor for bulk transfers, there is no need for more threads than clients we can use
+    this.transferExecutor = Executors.newFixedThreadPool(
+      Math.max(1, config.clientPoolSize()),
+      new ThreadFactoryBuilder().setNameFormat("SFTP-Transfer-%d").setDaemon(true).build());
     // init the pool
     this.pool = new SFTPClientPool(config.clientPoolSize(), () -> {
       var client = this.sshClient;
@@ -122,10 +135,18 @@ public boolean deployDirectory(
     @NonNull Path directory,
     @Nullable Predicate<Path> filter
   ) {
-    return this.executeWithClient(client -> {
-      client.put(new FilteringLocalFileSource(directory, filter), this.constructRemotePath(target));
-      return true;
-    }, false);
+    // create the remote directory structure and collect the files to upload
+    Map<String, Path> files = this.executeWithClient(client -> {
+      var remoteRoot = this.constructRemotePath(target);
+      client.mkdirs(remoteRoot);
+
+      Map<String, Path> result = new HashMap<>();
+      this.collectLocalFiles(client, directory, remoteRoot, filter, result);
+      return result;
+    }, null);
+
+    // upload the files using all clients of the pool
+    return files != null && this.transferParallel(files, true);
   }
 
   @Override
@@ -143,27 +164,50 @@ public boolean deploy(@NonNull ServiceTemplate target, @NonNull InputStream inpu
 
   @Override
   public boolean pull(@NonNull ServiceTemplate template, @NonNull Path directory) {
-    return this.executeWithClient(client -> {
-      // we cannot call "get" directly as that would cause a download of the file into a directory
-      // which is called the same way the template is called
-      var target = new FileSystemFile(directory.toFile());
-      for (var fileInfo : client.ls(this.constructRemotePath(template))) {
-        client.get(fileInfo.getPath(), target);
-      }
-      return true;
-    }, false);
+    // create the local directory structure and collect the files to download
+    Map<String, Path> files = this.executeWithClient(client -> {
+      Map<String, Path> result = new HashMap<>();
+      this.collectRemoteFiles(client, this.constructRemotePath(template), directory, result);
+      return result;
+    }, null);
+
+    // download the files using all clients of the pool
+    return files != null && this.transferParallel(files, false);
   }
 
   @Override
   public @Nullable InputStream zipTemplate(@NonNull ServiceTemplate template) {
-    return this.executeWithClient(client -> {
-      var localTarget = FileUtil.createTempFile();
-      if (this.pull(template, localTarget)) {
-        return ZipUtil.zipToStream(localTarget);
-      } else {
-        return null;
+    if (!this.contains(template)) {
+      return null;
+    }
+
+    // stream the remote files directly into the zip while the zip gets consumed
+    return ZipUtil.zipStreaming(out -> {
+      try (var client = this.pool.takeClient()) {
+        this.zipRemoteDirectory(client, out, this.constructRemotePath(template), "");
       }
-    }, null);
+    });
+  }
+
+  protected void zipRemoteDirectory(
+    @NonNull SFTPClient client,
+    @NonNull ZipOutputStream out,
+    @NonNull String remoteDir,
+    @NonNull String entryPrefix
+  ) throws IOException {
+    for (var info : client.ls(remoteDir)) {
+      var entryName = entryPrefix + info.getName();
+      if (info.isDirectory()) {
+        this.zipRemoteDirectory(client, out, info.getPath(), entryName + '/');
+      } else if (info.isRegularFile()) {
+        try (
+          var remoteFile = client.open(info.getPath(), EnumSet.of(OpenMode.READ));
+          var in = remoteFile.new ReadAheadRemoteFileInputStream(this.storageConfig.pipelinedRequests())
+        ) {
+          ZipUtil.putEntry(out, entryName, in);
+        }
+      }
+    }
   }
 
   @Override
@@ -183,6 +227,113 @@ public boolean delete(@NonNull ServiceTemplate template) {
     }, false);
   }
 
+  protected void collectLocalFiles(
+    @NonNull SFTPClient client,
+    @NonNull Path localDir,
+    @NonNull String remoteDir,
+    @Nullable Predicate<Path> filter,
+    @NonNull Map<String, Path> target
+  ) throws IOException {
+    try (var stream = Files.list(localDir)) {
+      for (var file : (Iterable<Path>) stream::iterator) {
+        // check if the file should be included
+        if (filter != null && !filter.test(file)) {
+          continue;
+        }
+
+        var remotePath = remoteDir + '/' + file.getFileName();
+        if (Files.isDirectory(file)) {
+          // create the directory now, the files are uploaded later in parallel
+          client.mkdirs(remotePath);
+          this.collectLocalFiles(client, file, remotePath, filter, target);
+        } else {
+          target.put(remotePath, file);
+        }
+      }
+    }
+  }
+
+  protected void collectRemoteFiles(
+    @NonNull SFTPClient client,
+    @NonNull String remoteDir,
+    @NonNull Path localDir,
+    @NonNull Map<String, Path> target
+  ) throws IOException {
+    FileUtil.createDirectory(localDir);
+    for (var info : client.ls(remoteDir)) {
+      var localPath = localDir.resolve(info.getName());
+      if (info.isDirectory()) {
+        this.collectRemoteFiles(client, info.getPath(), localPath, target);
+      } else if (info.isRegularFile()) {
+        target.put(info.getPath(), localPath);
+      }
+    }
+  }
+
+  protected boolean transferParallel(@NonNull Map<String, Path> files, boolean upload) {
+    // nothing to transfer
+    if (files.isEmpty()) {
+      return true;
+    }
+
+    var success = new AtomicBoolean(true);
+    var pendingFiles = new ConcurrentLinkedQueue<>(files.entrySet());
+
+    // start one worker per pooled client (at most), each worker holds a client and transfers files until none are left
+    var workerCount = Math.min(files.size(), Math.max(1, this.storageConfig.clientPoolSize()));
+    var workers = new CompletableFuture<?>[workerCount];
+    for (var i = 0; i < workerCount; i++) {
+      workers[i] = CompletableFuture.runAsync(() -> {
+        var workerSuccess = this.executeWithClient(client -> {
+          Map.Entry<String, Path> entry;
+          while (success.get() && (entry = pendingFiles.poll()) != null) {
+            if (upload) {
+              this.uploadFile(client, entry.getValue(), entry.getKey());
+            } else {
+              this.downloadFile(client, entry.getKey(), entry.getValue());
+            }
+          }
+          return true;
+        }, false);
+        // stop all other workers if this one failed
+        if (!workerSuccess) {
+          success.set(false);
+        }
+      }, this.transferExecutor);
+    }
+
+    // wait for all workers to finish
+    CompletableFuture.allOf(workers).join();
+    return success.get();
+  }
+
+  protected void uploadFile(@NonNull SFTPClient client, @NonNull Path local, @NonNull String remote) throws IOException {
+    try (var remoteFile = client.open(remote, EnumSet.of(OpenMode.WRITE, OpenMode.CREAT, OpenMode.TRUNC))) {
+      // pipeline the write requests rather than waiting for the confirmation of each request
+      var pipelinedRequests = this.storageConfig.pipelinedRequests();
+      try (var in = Files.newInputStream(local); var out = remoteFile.new RemoteFileOutputStream(0, pipelinedRequests)) {
+        // use the maximum amount of data we can send in one write request
+        var maxPacketSize = client.getSFTPEngine().getSubsystem().getRemoteMaxPacketSize();
+        var buffer = new byte[maxPacketSize - remoteFile.getOutgoingPacketOverhead()];
+
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+          out.write(buffer, 0, read);
+        }
+      }
+    }
+  }
+
+  protected void downloadFile(@NonNull SFTPClient client, @NonNull String remote, @NonNull Path local) throws IOException {
+    try (var remoteFile = client.open(remote, EnumSet.of(OpenMode.READ))) {
+      // pipeline the read requests rather than waiting for the response of each request
+      var pipelinedRequests = this.storageConfig.pipelinedRequests();
+      try (var in = remoteFile.new ReadAheadRemoteFileInputStream(pipelinedRequests); var out = Files.newOutputStream(local)) {
+        in.transferTo(out);
+      }
+    }
+  }
+
   protected void deleteDir(@NonNull SFTPClient client, @NonNull String dir) throws IOException {
     for (var info : client.ls(dir)) {
       // delete the directory if recursive
@@ -347,6 +498,9 @@ protected void ls(
 
   @Override
   public void close() throws IOException {
+    // stop all running transfers
+    this.transferExecutor.shutdownNow();
+
     // if the base-client is null there are no pooled clients as well, but we need to mark the pool itself as closed
     this.pool.close();
 
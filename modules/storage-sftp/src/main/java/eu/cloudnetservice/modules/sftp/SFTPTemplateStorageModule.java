@@ -57,7 +57,8 @@ public void convertConfig() {
         config.getString("sshKeyPassword") == null ? null : config.getString("sshKeyPassword"),
         null,
         config.getString("baseDirectory"),
-        4));
+        4,
+        SFTPTemplateStorageConfig.DEFAULT_PIPELINED_REQUESTS));
       // remove the old directory
       FileUtil.delete(oldConfigPath.getParent());
     }
@@ -24,6 +24,8 @@
 
 public class SFTPTemplateStorageConfig {
 
+  public static final int DEFAULT_PIPELINED_REQUESTS = 16;
+
   private final HostAndPort address;
 
   private final String storage;
@@ -37,9 +39,20 @@ public class SFTPTemplateStorageConfig {
   private final String baseDirectory;
 
   private final int clientPoolSize;
+  private final int pipelinedRequests;
 
   public SFTPTemplateStorageConfig() {
-    this(new HostAndPort("127.0.0.1", 22), "sftp", "root", "super_secret_key", null, null, null, "/home/cloudnet", 4);
+    this(
+      new HostAndPort("127.0.0.1", 22),
+      "sftp",
+      "root",
+      "super_secret_key",
+      null,
+      null,
+      null,
+      "/home/cloudnet",
+      4,
+      DEFAULT_PIPELINED_REQUESTS);
   }
 
   public SFTPTemplateStorageConfig(
@@ -51,7 +64,8 @@ public SFTPTemplateStorageConfig(
     @Nullable String sshKeyPassword,
     @Nullable Path knownHostFile,
     @NonNull String baseDirectory,
-    int clientPoolSize
+    int clientPoolSize,
+    int pipelinedRequests
   ) {
     this.address = address;
     this.storage = storage;
@@ -62,6 +76,7 @@ public SFTPTemplateStorageConfig(
     this.knownHostFile = knownHostFile;
     this.baseDirectory = baseDirectory;
     this.clientPoolSize = clientPoolSize;
+    this.pipelinedRequests = pipelinedRequests;
   }
 
   public @NonNull HostAndPort address() {
@@ -99,4 +114,9 @@ public SFTPTemplateStorageConfig(
   public int clientPoolSize() {
     return this.clientPoolSize;
   }
+
+  public int pipelinedRequests() {
+    // configurations created before this option was introduced are missing the value
+    return this.pipelinedRequests <= 0 ? DEFAULT_PIPELINED_REQUESTS : this.pipelinedRequests;
+  }
 }
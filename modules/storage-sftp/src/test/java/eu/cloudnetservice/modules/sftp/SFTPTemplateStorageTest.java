@@ -16,12 +16,15 @@
 
 package eu.cloudnetservice.modules.sftp;
 
+import eu.cloudnetservice.common.io.FileUtil;
 import eu.cloudnetservice.driver.network.HostAndPort;
 import eu.cloudnetservice.driver.service.ServiceTemplate;
 import eu.cloudnetservice.driver.template.FileInfo;
 import eu.cloudnetservice.modules.sftp.config.SFTPTemplateStorageConfig;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.ThreadLocalRandom;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
@@ -61,7 +64,8 @@ static void setupStorage() {
       null,
       null,
       "templates",
-      1));
+      2,
+      SFTPTemplateStorageConfig.DEFAULT_PIPELINED_REQUESTS));
   }
 
   @AfterAll
@@ -186,6 +190,36 @@ void testTemplateListing() {
     Assertions.assertEquals(TEMPLATE, templates.iterator().next());
   }
 
+  @Test
+  @Order(105)
+  void testParallelDeployAndPull() throws IOException {
+    var source = FileUtil.createTempFile();
+    var target = FileUtil.createTempFile();
+    try {
+      // create a few files, one of them larger than a single sftp packet
+      var content = new byte[1024 * 1024 + 1337];
+      ThreadLocalRandom.current().nextBytes(content);
+      Files.createDirectories(source.resolve("plugins"));
+      Files.write(source.resolve("plugins").resolve("large.jar"), content);
+      for (var i = 0; i < 10; i++) {
+        Files.writeString(source.resolve("file-" + i + ".txt"), "Hello " + i);
+      }
+
+      Assertions.assertTrue(storage.deployDirectory(TEMPLATE, source, null));
+      Assertions.assertTrue(storage.pull(TEMPLATE, target));
+
+      Assertions.assertArrayEquals(content, Files.readAllBytes(target.resolve("plugins").resolve("large.jar")));
+      for (var i = 0; i < 10; i++) {
+        Assertions.assertEquals("Hello " + i, Files.readString(target.resolve("file-" + i + ".txt")));
+      }
+      // files which were present before must be pulled as well
+      Assertions.assertTrue(Files.exists(target.resolve("hello").resolve("test.txt")));
+    } finally {
+      FileUtil.delete(source);
+      FileUtil.delete(target);
+    }
+  }
+
   @Test
   @Order(110)
   void testTemplateDelete() {
@@ -54,6 +54,8 @@
 import eu.cloudnetservice.node.console.util.HeaderReader;
 import eu.cloudnetservice.node.database.NodeDatabaseProvider;
 import eu.cloudnetservice.node.database.h2.H2DatabaseProvider;
+import eu.cloudnetservice.node.database.replicated.NodeReplicationTransport;
+import eu.cloudnetservice.node.database.replicated.ReplicatedDatabaseProvider;
 import eu.cloudnetservice.node.database.xodus.XodusDatabaseProvider;
 import eu.cloudnetservice.node.event.CloudNetNodePostInitializationEvent;
 import eu.cloudnetservice.node.log.QueuedConsoleLogHandler;
@@ -62,6 +64,7 @@
 import eu.cloudnetservice.node.module.updater.ModuleUpdater;
 import eu.cloudnetservice.node.module.updater.ModuleUpdaterRegistry;
 import eu.cloudnetservice.node.network.chunk.FileDeployCallbackListener;
+import eu.cloudnetservice.node.network.listener.message.DatabaseChannelMessageListener;
 import eu.cloudnetservice.node.permission.DefaultPermissionManagementHandler;
 import eu.cloudnetservice.node.permission.NodePermissionManagement;
 import eu.cloudnetservice.node.setup.DefaultInstallation;
@@ -166,7 +169,11 @@ private void setupModuleProvider(
 
   @Inject
   @Order(250)
-  private void registerDefaultServices(@NonNull ServiceRegistry serviceRegistry, @NonNull Configuration configuration) {
+  private void registerDefaultServices(
+    @NonNull ServiceRegistry serviceRegistry,
+    @NonNull Configuration configuration,
+    @NonNull Provider<NodeServerProvider> nodeServerProvider
+  ) {
     // local template storage
     var localStoragePath = Path.of(System.getProperty("cloudnet.storage.local", "local/templates"));
     serviceRegistry.registerProvider(TemplateStorage.class, "local", new LocalTemplateStorage(localStoragePath));
@@ -178,6 +185,15 @@ private void registerDefaultServices(@NonNull ServiceRegistry serviceRegistry, @
       NodeDatabaseProvider.class,
       "xodus",
       new XodusDatabaseProvider(dbDirectory, runsInCluster));
+
+    // xodus database replicated through the cluster
+    var replicatedDbDirectory = new File(System.getProperty(
+      "cloudnet.database.replicated.path",
+      "local/database/replicated"));
+    serviceRegistry.registerProvider(
+      NodeDatabaseProvider.class,
+      "replicated",
+      new ReplicatedDatabaseProvider(replicatedDbDirectory, new NodeReplicationTransport(nodeServerProvider)));
   }
 
   @Inject
@@ -241,7 +257,8 @@ private void initializeDatabaseProvider(
     @NonNull ServiceRegistry serviceRegistry,
     @NonNull InjectionLayer<?> bootLayer,
     @NonNull RPCFactory rpcFactory,
-    @NonNull RPCHandlerRegistry rpcHandlerRegistry
+    @NonNull RPCHandlerRegistry rpcHandlerRegistry,
+    @NonNull EventManager eventManager
   ) throws Exception {
     // initialize the default database provider
     var configuredProvider = configuration.properties().getString("database_provider", "xodus");
@@ -264,6 +281,7 @@ private void initializeDatabaseProvider(
 
     // register the rpc handler for the database provider
     rpcFactory.newHandler(DatabaseProvider.class, provider).registerTo(rpcHandlerRegistry);
+    eventManager.registerListener(DatabaseChannelMessageListener.class);
 
     // notify the user about the selected database
     LOGGER.info(I18n.trans("start-connect-database", provider.name()));
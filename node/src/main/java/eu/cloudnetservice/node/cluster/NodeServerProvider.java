@@ -17,6 +17,7 @@
 package eu.cloudnetservice.node.cluster;
 
 import eu.cloudnetservice.common.concurrent.Task;
+import eu.cloudnetservice.common.function.ThrowableSupplier;
 import eu.cloudnetservice.driver.network.NetworkChannel;
 import eu.cloudnetservice.driver.network.chunk.TransferStatus;
 import eu.cloudnetservice.driver.network.cluster.NetworkCluster;
@@ -24,6 +25,7 @@
 import eu.cloudnetservice.driver.network.protocol.PacketSender;
 import eu.cloudnetservice.driver.service.ServiceTemplate;
 import java.io.Closeable;
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.Collection;
 import lombok.NonNull;
@@ -57,12 +59,12 @@ public interface NodeServerProvider extends PacketSender, Closeable {
 
   @NonNull Task<TransferStatus> deployTemplateToCluster(
     @NonNull ServiceTemplate template,
-    @NonNull InputStream stream,
+    @NonNull ThrowableSupplier<InputStream, IOException> streamFactory,
     boolean overwrite);
 
   @NonNull Task<TransferStatus> deployStaticServiceToCluster(
     @NonNull String name,
-    @NonNull InputStream stream,
+    @NonNull ThrowableSupplier<InputStream, IOException> streamFactory,
     boolean overwrite);
 
   @Override
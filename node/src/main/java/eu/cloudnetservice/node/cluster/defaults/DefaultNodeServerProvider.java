@@ -18,6 +18,9 @@
 
 import dev.derklaro.aerogel.auto.Provides;
 import eu.cloudnetservice.common.concurrent.Task;
+import eu.cloudnetservice.common.function.ThrowableSupplier;
+import eu.cloudnetservice.common.log.LogManager;
+import eu.cloudnetservice.common.log.Logger;
 import eu.cloudnetservice.driver.channel.ChannelMessage;
 import eu.cloudnetservice.driver.event.EventManager;
 import eu.cloudnetservice.driver.inject.InjectionLayer;
@@ -34,15 +37,20 @@
 import eu.cloudnetservice.node.cluster.NodeServer;
 import eu.cloudnetservice.node.cluster.NodeServerProvider;
 import eu.cloudnetservice.node.cluster.sync.DataSyncRegistry;
+import eu.cloudnetservice.node.cluster.util.QueuedNetworkChannel;
 import eu.cloudnetservice.node.network.listener.message.NodeChannelMessageListener;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import lombok.NonNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -50,6 +58,16 @@
 @Provides(NodeServerProvider.class)
 public class DefaultNodeServerProvider implements NodeServerProvider {
 
+  // node to node transfers are acknowledged, keeping at most 64 MiB of chunks in flight (including the read buffer).
+  // The transferred zip streams are created on the fly and can only be read in order, therefore by a single stream
+  private static final int CLUSTER_TRANSFER_CHUNK_SIZE = 8 * 1024 * 1024;
+  private static final int CLUSTER_TRANSFER_ACKNOWLEDGE_WINDOW = 7;
+  // failed transfers are resumed using the same session id
+  private static final int CLUSTER_TRANSFER_ATTEMPTS = 3;
+  private static final long CLUSTER_TRANSFER_RETRY_DELAY_MILLIS = 5000;
+
+  private static final Logger LOGGER = LogManager.logger(DefaultNodeServerProvider.class);
+
   private final DataSyncRegistry dataSyncRegistry;
 
   private final LocalNodeServer localNode;
@@ -106,7 +124,9 @@ private void finishConstruction(@NonNull EventManager eventManager) {
   @Override
   public @Nullable NodeServer node(@NonNull NetworkChannel channel) {
     return this.nodeServers.stream()
-      .filter(server -> server.channel() != null && channel.equals(server.channel()))
+      .filter(server -> server.channel() != null && (channel.equals(server.channel())
+        // the channel of a reconnected node is wrapped until all queued packets were sent to it
+        || (server.channel() instanceof QueuedNetworkChannel queued && channel.equals(queued.reconnectedChannel()))))
       .findFirst()
       .orElse(null);
   }
@@ -115,9 +135,9 @@ private void finishConstruction(@NonNull EventManager eventManager) {
   public void syncDataIntoCluster() {
     ChannelMessage.builder()
       .targetNodes()
-      .message("sync_cluster_data")
+      .message("sync_cluster_data_summary")
       .channel(NetworkConstants.INTERNAL_MSG_CHANNEL)
-      .buffer(this.dataSyncRegistry.prepareClusterData(true))
+      .buffer(this.dataSyncRegistry.prepareClusterDataSummary(true))
       .build()
       .send();
   }
@@ -160,46 +180,79 @@ public void selectHeadNode() {
   @Override
   public @NonNull Task<TransferStatus> deployTemplateToCluster(
     @NonNull ServiceTemplate template,
-    @NonNull InputStream stream,
+    @NonNull ThrowableSupplier<InputStream, IOException> streamFactory,
     boolean overwrite
   ) {
-    // collect all known & available channels in the cluster
-    var channels = this.connectedNodeChannels();
-    if (!channels.isEmpty()) {
-      // send the template chunked to the cluster
-      return ChunkedPacketSender.forFileTransfer()
-        .transferChannel("deploy_service_template")
-        .withExtraData(
-          DataBuf.empty().writeString(template.storageName()).writeObject(template).writeBoolean(overwrite))
-        .toChannels(channels)
-        .source(stream)
-        .build()
-        .transferChunkedData();
-    }
-    // if there are no channels we "pseudo" completed the transfer
-    return Task.completedTask(TransferStatus.SUCCESS);
+    return this.transferToCluster(
+      "deploy_service_template",
+      () -> DataBuf.empty().writeString(template.storageName()).writeObject(template).writeBoolean(overwrite),
+      streamFactory);
   }
 
   @Override
   public @NonNull Task<TransferStatus> deployStaticServiceToCluster(
     @NonNull String name,
-    @NonNull InputStream stream,
+    @NonNull ThrowableSupplier<InputStream, IOException> streamFactory,
     boolean overwrite
   ) {
-    // collect all known & available channels in the cluster
-    var channels = this.connectedNodeChannels();
-    if (!channels.isEmpty()) {
-      // send the template chunked to the cluster
-      return ChunkedPacketSender.forFileTransfer()
-        .transferChannel("deploy_static_service")
-        .withExtraData(DataBuf.empty().writeString(name).writeBoolean(overwrite))
-        .toChannels(channels)
-        .source(stream)
-        .build()
-        .transferChunkedData();
-    }
-    // if there are no channels we "pseudo" completed the transfer
-    return Task.completedTask(TransferStatus.SUCCESS);
+    return this.transferToCluster(
+      "deploy_static_service",
+      () -> DataBuf.empty().writeString(name).writeBoolean(overwrite),
+      streamFactory);
+  }
+
+  protected @NonNull Task<TransferStatus> transferToCluster(
+    @NonNull String transferChannel,
+    @NonNull Supplier<DataBuf> extraDataFactory,
+    @NonNull ThrowableSupplier<InputStream, IOException> streamFactory
+  ) {
+    // all attempts use the same session id, allowing the targets to resume the transfer of the previous attempt
+    var sessionId = UUID.randomUUID();
+    return Task.supply(() -> {
+      for (var attempt = 1; ; attempt++) {
+        // collect all known & available channels in the cluster, they might have changed after a failed attempt
+        var channels = this.connectedNodeChannels();
+        if (channels.isEmpty()) {
+          // if there are no channels we "pseudo" completed the transfer
+          return TransferStatus.SUCCESS;
+        }
+
+        try {
+          var stream = streamFactory.get();
+          if (stream == null) {
+            return TransferStatus.FAILURE;
+          }
+
+          // send the data chunked to the cluster
+          var status = ChunkedPacketSender.forFileTransfer()
+            .transferChannel(transferChannel)
+            .sessionUniqueId(sessionId)
+            .chunkSize(CLUSTER_TRANSFER_CHUNK_SIZE)
+            .acknowledgeWindow(CLUSTER_TRANSFER_ACKNOWLEDGE_WINDOW)
+            .withExtraData(extraDataFactory.get())
+            .toChannels(channels)
+            .source(stream)
+            .build()
+            .transferChunkedData()
+            .get();
+          if (status == TransferStatus.SUCCESS) {
+            return status;
+          }
+        } catch (Exception exception) {
+          if (attempt >= CLUSTER_TRANSFER_ATTEMPTS) {
+            LOGGER.severe("Unable to transfer %s to the cluster after %d attempts", exception, transferChannel, attempt);
+            return TransferStatus.FAILURE;
+          }
+          LOGGER.warning("Transfer of %s to the cluster failed, resuming it", exception, transferChannel);
+        }
+
+        if (attempt >= CLUSTER_TRANSFER_ATTEMPTS) {
+          return TransferStatus.FAILURE;
+        }
+        // give the connections some time to recover before resuming the transfer
+        TimeUnit.MILLISECONDS.sleep(CLUSTER_TRANSFER_RETRY_DELAY_MILLIS);
+      }
+    });
   }
 
   @Override
@@ -146,10 +146,10 @@ public void drain(boolean doDrain) {
   @Override
   public void syncClusterData(boolean force) {
     ChannelMessage.builder()
-      .message("sync_cluster_data")
+      .message("sync_cluster_data_summary")
       .targetNode(this.info.uniqueId())
       .channel(NetworkConstants.INTERNAL_MSG_CHANNEL)
-      .buffer(this.dataSyncRegistry.prepareClusterData(force))
+      .buffer(this.dataSyncRegistry.prepareClusterDataSummary(force))
       .build()
       .send();
   }
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2019-2023 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.node.cluster.sync;
+
+import eu.cloudnetservice.common.document.gson.JsonDocument;
+import eu.cloudnetservice.driver.network.buffer.DataBuf;
+import io.leangen.geantyref.TypeFactory;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import java.lang.reflect.Type;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
+
+@Singleton
+public class DataSyncConflictJournal {
+
+  private static final Path DEFAULT_JOURNAL_PATH = Path.of(
+    System.getProperty("cloudnet.cluster.sync.conflicts.path", "local/sync_conflicts.json"));
+  private static final Type CONFLICT_LIST_TYPE = TypeFactory.parameterizedClass(List.class, DataSyncConflict.class);
+
+  private final Path journalPath;
+  private final Map<UUID, DataSyncConflict> conflicts = new LinkedHashMap<>();
+
+  @Inject
+  public DataSyncConflictJournal() {
+    this(DEFAULT_JOURNAL_PATH);
+  }
+
+  public DataSyncConflictJournal(@NonNull Path journalPath) {
+    this.journalPath = journalPath;
+    // load the conflicts which were not resolved before the last shutdown
+    if (Files.exists(journalPath)) {
+      List<DataSyncConflict> conflicts = JsonDocument.newDocument(journalPath).get("conflicts", CONFLICT_LIST_TYPE);
+      if (conflicts != null) {
+        conflicts.forEach(conflict -> this.conflicts.put(conflict.id(), conflict));
+      }
+    }
+  }
+
+  public synchronized @NonNull DataSyncConflict record(
+    @NonNull DataSyncHandler<?> handler,
+    @NonNull Object remoteData,
+    @Nullable String sourceNode
+  ) {
+    try (var buf = DataBuf.empty()) {
+      handler.serialize(buf, remoteData);
+      var name = handler.name(remoteData);
+
+      // only the latest remote version of an entry is of interest, drop older conflicts of the same entry
+      this.conflicts.values().removeIf(c -> c.handlerKey().equals(handler.key()) && c.name().equals(name));
+      var conflict = new DataSyncConflict(
+        UUID.randomUUID(),
+        handler.key(),
+        name,
+        sourceNode,
+        System.currentTimeMillis(),
+        Base64.getEncoder().encodeToString(buf.toByteArray()));
+
+      this.conflicts.put(conflict.id(), conflict);
+      this.save();
+      return conflict;
+    }
+  }
+
+  public synchronized @Nullable DataSyncConflict conflict(@NonNull UUID id) {
+    return this.conflicts.get(id);
+  }
+
+  public synchronized @NonNull Collection<DataSyncConflict> conflicts() {
+    return List.copyOf(this.conflicts.values());
+  }
+
+  public synchronized boolean remove(@NonNull UUID id) {
+    if (this.conflicts.remove(id) != null) {
+      this.save();
+      return true;
+    }
+    return false;
+  }
+
+  protected void save() {
+    JsonDocument.newDocument("conflicts", new ArrayList<>(this.conflicts.values())).write(this.journalPath);
+  }
+}
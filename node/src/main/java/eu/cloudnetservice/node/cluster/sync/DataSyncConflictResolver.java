@@ -0,0 +1,85 @@
+/*
+ * Copyright 2019-2023 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.node.cluster.sync;
+
+import com.google.common.base.Enums;
+import eu.cloudnetservice.common.StringUtil;
+import eu.cloudnetservice.common.log.LogManager;
+import eu.cloudnetservice.common.log.Logger;
+import eu.cloudnetservice.node.cluster.NodeServerProvider;
+import eu.cloudnetservice.node.config.Configuration;
+import jakarta.inject.Inject;
+import jakarta.inject.Provider;
+import jakarta.inject.Singleton;
+import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
+
+@Singleton
+public class DataSyncConflictResolver {
+
+  public static final String DEFAULT_POLICY_PROPERTY = "cluster_sync_conflict_policy";
+  public static final String HANDLER_POLICIES_PROPERTY = "cluster_sync_conflict_policies";
+
+  private static final Logger LOGGER = LogManager.logger(DataSyncConflictResolver.class);
+
+  private final Configuration configuration;
+  // the node server provider depends on the sync registry, which depends on this resolver
+  private final Provider<NodeServerProvider> nodeServerProvider;
+
+  @Inject
+  public DataSyncConflictResolver(
+    @NonNull Configuration configuration,
+    @NonNull Provider<NodeServerProvider> nodeServerProvider
+  ) {
+    this.configuration = configuration;
+    this.nodeServerProvider = nodeServerProvider;
+  }
+
+  public @NonNull DataSyncConflictPolicy policy(@NonNull String handlerKey) {
+    var properties = this.configuration.properties();
+    // a policy configured for the specific handler takes precedence over the default policy
+    var handlerPolicy = parsePolicy(properties.getDocument(HANDLER_POLICIES_PROPERTY).getString(handlerKey));
+    if (handlerPolicy != null) {
+      return handlerPolicy;
+    }
+
+    var defaultPolicy = parsePolicy(properties.getString(DEFAULT_POLICY_PROPERTY));
+    return defaultPolicy == null ? DataSyncConflictPolicy.MANUAL : defaultPolicy;
+  }
+
+  public @NonNull DataSyncConflictPolicy resolve(@NonNull String handlerKey) {
+    var policy = this.policy(handlerKey);
+    if (policy == DataSyncConflictPolicy.HEAD_NODE_WINS) {
+      // the data of the head node is authoritative, only keep our version if we are the head node
+      var provider = this.nodeServerProvider.get();
+      return provider.localNode().head() ? DataSyncConflictPolicy.KEEP_YOURS : DataSyncConflictPolicy.ACCEPT_THEIRS;
+    }
+    return policy;
+  }
+
+  protected static @Nullable DataSyncConflictPolicy parsePolicy(@Nullable String policy) {
+    if (policy == null) {
+      return null;
+    }
+
+    var parsedPolicy = Enums.getIfPresent(DataSyncConflictPolicy.class, StringUtil.toUpper(policy)).orNull();
+    if (parsedPolicy == null) {
+      LOGGER.warning("Unknown cluster sync conflict policy %s, falling back to the default policy", null, policy);
+    }
+    return parsedPolicy;
+  }
+}
@@ -19,6 +19,7 @@
 import eu.cloudnetservice.driver.network.buffer.DataBuf;
 import java.util.function.Predicate;
 import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.UnknownNullability;
 
 public interface DataSyncRegistry {
@@ -37,5 +38,13 @@ public interface DataSyncRegistry {
 
   @NonNull DataBuf.Mutable prepareClusterData(boolean force, @NonNull Predicate<DataSyncHandler<?>> handlerFilter);
 
-  @UnknownNullability DataBuf handle(@NonNull DataBuf input, boolean force);
+  @UnknownNullability DataBuf handle(@NonNull DataBuf input, boolean force, @Nullable String sourceNode);
+
+  @NonNull DataBuf.Mutable prepareClusterDataSummary(boolean force);
+
+  @Nullable DataBuf.Mutable handleClusterDataSummary(@NonNull DataBuf summary);
+
+  @NonNull DataBuf.Mutable prepareRequestedClusterData(@NonNull DataBuf request);
+
+  @Nullable DataBuf.Mutable resolveConflict(@NonNull DataSyncConflict conflict, boolean acceptTheirs);
 }
@@ -16,20 +16,30 @@
 
 package eu.cloudnetservice.node.cluster.sync;
 
-import com.google.common.primitives.Ints;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
 import dev.derklaro.aerogel.auto.Provides;
 import eu.cloudnetservice.common.language.I18n;
 import eu.cloudnetservice.common.log.LogManager;
 import eu.cloudnetservice.common.log.Logger;
 import eu.cloudnetservice.driver.network.buffer.DataBuf;
+import eu.cloudnetservice.driver.network.buffer.DataBufFactory;
 import eu.cloudnetservice.node.cluster.sync.prettyprint.GulfHelper;
 import eu.cloudnetservice.node.cluster.sync.prettyprint.GulfPrettyPrint;
-import eu.cloudnetservice.node.console.Console;
+import io.leangen.geantyref.TypeFactory;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 import lombok.NonNull;
@@ -41,12 +51,20 @@ public class DefaultDataSyncRegistry implements DataSyncRegistry {
 
   private static final Logger LOGGER = LogManager.logger(DefaultDataSyncRegistry.class);
 
-  private final Console console;
+  private static final HashFunction ENTRY_HASH_FUNCTION = Hashing.murmur3_128();
+  private static final Type STRING_LIST_TYPE = TypeFactory.parameterizedClass(List.class, String.class);
+
+  private final DataSyncConflictJournal conflictJournal;
+  private final DataSyncConflictResolver conflictResolver;
   private final Map<String, DataSyncHandler<?>> handlers = new ConcurrentHashMap<>();
 
   @Inject
-  public DefaultDataSyncRegistry(@NonNull Console console) {
-    this.console = console;
+  public DefaultDataSyncRegistry(
+    @NonNull DataSyncConflictJournal conflictJournal,
+    @NonNull DataSyncConflictResolver conflictResolver
+  ) {
+    this.conflictJournal = conflictJournal;
+    this.conflictResolver = conflictResolver;
   }
 
   @Override
@@ -117,7 +135,7 @@ public boolean hasHandler(@NonNull String handlerKey) {
   }
 
   @Override
-  public @Nullable DataBuf handle(@NonNull DataBuf input, boolean force) {
+  public @Nullable DataBuf handle(@NonNull DataBuf input, boolean force, @Nullable String sourceNode) {
     // holds the result of the handle - null by default indicates no result
     DataBuf.Mutable result = null;
     // handle the incoming data as long as there is data
@@ -151,16 +169,14 @@ public boolean hasHandler(@NonNull String handlerKey) {
               LOGGER.warning(line);
             }
 
-            // print out the possibilities the user has now
-            LOGGER.warning(I18n.trans("cluster-sync-change-decision-question"));
-            // wait for the decision and apply
-            switch (this.waitForCorrectMergeInput(this.console)) {
-              case 1 -> {
+            // resolve the conflict based on the configured policy, never block the network thread
+            switch (this.conflictResolver.resolve(key)) {
+              case ACCEPT_THEIRS -> {
                 // accept theirs - write the change
                 handler.write(data);
                 LOGGER.info(I18n.trans("cluster-sync-accepted-theirs"));
               }
-              case 2 -> {
+              case KEEP_YOURS -> {
                 // accept yours - check if we already have a result buf
                 if (result == null) {
                   result = DataBuf.empty();
@@ -169,11 +185,10 @@ public boolean hasHandler(@NonNull String handlerKey) {
                 this.serializeData(current, handler, result);
                 LOGGER.info(I18n.trans("cluster-sync-accept-yours"));
               }
-              case 3 ->
-                // skip the current change
-                LOGGER.info(I18n.trans("cluster-sync-skip"));
               default -> {
-                // cannot happen
+                // queue the conflict for a later manual resolution
+                var conflict = this.conflictJournal.record(handler, data, sourceNode);
+                LOGGER.warning(I18n.trans("cluster-sync-conflict-recorded", conflict.name(), conflict.id()));
               }
             }
           } catch (Exception exception) {
@@ -194,6 +209,124 @@ public boolean hasHandler(@NonNull String handlerKey) {
     return result;
   }
 
+  @Override
+  public @NonNull DataBuf.Mutable prepareClusterDataSummary(boolean force) {
+    var summary = DataBuf.empty().writeBoolean(force);
+    for (var handler : this.handlers.values()) {
+      // write the root hash first, the receiver can skip all entry hashes if the root hash matches
+      var entryHashes = this.entryHashes(handler);
+      summary.writeString(handler.key()).writeLong(rootHash(entryHashes)).writeInt(entryHashes.size());
+      entryHashes.forEach((name, hash) -> summary.writeString(name).writeLong(hash));
+    }
+    return summary;
+  }
+
+  @Override
+  public @Nullable DataBuf.Mutable handleClusterDataSummary(@NonNull DataBuf summary) {
+    var force = summary.readBoolean();
+
+    DataBuf.Mutable request = null;
+    while (summary.readableBytes() > 0) {
+      var key = summary.readString();
+      var remoteRootHash = summary.readLong();
+      var entryCount = summary.readInt();
+
+      // compute the local entry hashes of the handler, if it exists
+      var handler = this.handlers.get(key);
+      var localHashes = handler == null ? null : this.entryHashes(handler);
+      var equal = localHashes == null || remoteRootHash == rootHash(localHashes);
+
+      // request all entries which are either missing locally or differ from the local entry
+      List<String> requestedEntries = new ArrayList<>();
+      for (var i = 0; i < entryCount; i++) {
+        var name = summary.readString();
+        var hash = summary.readLong();
+        if (!equal && !Objects.equals(localHashes.get(name), hash)) {
+          requestedEntries.add(name);
+        }
+      }
+
+      if (!requestedEntries.isEmpty()) {
+        if (request == null) {
+          request = DataBuf.empty().writeBoolean(force);
+        }
+        request.writeString(key).writeObject(requestedEntries);
+      }
+    }
+
+    summary.release();
+    return request;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public @NonNull DataBuf.Mutable prepareRequestedClusterData(@NonNull DataBuf request) {
+    var result = DataBuf.empty().writeBoolean(request.readBoolean());
+    while (request.readableBytes() > 0) {
+      var handler = this.handlers.get(request.readString());
+      Set<String> requestedEntries = new HashSet<>(request.<List<String>>readObject(STRING_LIST_TYPE));
+      if (handler != null) {
+        for (var data : (Collection<Object>) handler.data()) {
+          if (requestedEntries.contains(handler.name(data))) {
+            this.serializeData(data, handler, result);
+          }
+        }
+      }
+    }
+
+    request.release();
+    return result;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public @Nullable DataBuf.Mutable resolveConflict(@NonNull DataSyncConflict conflict, boolean acceptTheirs) {
+    this.conflictJournal.remove(conflict.id());
+    var handler = this.handlers.get(conflict.handlerKey());
+    if (handler == null) {
+      return null;
+    }
+
+    if (acceptTheirs) {
+      // accept theirs - apply the journaled remote version locally
+      try (var input = DataBufFactory.defaultFactory().fromBytes(conflict.remoteDataBytes())) {
+        handler.write(handler.converter().parse(input));
+      } catch (Exception exception) {
+        LOGGER.severe("Exception applying journaled sync data of %s", exception, conflict.name());
+      }
+      return null;
+    }
+
+    // accept yours - force the local version of the entry into the cluster
+    var result = DataBuf.empty().writeBoolean(true);
+    for (var data : (Collection<Object>) handler.data()) {
+      if (conflict.name().equals(handler.name(data))) {
+        this.serializeData(data, handler, result);
+      }
+    }
+    return result;
+  }
+
+  @SuppressWarnings("unchecked")
+  protected @NonNull Map<String, Long> entryHashes(@NonNull DataSyncHandler<?> handler) {
+    Map<String, Long> entryHashes = new TreeMap<>();
+    for (var data : (Collection<Object>) handler.data()) {
+      try (var buf = DataBuf.empty()) {
+        handler.serialize(buf, data);
+        // combine the hashes of entries with the same name, they are always requested together
+        var hash = ENTRY_HASH_FUNCTION.hashBytes(buf.toByteArray()).asLong();
+        entryHashes.merge(handler.name(data), hash, (left, right) -> 31 * left + right);
+      }
+    }
+    return entryHashes;
+  }
+
+  protected static long rootHash(@NonNull Map<String, Long> sortedEntryHashes) {
+    var hasher = ENTRY_HASH_FUNCTION.newHasher();
+    sortedEntryHashes.forEach((name, hash) -> hasher.putString(name, StandardCharsets.UTF_8).putLong(hash));
+    return hasher.hash().asLong();
+  }
+
   protected void serializeData(
     @NonNull Object data,
     @NonNull DataSyncHandler<?> handler,
@@ -207,32 +340,4 @@ protected void serializeData(
     // append the data
     target.writeDataBuf(buf);
   }
-
-  protected int waitForCorrectMergeInput(@NonNull Console console) {
-    try {
-      // disable all handlers of the console to prevent skips
-      console.disableAllHandlers();
-      // read & wait for a correct input
-      return this.readMergeInput(console);
-    } finally {
-      // re-enable all handlers
-      console.enableAllHandlers();
-    }
-  }
-
-  protected int readMergeInput(@NonNull Console console) {
-    while (true) {
-      // wait for an input
-      var input = console.readLine().getDef(null);
-      // check if an input was supplied
-      if (input == null) {
-        continue;
-      }
-      // get the int from the input & validate
-      var mergeDecision = Ints.tryParse(input);
-      if (mergeDecision != null && mergeDecision >= 1 && mergeDecision <= 3) {
-        return mergeDecision;
-      }
-    }
-  }
 }
@@ -16,71 +16,144 @@
 
 package eu.cloudnetservice.node.cluster.util;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import eu.cloudnetservice.common.concurrent.Task;
+import eu.cloudnetservice.common.io.FileUtil;
+import eu.cloudnetservice.common.log.LogManager;
+import eu.cloudnetservice.common.log.Logger;
+import eu.cloudnetservice.driver.channel.ChannelMessage;
 import eu.cloudnetservice.driver.network.HostAndPort;
 import eu.cloudnetservice.driver.network.NetworkChannel;
 import eu.cloudnetservice.driver.network.NetworkChannelHandler;
+import eu.cloudnetservice.driver.network.buffer.DataBufFactory;
+import eu.cloudnetservice.driver.network.def.NetworkConstants;
+import eu.cloudnetservice.driver.network.protocol.BasePacket;
 import eu.cloudnetservice.driver.network.protocol.Packet;
 import eu.cloudnetservice.driver.network.protocol.PacketListenerRegistry;
 import eu.cloudnetservice.driver.network.protocol.QueryPacketManager;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import eu.cloudnetservice.driver.service.ServiceInfoSnapshot;
+import eu.cloudnetservice.node.cluster.NodeServer;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import lombok.NonNull;
 import org.jetbrains.annotations.Nullable;
 
 public final class QueuedNetworkChannel implements NetworkChannel {
 
+  private static final Logger LOGGER = LogManager.logger(QueuedNetworkChannel.class);
+  // draining is rate limited and might take a while, never block the thread which completed the handshake
+  private static final ExecutorService DRAIN_EXECUTOR = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+    .setNameFormat("Queued-Channel-Drain-%d")
+    .setDaemon(true)
+    .build());
+
+  private static final Path DEFAULT_SPILL_DIRECTORY = Path.of(
+    System.getProperty("cloudnet.cluster.queue.path", "temp/cluster-queue"));
+  private static final long DEFAULT_MAX_MEMORY_BYTES = Long.getLong(
+    "cloudnet.cluster.queue.max-memory-bytes",
+    16 * 1024 * 1024);
+  private static final int DEFAULT_DRAIN_PACKETS_PER_SECOND = Integer.getInteger(
+    "cloudnet.cluster.queue.drain-rate",
+    5_000);
+
   private final NetworkChannel wrappedChannel;
-  private final Queue<Packet> scheduledPackets;
+
+  private final Path spillDirectory;
+  private final long maxMemoryBytes;
+  private final int drainPacketsPerSecond;
+
+  // all packets which are held in memory ordered by their sequence number, superseded packets are removed
+  private final Map<Long, QueuedPacket> memoryQueue = new LinkedHashMap<>();
+  private final Map<String, QueuedPacket> coalescedPackets = new HashMap<>();
+
+  private long sequence;
+  private long memoryBytes;
+
+  // the append-only disk segment for packets which do not fit into memory
+  private Path spillFile;
+  private DataOutputStream spillOutput;
+  private DataInputStream spillInput;
+  private QueuedPacket nextSpilledPacket;
+  private long spilledPackets;
+  private long readSpilledPackets;
+
+  private volatile NetworkChannel drainTarget;
+  // the channel to the reconnected node while the queued packets are drained to it
+  private volatile NetworkChannel reconnectedChannel;
 
   public QueuedNetworkChannel(@NonNull NetworkChannel wrappedChannel) {
+    this(wrappedChannel, DEFAULT_SPILL_DIRECTORY, DEFAULT_MAX_MEMORY_BYTES, DEFAULT_DRAIN_PACKETS_PER_SECOND);
+  }
+
+  public QueuedNetworkChannel(
+    @NonNull NetworkChannel wrappedChannel,
+    @NonNull Path spillDirectory,
+    long maxMemoryBytes,
+    int drainPacketsPerSecond
+  ) {
     this.wrappedChannel = wrappedChannel;
-    this.scheduledPackets = new ConcurrentLinkedQueue<>();
+    this.spillDirectory = spillDirectory;
+    this.maxMemoryBytes = maxMemoryBytes;
+    this.drainPacketsPerSecond = drainPacketsPerSecond;
   }
 
   @Override
   public long channelId() {
-    return this.wrappedChannel.channelId();
+    return this.currentChannel().channelId();
   }
 
   @Override
   public @NonNull HostAndPort serverAddress() {
-    return this.wrappedChannel.serverAddress();
+    return this.currentChannel().serverAddress();
   }
 
   @Override
   public @NonNull HostAndPort clientAddress() {
-    return this.wrappedChannel.clientAddress();
+    return this.currentChannel().clientAddress();
   }
 
   @Override
   public @NonNull NetworkChannelHandler handler() {
-    return this.wrappedChannel.handler();
+    return this.currentChannel().handler();
   }
 
   @Override
   public @NonNull PacketListenerRegistry packetRegistry() {
-    return this.wrappedChannel.packetRegistry();
+    return this.currentChannel().packetRegistry();
   }
 
   @Override
   public @NonNull QueryPacketManager queryPacketManager() {
-    return this.wrappedChannel.queryPacketManager();
+    return this.currentChannel().queryPacketManager();
   }
 
   @Override
   public boolean clientProvidedChannel() {
-    return this.wrappedChannel.clientProvidedChannel();
+    return this.currentChannel().clientProvidedChannel();
   }
 
   @Override
   public @Nullable Packet sendQuery(@NonNull Packet packet) {
-    return this.wrappedChannel.sendQuery(packet);
+    return this.currentChannel().sendQuery(packet);
   }
 
   @Override
   public @NonNull Task<Packet> sendQueryAsync(@NonNull Packet packet) {
-    return this.wrappedChannel.sendQueryAsync(packet);
+    return this.currentChannel().sendQueryAsync(packet);
   }
 
   @Override
@@ -90,27 +163,315 @@ public boolean writeable() {
 
   @Override
   public boolean active() {
-    return false;
+    // packets are queued until the node reconnected, but the queue stays in place until it was drained
+    var reconnectedChannel = this.reconnectedChannel;
+    return reconnectedChannel != null && reconnectedChannel.active();
   }
 
   @Override
   public void close() {
     this.wrappedChannel.close();
-    this.scheduledPackets.clear();
+    synchronized (this) {
+      this.memoryQueue.values().forEach(queuedPacket -> queuedPacket.packet().content().release());
+      this.memoryQueue.clear();
+      this.coalescedPackets.clear();
+      this.memoryBytes = 0;
+      this.closeSpillFile();
+    }
   }
 
   @Override
   public void sendPacket(@NonNull Packet packet) {
-    this.scheduledPackets.add(packet);
+    this.schedulePacket(packet, false);
   }
 
   @Override
   public void sendPacketSync(@NonNull Packet packet) {
-    this.scheduledPackets.add(packet);
+    this.schedulePacket(packet, true);
+  }
+
+  public @Nullable NetworkChannel reconnectedChannel() {
+    return this.reconnectedChannel;
+  }
+
+  public synchronized long memoryBytes() {
+    return this.memoryBytes;
+  }
+
+  public synchronized long queuedPackets() {
+    return this.memoryQueue.size() + this.spilledPackets - this.readSpilledPackets;
+  }
+
+  public synchronized long spilledPackets() {
+    return this.spilledPackets - this.readSpilledPackets;
+  }
+
+  public @NonNull Task<Void> drainPacketQueueAsync(@NonNull NodeServer server, @NonNull NetworkChannel target) {
+    // the queue stays the channel of the node until it was drained, packets sent in the meantime are queued behind
+    // the pending packets to retain their order. Queries are sent directly to the reconnected node
+    this.reconnectedChannel = target;
+    this.wrappedChannel.close();
+
+    var task = new Task<Void>();
+    DRAIN_EXECUTOR.execute(() -> {
+      try {
+        this.drainPacketQueue(target);
+        // all packets are passed through now, send them directly unless the node disconnected again
+        if (server.channel() == this) {
+          server.channel(target);
+        }
+        task.complete(null);
+      } catch (RuntimeException exception) {
+        LOGGER.severe("Exception while draining the queued packets to %s", exception, target.serverAddress());
+        task.completeExceptionally(exception);
+      }
+    });
+    return task;
   }
 
   public void drainPacketQueue(@NonNull NetworkChannel target) {
-    this.scheduledPackets.forEach(target::sendPacketSync);
-    this.scheduledPackets.clear();
+    var batchSize = Math.max(1, this.drainPacketsPerSecond / 20);
+    var drainStart = System.nanoTime();
+    var drainedPackets = 0L;
+
+    while (true) {
+      List<Packet> batch;
+      synchronized (this) {
+        batch = this.pollBatch(batchSize);
+        if (batch.isEmpty()) {
+          // all packets were sent, redirect all packets which are sent from now on directly to the target
+          this.drainTarget = target;
+          this.closeSpillFile();
+          return;
+        }
+      }
+
+      for (var packet : batch) {
+        this.awaitWriteable(target);
+        target.sendPacketSync(packet);
+      }
+
+      // limit the drain rate to prevent flooding the reconnected node
+      drainedPackets += batch.size();
+      var expectedNanos = TimeUnit.SECONDS.toNanos(drainedPackets) / this.drainPacketsPerSecond;
+      var sleepNanos = expectedNanos - (System.nanoTime() - drainStart);
+      if (sleepNanos > 0) {
+        this.sleep(TimeUnit.NANOSECONDS.toMillis(sleepNanos));
+      }
+    }
+  }
+
+  private @NonNull NetworkChannel currentChannel() {
+    var reconnectedChannel = this.reconnectedChannel;
+    return reconnectedChannel == null ? this.wrappedChannel : reconnectedChannel;
+  }
+
+  private void schedulePacket(@NonNull Packet packet, boolean sync) {
+    var target = this.drainTarget;
+    if (target == null) {
+      var coalesceKey = coalesceKey(packet);
+      synchronized (this) {
+        // re-check under the lock, the queue might have been drained in the meantime
+        if (this.drainTarget == null) {
+          this.enqueue(packet, coalesceKey);
+          return;
+        }
+      }
+      target = this.drainTarget;
+    }
+
+    if (sync) {
+      target.sendPacketSync(packet);
+    } else {
+      target.sendPacket(packet);
+    }
+  }
+
+  private void enqueue(@NonNull Packet packet, @Nullable String coalesceKey) {
+    var queuedPacket = new QueuedPacket(this.sequence++, packet, packet.content().readableBytes());
+    if (coalesceKey != null) {
+      // drop the packet which is superseded by the new packet, superseding packets are always held in memory
+      var superseded = this.coalescedPackets.put(coalesceKey, queuedPacket);
+      if (superseded != null && this.memoryQueue.remove(superseded.sequence()) != null) {
+        this.memoryBytes -= superseded.size();
+        superseded.packet().content().release();
+      }
+    } else if (this.spilledPackets > this.readSpilledPackets || this.memoryBytes + queuedPacket.size() > this.maxMemoryBytes) {
+      // keep the order of the spilled packets by spilling all packets until the segment was drained
+      if (this.spill(queuedPacket)) {
+        return;
+      }
+    }
+
+    this.memoryQueue.put(queuedPacket.sequence(), queuedPacket);
+    this.memoryBytes += queuedPacket.size();
+  }
+
+  private boolean spill(@NonNull QueuedPacket queuedPacket) {
+    try {
+      if (this.spillOutput == null) {
+        FileUtil.createDirectory(this.spillDirectory);
+        this.spillFile = this.spillDirectory.resolve(UUID.randomUUID() + ".queue");
+        this.spillOutput = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(this.spillFile)));
+      }
+
+      var packet = queuedPacket.packet();
+      this.spillOutput.writeLong(queuedPacket.sequence());
+      this.spillOutput.writeInt(packet.channel());
+      this.spillOutput.writeBoolean(packet.prioritized());
+      this.spillOutput.writeBoolean(packet.uniqueId() != null);
+      if (packet.uniqueId() != null) {
+        this.spillOutput.writeLong(packet.uniqueId().getMostSignificantBits());
+        this.spillOutput.writeLong(packet.uniqueId().getLeastSignificantBits());
+      }
+
+      var content = packet.content().toByteArray();
+      this.spillOutput.writeInt(content.length);
+      this.spillOutput.write(content);
+
+      this.spilledPackets++;
+      return true;
+    } catch (IOException exception) {
+      LOGGER.severe("Unable to spill queued packet to %s, keeping it in memory", exception, this.spillFile);
+      return false;
+    }
+  }
+
+  private @NonNull List<Packet> pollBatch(int batchSize) {
+    List<Packet> batch = new ArrayList<>(batchSize);
+    var memoryIterator = this.memoryQueue.values().iterator();
+    var nextMemoryPacket = memoryIterator.hasNext() ? memoryIterator.next() : null;
+
+    while (batch.size() < batchSize) {
+      var nextSpilledPacket = this.peekSpilledPacket();
+      if (nextMemoryPacket == null && nextSpilledPacket == null) {
+        break;
+      }
+
+      // merge the memory queue and the disk segment based on the sequence of the packets
+      if (nextSpilledPacket == null || (nextMemoryPacket != null
+        && nextMemoryPacket.sequence() < nextSpilledPacket.sequence())) {
+        memoryIterator.remove();
+        this.memoryBytes -= nextMemoryPacket.size();
+        this.coalescedPackets.values().remove(nextMemoryPacket);
+
+        batch.add(nextMemoryPacket.packet());
+        nextMemoryPacket = memoryIterator.hasNext() ? memoryIterator.next() : null;
+      } else {
+        this.nextSpilledPacket = null;
+        this.readSpilledPackets++;
+        batch.add(nextSpilledPacket.packet());
+      }
+    }
+
+    return batch;
+  }
+
+  private @Nullable QueuedPacket peekSpilledPacket() {
+    if (this.nextSpilledPacket != null || this.readSpilledPackets >= this.spilledPackets) {
+      return this.nextSpilledPacket;
+    }
+
+    try {
+      if (this.spillInput == null) {
+        this.spillInput = new DataInputStream(new BufferedInputStream(Files.newInputStream(this.spillFile)));
+      }
+      // make sure that all spilled packets are readable
+      this.spillOutput.flush();
+
+      var sequence = this.spillInput.readLong();
+      var channel = this.spillInput.readInt();
+      var prioritized = this.spillInput.readBoolean();
+      var uniqueId = this.spillInput.readBoolean()
+        ? new UUID(this.spillInput.readLong(), this.spillInput.readLong())
+        : null;
+
+      var content = new byte[this.spillInput.readInt()];
+      this.spillInput.readFully(content);
+
+      var packet = new BasePacket(channel, prioritized, DataBufFactory.defaultFactory().fromBytes(content));
+      packet.uniqueId(uniqueId);
+      this.nextSpilledPacket = new QueuedPacket(sequence, packet, content.length);
+      return this.nextSpilledPacket;
+    } catch (IOException exception) {
+      LOGGER.severe("Unable to read spilled packets from %s, dropping them", exception, this.spillFile);
+      this.readSpilledPackets = this.spilledPackets;
+      return null;
+    }
+  }
+
+  private void closeSpillFile() {
+    try {
+      if (this.spillOutput != null) {
+        this.spillOutput.close();
+      }
+      if (this.spillInput != null) {
+        this.spillInput.close();
+      }
+    } catch (IOException exception) {
+      LOGGER.fine("Exception closing spilled packet segment %s", exception, this.spillFile);
+    }
+
+    FileUtil.delete(this.spillFile);
+    this.spillFile = null;
+    this.spillInput = null;
+    this.spillOutput = null;
+    this.nextSpilledPacket = null;
+    this.spilledPackets = 0;
+    this.readSpilledPackets = 0;
+  }
+
+  private void awaitWriteable(@NonNull NetworkChannel target) {
+    while (!target.writeable() && target.active()) {
+      this.sleep(1);
+    }
+  }
+
+  private void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static @Nullable String coalesceKey(@NonNull Packet packet) {
+    if (packet.channel() != NetworkConstants.CHANNEL_MESSAGING_CHANNEL) {
+      return null;
+    }
+
+    // peek into the channel message without consuming the packet content
+    var content = packet.content();
+    content.disableReleasing().startTransaction();
+
+    ChannelMessage message = null;
+    try {
+      content.readBoolean();
+      message = content.readObject(ChannelMessage.class);
+      if (!message.channel().equals(NetworkConstants.INTERNAL_MSG_CHANNEL)) {
+        return null;
+      }
+
+      // only the latest snapshot of the node or a service is of interest for the other node
+      return switch (message.message()) {
+        case "update_node_info_snapshot" -> message.message();
+        case "update_service_info" -> {
+          var snapshot = message.content().readObject(ServiceInfoSnapshot.class);
+          yield message.message() + ':' + snapshot.serviceId().uniqueId();
+        }
+        default -> null;
+      };
+    } catch (Exception exception) {
+      return null;
+    } finally {
+      content.redoTransaction().enableReleasing();
+      if (message != null) {
+        message.content().release();
+      }
+    }
+  }
+
+  private record QueuedPacket(long sequence, @NonNull Packet packet, int size) {
+
   }
 }
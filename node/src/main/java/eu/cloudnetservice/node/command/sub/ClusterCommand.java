@@ -26,19 +26,25 @@
 import com.google.common.collect.Lists;
 import eu.cloudnetservice.common.column.ColumnFormatter;
 import eu.cloudnetservice.common.column.RowBasedFormatter;
+import eu.cloudnetservice.common.function.ThrowableSupplier;
 import eu.cloudnetservice.common.io.ZipUtil;
 import eu.cloudnetservice.common.language.I18n;
 import eu.cloudnetservice.common.log.LogManager;
 import eu.cloudnetservice.common.log.Logger;
 import eu.cloudnetservice.common.unsafe.CPUUsageResolver;
+import eu.cloudnetservice.driver.channel.ChannelMessage;
 import eu.cloudnetservice.driver.network.HostAndPort;
 import eu.cloudnetservice.driver.network.chunk.TransferStatus;
+import eu.cloudnetservice.driver.network.def.NetworkConstants;
 import eu.cloudnetservice.driver.network.cluster.NetworkClusterNode;
 import eu.cloudnetservice.driver.provider.ClusterNodeProvider;
 import eu.cloudnetservice.driver.service.ServiceTemplate;
 import eu.cloudnetservice.driver.template.TemplateStorageProvider;
 import eu.cloudnetservice.node.cluster.NodeServer;
 import eu.cloudnetservice.node.cluster.NodeServerProvider;
+import eu.cloudnetservice.node.cluster.sync.DataSyncConflict;
+import eu.cloudnetservice.node.cluster.sync.DataSyncConflictJournal;
+import eu.cloudnetservice.node.cluster.sync.DataSyncRegistry;
 import eu.cloudnetservice.node.command.annotation.CommandAlias;
 import eu.cloudnetservice.node.command.annotation.Description;
 import eu.cloudnetservice.node.command.exception.ArgumentNotAvailableException;
@@ -50,6 +56,7 @@
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
@@ -59,7 +66,10 @@
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import lombok.NonNull;
 import org.jetbrains.annotations.Nullable;
@@ -97,6 +107,8 @@ public final class ClusterCommand {
   private final NodeServerProvider nodeServerProvider;
   private final ClusterNodeProvider clusterNodeProvider;
   private final TemplateStorageProvider templateStorageProvider;
+  private final DataSyncRegistry dataSyncRegistry;
+  private final DataSyncConflictJournal conflictJournal;
 
   @Inject
   public ClusterCommand(
@@ -104,13 +116,17 @@ public ClusterCommand(
     @NonNull CloudServiceManager serviceProvider,
     @NonNull NodeServerProvider nodeServerProvider,
     @NonNull ClusterNodeProvider clusterNodeProvider,
-    @NonNull TemplateStorageProvider templateStorageProvider
+    @NonNull TemplateStorageProvider templateStorageProvider,
+    @NonNull DataSyncRegistry dataSyncRegistry,
+    @NonNull DataSyncConflictJournal conflictJournal
   ) {
     this.configuration = configuration;
     this.nodeServerProvider = nodeServerProvider;
     this.clusterNodeProvider = clusterNodeProvider;
     this.serviceProvider = serviceProvider;
     this.templateStorageProvider = templateStorageProvider;
+    this.dataSyncRegistry = dataSyncRegistry;
+    this.conflictJournal = conflictJournal;
   }
 
   @Parser(suggestions = "clusterNodeServer")
@@ -211,6 +227,26 @@ public ClusterCommand(
     return nodeId;
   }
 
+  @Parser(name = "syncConflict", suggestions = "syncConflict")
+  public @NonNull DataSyncConflict syncConflictParser(@NonNull CommandContext<?> $, @NonNull Queue<String> input) {
+    var id = input.remove();
+    try {
+      var conflict = this.conflictJournal.conflict(UUID.fromString(id));
+      if (conflict != null) {
+        return conflict;
+      }
+    } catch (IllegalArgumentException ignored) {
+      // not a valid conflict id
+    }
+
+    throw new ArgumentNotAvailableException(I18n.trans("command-cluster-conflict-not-found", id));
+  }
+
+  @Suggestions("syncConflict")
+  public @NonNull List<String> suggestSyncConflicts(@NonNull CommandContext<?> $, @NonNull String input) {
+    return this.conflictJournal.conflicts().stream().map(conflict -> conflict.id().toString()).toList();
+  }
+
   @Parser(name = "staticService", suggestions = "staticService")
   public @NonNull String staticServiceParser(@NonNull CommandContext<?> $, @NonNull Queue<String> input) {
     var name = input.remove();
@@ -285,6 +321,63 @@ public void sync(@NonNull CommandSource source) {
     this.nodeServerProvider.syncDataIntoCluster();
   }
 
+  @CommandMethod("cluster|clu conflicts")
+  public void listConflicts(@NonNull CommandSource source) {
+    var conflicts = this.conflictJournal.conflicts();
+    if (conflicts.isEmpty()) {
+      source.sendMessage(I18n.trans("command-cluster-conflicts-empty"));
+      return;
+    }
+
+    for (var conflict : conflicts) {
+      var creationTime = Instant.ofEpochMilli(conflict.creationTime()).atZone(ZoneId.systemDefault());
+      source.sendMessage(String.format(
+        "- %s: %s (%s) from %s, recorded at %s",
+        conflict.id(),
+        conflict.name(),
+        conflict.handlerKey(),
+        Objects.requireNonNullElse(conflict.sourceNode(), "unknown node"),
+        TIME_FORMATTER.format(creationTime)));
+    }
+  }
+
+  @CommandMethod("cluster|clu conflicts accept <conflict>")
+  public void acceptConflict(
+    @NonNull CommandSource source,
+    @NonNull @Argument(value = "conflict", parserName = "syncConflict") DataSyncConflict conflict
+  ) {
+    this.dataSyncRegistry.resolveConflict(conflict, true);
+    source.sendMessage(I18n.trans("cluster-sync-accepted-theirs"));
+  }
+
+  @CommandMethod("cluster|clu conflicts keep <conflict>")
+  public void keepConflict(
+    @NonNull CommandSource source,
+    @NonNull @Argument(value = "conflict", parserName = "syncConflict") DataSyncConflict conflict
+  ) {
+    var result = this.dataSyncRegistry.resolveConflict(conflict, false);
+    if (result != null) {
+      // force the local version of the entry into the cluster
+      ChannelMessage.builder()
+        .targetNodes()
+        .message("sync_cluster_data")
+        .channel(NetworkConstants.INTERNAL_MSG_CHANNEL)
+        .buffer(result)
+        .build()
+        .send();
+    }
+    source.sendMessage(I18n.trans("cluster-sync-accept-yours"));
+  }
+
+  @CommandMethod("cluster|clu conflicts skip <conflict>")
+  public void skipConflict(
+    @NonNull CommandSource source,
+    @NonNull @Argument(value = "conflict", parserName = "syncConflict") DataSyncConflict conflict
+  ) {
+    this.conflictJournal.remove(conflict.id());
+    source.sendMessage(I18n.trans("cluster-sync-skip"));
+  }
+
   @CommandMethod("cluster|clu push templates [template]")
   public void pushTemplates(@NonNull CommandSource source, @Nullable @Argument("template") ServiceTemplate template) {
     // check if we need to push all templates or just a specific one
@@ -325,12 +418,10 @@ private void pushStaticService(
     @NonNull String serviceName,
     boolean overwrite
   ) {
-    // zip the whole directory into a stream
-    var stream = ZipUtil.zipToStream(servicePath);
     // notify the source about the deployment
     source.sendMessage(I18n.trans("command-cluster-push-static-service-starting"));
-    // deploy the static service into the cluster
-    this.nodeServerProvider.deployStaticServiceToCluster(serviceName, stream, overwrite)
+    // deploy the static service into the cluster, zipping the whole directory into a stream for each attempt
+    this.nodeServerProvider.deployStaticServiceToCluster(serviceName, () -> ZipUtil.zipToStream(servicePath), overwrite)
       .thenAccept(transferStatus -> {
         if (transferStatus == TransferStatus.FAILURE) {
           // the transfer failed
@@ -351,8 +442,13 @@ private void pushTemplate(@NonNull CommandSource source, @NonNull ServiceTemplat
       var inputStream = template.storage().zipTemplate(template);
       // check if the template really exists in the given storage
       if (inputStream != null) {
-        // deploy the template into the cluster
-        this.nodeServerProvider.deployTemplateToCluster(template, inputStream, true)
+        // deploy the template into the cluster, the initial stream is used for the first attempt only
+        var initialStream = new AtomicReference<>(inputStream);
+        ThrowableSupplier<InputStream, IOException> streamFactory = () -> {
+          var stream = initialStream.getAndSet(null);
+          return stream != null ? stream : template.storage().zipTemplate(template);
+        };
+        this.nodeServerProvider.deployTemplateToCluster(template, streamFactory, true)
           .thenAccept(transferStatus -> {
             if (transferStatus == TransferStatus.FAILURE) {
               // the transfer failed
@@ -16,9 +16,8 @@
 
 package eu.cloudnetservice.node.database;
 
-import eu.cloudnetservice.common.document.gson.JsonDocument;
 import eu.cloudnetservice.driver.database.Database;
-import java.util.function.BiConsumer;
+import java.util.Collection;
 import lombok.NonNull;
 
 public abstract class AbstractDatabase implements LocalDatabase, Database {
@@ -36,21 +35,11 @@ protected AbstractDatabase(@NonNull String name, @NonNull NodeDatabaseProvider d
     return this.name;
   }
 
-  @Override
-  public void iterate(@NonNull BiConsumer<String, JsonDocument> consumer, int chunkSize) {
-    var documentCount = this.documentCount();
-    if (documentCount != 0) {
-      long currentIndex = 0;
-      while (currentIndex < documentCount) {
-        var result = this.readChunk(currentIndex, chunkSize);
-        if (result != null) {
-          result.forEach(consumer);
-          currentIndex += chunkSize;
-          continue;
-        }
-
-        break;
-      }
-    }
+  protected void publishChange(@NonNull Collection<String> changedKeys) {
+    this.databaseProvider.publishChange(this.name, changedKeys);
+  }
+
+  protected void publishClear() {
+    this.databaseProvider.publishChange(this.name, null);
   }
 }
@@ -33,13 +33,17 @@ public interface LocalDatabase extends Database {
    */
   void iterate(@NonNull BiConsumer<String, JsonDocument> consumer);
 
+  @Nullable Map<String, JsonDocument> readChunk(long beginIndex, int chunkSize);
+
   /**
-   * Iterates over all entries in the database, but in chunks in the given size
+   * Requests an index for the given top level field of the documents in this database, speeding up lookups of the
+   * field using {@link #find(String, String)}. Indexes are only created on request, as each index slows down writes to
+   * the database. Databases which do not support indexes on fields ignore the request.
    *
-   * @param consumer  the consumer to pass the entries into
-   * @param chunkSize the chunkSize of the entries
+   * @param fieldName the name of the field to index
+   * @return true if the field is indexed, false otherwise
    */
-  void iterate(@NonNull BiConsumer<String, JsonDocument> consumer, int chunkSize);
-
-  @Nullable Map<String, JsonDocument> readChunk(long beginIndex, int chunkSize);
+  default boolean indexField(@NonNull String fieldName) {
+    return false;
+  }
 }
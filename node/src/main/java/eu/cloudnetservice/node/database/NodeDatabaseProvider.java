@@ -23,9 +23,16 @@
 import eu.cloudnetservice.common.Nameable;
 import eu.cloudnetservice.common.log.LogManager;
 import eu.cloudnetservice.common.log.Logger;
+import eu.cloudnetservice.driver.channel.ChannelMessage;
 import eu.cloudnetservice.driver.database.DatabaseProvider;
+import eu.cloudnetservice.driver.network.buffer.DataBuf;
+import eu.cloudnetservice.driver.network.def.NetworkConstants;
 import java.time.Duration;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
 
 public abstract class NodeDatabaseProvider implements DatabaseProvider, Nameable, AutoCloseable {
 
@@ -42,6 +49,8 @@ public abstract class NodeDatabaseProvider implements DatabaseProvider, Nameable
   };
 
   protected final Cache<String, LocalDatabase> databaseCache;
+  // the names of all databases which are cached by at least one service, changes to them are published to the services
+  protected final Set<String> cachedDatabaseNames = ConcurrentHashMap.newKeySet();
 
   protected NodeDatabaseProvider(@NonNull RemovalListener<String, LocalDatabase> removalListener) {
     this.databaseCache = Caffeine.newBuilder()
@@ -56,6 +65,30 @@ protected NodeDatabaseProvider(@NonNull RemovalListener<String, LocalDatabase> r
   @Override
   public abstract @NonNull LocalDatabase database(@NonNull String name);
 
+  public void registerCachedDatabase(@NonNull String name) {
+    this.cachedDatabaseNames.add(name);
+  }
+
+  public @NonNull Collection<String> cachedDatabaseNames() {
+    return Set.copyOf(this.cachedDatabaseNames);
+  }
+
+  public void publishChange(@NonNull String name, @Nullable Collection<String> changedKeys) {
+    // only notify the services if the database is actually cached somewhere
+    if (this.cachedDatabaseNames.contains(name)) {
+      ChannelMessage.builder()
+        .targetServices()
+        .channel(NetworkConstants.INTERNAL_MSG_CHANNEL)
+        .message("database_invalidate")
+        .buffer(DataBuf.empty().writeString(name).writeNullable(changedKeys, (buf, keys) -> {
+          buf.writeInt(keys.size());
+          keys.forEach(buf::writeString);
+        }))
+        .build()
+        .send();
+    }
+  }
+
   @Override
   public void close() throws Exception {
     this.databaseCache.invalidateAll();
@@ -19,29 +19,71 @@
 import eu.cloudnetservice.common.document.gson.JsonDocument;
 import eu.cloudnetservice.node.database.sql.SQLDatabase;
 import eu.cloudnetservice.node.database.sql.SQLDatabaseProvider;
+import java.nio.charset.StandardCharsets;
 import java.sql.ResultSet;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
 import lombok.NonNull;
 import org.jetbrains.annotations.Nullable;
 
 public final class H2Database extends SQLDatabase {
 
+  private static final int MAX_INDEXED_FIELD_LENGTH = 64;
+  private static final String INDEX_COLUMN_PREFIX = "Idx_";
+
+  private final Set<String> indexedFields = ConcurrentHashMap.newKeySet();
+
+  // the queries of this table, formatted once as they are executed frequently
+  private final String upsertQuery;
+  private final String containsQuery;
+  private final String deleteQuery;
+  private final String getQuery;
+
   public H2Database(@NonNull SQLDatabaseProvider provider, @NonNull String name) {
     super(provider, name);
 
+    this.upsertQuery = String.format(
+      "MERGE INTO `%s` (%s, %s) KEY (%s) VALUES (?, ?);",
+      name,
+      TABLE_COLUMN_KEY,
+      TABLE_COLUMN_VAL,
+      TABLE_COLUMN_KEY);
+    this.containsQuery = String.format("SELECT %s FROM `%s` WHERE %s = ?", TABLE_COLUMN_KEY, name, TABLE_COLUMN_KEY);
+    this.deleteQuery = String.format("DELETE FROM `%s` WHERE %s = ?", name, TABLE_COLUMN_KEY);
+    this.getQuery = String.format("SELECT %s FROM `%s` WHERE %s = ?", TABLE_COLUMN_VAL, name, TABLE_COLUMN_KEY);
+
     // create the table
     provider.executeUpdate(String.format(
       "CREATE TABLE IF NOT EXISTS `%s` (%s VARCHAR(64) PRIMARY KEY, %s TEXT);",
       name,
       TABLE_COLUMN_KEY,
       TABLE_COLUMN_VAL));
+    // restore the fields which were indexed before, h2 stores the identifiers in upper case
+    this.indexedFields.addAll(provider.executeQuery(
+      "SELECT COLUMN_NAME FROM INFORMATION_SCHEMA.COLUMNS WHERE UPPER(TABLE_NAME) = UPPER(?);",
+      resultSet -> {
+        Set<String> fieldNames = new HashSet<>();
+        while (resultSet.next()) {
+          var column = resultSet.getString(1);
+          if (column.regionMatches(true, 0, INDEX_COLUMN_PREFIX, 0, INDEX_COLUMN_PREFIX.length())) {
+            var encodedName = HexFormat.of().parseHex(column.substring(INDEX_COLUMN_PREFIX.length()));
+            fieldNames.add(new String(encodedName, StandardCharsets.UTF_8));
+          }
+        }
+        return fieldNames;
+      },
+      Set.of(),
+      name));
   }
 
   @Override
@@ -53,31 +95,28 @@ public boolean insert(@NonNull String key, @NonNull JsonDocument document) {
     return this.insertOrUpdate(key, document);
   }
 
-  private boolean insert0(@NonNull String key, @NonNull JsonDocument document) {
-    return this.databaseProvider.executeUpdate(
-      "INSERT INTO `" + this.name + "` (" + TABLE_COLUMN_KEY + "," + TABLE_COLUMN_VAL + ") VALUES (?, ?);",
-      key, document.toString()
-    ) != -1;
+  public boolean insertOrUpdate(@NonNull String key, @NonNull JsonDocument document) {
+    var inserted = this.databaseProvider.executeUpdate(this.upsertQuery, key, document.toString()) != -1;
+    this.publishChange(Set.of(key));
+    return inserted;
   }
 
-  public boolean update0(String key, JsonDocument document) {
-    return this.databaseProvider.executeUpdate(
-      "UPDATE `" + this.name + "` SET " + TABLE_COLUMN_VAL + "=? WHERE " + TABLE_COLUMN_KEY + "=?",
-      document.toString(), key
-    ) != -1;
-  }
+  @Override
+  public boolean insertAll(@NonNull Map<String, JsonDocument> documents) {
+    if (documents.isEmpty()) {
+      return true;
+    }
 
-  public boolean insertOrUpdate(String key, JsonDocument document) {
-    return this.contains(key) ? this.update0(key, document) : this.insert0(key, document);
+    Collection<Object[]> batch = new ArrayList<>(documents.size());
+    documents.forEach((key, document) -> batch.add(new Object[]{key, document.toString()}));
+    var inserted = this.databaseProvider.executeBatch(this.upsertQuery, batch) != -1;
+    this.publishChange(documents.keySet());
+    return inserted;
   }
 
   @Override
   public boolean contains(@NonNull String key) {
-    return this.databaseProvider.executeQuery(
-      String.format("SELECT %s FROM `%s` WHERE %s = ?", TABLE_COLUMN_KEY, this.name, TABLE_COLUMN_KEY),
-      ResultSet::next,
-      false,
-      key);
+    return this.databaseProvider.executeQuery(this.containsQuery, ResultSet::next, false, key);
   }
 
   @Override
@@ -86,16 +125,15 @@ public boolean delete(@NonNull String key) {
   }
 
   public boolean delete0(String key) {
-    return this.databaseProvider.executeUpdate(
-      String.format("DELETE FROM `%s` WHERE %s = ?", this.name, TABLE_COLUMN_KEY),
-      key
-    ) > 0;
+    var deleted = this.databaseProvider.executeUpdate(this.deleteQuery, key) > 0;
+    this.publishChange(Set.of(key));
+    return deleted;
   }
 
   @Override
   public @Nullable JsonDocument get(@NonNull String key) {
     return this.databaseProvider.executeQuery(
-      String.format("SELECT %s FROM `%s` WHERE %s = ?", TABLE_COLUMN_VAL, this.name, TABLE_COLUMN_KEY),
+      this.getQuery,
       resultSet -> resultSet.next() ? JsonDocument.fromJsonString(resultSet.getString(TABLE_COLUMN_VAL)) : null,
       null,
       key
@@ -103,48 +141,48 @@ public boolean delete0(String key) {
   }
 
   @Override
-  public @NonNull List<JsonDocument> find(@NonNull String fieldName, String fieldValue) {
-    return this.databaseProvider.executeQuery(
-      String.format("SELECT %s FROM `%s` WHERE %s LIKE ? ESCAPE '$'", TABLE_COLUMN_VAL, this.name, TABLE_COLUMN_VAL),
-      resultSet -> {
-        List<JsonDocument> jsonDocuments = new ArrayList<>();
-        while (resultSet.next()) {
-          jsonDocuments.add(JsonDocument.fromJsonString(resultSet.getString(TABLE_COLUMN_VAL)));
-        }
-
-        return jsonDocuments;
-      },
-      List.of(),
-      "%\"" + fieldName + "\":" + JsonDocument.GSON.toJson(fieldValue).replaceAll("([_%])", "\\$$1") + "%"
-    );
+  public @NonNull List<JsonDocument> find(@NonNull String fieldName, @Nullable String fieldValue) {
+    return this.find(Collections.singletonMap(fieldName, fieldValue));
   }
 
   @Override
   public @NonNull List<JsonDocument> find(@NonNull Map<String, String> filters) {
-    var stringBuilder = new StringBuilder("SELECT ")
-      .append(TABLE_COLUMN_VAL).append(" FROM `")
-      .append(this.name).append('`');
-
-    Collection<String> collection = new ArrayList<>();
-    if (filters.size() > 0) {
-      stringBuilder.append(" WHERE ");
-
-      var iterator = filters.entrySet().iterator();
-
-      while (iterator.hasNext()) {
-        var entry = iterator.next();
+    var query = new StringBuilder("SELECT ").append(TABLE_COLUMN_VAL).append(" FROM `").append(this.name).append('`');
+
+    List<Object> parameters = new ArrayList<>();
+    var firstFilter = true;
+    for (var entry : filters.entrySet()) {
+      query.append(firstFilter ? " WHERE " : " AND ");
+      firstFilter = false;
+
+      // compare the indexed column of the field if possible, compute the field value for each row otherwise
+      if (this.indexedFields.contains(entry.getKey())) {
+        query.append('`').append(indexColumn(entry.getKey())).append('`');
+      } else {
+        // skip rows which cannot contain the field and value before extracting the value, which parses the document.
+        // Rows without the field match a null value, they cannot be skipped in that case
+        if (entry.getValue() != null) {
+          var value = JsonDocument.GSON.toJson(entry.getValue());
+          query.append(TABLE_COLUMN_VAL).append(" LIKE ? ESCAPE '$' AND ");
+          query.append(TABLE_COLUMN_VAL).append(" LIKE ? ESCAPE '$' AND ");
+          parameters.add(likePattern(JsonDocument.GSON.toJson(entry.getKey())));
+          parameters.add(likePattern(value.substring(1, value.length() - 1)));
+        }
 
-        stringBuilder.append(TABLE_COLUMN_VAL).append(" LIKE ? ESCAPE '$'");
-        collection.add("%\"" + entry.getKey() + "\":\"" + entry.getValue().replaceAll("([_%])", "\\$$1") + "\"%");
+        query.append(H2JsonFunctions.JSON_FIELD_FUNCTION).append('(').append(TABLE_COLUMN_VAL).append(", ?)");
+        parameters.add(entry.getKey());
+      }
 
-        if (iterator.hasNext()) {
-          stringBuilder.append(" and ");
-        }
+      if (entry.getValue() == null) {
+        query.append(" IS NULL");
+      } else {
+        query.append(" = ?");
+        parameters.add(entry.getValue());
       }
     }
 
     return this.databaseProvider.executeQuery(
-      stringBuilder.append(";").toString(),
+      query.append(';').toString(),
       resultSet -> {
         List<JsonDocument> jsonDocuments = new ArrayList<>();
         while (resultSet.next()) {
@@ -154,8 +192,49 @@ public boolean delete0(String key) {
         return jsonDocuments;
       },
       List.of(),
-      collection.toArray()
-    );
+      parameters.toArray());
+  }
+
+  private static @NonNull String likePattern(@NonNull String serializedText) {
+    // matches all documents containing the text as serialized in json, the exact value is compared afterwards
+    return '%' + serializedText.replaceAll("([$_%])", "\\$$1") + '%';
+  }
+
+  private static @NonNull String indexColumn(@NonNull String fieldName) {
+    // identifiers are not case-sensitive in h2, encode the field name to prevent collisions and invalid names
+    return INDEX_COLUMN_PREFIX + HexFormat.of().formatHex(fieldName.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Override
+  public boolean indexField(@NonNull String fieldName) {
+    if (this.indexedFields.contains(fieldName)) {
+      return true;
+    }
+
+    // skip unreasonably long field names
+    if (fieldName.isEmpty() || fieldName.length() > MAX_INDEXED_FIELD_LENGTH) {
+      return false;
+    }
+
+    // add a column holding the value of the field for each row and index it
+    var column = indexColumn(fieldName);
+    var columnAdded = this.databaseProvider.executeUpdate(String.format(
+      "ALTER TABLE `%s` ADD COLUMN IF NOT EXISTS `%s` VARCHAR AS %s(%s, '%s');",
+      this.name,
+      column,
+      H2JsonFunctions.JSON_FIELD_FUNCTION,
+      TABLE_COLUMN_VAL,
+      fieldName.replace("'", "''"))) != -1;
+    var indexed = columnAdded && this.databaseProvider.executeUpdate(String.format(
+      "CREATE INDEX IF NOT EXISTS `%s_%s` ON `%s` (`%s`);",
+      this.name,
+      column,
+      this.name,
+      column)) != -1;
+    if (indexed) {
+      this.indexedFields.add(fieldName);
+    }
+    return indexed;
   }
 
   @Override
@@ -219,6 +298,7 @@ public void iterate(@NonNull BiConsumer<String, JsonDocument> consumer) {
   @Override
   public void clear() {
     this.databaseProvider.executeUpdate(String.format("TRUNCATE TABLE `%s`", this.name));
+    this.publishClear();
   }
 
   @Override
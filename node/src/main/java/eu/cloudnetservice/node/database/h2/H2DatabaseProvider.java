@@ -23,7 +23,6 @@
 import eu.cloudnetservice.node.database.sql.SQLDatabaseProvider;
 import java.nio.file.Path;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
@@ -31,18 +30,23 @@
 import java.util.Set;
 import lombok.NonNull;
 import org.h2.Driver;
+import org.h2.jdbcx.JdbcConnectionPool;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.UnknownNullability;
 
 @Deprecated(forRemoval = true)
 public final class H2DatabaseProvider extends SQLDatabaseProvider {
 
+  // the amount of parsed statements h2 caches per connection, allows to re-prepare the statements of all tables cheaply
+  private static final int QUERY_CACHE_SIZE = 64;
+  private static final int MAX_POOLED_CONNECTIONS = 8;
+
   static {
     Driver.load();
   }
 
   private final Path h2dbFile;
-  private Connection connection;
+  private JdbcConnectionPool connectionPool;
 
   public H2DatabaseProvider(@NonNull String h2File) {
     super(DEFAULT_REMOVAL_LISTENER);
@@ -52,9 +56,17 @@ public H2DatabaseProvider(@NonNull String h2File) {
   @Override
   public boolean init() throws Exception {
     FileUtil.createDirectory(this.h2dbFile.getParent());
-    this.connection = DriverManager.getConnection("jdbc:h2:" + this.h2dbFile.toAbsolutePath());
-
-    return this.connection != null;
+    this.connectionPool = JdbcConnectionPool.create(
+      String.format("jdbc:h2:%s;QUERY_CACHE_SIZE=%d", this.h2dbFile.toAbsolutePath(), QUERY_CACHE_SIZE),
+      "",
+      "");
+    this.connectionPool.setMaxConnections(MAX_POOLED_CONNECTIONS);
+
+    // register the function used to compute the indexed field columns of the tables
+    return this.executeUpdate(String.format(
+      "CREATE ALIAS IF NOT EXISTS %s DETERMINISTIC FOR \"%s.jsonField\"",
+      H2JsonFunctions.JSON_FIELD_FUNCTION,
+      H2JsonFunctions.class.getName())) != -1;
   }
 
   @Override
@@ -64,12 +76,14 @@ public boolean init() throws Exception {
 
   @Override
   public boolean deleteDatabase(@NonNull String name) {
+    this.publishChange(name, null);
     return this.executeUpdate("DROP TABLE IF EXISTS `" + name + "`") != -1;
   }
 
   @Override
   public @NonNull Collection<String> databaseNames() {
-    try (var meta = this.connection.getMetaData().getTables(null, null, null, TABLE_TYPE)) {
+    try (var connection = this.connection();
+      var meta = connection.getMetaData().getTables(null, null, null, TABLE_TYPE)) {
       // now we just need to extract the name from of the tables from the result set
       Collection<String> names = new ArrayList<>();
       while (meta.next()) {
@@ -91,19 +105,23 @@ public boolean deleteDatabase(@NonNull String name) {
   public void close() throws Exception {
     super.close();
 
-    if (this.connection != null) {
-      this.connection.close();
+    if (this.connectionPool != null) {
+      this.connectionPool.dispose();
     }
   }
 
   @Override
   public @NonNull Connection connection() {
-    return this.connection;
+    try {
+      return this.connectionPool.getConnection();
+    } catch (SQLException exception) {
+      throw new IllegalStateException("Unable to retrieve connection from pool", exception);
+    }
   }
 
   @Override
   public int executeUpdate(@NonNull String query, @NonNull Object... objects) {
-    try (var preparedStatement = this.connection().prepareStatement(query)) {
+    try (var connection = this.connection(); var preparedStatement = connection.prepareStatement(query)) {
       for (var i = 0; i < objects.length; i++) {
         preparedStatement.setString(i + 1, objects[i].toString());
       }
@@ -122,7 +140,7 @@ public int executeUpdate(@NonNull String query, @NonNull Object... objects) {
     @Nullable T def,
     @NonNull Object... objects
   ) {
-    try (var preparedStatement = this.connection().prepareStatement(query)) {
+    try (var connection = this.connection(); var preparedStatement = connection.prepareStatement(query)) {
       for (var i = 0; i < objects.length; i++) {
         preparedStatement.setString(i + 1, objects[i].toString());
       }
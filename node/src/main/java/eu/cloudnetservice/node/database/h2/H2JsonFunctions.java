@@ -0,0 +1,49 @@
+/*
+ * Copyright 2019-2023 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.node.database.h2;
+
+import eu.cloudnetservice.common.document.gson.JsonDocument;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Java functions registered as aliases in h2, used to compute the indexed field columns of a table from the stored json
+ * documents.
+ */
+public final class H2JsonFunctions {
+
+  // the name of the alias for jsonField, registered by the database provider
+  static final String JSON_FIELD_FUNCTION = "CLOUDNET_JSON_FIELD";
+
+  private H2JsonFunctions() {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Extracts the value of the given top-level field from the given json document. The value is resolved in the same way
+   * as {@link JsonDocument#getString(String)}, only primitive values are returned, null otherwise.
+   *
+   * @param document the json document to extract the value from.
+   * @param field    the name of the top-level field to extract.
+   * @return the value of the field as a string, null if the field is not present or not primitive.
+   */
+  public static @Nullable String jsonField(@Nullable String document, @Nullable String field) {
+    if (document == null || field == null) {
+      return null;
+    }
+    return JsonDocument.fromJsonString(document).getString(field);
+  }
+}
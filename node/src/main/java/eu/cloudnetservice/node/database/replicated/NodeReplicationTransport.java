@@ -0,0 +1,87 @@
+/*
+ * Copyright 2019-2023 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.node.database.replicated;
+
+import eu.cloudnetservice.common.concurrent.Task;
+import eu.cloudnetservice.driver.channel.ChannelMessage;
+import eu.cloudnetservice.driver.network.buffer.DataBuf;
+import eu.cloudnetservice.driver.network.def.NetworkConstants;
+import eu.cloudnetservice.node.cluster.NodeServerProvider;
+import jakarta.inject.Provider;
+import java.util.Collection;
+import lombok.NonNull;
+
+public class NodeReplicationTransport implements ReplicationTransport {
+
+  private final Provider<NodeServerProvider> nodeServerProvider;
+
+  public NodeReplicationTransport(@NonNull Provider<NodeServerProvider> nodeServerProvider) {
+    this.nodeServerProvider = nodeServerProvider;
+  }
+
+  @Override
+  public @NonNull String localNodeId() {
+    return this.nodeServerProvider.get().localNode().info().uniqueId();
+  }
+
+  @Override
+  public @NonNull String leaderNodeId() {
+    return this.nodeServerProvider.get().headNode().info().uniqueId();
+  }
+
+  @Override
+  public @NonNull Collection<String> peerNodeIds() {
+    var provider = this.nodeServerProvider.get();
+    return provider.availableNodeServers().stream()
+      .filter(server -> server != provider.localNode())
+      .map(server -> server.info().uniqueId())
+      .toList();
+  }
+
+  @Override
+  public @NonNull Collection<String> nodeIds() {
+    // unavailable nodes count as well, otherwise both sides of a partition would consider themselves the majority
+    return this.nodeServerProvider.get().nodeServers().stream().map(server -> server.info().uniqueId()).toList();
+  }
+
+  @Override
+  public void send(@NonNull String nodeId, @NonNull String message, @NonNull DataBuf.Mutable content) {
+    ChannelMessage.builder()
+      .targetNode(nodeId)
+      .message(message)
+      .channel(NetworkConstants.INTERNAL_MSG_CHANNEL)
+      .buffer(content)
+      .build()
+      .send();
+  }
+
+  @Override
+  public @NonNull Task<DataBuf> request(
+    @NonNull String nodeId,
+    @NonNull String message,
+    @NonNull DataBuf.Mutable content
+  ) {
+    var response = ChannelMessage.builder()
+      .targetNode(nodeId)
+      .message(message)
+      .channel(NetworkConstants.INTERNAL_MSG_CHANNEL)
+      .buffer(content)
+      .build()
+      .sendSingleQueryAsync();
+    return Task.wrapFuture(response.thenApply(result -> result == null ? null : result.content()));
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2019-2023 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.node.database.replicated;
+
+import eu.cloudnetservice.common.document.gson.JsonDocument;
+import eu.cloudnetservice.node.database.xodus.XodusDatabase;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import jetbrains.exodus.env.Store;
+import lombok.NonNull;
+
+public class ReplicatedDatabase extends XodusDatabase {
+
+  protected final ReplicationCoordinator coordinator;
+
+  protected ReplicatedDatabase(
+    @NonNull String name,
+    @NonNull Store store,
+    @NonNull ReplicatedDatabaseProvider provider
+  ) {
+    super(name, store, provider);
+    this.coordinator = provider.coordinator();
+  }
+
+  @Override
+  public boolean insert(@NonNull String key, @NonNull JsonDocument document) {
+    return this.coordinator.submit(ReplicationLogEntry.insert(this.name, Map.of(key, document))) > 0;
+  }
+
+  @Override
+  public boolean insertAll(@NonNull Map<String, JsonDocument> documents) {
+    return this.coordinator.submit(ReplicationLogEntry.insert(this.name, documents)) == documents.size();
+  }
+
+  @Override
+  public boolean delete(@NonNull String key) {
+    return this.coordinator.submit(ReplicationLogEntry.delete(this.name, Set.of(key))) > 0;
+  }
+
+  @Override
+  public int deleteAll(@NonNull Collection<String> keys) {
+    return (int) this.coordinator.submit(ReplicationLogEntry.delete(this.name, keys));
+  }
+
+  @Override
+  public void clear() {
+    this.coordinator.submit(ReplicationLogEntry.clear(this.name));
+  }
+
+  @Override
+  public boolean synced() {
+    // reads might be stale if this node is not part of the majority of the cluster
+    return this.coordinator.synced();
+  }
+}
@@ -0,0 +1,459 @@
+/*
+ * Copyright 2019-2023 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.node.database.replicated;
+
+import eu.cloudnetservice.driver.network.buffer.DataBuf;
+import eu.cloudnetservice.driver.network.buffer.DataBufFactory;
+import eu.cloudnetservice.node.database.LocalDatabase;
+import eu.cloudnetservice.node.database.xodus.XodusDatabaseProvider;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import jetbrains.exodus.ArrayByteIterable;
+import jetbrains.exodus.ByteIterable;
+import jetbrains.exodus.bindings.LongBinding;
+import jetbrains.exodus.bindings.StringBinding;
+import jetbrains.exodus.env.Environments;
+import jetbrains.exodus.env.Store;
+import jetbrains.exodus.env.StoreConfig;
+import jetbrains.exodus.env.Transaction;
+import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
+
+public class ReplicatedDatabaseProvider extends XodusDatabaseProvider {
+
+  protected static final String LOG_STORE_NAME = "cloudnet_replication_log";
+  protected static final String STATE_STORE_NAME = "cloudnet_replication_state";
+  // the stores a snapshot is transferred into before it replaces the local state
+  protected static final String SNAPSHOT_STORE_PREFIX = "cloudnet_replication_snapshot_";
+  protected static final ByteIterable APPLIED_INDEX_KEY = StringBinding.stringToEntry("applied_index");
+  protected static final StoreConfig STORE_CONFIG = StoreConfig.WITHOUT_DUPLICATES_WITH_PREFIXING;
+
+  // the amount of log entries to keep for followers to catch up before they have to install a snapshot
+  protected static final long LOG_RETENTION = Long.getLong("cloudnet.database.replicated.log-retention", 50_000);
+  protected static final long LOG_TRIM_INTERVAL = 1024;
+
+  protected final ReplicationCoordinator coordinator;
+
+  protected Store logStore;
+  protected Store stateStore;
+  protected volatile long lastIndex;
+  protected volatile long lastTerm;
+  // the position of the last entry which was committed and applied to the databases
+  protected volatile long appliedIndex;
+  protected volatile long appliedTerm;
+
+  public ReplicatedDatabaseProvider(@NonNull File databaseDirectory, @NonNull ReplicationTransport transport) {
+    this(databaseDirectory, transport, Executors.newSingleThreadExecutor());
+  }
+
+  public ReplicatedDatabaseProvider(
+    @NonNull File databaseDirectory,
+    @NonNull ReplicationTransport transport,
+    @NonNull Executor replicationExecutor
+  ) {
+    super(databaseDirectory, false);
+    this.coordinator = new ReplicationCoordinator(this, transport, replicationExecutor);
+  }
+
+  @Override
+  public boolean init() {
+    this.environment = Environments.newInstance(this.databaseDirectory, this.environmentConfig);
+    this.environment.executeInTransaction(txn -> {
+      this.logStore = this.environment.openStore(LOG_STORE_NAME, STORE_CONFIG, txn);
+      this.stateStore = this.environment.openStore(STATE_STORE_NAME, STORE_CONFIG, txn);
+      // restore the position in the log from the last stored entry
+      var lastEntry = this.lastEntry(txn);
+      if (lastEntry != null) {
+        this.lastIndex = lastEntry.index();
+        this.lastTerm = lastEntry.term();
+      }
+
+      // logs written before the applied position was tracked were applied completely
+      var appliedIndex = this.appliedIndex(txn);
+      this.appliedIndex = appliedIndex == -1 ? this.lastIndex : appliedIndex;
+      this.appliedTerm = this.termAt(this.appliedIndex, txn);
+    });
+    return true;
+  }
+
+  @Override
+  public @NonNull LocalDatabase database(@NonNull String name) {
+    return this.databaseCache.get(name, $ -> this.environment.computeInTransaction(txn -> {
+      var store = this.environment.openStore(name, STORE_CONFIG, txn);
+      return new ReplicatedDatabase(name, store, this);
+    }));
+  }
+
+  @Override
+  public boolean containsDatabase(@NonNull String name) {
+    return !internalStore(name) && super.containsDatabase(name);
+  }
+
+  @Override
+  public boolean deleteDatabase(@NonNull String name) {
+    this.coordinator.submit(ReplicationLogEntry.deleteDatabase(name));
+    return true;
+  }
+
+  @Override
+  public @NonNull Collection<String> databaseNames() {
+    return this.environment.computeInReadonlyTransaction(this::databaseNames);
+  }
+
+  @Override
+  public void close() throws Exception {
+    this.coordinator.close();
+    super.close();
+  }
+
+  @Override
+  public @NonNull String name() {
+    return "replicated";
+  }
+
+  public @NonNull ReplicationCoordinator coordinator() {
+    return this.coordinator;
+  }
+
+  public long lastIndex() {
+    return this.lastIndex;
+  }
+
+  public long lastTerm() {
+    return this.lastTerm;
+  }
+
+  public long appliedIndex() {
+    return this.appliedIndex;
+  }
+
+  public long appliedTerm() {
+    return this.appliedTerm;
+  }
+
+  public long termAt(long index) {
+    return this.environment.computeInReadonlyTransaction(txn -> this.termAt(index, txn));
+  }
+
+  public @NonNull List<ReplicationLogEntry> entriesAfter(long index, int limit) {
+    return this.environment.computeInReadonlyTransaction(txn -> {
+      List<ReplicationLogEntry> entries = new ArrayList<>();
+      try (var cursor = this.logStore.openCursor(txn)) {
+        var hasEntry = cursor.getSearchKeyRange(LongBinding.longToEntry(index + 1)) != null;
+        while (hasEntry && entries.size() < limit) {
+          entries.add(readEntry(cursor.getValue()));
+          hasEntry = cursor.getNext();
+        }
+      }
+      return entries;
+    });
+  }
+
+  public void append(@NonNull ReplicationLogEntry entry) {
+    this.environment.executeInExclusiveTransaction(txn -> {
+      this.logStore.put(txn, LongBinding.longToEntry(entry.index()), writeEntry(entry));
+      // drop old log entries from time to time, followers which are further behind install a snapshot. The last
+      // applied entry is kept as it is the position snapshots start at
+      if (entry.index() % LOG_TRIM_INTERVAL == 0) {
+        this.trimLog(Math.min(entry.index() - LOG_RETENTION, this.appliedIndex - 1), txn);
+      }
+    });
+
+    this.lastIndex = entry.index();
+    this.lastTerm = entry.term();
+  }
+
+  public @NonNull Map<Long, Long> applyCommitted(long commitIndex, long commitTerm) {
+    // the entry at the commit position must match, otherwise our log diverged from the log which was committed
+    if (commitIndex <= this.appliedIndex || commitIndex > this.lastIndex || this.termAt(commitIndex) != commitTerm) {
+      return Map.of();
+    }
+
+    Map<Long, Long> results = new HashMap<>();
+    while (this.appliedIndex < commitIndex) {
+      var batchSize = (int) Math.min(LOG_TRIM_INTERVAL, commitIndex - this.appliedIndex);
+      var entries = this.entriesAfter(this.appliedIndex, batchSize);
+      if (entries.isEmpty()) {
+        break;
+      }
+
+      for (var entry : entries) {
+        results.put(entry.index(), this.apply(entry));
+      }
+    }
+    return results;
+  }
+
+  public void writeSnapshotHeader(@NonNull DataBuf.Mutable target) {
+    this.environment.executeInReadonlyTransaction(txn -> {
+      // the position the snapshot starts at, entries written while transferring the pages are replayed afterwards
+      var appliedIndex = Math.max(0, this.appliedIndex(txn));
+      target.writeLong(appliedIndex).writeLong(this.termAt(appliedIndex, txn));
+
+      var databaseNames = this.databaseNames(txn);
+      target.writeInt(databaseNames.size());
+      databaseNames.forEach(target::writeString);
+    });
+  }
+
+  public void writeSnapshotPage(
+    @NonNull String database,
+    @Nullable String lastKey,
+    int pageSize,
+    @NonNull DataBuf.Mutable target
+  ) {
+    this.environment.executeInReadonlyTransaction(txn -> {
+      Map<String, String> entries = new LinkedHashMap<>();
+      var hasNext = false;
+      if (this.environment.storeExists(database, txn)) {
+        var store = this.environment.openStore(database, STORE_CONFIG, txn);
+        try (var cursor = store.openCursor(txn)) {
+          if (lastKey == null) {
+            hasNext = cursor.getNext();
+          } else {
+            // the search positions the cursor at the last key of the previous page if it still exists
+            hasNext = cursor.getSearchKeyRange(StringBinding.stringToEntry(lastKey)) != null;
+            if (hasNext && lastKey.equals(StringBinding.entryToString(cursor.getKey()))) {
+              hasNext = cursor.getNext();
+            }
+          }
+
+          while (hasNext && entries.size() < pageSize) {
+            var value = cursor.getValue();
+            entries.put(
+              StringBinding.entryToString(cursor.getKey()),
+              new String(value.getBytesUnsafe(), 0, value.getLength(), StandardCharsets.UTF_8));
+            hasNext = cursor.getNext();
+          }
+        }
+      }
+
+      target.writeInt(entries.size());
+      entries.forEach((key, value) -> target.writeString(key).writeString(value));
+      target.writeBoolean(hasNext);
+    });
+  }
+
+  public void beginSnapshot() {
+    this.environment.executeInExclusiveTransaction(txn -> {
+      // drop the stores of a previous transfer which was interrupted
+      for (var name : this.environment.getAllStoreNames(txn)) {
+        if (name.startsWith(SNAPSHOT_STORE_PREFIX)) {
+          this.environment.removeStore(name, txn);
+        }
+      }
+    });
+  }
+
+  public @Nullable String installSnapshotPage(@NonNull String database, @NonNull DataBuf source) {
+    // the pages are written into a separate store, reads are served from the current state until the snapshot completes
+    var lastKey = this.environment.computeInExclusiveTransaction(txn -> {
+      var store = this.environment.openStore(SNAPSHOT_STORE_PREFIX + database, STORE_CONFIG, txn);
+
+      String key = null;
+      var entryCount = source.readInt();
+      for (var i = 0; i < entryCount; i++) {
+        key = source.readString();
+        store.put(
+          txn,
+          StringBinding.stringToEntry(key),
+          new ArrayByteIterable(source.readString().getBytes(StandardCharsets.UTF_8)));
+      }
+      return key;
+    });
+
+    // the key to continue the transfer after, null if the page was the last one
+    return source.readBoolean() ? lastKey : null;
+  }
+
+  public void completeSnapshot(long index, long term, @NonNull Collection<String> databases) {
+    Set<String> removedDatabases = new HashSet<>();
+    this.environment.executeInExclusiveTransaction(txn -> {
+      // replace the local state in a single transaction, readers either see the previous or the transferred state
+      for (var name : this.databaseNames(txn)) {
+        if (!databases.contains(name)) {
+          this.environment.removeStore(name, txn);
+          removedDatabases.add(name);
+        }
+      }
+
+      for (var database : databases) {
+        // the stores are not removed to keep opened database instances valid
+        var store = this.environment.openStore(database, STORE_CONFIG, txn);
+        clearStore(store, txn);
+
+        var snapshotStoreName = SNAPSHOT_STORE_PREFIX + database;
+        if (this.environment.storeExists(snapshotStoreName, txn)) {
+          var snapshotStore = this.environment.openStore(snapshotStoreName, STORE_CONFIG, txn);
+          try (var cursor = snapshotStore.openCursor(txn)) {
+            while (cursor.getNext()) {
+              store.put(txn, cursor.getKey(), cursor.getValue());
+            }
+          }
+          this.environment.removeStore(snapshotStoreName, txn);
+        }
+      }
+
+      // mark the position of the snapshot in the log
+      clearStore(this.logStore, txn);
+      this.logStore.put(txn, LongBinding.longToEntry(index), writeEntry(ReplicationLogEntry.noop(index, term)));
+      this.stateStore.put(txn, APPLIED_INDEX_KEY, LongBinding.longToEntry(index));
+    });
+
+    this.lastIndex = index;
+    this.lastTerm = term;
+    this.appliedIndex = index;
+    this.appliedTerm = term;
+
+    removedDatabases.forEach(this.databaseCache::invalidate);
+    databases.forEach(name -> this.publishChange(name, null));
+    removedDatabases.forEach(name -> this.publishChange(name, null));
+  }
+
+  protected long apply(@NonNull ReplicationLogEntry entry) {
+    var result = this.environment.computeInExclusiveTransaction(txn -> {
+      var changed = switch (entry.operation()) {
+        case INSERT -> {
+          var store = this.environment.openStore(entry.database(), STORE_CONFIG, txn);
+          var inserted = 0L;
+          for (var document : entry.documents().entrySet()) {
+            var value = new ArrayByteIterable(document.getValue().getBytes(StandardCharsets.UTF_8));
+            if (store.put(txn, StringBinding.stringToEntry(document.getKey()), value)) {
+              inserted++;
+            }
+          }
+          yield inserted;
+        }
+        case DELETE -> {
+          var store = this.environment.openStore(entry.database(), STORE_CONFIG, txn);
+          var deleted = 0L;
+          for (var key : entry.keys()) {
+            if (store.delete(txn, StringBinding.stringToEntry(key))) {
+              deleted++;
+            }
+          }
+          yield deleted;
+        }
+        case CLEAR -> clearStore(this.environment.openStore(entry.database(), STORE_CONFIG, txn), txn);
+        case DELETE_DATABASE -> {
+          if (this.environment.storeExists(entry.database(), txn)) {
+            this.environment.removeStore(entry.database(), txn);
+            yield 1L;
+          }
+          yield 0L;
+        }
+        case NOOP -> 0L;
+      };
+
+      this.stateStore.put(txn, APPLIED_INDEX_KEY, LongBinding.longToEntry(entry.index()));
+      return changed;
+    });
+
+    this.appliedIndex = entry.index();
+    this.appliedTerm = entry.term();
+
+    // notify services which cache the database about the change
+    switch (entry.operation()) {
+      case INSERT -> this.publishChange(entry.database(), entry.documents().keySet());
+      case DELETE -> this.publishChange(entry.database(), entry.keys());
+      case CLEAR -> this.publishChange(entry.database(), null);
+      case DELETE_DATABASE -> {
+        this.databaseCache.invalidate(entry.database());
+        this.publishChange(entry.database(), null);
+      }
+      default -> {
+        // nothing changed
+      }
+    }
+
+    return result;
+  }
+
+  protected @NonNull Collection<String> databaseNames(@NonNull Transaction txn) {
+    return this.environment.getAllStoreNames(txn).stream()
+      .filter(name -> !internalStore(name))
+      .toList();
+  }
+
+  protected long appliedIndex(@NonNull Transaction txn) {
+    var appliedIndex = this.stateStore.get(txn, APPLIED_INDEX_KEY);
+    return appliedIndex == null ? -1 : LongBinding.entryToLong(appliedIndex);
+  }
+
+  protected long termAt(long index, @NonNull Transaction txn) {
+    if (index == 0) {
+      // the position before the first entry, only valid if the log was never trimmed
+      try (var cursor = this.logStore.openCursor(txn)) {
+        return !cursor.getNext() || LongBinding.entryToLong(cursor.getKey()) <= 1 ? 0L : -1L;
+      }
+    }
+
+    var entry = this.logStore.get(txn, LongBinding.longToEntry(index));
+    return entry == null ? -1L : readEntry(entry).term();
+  }
+
+  protected @Nullable ReplicationLogEntry lastEntry(@NonNull Transaction txn) {
+    try (var cursor = this.logStore.openCursor(txn)) {
+      return cursor.getLast() ? readEntry(cursor.getValue()) : null;
+    }
+  }
+
+  protected void trimLog(long upToIndex, @NonNull Transaction txn) {
+    try (var cursor = this.logStore.openCursor(txn)) {
+      while (cursor.getNext() && LongBinding.entryToLong(cursor.getKey()) <= upToIndex) {
+        cursor.deleteCurrent();
+      }
+    }
+  }
+
+  protected static boolean internalStore(@NonNull String name) {
+    return name.equals(LOG_STORE_NAME) || name.equals(STATE_STORE_NAME) || name.startsWith(SNAPSHOT_STORE_PREFIX);
+  }
+
+  protected static long clearStore(@NonNull Store store, @NonNull Transaction txn) {
+    var deleted = 0L;
+    try (var cursor = store.openCursor(txn)) {
+      while (cursor.getNext()) {
+        cursor.deleteCurrent();
+        deleted++;
+      }
+    }
+    return deleted;
+  }
+
+  protected static @NonNull ByteIterable writeEntry(@NonNull ReplicationLogEntry entry) {
+    try (var buf = entry.write(DataBuf.empty())) {
+      return new ArrayByteIterable(buf.toByteArray());
+    }
+  }
+
+  protected static @NonNull ReplicationLogEntry readEntry(@NonNull ByteIterable entry) {
+    try (var buf = DataBufFactory.defaultFactory().fromBytes(entry.getBytesUnsafe())) {
+      return ReplicationLogEntry.read(buf);
+    }
+  }
+}
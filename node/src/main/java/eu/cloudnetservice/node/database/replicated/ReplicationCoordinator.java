@@ -0,0 +1,586 @@
+/*
+ * Copyright 2019-2023 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.node.database.replicated;
+
+import eu.cloudnetservice.common.concurrent.Task;
+import eu.cloudnetservice.common.log.LogManager;
+import eu.cloudnetservice.common.log.Logger;
+import eu.cloudnetservice.driver.network.buffer.DataBuf;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
+
+public class ReplicationCoordinator {
+
+  public static final String APPEND_MESSAGE = "database_replication_append";
+  public static final String FORWARD_MESSAGE = "database_replication_forward";
+  public static final String CATCH_UP_MESSAGE = "database_replication_catch_up";
+  public static final String SNAPSHOT_MESSAGE = "database_replication_snapshot";
+  public static final String STATE_MESSAGE = "database_replication_state";
+  public static final String HEARTBEAT_MESSAGE = "database_replication_heartbeat";
+  public static final String COMMIT_MESSAGE = "database_replication_commit";
+
+  protected static final int TERM_NODE_BITS = 16;
+  protected static final int CATCH_UP_BATCH_SIZE = 1024;
+  protected static final int SNAPSHOT_PAGE_SIZE = 1024;
+  private static final Logger LOGGER = LogManager.logger(ReplicationCoordinator.class);
+
+  protected final ReplicatedDatabaseProvider provider;
+  protected final ReplicationTransport transport;
+  // runs everything which waits for other nodes, message listeners never block on a response
+  protected final Executor replicationExecutor;
+
+  // appends which were received but not yet applied, keyed by the index of the entry
+  protected final Map<String, NavigableMap<Long, PendingAppend>> pendingAppends = new HashMap<>();
+  protected final AtomicBoolean catchUpScheduled = new AtomicBoolean();
+  // writes appended as the leader which wait for a majority of the cluster to store them, keyed by their index
+  protected final Map<Long, PendingCommit> pendingCommits = new HashMap<>();
+  // guards the promotion to the leader, which waits for other nodes and must not hold the coordinator monitor
+  protected final Object promotionLock = new Object();
+
+  // the node the local log currently follows and the term in which the local node appends entries as the leader
+  protected volatile String currentLeader;
+  protected volatile boolean installingSnapshot;
+  protected long currentTerm;
+
+  public ReplicationCoordinator(
+    @NonNull ReplicatedDatabaseProvider provider,
+    @NonNull ReplicationTransport transport,
+    @NonNull Executor replicationExecutor
+  ) {
+    this.provider = provider;
+    this.transport = transport;
+    this.replicationExecutor = replicationExecutor;
+  }
+
+  public boolean handlesMessage(@NonNull String message) {
+    return message.startsWith("database_replication_");
+  }
+
+  public boolean synced() {
+    return !this.installingSnapshot && this.transport.peerNodeIds().size() + 1 >= this.majority();
+  }
+
+  public long submit(@NonNull ReplicationLogEntry operation) {
+    var leader = this.transport.leaderNodeId();
+    var commit = leader.equals(this.transport.localNodeId())
+      ? this.appendAsLeader(operation)
+      : this.forwardToLeader(leader, operation);
+
+    try {
+      return commit.join().result();
+    } catch (CompletionException exception) {
+      // rethrow the actual reason why the write was rejected
+      if (exception.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw exception;
+    }
+  }
+
+  public @Nullable Task<DataBuf.Mutable> handle(
+    @NonNull String sender,
+    @NonNull String message,
+    @NonNull DataBuf content
+  ) {
+    return switch (message) {
+      case APPEND_MESSAGE -> this.handleAppend(sender, content);
+      case HEARTBEAT_MESSAGE -> {
+        this.handleHeartbeat(sender, content);
+        yield null;
+      }
+      case COMMIT_MESSAGE -> {
+        this.advanceCommit(content.readLong(), content.readLong());
+        yield null;
+      }
+      case FORWARD_MESSAGE -> this.handleForward(content);
+      case CATCH_UP_MESSAGE -> Task.completedTask(this.handleCatchUp(content));
+      case SNAPSHOT_MESSAGE -> Task.completedTask(this.handleSnapshot(content));
+      case STATE_MESSAGE -> Task.completedTask(this.positionBuf());
+      default -> null;
+    };
+  }
+
+  public void nodeConnected(@NonNull String nodeId) {
+    var localNodeId = this.transport.localNodeId();
+    if (localNodeId.equals(this.transport.leaderNodeId())) {
+      // let the node check if it missed entries while it was disconnected
+      this.transport.send(nodeId, HEARTBEAT_MESSAGE, this.writeCommitPosition(this.positionBuf()));
+    } else if (nodeId.equals(this.transport.leaderNodeId())) {
+      this.scheduleCatchUp(nodeId);
+    }
+  }
+
+  public void close() {
+    if (this.replicationExecutor instanceof ExecutorService executorService) {
+      executorService.shutdownNow();
+    }
+  }
+
+  public @NonNull Task<Boolean> scheduleCatchUp(@NonNull String nodeId) {
+    var task = new Task<Boolean>();
+    this.replicationExecutor.execute(() -> {
+      try {
+        task.complete(this.catchUp(nodeId));
+      } catch (RuntimeException exception) {
+        LOGGER.severe("Exception while catching up the replicated database log from node %s", exception, nodeId);
+        task.completeExceptionally(exception);
+      }
+    });
+    return task;
+  }
+
+  protected boolean catchUp(@NonNull String nodeId) {
+    while (true) {
+      var response = this.transport.request(nodeId, CATCH_UP_MESSAGE, this.positionBuf()).getOrNull();
+      if (response == null) {
+        LOGGER.warning("Unable to catch up the replicated database log from node %s", null, nodeId);
+        this.failPendingAppends(nodeId);
+        return false;
+      }
+
+      try {
+        if (response.readBoolean()) {
+          // our log diverged from the log of the node or the required entries are no longer retained
+          if (!this.installSnapshot(nodeId, response)) {
+            this.failPendingAppends(nodeId);
+            return false;
+          }
+          continue;
+        }
+
+        var commitIndex = response.readLong();
+        var commitTerm = response.readLong();
+        var entryCount = response.readInt();
+        synchronized (this) {
+          for (var i = 0; i < entryCount; i++) {
+            var entry = ReplicationLogEntry.read(response);
+            if (entry.index() == this.provider.lastIndex() + 1) {
+              this.provider.append(entry);
+            }
+          }
+        }
+        this.advanceCommit(commitIndex, commitTerm);
+
+        if (entryCount < CATCH_UP_BATCH_SIZE) {
+          break;
+        }
+      } finally {
+        response.release();
+      }
+    }
+
+    this.processPendingAppends(nodeId, true);
+    return true;
+  }
+
+  protected boolean installSnapshot(@NonNull String nodeId, @NonNull DataBuf header) {
+    var index = header.readLong();
+    var term = header.readLong();
+    var databaseCount = header.readInt();
+    List<String> databases = new ArrayList<>(databaseCount);
+    for (var i = 0; i < databaseCount; i++) {
+      databases.add(header.readString());
+    }
+
+    this.installingSnapshot = true;
+    try {
+      synchronized (this) {
+        this.provider.beginSnapshot();
+      }
+
+      // transfer the databases page by page, entries changed in the meantime are replayed from the log afterwards
+      for (var database : databases) {
+        String lastKey = null;
+        do {
+          var request = DataBuf.empty().writeString(database).writeNullable(lastKey, DataBuf.Mutable::writeString);
+          var page = this.transport.request(nodeId, SNAPSHOT_MESSAGE, request).getOrNull();
+          if (page == null) {
+            LOGGER.warning("Unable to transfer the replicated database %s from node %s", null, database, nodeId);
+            return false;
+          }
+
+          try {
+            lastKey = this.provider.installSnapshotPage(database, page);
+          } finally {
+            page.release();
+          }
+        } while (lastKey != null);
+      }
+
+      synchronized (this) {
+        this.provider.completeSnapshot(index, term, databases);
+      }
+      return true;
+    } finally {
+      this.installingSnapshot = false;
+    }
+  }
+
+  protected @NonNull Task<Commit> forwardToLeader(@NonNull String leader, @NonNull ReplicationLogEntry operation) {
+    // the leader appends the write to the log and responds once a majority of the cluster stored it
+    var response = this.transport.request(leader, FORWARD_MESSAGE, operation.write(DataBuf.empty()));
+    return Task.wrapFuture(response.thenCompose(result -> {
+      if (result == null) {
+        throw new IllegalStateException(String.format("Leader node %s did not respond to the database write", leader));
+      }
+
+      try {
+        if (!result.readBoolean()) {
+          throw new IllegalStateException(String.format(
+            "Leader node %s did not accept the database write: %s",
+            leader,
+            result.readString()));
+        }
+
+        var commit = new Commit(result.readLong(), result.readLong(), result.readLong());
+        this.advanceCommit(commit.index(), commit.term());
+        if (this.provider.appliedIndex() >= commit.index()) {
+          return Task.completedTask(commit);
+        }
+
+        // make sure that the write is visible locally before returning, the append might still be in flight
+        return this.scheduleCatchUp(leader).thenApply($ -> commit);
+      } finally {
+        result.release();
+      }
+    }));
+  }
+
+  protected @NonNull Task<Commit> appendAsLeader(@NonNull ReplicationLogEntry operation) {
+    var commit = new Task<Commit>();
+    this.replicationExecutor.execute(() -> {
+      try {
+        this.replicate(operation, commit);
+      } catch (RuntimeException exception) {
+        commit.completeExceptionally(exception);
+      }
+    });
+    return commit;
+  }
+
+  protected void replicate(@NonNull ReplicationLogEntry operation, @NonNull Task<Commit> commit) {
+    var peers = this.transport.peerNodeIds();
+    var majority = this.majority();
+    if (peers.size() + 1 < majority) {
+      // we are on the minority side of a partition, the other side is able to accept writes
+      throw new IllegalStateException(String.format(
+        "Only %d of %d nodes are reachable, refusing the database write",
+        peers.size() + 1,
+        this.transport.clusterSize()));
+    }
+
+    synchronized (this.promotionLock) {
+      if (!this.transport.localNodeId().equals(this.currentLeader)) {
+        this.promote();
+      }
+    }
+
+    // the write is applied once a majority of the cluster (including this node) stored it. If that does not happen the
+    // entry stays in the local log but the write fails, it is dropped if another leader replaces the log
+    var votes = new int[]{1, peers.size()};
+    synchronized (this) {
+      var previousTerm = this.provider.lastTerm();
+      var entry = operation.withPosition(this.provider.lastIndex() + 1, this.currentTerm);
+      this.provider.append(entry);
+      this.pendingCommits.put(entry.index(), new PendingCommit(entry.term(), commit));
+      if (votes[0] >= majority) {
+        this.commit(entry.index(), entry.term());
+      }
+
+      // send while holding the lock to send the entries in order, the responses are handled asynchronously
+      for (var peer : peers) {
+        var content = this.writeCommitPosition(DataBuf.empty().writeLong(previousTerm));
+        this.transport.request(peer, APPEND_MESSAGE, entry.write(content)).whenComplete((response, exception) -> {
+          var stored = response != null && response.readBoolean();
+          if (response != null) {
+            response.release();
+          }
+
+          int storedVotes;
+          int pendingVotes;
+          synchronized (votes) {
+            votes[0] += stored ? 1 : 0;
+            votes[1]--;
+            storedVotes = votes[0];
+            pendingVotes = votes[1];
+          }
+
+          if (storedVotes >= majority) {
+            this.commit(entry.index(), entry.term());
+          } else if (storedVotes + pendingVotes < majority) {
+            this.failCommit(entry.index(), new IllegalStateException(String.format(
+              "Database write %d was only stored by %d of %d nodes",
+              entry.index(),
+              storedVotes,
+              this.transport.clusterSize())));
+          }
+        });
+      }
+    }
+  }
+
+  protected void commit(long index, long term) {
+    List<Runnable> completions = new ArrayList<>();
+    synchronized (this) {
+      // committing an entry commits all previous entries as well
+      var results = this.provider.applyCommitted(index, term);
+      for (var result : results.entrySet()) {
+        var pending = this.pendingCommits.remove(result.getKey());
+        if (pending != null) {
+          var commit = new Commit(result.getKey(), pending.term(), result.getValue());
+          completions.add(() -> pending.commit().complete(commit));
+        }
+      }
+
+      if (results.isEmpty()) {
+        return;
+      }
+    }
+
+    // complete the writes outside the lock, their callbacks might send the response to a forwarded write
+    completions.forEach(Runnable::run);
+    for (var peer : this.transport.peerNodeIds()) {
+      this.transport.send(peer, COMMIT_MESSAGE, this.writeCommitPosition(DataBuf.empty()));
+    }
+  }
+
+  protected void failCommit(long index, @NonNull RuntimeException exception) {
+    PendingCommit pending;
+    synchronized (this) {
+      pending = this.pendingCommits.remove(index);
+    }
+
+    if (pending != null) {
+      pending.commit().completeExceptionally(exception);
+    }
+  }
+
+  protected void advanceCommit(long commitIndex, long commitTerm) {
+    synchronized (this) {
+      this.provider.applyCommitted(commitIndex, commitTerm);
+    }
+  }
+
+  protected void promote() {
+    // find the most up-to-date node, it might have received entries from the previous leader which we did not receive
+    String mostRecentNode = null;
+    var highestIndex = this.provider.lastIndex();
+    var highestTerm = this.provider.lastTerm();
+    for (var nodeId : this.transport.peerNodeIds()) {
+      var state = this.transport.request(nodeId, STATE_MESSAGE, DataBuf.empty()).getOrNull();
+      if (state != null) {
+        var index = state.readLong();
+        var term = state.readLong();
+        state.release();
+
+        if (term > highestTerm || (term == highestTerm && index > highestIndex)) {
+          mostRecentNode = nodeId;
+          highestIndex = index;
+          highestTerm = term;
+        }
+      }
+    }
+
+    if (mostRecentNode != null && !this.catchUp(mostRecentNode)) {
+      throw new IllegalStateException(
+        String.format("Unable to catch up from node %s, refusing writes", mostRecentNode));
+    }
+
+    // the lower bits of a term identify the leader, entries appended by two isolated leaders never share a term
+    var nodeOrdinal = this.nodeOrdinal();
+    synchronized (this) {
+      var termCounter = (Math.max(this.currentTerm, highestTerm) >>> TERM_NODE_BITS) + 1;
+      this.currentTerm = (termCounter << TERM_NODE_BITS) | nodeOrdinal;
+      this.currentLeader = this.transport.localNodeId();
+    }
+    this.failPendingAppends(null);
+  }
+
+  protected int nodeOrdinal() {
+    // the position of the local node in the sorted list of all nodes, which is the same on every node
+    var nodeIds = this.transport.nodeIds().stream().sorted().toList();
+    var ordinal = nodeIds.indexOf(this.transport.localNodeId());
+    if (ordinal == -1 || ordinal >= 1 << TERM_NODE_BITS) {
+      throw new IllegalStateException(String.format(
+        "Unable to determine the ordinal of node %s in a cluster of %d nodes",
+        this.transport.localNodeId(),
+        nodeIds.size()));
+    }
+    return ordinal;
+  }
+
+  protected @NonNull Task<DataBuf.Mutable> handleAppend(@NonNull String sender, @NonNull DataBuf content) {
+    var previousTerm = content.readLong();
+    var commitIndex = content.readLong();
+    var commitTerm = content.readLong();
+    var entry = ReplicationLogEntry.read(content);
+
+    var stored = new Task<Boolean>();
+    synchronized (this) {
+      if (!sender.equals(this.currentLeader)) {
+        // the leader changed, appends of the previous leader will never be completed
+        this.failPendingAppends(sender);
+        this.currentLeader = sender;
+      }
+
+      var pending = this.pendingAppends.computeIfAbsent(sender, $ -> new TreeMap<>());
+      var replaced = pending.put(entry.index(), new PendingAppend(previousTerm, entry, stored));
+      if (replaced != null) {
+        replaced.stored().complete(false);
+      }
+    }
+
+    // appends might arrive out of order, they are applied once all previous entries are present
+    this.processPendingAppends(sender, false);
+    this.advanceCommit(commitIndex, commitTerm);
+    return Task.wrapFuture(stored.thenApply(result -> DataBuf.empty().writeBoolean(result)));
+  }
+
+  protected void processPendingAppends(@NonNull String sender, boolean caughtUp) {
+    var missingEntries = false;
+    synchronized (this) {
+      var pending = this.pendingAppends.get(sender);
+      if (pending == null || this.installingSnapshot) {
+        return;
+      }
+
+      while (!pending.isEmpty()) {
+        var append = pending.firstEntry().getValue();
+        var index = append.entry().index();
+        if (index <= this.provider.lastIndex()) {
+          // the entry was received while catching up from the sender
+          pending.pollFirstEntry();
+          append.stored().complete(caughtUp || this.provider.termAt(index) == append.entry().term());
+        } else if (index == this.provider.lastIndex() + 1 && append.previousTerm() == this.provider.lastTerm()) {
+          pending.pollFirstEntry();
+          this.provider.append(append.entry());
+          append.stored().complete(true);
+        } else {
+          // we either missed entries or our log contains entries the leader does not know about
+          missingEntries = true;
+          break;
+        }
+      }
+    }
+
+    if (missingEntries) {
+      if (caughtUp) {
+        // the sender does not have the entries either, it is no longer the leader
+        this.failPendingAppends(sender);
+      } else if (this.catchUpScheduled.compareAndSet(false, true)) {
+        // appends which arrive while the catch-up is still pending do not need to schedule another one
+        this.scheduleCatchUp(sender).whenComplete(($, exception) -> this.catchUpScheduled.set(false));
+      }
+    }
+  }
+
+  protected synchronized void failPendingAppends(@Nullable String exceptSender) {
+    for (var entry : this.pendingAppends.entrySet()) {
+      if (!entry.getKey().equals(exceptSender)) {
+        entry.getValue().values().forEach(append -> append.stored().complete(false));
+        entry.getValue().clear();
+      }
+    }
+  }
+
+  protected void handleHeartbeat(@NonNull String sender, @NonNull DataBuf content) {
+    this.currentLeader = sender;
+
+    var index = content.readLong();
+    var term = content.readLong();
+    if (index != this.provider.lastIndex() || term != this.provider.lastTerm()) {
+      this.scheduleCatchUp(sender);
+    } else {
+      this.advanceCommit(content.readLong(), content.readLong());
+    }
+  }
+
+  protected @NonNull Task<DataBuf.Mutable> handleForward(@NonNull DataBuf content) {
+    if (!this.transport.localNodeId().equals(this.transport.leaderNodeId())) {
+      // the leader changed while the write was in flight
+      return Task.completedTask(DataBuf.empty().writeBoolean(false).writeString("node is not the leader"));
+    }
+
+    var operation = ReplicationLogEntry.read(content);
+    return Task.wrapFuture(this.appendAsLeader(operation).handle((commit, exception) -> exception == null
+      ? DataBuf.empty().writeBoolean(true).writeLong(commit.index()).writeLong(commit.term()).writeLong(commit.result())
+      : DataBuf.empty().writeBoolean(false).writeString(String.valueOf(
+        exception instanceof CompletionException ? exception.getCause().getMessage() : exception.getMessage()))));
+  }
+
+  protected @NonNull DataBuf.Mutable handleCatchUp(@NonNull DataBuf content) {
+    var index = content.readLong();
+    var term = content.readLong();
+
+    // the requesting node must have the same entry at its last position as we do, otherwise it has to
+    // install a snapshot which is transferred in pages afterwards
+    if (index > this.provider.lastIndex() || this.provider.termAt(index) != term) {
+      var snapshot = DataBuf.empty().writeBoolean(true);
+      this.provider.writeSnapshotHeader(snapshot);
+      return snapshot;
+    }
+
+    var entries = this.provider.entriesAfter(index, CATCH_UP_BATCH_SIZE);
+    var response = this.writeCommitPosition(DataBuf.empty().writeBoolean(false)).writeInt(entries.size());
+    entries.forEach(entry -> entry.write(response));
+    return response;
+  }
+
+  protected @NonNull DataBuf.Mutable handleSnapshot(@NonNull DataBuf content) {
+    var database = content.readString();
+    var lastKey = content.readNullable(DataBuf::readString);
+
+    var page = DataBuf.empty();
+    this.provider.writeSnapshotPage(database, lastKey, SNAPSHOT_PAGE_SIZE, page);
+    return page;
+  }
+
+  protected @NonNull DataBuf.Mutable positionBuf() {
+    return DataBuf.empty().writeLong(this.provider.lastIndex()).writeLong(this.provider.lastTerm());
+  }
+
+  protected synchronized @NonNull DataBuf.Mutable writeCommitPosition(@NonNull DataBuf.Mutable target) {
+    // entries are applied while holding the lock, the position is therefore always consistent
+    return target.writeLong(this.provider.appliedIndex()).writeLong(this.provider.appliedTerm());
+  }
+
+  protected int majority() {
+    return this.transport.clusterSize() / 2 + 1;
+  }
+
+  protected record Commit(long index, long term, long result) {
+
+  }
+
+  protected record PendingCommit(long term, @NonNull Task<Commit> commit) {
+
+  }
+
+  protected record PendingAppend(long previousTerm, @NonNull ReplicationLogEntry entry, @NonNull Task<Boolean> stored) {
+
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2019-2023 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.node.database.replicated;
+
+import eu.cloudnetservice.common.document.gson.JsonDocument;
+import eu.cloudnetservice.driver.network.buffer.DataBuf;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.NonNull;
+
+public record ReplicationLogEntry(
+  long index,
+  long term,
+  @NonNull Operation operation,
+  @NonNull String database,
+  @NonNull Map<String, String> documents,
+  @NonNull Collection<String> keys
+) {
+
+  public static @NonNull ReplicationLogEntry insert(@NonNull String database, @NonNull Map<String, JsonDocument> docs) {
+    Map<String, String> documents = new HashMap<>(docs.size());
+    docs.forEach((key, document) -> documents.put(key, document.toString()));
+    return new ReplicationLogEntry(0, 0, Operation.INSERT, database, documents, List.of());
+  }
+
+  public static @NonNull ReplicationLogEntry delete(@NonNull String database, @NonNull Collection<String> keys) {
+    return new ReplicationLogEntry(0, 0, Operation.DELETE, database, Map.of(), keys);
+  }
+
+  public static @NonNull ReplicationLogEntry clear(@NonNull String database) {
+    return new ReplicationLogEntry(0, 0, Operation.CLEAR, database, Map.of(), List.of());
+  }
+
+  public static @NonNull ReplicationLogEntry deleteDatabase(@NonNull String database) {
+    return new ReplicationLogEntry(0, 0, Operation.DELETE_DATABASE, database, Map.of(), List.of());
+  }
+
+  public static @NonNull ReplicationLogEntry noop(long index, long term) {
+    return new ReplicationLogEntry(index, term, Operation.NOOP, "", Map.of(), List.of());
+  }
+
+  public static @NonNull ReplicationLogEntry read(@NonNull DataBuf source) {
+    var index = source.readLong();
+    var term = source.readLong();
+    var operation = Operation.values()[source.readByte()];
+    var database = source.readString();
+
+    var documentCount = source.readInt();
+    Map<String, String> documents = new HashMap<>(documentCount);
+    for (var i = 0; i < documentCount; i++) {
+      documents.put(source.readString(), source.readString());
+    }
+
+    var keyCount = source.readInt();
+    List<String> keys = new ArrayList<>(keyCount);
+    for (var i = 0; i < keyCount; i++) {
+      keys.add(source.readString());
+    }
+
+    return new ReplicationLogEntry(index, term, operation, database, documents, keys);
+  }
+
+  public @NonNull ReplicationLogEntry withPosition(long index, long term) {
+    return new ReplicationLogEntry(index, term, this.operation, this.database, this.documents, this.keys);
+  }
+
+  public @NonNull DataBuf.Mutable write(@NonNull DataBuf.Mutable target) {
+    target
+      .writeLong(this.index)
+      .writeLong(this.term)
+      .writeByte((byte) this.operation.ordinal())
+      .writeString(this.database);
+
+    target.writeInt(this.documents.size());
+    this.documents.forEach((key, document) -> target.writeString(key).writeString(document));
+
+    target.writeInt(this.keys.size());
+    this.keys.forEach(target::writeString);
+    return target;
+  }
+
+  public enum Operation {
+
+    NOOP,
+    INSERT,
+    DELETE,
+    CLEAR,
+    DELETE_DATABASE
+  }
+}
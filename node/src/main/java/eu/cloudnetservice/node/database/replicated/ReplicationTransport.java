@@ -0,0 +1,42 @@
+/*
+ * Copyright 2019-2023 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.node.database.replicated;
+
+import eu.cloudnetservice.common.concurrent.Task;
+import eu.cloudnetservice.driver.network.buffer.DataBuf;
+import java.util.Collection;
+import lombok.NonNull;
+
+public interface ReplicationTransport {
+
+  @NonNull String localNodeId();
+
+  @NonNull String leaderNodeId();
+
+  @NonNull Collection<String> peerNodeIds();
+
+  // all nodes of the cluster including unavailable ones, every node is expected to know the same nodes
+  @NonNull Collection<String> nodeIds();
+
+  default int clusterSize() {
+    return this.nodeIds().size();
+  }
+
+  void send(@NonNull String nodeId, @NonNull String message, @NonNull DataBuf.Mutable content);
+
+  @NonNull Task<DataBuf> request(@NonNull String nodeId, @NonNull String message, @NonNull DataBuf.Mutable content);
+}
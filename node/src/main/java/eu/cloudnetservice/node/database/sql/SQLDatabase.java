@@ -16,9 +16,20 @@
 
 package eu.cloudnetservice.node.database.sql;
 
+import eu.cloudnetservice.common.document.gson.JsonDocument;
+import eu.cloudnetservice.driver.database.DatabaseChunk;
 import eu.cloudnetservice.node.database.AbstractDatabase;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import lombok.NonNull;
 import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
 
 @Deprecated
 @ApiStatus.ScheduledForRemoval(inVersion = "4.1")
@@ -27,10 +38,118 @@ public abstract class SQLDatabase extends AbstractDatabase {
   protected static final String TABLE_COLUMN_KEY = "Name";
   protected static final String TABLE_COLUMN_VAL = "Document";
 
+  // the maximum amount of keys bound to a single IN clause
+  protected static final int MAX_KEYS_PER_QUERY = 1000;
+
   protected final SQLDatabaseProvider databaseProvider;
 
   public SQLDatabase(@NonNull SQLDatabaseProvider provider, @NonNull String name) {
     super(name, provider);
     this.databaseProvider = provider;
   }
+
+  @Override
+  public boolean containsAll(@NonNull Collection<String> keys) {
+    for (var chunk : partitionKeys(keys)) {
+      Long foundKeys = this.databaseProvider.executeQuery(
+        String.format(
+          "SELECT COUNT(*) FROM `%s` WHERE %s IN (%s);",
+          this.name,
+          TABLE_COLUMN_KEY,
+          keyPlaceholders(chunk.size())),
+        resultSet -> resultSet.next() ? resultSet.getLong(1) : -1L,
+        -1L,
+        chunk.toArray());
+      // the query result is null if the query failed
+      if (foundKeys == null || foundKeys != chunk.size()) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  @Override
+  public int deleteAll(@NonNull Collection<String> keys) {
+    var deleted = 0;
+    for (var chunk : partitionKeys(keys)) {
+      var deletedRows = this.databaseProvider.executeUpdate(
+        String.format("DELETE FROM `%s` WHERE %s IN (%s);", this.name, TABLE_COLUMN_KEY, keyPlaceholders(chunk.size())),
+        chunk.toArray());
+      deleted += Math.max(0, deletedRows);
+    }
+
+    this.publishChange(keys);
+    return deleted;
+  }
+
+  @Override
+  public @NonNull Map<String, JsonDocument> getAll(@NonNull Collection<String> keys) {
+    Map<String, JsonDocument> documents = new HashMap<>();
+    for (var chunk : partitionKeys(keys)) {
+      this.databaseProvider.executeQuery(
+        String.format(
+          "SELECT %s, %s FROM `%s` WHERE %s IN (%s);",
+          TABLE_COLUMN_KEY,
+          TABLE_COLUMN_VAL,
+          this.name,
+          TABLE_COLUMN_KEY,
+          keyPlaceholders(chunk.size())),
+        resultSet -> {
+          while (resultSet.next()) {
+            documents.put(
+              resultSet.getString(TABLE_COLUMN_KEY),
+              JsonDocument.fromJsonString(resultSet.getString(TABLE_COLUMN_VAL)));
+          }
+
+          return null;
+        },
+        null,
+        chunk.toArray());
+    }
+
+    return documents;
+  }
+
+  @Override
+  public @NonNull DatabaseChunk readChunkAfter(@Nullable String previousKey, int chunkSize) {
+    var query = previousKey == null
+      ? String.format("SELECT * FROM `%s` ORDER BY %s LIMIT ?;", this.name, TABLE_COLUMN_KEY)
+      : String.format("SELECT * FROM `%s` WHERE %s > ? ORDER BY %s LIMIT ?;", this.name, TABLE_COLUMN_KEY, TABLE_COLUMN_KEY);
+    var parameters = previousKey == null ? new Object[]{chunkSize} : new Object[]{previousKey, chunkSize};
+
+    var chunk = this.databaseProvider.executeQuery(
+      query,
+      resultSet -> {
+        String lastKey = null;
+        Map<String, JsonDocument> entries = new LinkedHashMap<>();
+        while (resultSet.next()) {
+          lastKey = resultSet.getString(TABLE_COLUMN_KEY);
+          entries.put(lastKey, JsonDocument.fromJsonString(resultSet.getString(TABLE_COLUMN_VAL)));
+        }
+
+        return new DatabaseChunk(entries, lastKey);
+      },
+      null,
+      parameters);
+    // an empty chunk would silently end the iteration, fail instead to not skip the remaining entries
+    if (chunk == null) {
+      throw new IllegalStateException(String.format("Unable to read chunk after key %s of %s", previousKey, this.name));
+    }
+    return chunk;
+  }
+
+  protected static @NonNull List<List<String>> partitionKeys(@NonNull Collection<String> keys) {
+    // remove duplicate keys, they would otherwise break the found key count
+    List<String> distinctKeys = new ArrayList<>(new LinkedHashSet<>(keys));
+    List<List<String>> chunks = new ArrayList<>();
+    for (var i = 0; i < distinctKeys.size(); i += MAX_KEYS_PER_QUERY) {
+      chunks.add(distinctKeys.subList(i, Math.min(distinctKeys.size(), i + MAX_KEYS_PER_QUERY)));
+    }
+    return chunks;
+  }
+
+  protected static @NonNull String keyPlaceholders(int amount) {
+    return String.join(", ", Collections.nCopies(amount, "?"));
+  }
 }
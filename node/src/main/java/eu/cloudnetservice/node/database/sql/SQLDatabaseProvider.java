@@ -25,6 +25,8 @@
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Objects;
 import lombok.NonNull;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
@@ -56,6 +58,37 @@ public boolean containsDatabase(@NonNull String name) {
 
   public abstract int executeUpdate(@NonNull String query, @NonNull Object... objects);
 
+  public int executeBatch(@NonNull String query, @NonNull Collection<Object[]> batch) {
+    try (var connection = this.connection(); var statement = connection.prepareStatement(query)) {
+      // execute all updates in a single transaction
+      connection.setAutoCommit(false);
+      try {
+        for (var objects : batch) {
+          for (var i = 0; i < objects.length; i++) {
+            statement.setString(i + 1, Objects.toString(objects[i]));
+          }
+          statement.addBatch();
+        }
+
+        var updatedRows = 0;
+        for (var result : statement.executeBatch()) {
+          updatedRows += Math.max(0, result);
+        }
+
+        connection.commit();
+        return updatedRows;
+      } catch (SQLException exception) {
+        connection.rollback();
+        throw exception;
+      } finally {
+        connection.setAutoCommit(true);
+      }
+    } catch (SQLException exception) {
+      LOGGER.severe("Exception while executing database batch update", exception);
+      return -1;
+    }
+  }
+
   public abstract <T> @UnknownNullability T executeQuery(
     @NonNull String query,
     @NonNull ThrowableFunction<ResultSet, T, SQLException> callback,
@@ -17,14 +17,17 @@
 package eu.cloudnetservice.node.database.xodus;
 
 import eu.cloudnetservice.common.document.gson.JsonDocument;
+import eu.cloudnetservice.driver.database.DatabaseChunk;
 import eu.cloudnetservice.node.database.AbstractDatabase;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
@@ -49,11 +52,29 @@ protected XodusDatabase(@NonNull String name, @NonNull Store store, @NonNull Xod
 
   @Override
   public boolean insert(@NonNull String key, @NonNull JsonDocument document) {
-    return this.environment.computeInExclusiveTransaction(
+    var inserted = this.environment.computeInExclusiveTransaction(
       txn -> this.store().put(
         txn,
         StringBinding.stringToEntry(key),
         new ArrayByteIterable(document.toString().getBytes(StandardCharsets.UTF_8))));
+    this.publishChange(Set.of(key));
+    return inserted;
+  }
+
+  @Override
+  public boolean insertAll(@NonNull Map<String, JsonDocument> documents) {
+    var inserted = this.environment.computeInExclusiveTransaction(txn -> {
+      var success = true;
+      for (var entry : documents.entrySet()) {
+        success &= this.store().put(
+          txn,
+          StringBinding.stringToEntry(entry.getKey()),
+          new ArrayByteIterable(entry.getValue().toString().getBytes(StandardCharsets.UTF_8)));
+      }
+      return success;
+    });
+    this.publishChange(documents.keySet());
+    return inserted;
   }
 
   @Override
@@ -62,9 +83,38 @@ public boolean contains(@NonNull String key) {
       txn -> this.store().get(txn, StringBinding.stringToEntry(key)) != null);
   }
 
+  @Override
+  public boolean containsAll(@NonNull Collection<String> keys) {
+    return this.environment.computeInReadonlyTransaction(txn -> {
+      for (var key : keys) {
+        if (this.store().get(txn, StringBinding.stringToEntry(key)) == null) {
+          return false;
+        }
+      }
+      return true;
+    });
+  }
+
   @Override
   public boolean delete(@NonNull String key) {
-    return this.environment.computeInTransaction(txn -> this.store().delete(txn, StringBinding.stringToEntry(key)));
+    var deleted = this.environment.computeInTransaction(txn -> this.store().delete(txn, StringBinding.stringToEntry(key)));
+    this.publishChange(Set.of(key));
+    return deleted;
+  }
+
+  @Override
+  public int deleteAll(@NonNull Collection<String> keys) {
+    var deleted = this.environment.computeInTransaction(txn -> {
+      var deletedKeys = 0;
+      for (var key : keys) {
+        if (this.store().delete(txn, StringBinding.stringToEntry(key))) {
+          deletedKeys++;
+        }
+      }
+      return deletedKeys;
+    });
+    this.publishChange(keys);
+    return deleted;
   }
 
   @Override
@@ -75,6 +125,20 @@ public boolean delete(@NonNull String key) {
     });
   }
 
+  @Override
+  public @NonNull Map<String, JsonDocument> getAll(@NonNull Collection<String> keys) {
+    return this.environment.computeInReadonlyTransaction(txn -> {
+      Map<String, JsonDocument> documents = new HashMap<>();
+      for (var key : keys) {
+        var entry = this.store().get(txn, StringBinding.stringToEntry(key));
+        if (entry != null) {
+          documents.put(key, JsonDocument.fromJsonBytes(entry.getBytesUnsafe()));
+        }
+      }
+      return documents;
+    });
+  }
+
   @Override
   public @NonNull List<JsonDocument> find(@NonNull String fieldName, @Nullable String fieldValue) {
     return this.handleWithCursor(($, document) -> {
@@ -126,6 +190,7 @@ public void clear() {
       this.environment.truncateStore(this.name, txn);
       this.store.set(this.environment.openStore(this.name, this.store().getConfig(), txn));
     });
+    this.publishClear();
   }
 
   @Override
@@ -191,6 +256,32 @@ protected void acceptWithCursor(@NonNull BiConsumer<String, JsonDocument> handle
     });
   }
 
+  @Override
+  public @NonNull DatabaseChunk readChunkAfter(@Nullable String previousKey, int chunkSize) {
+    return this.environment.computeInReadonlyTransaction(txn -> {
+      try (var cursor = this.store().openCursor(txn)) {
+        boolean hasEntry;
+        if (previousKey == null) {
+          hasEntry = cursor.getNext();
+        } else {
+          // move to the first key which is equal or greater than the previous key, skip the previous key itself
+          hasEntry = cursor.getSearchKeyRange(StringBinding.stringToEntry(previousKey)) != null
+            && (!StringBinding.entryToString(cursor.getKey()).equals(previousKey) || cursor.getNext());
+        }
+
+        String lastKey = null;
+        Map<String, JsonDocument> entries = new LinkedHashMap<>();
+        while (hasEntry && entries.size() < chunkSize) {
+          lastKey = StringBinding.entryToString(cursor.getKey());
+          entries.put(lastKey, JsonDocument.fromJsonBytes(cursor.getValue().getBytesUnsafe()));
+          hasEntry = cursor.getNext();
+        }
+
+        return new DatabaseChunk(entries, lastKey);
+      }
+    });
+  }
+
   protected @NonNull Store store() {
     return this.store.get();
   }
@@ -77,6 +77,7 @@ public boolean containsDatabase(@NonNull String name) {
   public boolean deleteDatabase(@NonNull String name) {
     this.databaseCache.invalidate(name);
     this.environment.executeInTransaction(txn -> this.environment.removeStore(name, txn));
+    this.publishChange(name, null);
 
     return true;
   }
@@ -16,7 +16,6 @@
 
 package eu.cloudnetservice.node.http;
 
-import eu.cloudnetservice.driver.permission.PermissionManagement;
 import eu.cloudnetservice.driver.permission.PermissionUser;
 import java.util.HashMap;
 import java.util.Map;
@@ -32,27 +31,23 @@ public class DefaultHttpSession implements HttpSession {
   protected final V2HttpAuthentication issuer;
   protected final Map<String, Object> properties;
 
-  protected final PermissionManagement permissionManagement;
-
   protected long expireTime;
 
   public DefaultHttpSession(
     long expireTime,
     @NonNull UUID userId,
-    @NonNull V2HttpAuthentication issuer,
-    @NonNull PermissionManagement permissionManagement
+    @NonNull V2HttpAuthentication issuer
   ) {
-    this(expireTime, UUID.randomUUID().toString(), userId, issuer, permissionManagement);
+    this(expireTime, UUID.randomUUID().toString(), userId, issuer);
   }
 
   public DefaultHttpSession(
     long expireTime,
     @NonNull String uniqueId,
     @NonNull UUID userId,
-    @NonNull V2HttpAuthentication issuer,
-    @NonNull PermissionManagement permissionManagement
+    @NonNull V2HttpAuthentication issuer
   ) {
-    this(expireTime, uniqueId, userId, issuer, new HashMap<>(), permissionManagement);
+    this(expireTime, uniqueId, userId, issuer, new HashMap<>());
   }
 
   public DefaultHttpSession(
@@ -60,15 +55,13 @@ public DefaultHttpSession(
     @NonNull String uniqueId,
     @NonNull UUID userId,
     @NonNull V2HttpAuthentication issuer,
-    @NonNull Map<String, Object> properties,
-    @NonNull PermissionManagement permissionManagement
+    @NonNull Map<String, Object> properties
   ) {
     this.expireTime = expireTime;
     this.uniqueId = uniqueId;
     this.userId = userId;
     this.issuer = issuer;
     this.properties = properties;
-    this.permissionManagement = permissionManagement;
   }
 
   @Override
@@ -93,7 +86,7 @@ public long refreshFor(long liveMillis) {
 
   @Override
   public PermissionUser user() {
-    return this.permissionManagement.user(this.userId);
+    return this.issuer.user(this.userId);
   }
 
   @Override
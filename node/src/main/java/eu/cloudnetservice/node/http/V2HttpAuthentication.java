@@ -16,10 +16,20 @@
 
 package eu.cloudnetservice.node.http;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import eu.cloudnetservice.common.collection.Pair;
+import eu.cloudnetservice.common.document.gson.JsonDocument;
+import eu.cloudnetservice.common.hash.HashUtil;
+import eu.cloudnetservice.common.io.FileUtil;
 import eu.cloudnetservice.common.log.LogManager;
 import eu.cloudnetservice.common.log.Logger;
 import eu.cloudnetservice.driver.ComponentInfo;
+import eu.cloudnetservice.driver.event.EventListener;
+import eu.cloudnetservice.driver.event.EventManager;
+import eu.cloudnetservice.driver.event.events.permission.PermissionDeleteUserEvent;
+import eu.cloudnetservice.driver.event.events.permission.PermissionSetGroupsEvent;
+import eu.cloudnetservice.driver.event.events.permission.PermissionUpdateUserEvent;
 import eu.cloudnetservice.driver.network.http.HttpRequest;
 import eu.cloudnetservice.driver.permission.PermissionManagement;
 import eu.cloudnetservice.driver.permission.PermissionUser;
@@ -32,12 +42,19 @@
 import io.jsonwebtoken.security.Keys;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
 import java.security.Key;
 import java.sql.Date;
+import java.time.Duration;
 import java.util.Base64;
 import java.util.Calendar;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
@@ -52,6 +69,17 @@ public class V2HttpAuthentication {
   protected static final String JWT_ISSUER_FORMAT = "CloudNet %s";
   protected static final Logger LOGGER = LogManager.logger(V2HttpAuthentication.class);
 
+  // the file in which the jwt signing key and the active sessions are persisted
+  protected static final Path AUTHENTICATION_FILE = Path.of(
+    System.getProperty("cloudnet.http.auth.path", "local/http_authentication.json"));
+  // the authentication file contains the jwt signing key, only the owner of the file should be able to read it
+  protected static final Set<PosixFilePermission> AUTHENTICATION_FILE_PERMISSIONS =
+    PosixFilePermissions.fromString("rw-------");
+  // the maximum amount of verified credentials and tokens which are cached, and the time they are cached for
+  protected static final int AUTH_CACHE_SIZE = Integer.getInteger("cloudnet.http.auth.cache-size", 1024);
+  protected static final Duration AUTH_CACHE_TTL = Duration.ofSeconds(
+    Long.getLong("cloudnet.http.auth.cache-ttl", 300));
+
   protected static final Pattern BASIC_LOGIN_PATTERN = Pattern.compile("Basic ([a-zA-Z\\d=]+)$");
   protected static final Pattern BEARER_LOGIN_PATTERN = Pattern.compile("Bearer ([a-zA-Z\\d-_.]+)$");
 
@@ -61,36 +89,74 @@ public class V2HttpAuthentication {
     "Unable to process bearer login: user gone");
   protected static final LoginResult<PermissionUser> ERROR_HANDLING_BASIC_LOGIN = LoginResult.failure(
     "No matching user for provided basic login credentials");
+  protected static final LoginResult<HttpSession> ERROR_HANDLING_BEARER_LOGIN_EXPIRED = LoginResult.failure(
+    "Unable to process bearer login: token expired");
 
   protected final PermissionManagement permissionManagement;
   protected final Map<String, HttpSession> sessions = new ConcurrentHashMap<>();
 
+  // the users which were resolved for authenticated requests, invalidated when a user changes
+  protected final Cache<UUID, PermissionUser> users = Caffeine.newBuilder()
+    .maximumSize(AUTH_CACHE_SIZE)
+    .expireAfterWrite(AUTH_CACHE_TTL)
+    .build();
+  // the hashes of the basic credentials which were verified, mapped to the id of the user they are belonging to
+  protected final Cache<String, UUID> verifiedCredentials = Caffeine.newBuilder()
+    .maximumSize(AUTH_CACHE_SIZE)
+    .expireAfterWrite(AUTH_CACHE_TTL)
+    .build();
+  // the jwts which were verified, mapped to the information they are holding
+  protected final Cache<String, VerifiedToken> verifiedTokens = Caffeine.newBuilder()
+    .maximumSize(AUTH_CACHE_SIZE)
+    .expireAfterWrite(AUTH_CACHE_TTL)
+    .build();
+
   protected final Key signingKey;
   protected final String jwtIssuer;
   protected final JwtParser jwtParser;
+  protected final Path authenticationFile;
 
   @Inject
   public V2HttpAuthentication(
+    @NonNull EventManager eventManager,
     @NonNull PermissionManagement permissionManagement,
     @NonNull ComponentInfo componentInfo
+  ) {
+    this(eventManager, permissionManagement, componentInfo, AUTHENTICATION_FILE);
+  }
+
+  public V2HttpAuthentication(
+    @NonNull EventManager eventManager,
+    @NonNull PermissionManagement permissionManagement,
+    @NonNull ComponentInfo componentInfo,
+    @NonNull Path authenticationFile
   ) {
     this.permissionManagement = permissionManagement;
+    this.authenticationFile = authenticationFile;
     this.jwtIssuer = String.format(JWT_ISSUER_FORMAT, componentInfo.componentName());
 
-    // initialize the secret & parser
-    // todo: can we use a key written to the disk so that issued jwts survive node restarts?
-    this.signingKey = Keys.secretKeyFor(SignatureAlgorithm.HS512);
+    // load the persisted secret & sessions so that issued jwts survive node restarts
+    JsonDocument authenticationData;
+    if (Files.exists(authenticationFile)) {
+      // restrict the access to files which were written before the permissions were set
+      this.restrictAuthenticationFile();
+      authenticationData = JsonDocument.newDocument(authenticationFile);
+    } else {
+      authenticationData = JsonDocument.newDocument();
+    }
+    this.signingKey = this.loadSigningKey(authenticationData);
+    this.loadSessions(authenticationData);
+
+    // initialize the parser
     this.jwtParser = Jwts.parserBuilder().setSigningKey(this.signingKey).requireIssuer(this.jwtIssuer).build();
+    eventManager.registerListener(this);
   }
 
   public @NonNull String createJwt(@NonNull PermissionUser subject, long sessionTimeMillis) {
     var session = this.sessions().computeIfAbsent(
       subject.uniqueId().toString(),
-      userUniqueId -> new DefaultHttpSession(
-        System.currentTimeMillis() + sessionTimeMillis,
-        subject.uniqueId(),
-        this,
-        this.permissionManagement));
+      userUniqueId -> new DefaultHttpSession(System.currentTimeMillis() + sessionTimeMillis, subject.uniqueId(), this));
+    this.saveAuthenticationData();
     return this.generateJwt(subject, session);
   }
 
@@ -102,11 +168,27 @@ public V2HttpAuthentication(
 
     var matcher = BASIC_LOGIN_PATTERN.matcher(authenticationHeader);
     if (matcher.matches()) {
-      var auth = new String(Base64.getDecoder().decode(matcher.group(1)), StandardCharsets.UTF_8).split(":");
+      // check if the credentials were verified before, only the hash of the credentials is kept in memory
+      var credentials = matcher.group(1);
+      var credentialsHash = Base64.getEncoder().encodeToString(HashUtil.toSha256(credentials));
+      var verifiedUserId = this.verifiedCredentials.getIfPresent(credentialsHash);
+      if (verifiedUserId != null) {
+        var user = this.user(verifiedUserId);
+        if (user != null) {
+          return LoginResult.success(user);
+        }
+
+        // the user is gone, verify the credentials again
+        this.verifiedCredentials.invalidate(credentialsHash);
+      }
+
+      var auth = new String(Base64.getDecoder().decode(credentials), StandardCharsets.UTF_8).split(":");
       if (auth.length == 2) {
         var users = this.permissionManagement.usersByName(auth[0]);
         for (var user : users) {
           if (user.checkPassword(auth[1])) {
+            this.users.put(user.uniqueId(), user);
+            this.verifiedCredentials.put(credentialsHash, user.uniqueId());
             return LoginResult.success(user);
           }
         }
@@ -125,27 +207,23 @@ public V2HttpAuthentication(
 
     var matcher = BEARER_LOGIN_PATTERN.matcher(authenticationHeader);
     if (matcher.matches()) {
-      try {
-        var jws = this.jwtParser.parseClaimsJws(matcher.group(1));
-        var session = this.sessionById(jws.getBody().getId());
-        if (session != null) {
-          var user = session.user();
-          if (user == null) {
-            // the user associated with the session no longer exists
-            this.sessions.remove(session.userId().toString());
-            return ERROR_HANDLING_BEARER_LOGIN_USER_GONE;
-          }
-          // ensure that the user is the owner of the session
-          var userUniqueId = UUID.fromString(jws.getBody().get("uniqueId", String.class));
-          if (user.uniqueId().equals(userUniqueId)) {
-            return LoginResult.success(session);
-          }
+      var token = this.verifyToken(matcher.group(1));
+      if (token.failed()) {
+        return token.hasErrorMessage() ? LoginResult.failure(token.errorMessage()) : ERROR_HANDLING_BEARER_LOGIN;
+      }
+
+      var session = this.sessionById(token.result().sessionId());
+      if (session != null) {
+        var user = session.user();
+        if (user == null) {
+          // the user associated with the session no longer exists
+          this.sessions.remove(session.userId().toString());
+          this.saveAuthenticationData();
+          return ERROR_HANDLING_BEARER_LOGIN_USER_GONE;
         }
-      } catch (JwtException | IllegalArgumentException exception) {
-        LOGGER.log(Level.FINE, "Exception while handling bearer auth", exception);
-        // the key is not yet usable or too old
-        if (exception instanceof PrematureJwtException || exception instanceof ExpiredJwtException) {
-          return LoginResult.failure(exception.getMessage());
+        // ensure that the user is the owner of the session
+        if (user.uniqueId().equals(token.result().userId())) {
+          return LoginResult.success(session);
         }
       }
       return ERROR_HANDLING_BEARER_LOGIN;
@@ -154,6 +232,38 @@ public V2HttpAuthentication(
     return LoginResult.undefinedFailure();
   }
 
+  protected @NonNull LoginResult<VerifiedToken> verifyToken(@NonNull String token) {
+    // check if the token was verified before
+    var verifiedToken = this.verifiedTokens.getIfPresent(token);
+    if (verifiedToken != null) {
+      if (verifiedToken.expiration() > System.currentTimeMillis()) {
+        return LoginResult.success(verifiedToken);
+      }
+
+      this.verifiedTokens.invalidate(token);
+      return LoginResult.failure(ERROR_HANDLING_BEARER_LOGIN_EXPIRED.errorMessage());
+    }
+
+    try {
+      var claims = this.jwtParser.parseClaimsJws(token).getBody();
+      var userId = claims.get("uniqueId", String.class);
+      if (claims.getId() == null || userId == null || claims.getExpiration() == null) {
+        return LoginResult.undefinedFailure();
+      }
+
+      verifiedToken = new VerifiedToken(claims.getId(), UUID.fromString(userId), claims.getExpiration().getTime());
+      this.verifiedTokens.put(token, verifiedToken);
+      return LoginResult.success(verifiedToken);
+    } catch (JwtException | IllegalArgumentException exception) {
+      LOGGER.log(Level.FINE, "Exception while handling bearer auth", exception);
+      // the key is not yet usable or too old
+      if (exception instanceof PrematureJwtException || exception instanceof ExpiredJwtException) {
+        return LoginResult.failure(exception.getMessage());
+      }
+      return LoginResult.undefinedFailure();
+    }
+  }
+
   public boolean expireSession(@NonNull HttpRequest request) {
     var session = this.handleBearerLoginRequest(request);
     if (session.succeeded()) {
@@ -164,7 +274,13 @@ public boolean expireSession(@NonNull HttpRequest request) {
   }
 
   public boolean expireSession(@NonNull HttpSession session) {
-    return this.sessions.remove(session.user().uniqueId().toString()) != null;
+    if (this.sessions.remove(session.userId().toString()) != null) {
+      // revoke all tokens which were issued for the session
+      this.verifiedTokens.asMap().values().removeIf(token -> token.sessionId().equals(session.uniqueId()));
+      this.saveAuthenticationData();
+      return true;
+    }
+    return false;
   }
 
   public @NonNull LoginResult<Pair<HttpSession, String>> refreshJwt(@NonNull HttpRequest request, long lifetime) {
@@ -179,9 +295,38 @@ public boolean expireSession(@NonNull HttpSession session) {
 
   public @NonNull String refreshJwt(@NonNull HttpSession session, long lifetime) {
     session.refreshFor(lifetime);
+    this.saveAuthenticationData();
     return this.generateJwt(session.user(), session);
   }
 
+  public @Nullable PermissionUser user(@NonNull UUID uniqueId) {
+    return this.users.get(uniqueId, this.permissionManagement::user);
+  }
+
+  @EventListener
+  public void handleUserUpdate(@NonNull PermissionUpdateUserEvent event) {
+    this.invalidateUser(event.permissionUser().uniqueId());
+  }
+
+  @EventListener
+  public void handleUserDelete(@NonNull PermissionDeleteUserEvent event) {
+    this.invalidateUser(event.permissionUser().uniqueId());
+  }
+
+  @EventListener
+  public void handleGroupsSet(@NonNull PermissionSetGroupsEvent event) {
+    // called when the permission management was reloaded, the users might have been changed in the database directly
+    this.users.invalidateAll();
+    this.verifiedCredentials.invalidateAll();
+  }
+
+  protected void invalidateUser(@NonNull UUID uniqueId) {
+    // the credentials or permissions of the user might have changed, remove everything which was verified for the user
+    this.users.invalidate(uniqueId);
+    this.verifiedCredentials.asMap().values().removeIf(uniqueId::equals);
+    this.verifiedTokens.asMap().values().removeIf(token -> token.userId().equals(uniqueId));
+  }
+
   protected @Nullable HttpSession sessionById(@NonNull String id) {
     for (var session : this.sessions().values()) {
       if (session.uniqueId().equals(id)) {
@@ -204,11 +349,80 @@ public boolean expireSession(@NonNull HttpSession session) {
   }
 
   protected void cleanup() {
+    var removedSessions = false;
     for (var entry : this.sessions.entrySet()) {
       if (entry.getValue().expireTime() <= System.currentTimeMillis()) {
-        this.sessions.remove(entry.getKey());
+        removedSessions |= this.sessions.remove(entry.getKey()) != null;
       }
     }
+
+    if (removedSessions) {
+      this.saveAuthenticationData();
+    }
+  }
+
+  protected @NonNull Key loadSigningKey(@NonNull JsonDocument authenticationData) {
+    var encodedKey = authenticationData.getString("signingKey");
+    if (encodedKey != null) {
+      try {
+        return Keys.hmacShaKeyFor(Base64.getDecoder().decode(encodedKey));
+      } catch (IllegalArgumentException exception) {
+        LOGGER.warning("Unable to load persisted jwt signing key, generating a new one", exception);
+      }
+    }
+
+    return Keys.secretKeyFor(SignatureAlgorithm.HS512);
+  }
+
+  protected void loadSessions(@NonNull JsonDocument authenticationData) {
+    var sessions = authenticationData.getDocument("sessions");
+    for (var sessionId : sessions.keys()) {
+      var sessionData = sessions.getDocument(sessionId);
+      var expireTime = sessionData.getLong("expireTime");
+      var userId = sessionData.getString("userId");
+
+      // only restore sessions which are still valid
+      if (userId != null && expireTime > System.currentTimeMillis()) {
+        this.sessions.put(userId, new DefaultHttpSession(expireTime, sessionId, UUID.fromString(userId), this));
+      }
+    }
+  }
+
+  protected synchronized void saveAuthenticationData() {
+    var sessions = JsonDocument.newDocument();
+    for (var session : this.sessions.values()) {
+      sessions.append(session.uniqueId(), JsonDocument.newDocument()
+        .append("userId", session.userId())
+        .append("expireTime", session.expireTime()));
+    }
+
+    // restrict the access before writing the signing key into the file
+    this.restrictAuthenticationFile();
+    JsonDocument.newDocument("signingKey", Base64.getEncoder().encodeToString(this.signingKey.getEncoded()))
+      .append("sessions", sessions)
+      .write(this.authenticationFile);
+  }
+
+  protected void restrictAuthenticationFile() {
+    // permissions can only be restricted on file systems supporting posix permissions
+    if (!this.authenticationFile.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+      return;
+    }
+
+    try {
+      if (Files.exists(this.authenticationFile)) {
+        Files.setPosixFilePermissions(this.authenticationFile, AUTHENTICATION_FILE_PERMISSIONS);
+      } else {
+        FileUtil.createDirectory(this.authenticationFile.toAbsolutePath().getParent());
+        var permissions = PosixFilePermissions.asFileAttribute(AUTHENTICATION_FILE_PERMISSIONS);
+        Files.createFile(this.authenticationFile, permissions);
+      }
+    } catch (IOException exception) {
+      LOGGER.warning(
+        "Unable to restrict the access to the http authentication file %s",
+        exception,
+        this.authenticationFile);
+    }
   }
 
   public @NonNull Map<String, HttpSession> sessions() {
@@ -216,6 +430,10 @@ protected void cleanup() {
     return this.sessions;
   }
 
+  protected record VerifiedToken(@NonNull String sessionId, @NonNull UUID userId, long expiration) {
+
+  }
+
   public record LoginResult<T>(@UnknownNullability T result, @UnknownNullability String errorMessage) {
 
     private static final LoginResult<?> UNDEFINED_RESULT = LoginResult.failure(null);
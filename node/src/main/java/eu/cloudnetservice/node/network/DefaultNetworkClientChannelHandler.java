@@ -86,6 +86,10 @@ public void handleChannelInitialize(@NonNull NetworkChannel channel) {
 
   @Override
   public boolean handlePacketReceive(@NonNull NetworkChannel channel, @NonNull Packet packet) {
+    // skip the event construction if no one is listening to it, as this happens for every packet
+    if (!this.eventManager.hasListeners(NetworkChannelPacketReceiveEvent.class)) {
+      return true;
+    }
     return !this.eventManager.callEvent(new NetworkChannelPacketReceiveEvent(channel, packet)).cancelled();
   }
 
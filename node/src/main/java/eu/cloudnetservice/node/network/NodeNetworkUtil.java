@@ -27,17 +27,39 @@
 import eu.cloudnetservice.driver.network.rpc.listener.RPCPacketListener;
 import eu.cloudnetservice.node.network.listener.PacketServerChannelMessageListener;
 import jakarta.inject.Inject;
+import jakarta.inject.Named;
 import jakarta.inject.Singleton;
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import lombok.NonNull;
 
 @Singleton
 public final class NodeNetworkUtil {
 
+  // sessions which were not resumed within this time are considered abandoned
+  private static final Duration CHUNK_SESSION_IDLE_TIMEOUT = Duration.ofSeconds(
+    Long.getLong("cloudnet.chunk.session-idle-timeout", 300));
+
   private final EventManager eventManager;
+  // shared between all channels to allow chunked transfers to resume on a new connection
+  private final ChunkedPacketListener chunkedPacketListener;
 
   @Inject
-  public NodeNetworkUtil(@NonNull EventManager eventManager) {
+  public NodeNetworkUtil(
+    @NonNull EventManager eventManager,
+    @NonNull @Named("taskScheduler") ScheduledExecutorService scheduledExecutor
+  ) {
     this.eventManager = eventManager;
+    this.chunkedPacketListener = new ChunkedPacketListener(EventChunkHandlerFactory.withEventManager(eventManager));
+
+    // release the resources of sessions which were abandoned by the sender
+    var checkIntervalMillis = Math.max(1000, CHUNK_SESSION_IDLE_TIMEOUT.toMillis() / 2);
+    scheduledExecutor.scheduleWithFixedDelay(
+      () -> this.chunkedPacketListener.expireIdleSessions(CHUNK_SESSION_IDLE_TIMEOUT),
+      checkIntervalMillis,
+      checkIntervalMillis,
+      TimeUnit.MILLISECONDS);
   }
 
   boolean shouldInitializeChannel(@NonNull NetworkChannel channel, @NonNull ChannelType type) {
@@ -47,8 +69,6 @@ boolean shouldInitializeChannel(@NonNull NetworkChannel channel, @NonNull Channe
   public void addDefaultPacketListeners(@NonNull PacketListenerRegistry registry) {
     registry.addListener(NetworkConstants.CHANNEL_MESSAGING_CHANNEL, PacketServerChannelMessageListener.class);
     registry.addListener(NetworkConstants.INTERNAL_RPC_COM_CHANNEL, RPCPacketListener.class);
-    registry.addListener(
-      NetworkConstants.CHUNKED_PACKET_COM_CHANNEL,
-      new ChunkedPacketListener(EventChunkHandlerFactory.withEventManager(this.eventManager)));
+    registry.addListener(NetworkConstants.CHUNKED_PACKET_COM_CHANNEL, this.chunkedPacketListener);
   }
 }
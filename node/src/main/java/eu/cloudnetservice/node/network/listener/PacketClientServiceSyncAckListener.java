@@ -55,17 +55,19 @@ public void handle(@NonNull NetworkChannel channel, @NonNull Packet packet) thro
       // remove this listener
       channel.packetRegistry().removeListeners(NetworkConstants.INTERNAL_SERVICE_SYNC_ACK_CHANNEL);
       // sync the data between the nodes
-      this.dataSyncRegistry.handle(syncData, syncData.readBoolean());
-      if (server.channel() instanceof QueuedNetworkChannel queuedChannel) {
-        queuedChannel.drainPacketQueue(channel);
-      }
+      this.dataSyncRegistry.handle(syncData, syncData.readBoolean(), server.name());
 
       // close the old channel
       // little hack to prevent some disconnect handling firring in the channel if the state was not set before
       server.state(NodeServerState.DISCONNECTED);
-      server.channel().close();
+      if (server.channel() instanceof QueuedNetworkChannel queuedChannel) {
+        // the handshake is done, send the pending packets to the node without blocking the packet dispatcher
+        queuedChannel.drainPacketQueueAsync(server, channel);
+      } else {
+        server.channel().close();
+        server.channel(channel);
+      }
       // mark the node as ready
-      server.channel(channel);
       server.updateNodeInfoSnapshot(snapshot);
       server.state(NodeServerState.READY);
       // re-select the head node
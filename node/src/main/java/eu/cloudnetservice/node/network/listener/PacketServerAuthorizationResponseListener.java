@@ -75,12 +75,7 @@ public void handle(@NonNull NetworkChannel channel, @NonNull Packet packet) {
         if (packet.content().readBoolean()) {
           // handle the data sync
           var syncData = packet.content().readDataBuf();
-          this.dataSyncRegistry.handle(syncData, syncData.readBoolean());
-
-          // check if there are pending packets for the node
-          if (server.channel() instanceof QueuedNetworkChannel queuedChannel) {
-            queuedChannel.drainPacketQueue(channel);
-          }
+          this.dataSyncRegistry.handle(syncData, syncData.readBoolean(), server.name());
 
           // update the current local snapshot
           var local = this.nodeServerProvider.localNode();
@@ -95,10 +90,17 @@ public void handle(@NonNull NetworkChannel channel, @NonNull Packet packet) {
           // close the old channel
           // little hack to prevent some disconnect handling firring in the channel if the state was not set before
           server.state(NodeServerState.DISCONNECTED);
-          server.channel().close();
+          if (server.channel() instanceof QueuedNetworkChannel queuedChannel) {
+            // the handshake is done, send the pending packets to the node without blocking the packet dispatcher
+            queuedChannel.drainPacketQueueAsync(server, channel);
+          } else {
+            server.channel().close();
+            server.channel(channel);
+          }
+        } else {
+          server.channel(channel);
         }
         // update the node status
-        server.channel(channel);
         server.state(NodeServerState.READY);
         // add the packet listeners
         channel.packetRegistry().removeListeners(NetworkConstants.INTERNAL_AUTHORIZATION_CHANNEL);
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2019-2023 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.node.network.listener.message;
+
+import eu.cloudnetservice.common.concurrent.Task;
+import eu.cloudnetservice.driver.channel.ChannelMessage;
+import eu.cloudnetservice.driver.event.EventListener;
+import eu.cloudnetservice.driver.event.events.channel.ChannelMessageReceiveEvent;
+import eu.cloudnetservice.driver.network.buffer.DataBuf;
+import eu.cloudnetservice.driver.network.def.NetworkConstants;
+import eu.cloudnetservice.node.database.NodeDatabaseProvider;
+import eu.cloudnetservice.node.database.replicated.ReplicatedDatabaseProvider;
+import eu.cloudnetservice.node.event.network.NetworkClusterNodeAuthSuccessEvent;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import lombok.NonNull;
+
+@Singleton
+public final class DatabaseChannelMessageListener {
+
+  private final NodeDatabaseProvider databaseProvider;
+
+  @Inject
+  public DatabaseChannelMessageListener(@NonNull NodeDatabaseProvider databaseProvider) {
+    this.databaseProvider = databaseProvider;
+  }
+
+  @EventListener
+  public void handleChannelMessage(@NonNull ChannelMessageReceiveEvent event) {
+    if (event.channel().equals(NetworkConstants.INTERNAL_MSG_CHANNEL)) {
+      if (event.message().equals("database_register_cache")) {
+        // a service or node started to cache the databases, publish all changes to them from now on
+        this.registerCachedDatabases(event.content());
+        // acknowledge the registration, respond with all cached databases to sync them with other nodes
+        if (event.query()) {
+          event.binaryResponse(this.writeCachedDatabases());
+        }
+      } else if (this.databaseProvider instanceof ReplicatedDatabaseProvider replicatedProvider
+        && replicatedProvider.coordinator().handlesMessage(event.message())) {
+        // replication traffic between the nodes of the cluster
+        var response = replicatedProvider.coordinator().handle(event.sender().name(), event.message(), event.content());
+        if (response != null && event.query()) {
+          // the response might depend on other nodes, never block the packet dispatcher while waiting for it
+          event.queryResponse(response.thenApply(content -> ChannelMessage.buildResponseFor(event.channelMessage())
+            .buffer(content)
+            .build()));
+        }
+      }
+    }
+  }
+
+  @EventListener
+  public void handleNodeConnect(@NonNull NetworkClusterNodeAuthSuccessEvent event) {
+    // the cached databases are only known in memory, exchange them with the node which might have (re)started
+    ChannelMessage.builder()
+      .targetNode(event.node().info().uniqueId())
+      .channel(NetworkConstants.INTERNAL_MSG_CHANNEL)
+      .message("database_register_cache")
+      .buffer(this.writeCachedDatabases())
+      .build()
+      .sendSingleQueryAsync()
+      .thenAccept(response -> {
+        if (response != null) {
+          this.registerCachedDatabases(response.content());
+        }
+      });
+
+    if (this.databaseProvider instanceof ReplicatedDatabaseProvider replicatedProvider) {
+      // sync the replicated log with the node, it might have missed entries while being disconnected
+      var nodeId = event.node().info().uniqueId();
+      Task.supply(() -> replicatedProvider.coordinator().nodeConnected(nodeId));
+    }
+  }
+
+  private void registerCachedDatabases(@NonNull DataBuf content) {
+    var amount = content.readInt();
+    for (var i = 0; i < amount; i++) {
+      this.databaseProvider.registerCachedDatabase(content.readString());
+    }
+  }
+
+  private @NonNull DataBuf writeCachedDatabases() {
+    var names = this.databaseProvider.cachedDatabaseNames();
+    var buffer = DataBuf.empty().writeInt(names.size());
+    names.forEach(buffer::writeString);
+    return buffer;
+  }
+}
@@ -77,10 +77,36 @@ public void handleChannelMessage(@NonNull ChannelMessageReceiveEvent event) {
           }
         }
 
+        // compares the summary of the cluster data with the local data, requests all entries which differ
+        case "sync_cluster_data_summary" -> {
+          var request = this.dataSyncRegistry.handleClusterDataSummary(event.content());
+          if (request != null) {
+            ChannelMessage.builder()
+              .message("sync_cluster_data_request")
+              .target(event.sender().toTarget())
+              .channel(NetworkConstants.INTERNAL_MSG_CHANNEL)
+              .buffer(request)
+              .build()
+              .send();
+          }
+        }
+
+        // sends the requested entries of the cluster data to the requesting node
+        case "sync_cluster_data_request" -> ChannelMessage.builder()
+          .message("sync_cluster_data")
+          .target(event.sender().toTarget())
+          .channel(NetworkConstants.INTERNAL_MSG_CHANNEL)
+          .buffer(this.dataSyncRegistry.prepareRequestedClusterData(event.content()))
+          .build()
+          .send();
+
         // handles the sync requests of cluster data
         case "sync_cluster_data" -> {
           // handle the sync and send back the data to override on the caller
-          var result = this.dataSyncRegistry.handle(event.content(), event.content().readBoolean());
+          var result = this.dataSyncRegistry.handle(
+            event.content(),
+            event.content().readBoolean(),
+            event.sender().name());
           if (result != null) {
             // send the response content
             ChannelMessage.builder()
@@ -94,7 +120,7 @@ public void handleChannelMessage(@NonNull ChannelMessageReceiveEvent event) {
         }
 
         // handles the response to a cluster data sync
-        case "sync_cluster_data_response" -> this.dataSyncRegistry.handle(event.content(), true);
+        case "sync_cluster_data_response" -> this.dataSyncRegistry.handle(event.content(), true, event.sender().name());
 
         // handle adding a new cluster node on other nodes
         case "register_known_node" -> {
@@ -25,7 +25,6 @@
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.file.Files;
-import java.nio.file.LinkOption;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
@@ -86,13 +85,8 @@ public boolean pull(@NonNull ServiceTemplate template, @NonNull Path directory)
   @Override
   public @Nullable InputStream zipTemplate(@NonNull ServiceTemplate template) throws IOException {
     if (this.contains(template)) {
-      // create a new temp file
-      var temp = FileUtil.createTempFile();
-      var zippedFile = ZipUtil.zipToFile(this.getTemplatePath(template), temp);
-      // open a stream to the file if possible
-      if (zippedFile != null) {
-        return Files.newInputStream(zippedFile, StandardOpenOption.DELETE_ON_CLOSE, LinkOption.NOFOLLOW_LINKS);
-      }
+      // the zip is created while the stream gets consumed
+      return ZipUtil.zipToStream(this.getTemplatePath(template));
     }
     return null;
   }
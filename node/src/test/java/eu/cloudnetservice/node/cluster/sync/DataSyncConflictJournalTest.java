@@ -0,0 +1,72 @@
+/*
+ * Copyright 2019-2023 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.node.cluster.sync;
+
+import eu.cloudnetservice.common.io.FileUtil;
+import eu.cloudnetservice.driver.network.buffer.DataBufFactory;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Function;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class DataSyncConflictJournalTest {
+
+  private static final Path JOURNAL_PATH = Path.of("build", "tmp", "sync_conflicts.json");
+  private static final DataSyncHandler<String> HANDLER = DataSyncHandler.<String>builder()
+    .key("test")
+    .convertObject(String.class)
+    .writer(data -> {
+    })
+    .currentGetter(data -> data)
+    .nameExtractor(Function.identity())
+    .dataCollector(List::of)
+    .build();
+
+  @AfterEach
+  void deleteJournal() {
+    FileUtil.delete(JOURNAL_PATH);
+  }
+
+  @Test
+  void testConflictsArePersisted() throws Exception {
+    var journal = new DataSyncConflictJournal(JOURNAL_PATH);
+    var conflict = journal.record(HANDLER, "Lobby", "Node-2");
+
+    var reloadedJournal = new DataSyncConflictJournal(JOURNAL_PATH);
+    Assertions.assertEquals(conflict, reloadedJournal.conflict(conflict.id()));
+    Assertions.assertEquals("Node-2", reloadedJournal.conflict(conflict.id()).sourceNode());
+    try (var data = DataBufFactory.defaultFactory().fromBytes(conflict.remoteDataBytes())) {
+      Assertions.assertEquals("Lobby", HANDLER.converter().parse(data));
+    }
+
+    Assertions.assertTrue(reloadedJournal.remove(conflict.id()));
+    Assertions.assertTrue(new DataSyncConflictJournal(JOURNAL_PATH).conflicts().isEmpty());
+  }
+
+  @Test
+  void testLatestConflictOfEntryIsKept() {
+    var journal = new DataSyncConflictJournal(JOURNAL_PATH);
+    journal.record(HANDLER, "Lobby", "Node-2");
+    var latest = journal.record(HANDLER, "Lobby", "Node-2");
+    journal.record(HANDLER, "Proxy", "Node-2");
+
+    Assertions.assertEquals(2, journal.conflicts().size());
+    Assertions.assertEquals(latest, journal.conflict(latest.id()));
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2019-2023 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.node.cluster.sync;
+
+import eu.cloudnetservice.common.document.gson.JsonDocument;
+import eu.cloudnetservice.node.cluster.LocalNodeServer;
+import eu.cloudnetservice.node.cluster.NodeServerProvider;
+import eu.cloudnetservice.node.config.Configuration;
+import lombok.NonNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class DataSyncConflictResolverTest {
+
+  private static DataSyncConflictResolver resolver(@NonNull JsonDocument properties, boolean head) {
+    var configuration = Mockito.mock(Configuration.class);
+    Mockito.when(configuration.properties()).thenReturn(properties);
+
+    var localNode = Mockito.mock(LocalNodeServer.class);
+    Mockito.when(localNode.head()).thenReturn(head);
+    var nodeServerProvider = Mockito.mock(NodeServerProvider.class);
+    Mockito.when(nodeServerProvider.localNode()).thenReturn(localNode);
+
+    return new DataSyncConflictResolver(configuration, () -> nodeServerProvider);
+  }
+
+  @Test
+  void testManualPolicyIsDefault() {
+    var resolver = resolver(JsonDocument.newDocument(), false);
+    Assertions.assertEquals(DataSyncConflictPolicy.MANUAL, resolver.resolve("task"));
+  }
+
+  @Test
+  void testAcceptTheirsPolicy() {
+    var resolver = resolver(JsonDocument.newDocument(DataSyncConflictResolver.DEFAULT_POLICY_PROPERTY, "accept_theirs"), false);
+    Assertions.assertEquals(DataSyncConflictPolicy.ACCEPT_THEIRS, resolver.resolve("task"));
+  }
+
+  @Test
+  void testKeepYoursPolicy() {
+    var resolver = resolver(JsonDocument.newDocument(DataSyncConflictResolver.DEFAULT_POLICY_PROPERTY, "KEEP_YOURS"), false);
+    Assertions.assertEquals(DataSyncConflictPolicy.KEEP_YOURS, resolver.resolve("task"));
+  }
+
+  @Test
+  void testHeadNodeWinsPolicy() {
+    var properties = JsonDocument.newDocument(DataSyncConflictResolver.DEFAULT_POLICY_PROPERTY, "HEAD_NODE_WINS");
+    Assertions.assertEquals(DataSyncConflictPolicy.KEEP_YOURS, resolver(properties, true).resolve("task"));
+    Assertions.assertEquals(DataSyncConflictPolicy.ACCEPT_THEIRS, resolver(properties, false).resolve("task"));
+  }
+
+  @Test
+  void testPerHandlerPolicy() {
+    var properties = JsonDocument.newDocument()
+      .append(DataSyncConflictResolver.DEFAULT_POLICY_PROPERTY, "KEEP_YOURS")
+      .append(DataSyncConflictResolver.HANDLER_POLICIES_PROPERTY, JsonDocument.newDocument()
+        .append("group_configuration", "ACCEPT_THEIRS")
+        .append("task", "unknown"));
+    var resolver = resolver(properties, false);
+
+    Assertions.assertEquals(DataSyncConflictPolicy.ACCEPT_THEIRS, resolver.resolve("group_configuration"));
+    // unknown policies fall back to the default policy
+    Assertions.assertEquals(DataSyncConflictPolicy.KEEP_YOURS, resolver.resolve("task"));
+    Assertions.assertEquals(DataSyncConflictPolicy.KEEP_YOURS, resolver.resolve("permission_user"));
+  }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2019-2023 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.cloudnetservice.node.cluster.sync;
+
+import eu.cloudnetservice.common.io.FileUtil;
+import eu.cloudnetservice.driver.network.buffer.DataBuf;
+import eu.cloudnetservice.driver.network.buffer.DataBufFactory;
+import io.leangen.geantyref.TypeFactory;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import lombok.NonNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class DefaultDataSyncRegistryTest {
+
+  private static final Path JOURNAL_PATH = Path.of("build", "tmp", "sync_registry_conflicts.json");
+
+  private final Map<String, String> localTasks = new TreeMap<>();
+  private final Map<String, String> remoteTasks = new TreeMap<>();
+
+  private DataSyncConflictJournal journal;
+  private DefaultDataSyncRegistry localRegistry;
+  private DefaultDataSyncRegistry remoteRegistry;
+
+  @BeforeEach
+  void setup() {
+    this.localTasks.clear();
+    this.remoteTasks.clear();
+
+    this.journal = new DataSyncConflictJournal(JOURNAL_PATH);
+    this.localRegistry = new DefaultDataSyncRegistry(this.journal, Mockito.mock(DataSyncConflictResolver.class));
+    this.localRegistry.registerHandler(handler(this.localTasks));
+    this.remoteRegistry = new DefaultDataSyncRegistry(
+      Mockito.mock(DataSyncConflictJournal.class),
+      Mockito.mock(DataSyncConflictResolver.class));
+    this.remoteRegistry.registerHandler(handler(this.remoteTasks));
+  }
+
+  @AfterEach
+  void deleteJournal() {
+    FileUtil.delete(JOURNAL_PATH);
+  }
+
+  // tasks are identified by the text before the colon, the text after it is the content of the task
+  private static @NonNull DataSyncHandler<String> handler(@NonNull Map<String, String> tasks) {
+    return DataSyncHandler.<String>builder()
+      .key("task")
+      .convertObject(String.class)
+      .writer(task -> tasks.put(name(task), task))
+      .currentGetter(task -> tasks.get(name(task)))
+      .nameExtractor(DefaultDataSyncRegistryTest::name)
+      .dataCollector(tasks::values)
+      .build();
+  }
+
+  private static @NonNull String name(@NonNull String task) {
+    return task.split(":")[0];
+  }
+
+  private static void putTasks(@NonNull Map<String, String> target, String @NonNull ... tasks) {
+    for (var task : tasks) {
+      target.put(name(task), task);
+    }
+  }
+
+  private DataBuf.Mutable requestMissingData(boolean force) {
+    // the local node compares the summary of the remote node with its own data
+    return this.localRegistry.handleClusterDataSummary(this.remoteRegistry.prepareClusterDataSummary(force));
+  }
+
+  private static @NonNull DataBuf copy(@NonNull DataBuf.Mutable buf) {
+    return DataBufFactory.defaultFactory().fromBytes(buf.toByteArray());
+  }
+
+  private static @NonNull Map<String, String> readClusterData(@NonNull DataBuf data, boolean expectedForce) {
+    Assertions.assertEquals(expectedForce, data.readBoolean());
+
+    Map<String, String> tasks = new TreeMap<>();
+    while (data.readableBytes() > 0) {
+      Assertions.assertEquals("task", data.readString());
+      try (var entry = data.readDataBuf()) {
+        var task = entry.readObject(String.class);
+        tasks.put(name(task), task);
+      }
+    }
+    return tasks;
+  }
+
+  @Test
+  void testEqualDataRequestsNothing() {
+    putTasks(this.localTasks, "Lobby:1", "Proxy:1");
+    putTasks(this.remoteTasks, "Proxy:1", "Lobby:1");
+
+    // the root hashes are equal, there is nothing to request
+    Assertions.assertNull(this.requestMissingData(false));
+  }
+
+  @Test
+  void testUnknownHandlerRequestsNothing() {
+    putTasks(this.remoteTasks, "Lobby:1");
+    this.localRegistry.unregisterHandler("task");
+
+    Assertions.assertNull(this.requestMissingData(false));
+  }
+
+  @Test
+  void testMissingAndDifferingEntriesAreRequested() {
+    putTasks(this.localTasks, "Lobby:1", "Proxy:1", "Build:1");
+    putTasks(this.remoteTasks, "Lobby:1", "Proxy:2", "Event:1");
+
+    var request = this.requestMissingData(true);
+    Assertions.assertNotNull(request);
+
+    // equal entries and entries which only exist locally are not requested
+    var requestContent = copy(request);
+    Assertions.assertTrue(requestContent.readBoolean());
+    Assertions.assertEquals("task", requestContent.readString());
+    Assertions.assertEquals(
+      List.of("Event", "Proxy"),
+      requestContent.readObject(TypeFactory.parameterizedClass(List.class, String.class)));
+    Assertions.assertEquals(0, requestContent.readableBytes());
+    requestContent.release();
+  }
+
+  @Test
+  void testSummaryRequestDataRoundTrip() {
+    putTasks(this.localTasks, "Lobby:1", "Proxy:1");
+    putTasks(this.remoteTasks, "Lobby:1", "Proxy:2", "Event:1");
+
+    var request = this.requestMissingData(false);
+    Assertions.assertNotNull(request);
+
+    // only the requested entries are transferred, the force flag of the summary is kept
+    var data = readClusterData(copy(this.remoteRegistry.prepareRequestedClusterData(copy(request))), false);
+    Assertions.assertEquals(Map.of("Event", "Event:1", "Proxy", "Proxy:2"), data);
+
+    // once the entries are applied the summaries of both nodes match
+    data.values().forEach(task -> this.localTasks.put(name(task), task));
+    Assertions.assertNull(this.requestMissingData(false));
+  }
+
+  @Test
+  void testResolveConflictAcceptingTheirs() {
+    putTasks(this.localTasks, "Lobby:1");
+    var conflict = this.journal.record(handler(this.localTasks), "Lobby:2", "Node-2");
+
+    // the journaled remote version is applied locally, nothing is sent to the cluster
+    Assertions.assertNull(this.localRegistry.resolveConflict(conflict, true));
+    Assertions.assertEquals("Lobby:2", this.localTasks.get("Lobby"));
+    Assertions.assertNull(this.journal.conflict(conflict.id()));
+  }
+
+  @Test
+  void testResolveConflictKeepingYours() {
+    putTasks(this.localTasks, "Lobby:1", "Proxy:1");
+    var conflict = this.journal.record(handler(this.localTasks), "Lobby:2", "Node-2");
+
+    // the local version of the entry is forced into the cluster
+    var data = this.localRegistry.resolveConflict(conflict, false);
+    Assertions.assertNotNull(data);
+    Assertions.assertEquals(Map.of("Lobby", "Lobby:1"), readClusterData(copy(data), true));
+    Assertions.assertEquals("Lobby:1", this.localTasks.get("Lobby"));
+    Assertions.assertNull(this.journal.conflict(conflict.id()));
+  }
+
+  @Test
+  void testResolveConflictOfUnknownHandler() {
+    var conflict = this.journal.record(handler(this.localTasks), "Lobby:2", "Node-2");
+    this.localRegistry.unregisterHandler("task");
+
+    Assertions.assertNull(this.localRegistry.resolveConflict(conflict, false));
+    Assertions.assertTrue(this.journal.conflicts().isEmpty());
+  }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright 2019-2023 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.node.cluster.util;
+
+import eu.cloudnetservice.common.document.gson.JsonDocument;
+import eu.cloudnetservice.common.io.FileUtil;
+import eu.cloudnetservice.driver.DriverEnvironment;
+import eu.cloudnetservice.driver.channel.ChannelMessage;
+import eu.cloudnetservice.driver.channel.ChannelMessageSender;
+import eu.cloudnetservice.driver.channel.ChannelMessageTarget;
+import eu.cloudnetservice.driver.network.HostAndPort;
+import eu.cloudnetservice.driver.network.NetworkChannel;
+import eu.cloudnetservice.driver.network.buffer.DataBuf;
+import eu.cloudnetservice.driver.network.def.NetworkConstants;
+import eu.cloudnetservice.driver.network.def.PacketServerChannelMessage;
+import eu.cloudnetservice.driver.network.protocol.Packet;
+import eu.cloudnetservice.driver.network.protocol.QueryPacketManager;
+import eu.cloudnetservice.driver.service.ProcessSnapshot;
+import eu.cloudnetservice.driver.service.ServiceConfiguration;
+import eu.cloudnetservice.driver.service.ServiceEnvironmentType;
+import eu.cloudnetservice.driver.service.ServiceInfoSnapshot;
+import eu.cloudnetservice.driver.service.ServiceLifeCycle;
+import eu.cloudnetservice.node.cluster.NodeServer;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.NonNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class QueuedNetworkChannelTest {
+
+  private static final Path SPILL_DIRECTORY = Path.of("build", "tmp", "cluster-queue");
+  private static final long MAX_MEMORY_BYTES = 256 * 1024;
+
+  private static final int OUTAGE_SECONDS = 60 * 60;
+  private static final int SERVICE_COUNT = 10;
+  private static final int MESSAGES_PER_SECOND = 2;
+
+  @AfterEach
+  void deleteSpillDirectory() {
+    FileUtil.delete(SPILL_DIRECTORY);
+  }
+
+  @Test
+  void testHourLongOutageIsMemoryBound() throws IOException {
+    var queue = new QueuedNetworkChannel(Mockito.mock(NetworkChannel.class), SPILL_DIRECTORY, MAX_MEMORY_BYTES, 1_000_000);
+    var configurations = new ArrayList<ServiceConfiguration>();
+    for (var i = 0; i < SERVICE_COUNT; i++) {
+      configurations.add(ServiceConfiguration.builder()
+        .taskName("Lobby")
+        .environment(ServiceEnvironmentType.MINECRAFT_SERVER)
+        .maxHeapMemory(512)
+        .startPort(44955)
+        .build());
+    }
+
+    var maxCoalescedBytes = 0L;
+    var maxMemoryBytes = 0L;
+    var payload = new byte[1024];
+    for (var second = 0; second < OUTAGE_SECONDS; second++) {
+      // every service and the node publish a new snapshot each second
+      for (var configuration : configurations) {
+        var packet = channelMessage("update_service_info", DataBuf.empty().writeObject(snapshot(configuration, second)));
+        maxCoalescedBytes = Math.max(maxCoalescedBytes, packet.content().readableBytes());
+        queue.sendPacket(packet);
+      }
+      queue.sendPacket(channelMessage("update_node_info_snapshot", DataBuf.empty().writeInt(second)));
+
+      // other messages which can not be coalesced
+      for (var i = 0; i < MESSAGES_PER_SECOND; i++) {
+        queue.sendPacket(channelMessage("other", DataBuf.empty().writeInt(second).writeInt(i).writeByteArray(payload)));
+      }
+
+      maxMemoryBytes = Math.max(maxMemoryBytes, queue.memoryBytes());
+    }
+
+    // the only packets which exceed the memory limit are the latest snapshots of the node and each service
+    Assertions.assertTrue(maxMemoryBytes <= MAX_MEMORY_BYTES + (SERVICE_COUNT + 1) * maxCoalescedBytes);
+    Assertions.assertTrue(queue.spilledPackets() > 0);
+    Assertions.assertEquals(SERVICE_COUNT + 1 + OUTAGE_SECONDS * MESSAGES_PER_SECOND, queue.queuedPackets());
+
+    var received = new ArrayList<Packet>();
+    var target = target(received);
+    queue.drainPacketQueue(target);
+
+    Assertions.assertEquals(SERVICE_COUNT + 1 + OUTAGE_SECONDS * MESSAGES_PER_SECOND, received.size());
+    Assertions.assertEquals(0, queue.memoryBytes());
+    Assertions.assertEquals(0, queue.queuedPackets());
+    try (var files = Files.list(SPILL_DIRECTORY)) {
+      Assertions.assertEquals(0, files.count());
+    }
+
+    var lastOtherMessage = -1;
+    var serviceSnapshots = new HashMap<UUID, ServiceInfoSnapshot>();
+    for (var packet : received) {
+      Assertions.assertFalse(packet.content().readBoolean());
+      var message = packet.content().readObject(ChannelMessage.class);
+      switch (message.message()) {
+        case "update_service_info" -> {
+          var snapshot = message.content().readObject(ServiceInfoSnapshot.class);
+          serviceSnapshots.put(snapshot.serviceId().uniqueId(), snapshot);
+        }
+        case "update_node_info_snapshot" -> Assertions.assertEquals(OUTAGE_SECONDS - 1, message.content().readInt());
+        default -> {
+          // the order of the other messages must be retained
+          var position = message.content().readInt() * MESSAGES_PER_SECOND + message.content().readInt();
+          Assertions.assertEquals(lastOtherMessage + 1, position);
+          lastOtherMessage = position;
+        }
+      }
+    }
+
+    Assertions.assertEquals(SERVICE_COUNT, serviceSnapshots.size());
+    for (var snapshot : serviceSnapshots.values()) {
+      Assertions.assertEquals(OUTAGE_SECONDS - 1, snapshot.creationTime());
+    }
+
+    // packets sent after the drain are passed through to the target channel
+    queue.sendPacket(channelMessage("other", DataBuf.empty()));
+    Assertions.assertEquals(SERVICE_COUNT + 2 + OUTAGE_SECONDS * MESSAGES_PER_SECOND, received.size());
+  }
+
+  @Test
+  void testDrainIsRateLimited() {
+    var queue = new QueuedNetworkChannel(Mockito.mock(NetworkChannel.class), SPILL_DIRECTORY, MAX_MEMORY_BYTES, 1_000);
+    for (var i = 0; i < 200; i++) {
+      queue.sendPacket(channelMessage("other", DataBuf.empty().writeInt(i)));
+    }
+
+    var received = new ArrayList<Packet>();
+    var drainStart = System.nanoTime();
+    queue.drainPacketQueue(target(received));
+
+    Assertions.assertEquals(200, received.size());
+    Assertions.assertTrue(System.nanoTime() - drainStart >= 150_000_000L);
+  }
+
+  @Test
+  void testAsyncDrainKeepsOrder() {
+    var queue = new QueuedNetworkChannel(Mockito.mock(NetworkChannel.class), SPILL_DIRECTORY, MAX_MEMORY_BYTES, 1_000);
+    for (var i = 0; i < 100; i++) {
+      queue.sendPacket(channelMessage("other", DataBuf.empty().writeInt(i)));
+    }
+
+    var server = Mockito.mock(NodeServer.class);
+    var serverChannel = new AtomicReference<NetworkChannel>(queue);
+    Mockito.when(server.channel()).thenAnswer(invocation -> serverChannel.get());
+    Mockito.doAnswer(invocation -> {
+      serverChannel.set(invocation.getArgument(0));
+      return null;
+    }).when(server).channel(Mockito.any());
+
+    var received = new ArrayList<Packet>();
+    var target = target(received);
+    var queryPacketManager = Mockito.mock(QueryPacketManager.class);
+    Mockito.when(target.queryPacketManager()).thenReturn(queryPacketManager);
+    var drain = queue.drainPacketQueueAsync(server, target);
+
+    // packets sent while draining are queued behind the pending packets, queries go to the reconnected node
+    for (var i = 100; i < 120; i++) {
+      queue.sendPacket(channelMessage("other", DataBuf.empty().writeInt(i)));
+    }
+    Assertions.assertTrue(queue.active());
+    Assertions.assertSame(queryPacketManager, queue.queryPacketManager());
+
+    drain.join();
+    Assertions.assertSame(target, serverChannel.get());
+    Assertions.assertEquals(120, received.size());
+    for (var i = 0; i < received.size(); i++) {
+      var packet = received.get(i);
+      Assertions.assertFalse(packet.content().readBoolean());
+      Assertions.assertEquals(i, packet.content().readObject(ChannelMessage.class).content().readInt());
+    }
+  }
+
+  private static @NonNull NetworkChannel target(@NonNull List<Packet> received) {
+    var target = Mockito.mock(NetworkChannel.class);
+    Mockito.when(target.writeable()).thenReturn(true);
+    Mockito.when(target.active()).thenReturn(true);
+    Mockito.doAnswer(invocation -> received.add(invocation.getArgument(0))).when(target).sendPacket(Mockito.any(Packet.class));
+    Mockito.doAnswer(invocation -> received.add(invocation.getArgument(0))).when(target).sendPacketSync(Mockito.any(Packet.class));
+    return target;
+  }
+
+  private static @NonNull Packet channelMessage(@NonNull String message, @NonNull DataBuf content) {
+    return new PacketServerChannelMessage(new ChannelMessage(
+      false,
+      false,
+      NetworkConstants.INTERNAL_MSG_CHANNEL,
+      message,
+      content,
+      new ChannelMessageSender("Node-1", DriverEnvironment.NODE),
+      Set.of(ChannelMessageTarget.of(ChannelMessageTarget.Type.NODE, "Node-2"))), false);
+  }
+
+  private static @NonNull ServiceInfoSnapshot snapshot(@NonNull ServiceConfiguration configuration, long creationTime) {
+    return new ServiceInfoSnapshot(
+      creationTime,
+      new HostAndPort("127.0.0.1", 44955),
+      ProcessSnapshot.empty(),
+      configuration,
+      -1,
+      ServiceLifeCycle.RUNNING,
+      JsonDocument.newDocument());
+  }
+}
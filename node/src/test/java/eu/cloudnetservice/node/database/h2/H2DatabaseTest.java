@@ -20,9 +20,12 @@
 import eu.cloudnetservice.common.io.FileUtil;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -125,6 +128,176 @@ void testBasicDatabaseOperations() {
     Assertions.assertFalse(database.delete("1234"));
   }
 
+  @Test
+  void testUpsertAndBatchInsert() {
+    var database = (H2Database) this.databaseProvider.database("test");
+    Assertions.assertNotNull(database);
+
+    Assertions.assertTrue(database.insert("1234", JsonDocument.newDocument("hello", "world")));
+    Assertions.assertTrue(database.insert("1234", JsonDocument.newDocument("hello", "world2")));
+    Assertions.assertEquals(1, database.documentCount());
+    Assertions.assertEquals("world2", database.get("1234").getString("hello"));
+
+    Map<String, JsonDocument> documents = new HashMap<>();
+    for (var i = 0; i < 500; i++) {
+      documents.put(Integer.toString(i), JsonDocument.newDocument("index", i));
+    }
+
+    Assertions.assertTrue(database.insertAll(documents));
+    Assertions.assertEquals(501, database.documentCount());
+    Assertions.assertEquals(499, database.get("499").getInt("index"));
+    Assertions.assertEquals("world2", database.get("1234").getString("hello"));
+  }
+
+  @Test
+  void testFindExactMatches() {
+    var database = this.databaseProvider.database("test");
+    Assertions.assertNotNull(database);
+
+    Assertions.assertTrue(database.insert("1", JsonDocument.newDocument("name", "derklaro").append("rank", "admin")));
+    Assertions.assertTrue(database.insert("2", JsonDocument.newDocument("name", "derklaro_").append("rank", "admin")));
+    var nested = JsonDocument.newDocument("name", "derklaro");
+    Assertions.assertTrue(database.insert("3", JsonDocument.newDocument("nested", nested)));
+    Assertions.assertTrue(database.insert("4", JsonDocument.newDocument("name", "der%").append("rank", "user")));
+    Assertions.assertTrue(database.insert("5", JsonDocument.newDocument("name", "say \"hi\"")));
+
+    // the value of nested objects and prefixes must not match
+    var result = database.find("name", "derklaro");
+    Assertions.assertEquals(1, result.size());
+    Assertions.assertEquals("admin", result.iterator().next().getString("rank"));
+
+    Assertions.assertEquals(1, database.find("name", "der%").size());
+    Assertions.assertEquals(1, database.find("name", "say \"hi\"").size());
+    Assertions.assertEquals(0, database.find("name", "der_klaro").size());
+    Assertions.assertEquals(2, database.find(Map.of("rank", "admin")).size());
+    Assertions.assertEquals(1, database.find(Map.of("rank", "admin", "name", "derklaro_")).size());
+
+    // field names are case-sensitive and may contain any character
+    Assertions.assertTrue(database.insert("6", JsonDocument.newDocument("Name", "derklaro")));
+    Assertions.assertTrue(database.insert("7", JsonDocument.newDocument("display name", "derklaro")));
+    Assertions.assertEquals(1, database.find("Name", "derklaro").size());
+    Assertions.assertEquals(1, database.find("display name", "derklaro").size());
+
+    // fields which are not indexed are still matched exactly, no document has the given field
+    Assertions.assertEquals(7, database.find("a".repeat(100), null).size());
+    Assertions.assertEquals(0, database.find("a".repeat(100), "derklaro").size());
+
+    // updated documents must be found by their new value
+    Assertions.assertTrue(database.insert("1", JsonDocument.newDocument("name", "0utParrot")));
+    Assertions.assertEquals(0, database.find("name", "derklaro").size());
+    Assertions.assertEquals(1, database.find("name", "0utParrot").size());
+
+    // values are compared as strings, regardless of the json type they are stored as
+    Assertions.assertTrue(database.insert("8", JsonDocument.newDocument("coins", 5).append("vip", true)));
+    Assertions.assertEquals(1, database.find(Map.of("coins", "5", "vip", "true")).size());
+    Assertions.assertEquals(0, database.find("coins", "50").size());
+    Assertions.assertTrue(database.insert("9", JsonDocument.newDocument("name", "a<b>")));
+    Assertions.assertEquals(1, database.find("name", "a<b>").size());
+  }
+
+  @Test
+  void testIndexedFieldLookup() {
+    var database = this.databaseProvider.database("test");
+    Assertions.assertTrue(database.insert("1", JsonDocument.newDocument("name", "derklaro").append("rank", "admin")));
+    Assertions.assertTrue(database.insert("2", JsonDocument.newDocument("name", "0utplay").append("rank", "admin")));
+
+    // looking up fields must not change the schema, only requested fields are indexed
+    Assertions.assertEquals(2, database.find("rank", "admin").size());
+    Assertions.assertEquals(1, database.find("name", "derklaro").size());
+    Assertions.assertEquals(List.of(), this.indexColumns("test"));
+
+    Assertions.assertTrue(database.indexField("name"));
+    Assertions.assertEquals(1, this.indexColumns("test").size());
+    Assertions.assertEquals(1, database.find("name", "derklaro").size());
+    Assertions.assertEquals(1, database.find(Map.of("name", "0utplay", "rank", "admin")).size());
+
+    // updated documents must be found by their new value
+    Assertions.assertTrue(database.insert("1", JsonDocument.newDocument("name", "0utParrot")));
+    Assertions.assertEquals(0, database.find("name", "derklaro").size());
+    Assertions.assertEquals(1, database.find("name", "0utParrot").size());
+
+    // the indexed fields are known to new instances of the database
+    var reopened = new H2Database(this.databaseProvider, "test");
+    Assertions.assertEquals(1, reopened.find("name", "0utplay").size());
+    Assertions.assertTrue(reopened.indexField("name"));
+    Assertions.assertEquals(1, this.indexColumns("test").size());
+  }
+
+  private List<String> indexColumns(String table) {
+    return this.databaseProvider.executeQuery(
+      "SELECT COLUMN_NAME FROM INFORMATION_SCHEMA.COLUMNS WHERE UPPER(TABLE_NAME) = UPPER(?);",
+      resultSet -> {
+        List<String> columns = new ArrayList<>();
+        while (resultSet.next()) {
+          if (resultSet.getString(1).toUpperCase().startsWith("IDX_")) {
+            columns.add(resultSet.getString(1));
+          }
+        }
+        return columns;
+      },
+      List.of(),
+      table);
+  }
+
+  @Test
+  void testConcurrentWriters() throws Exception {
+    var database = this.databaseProvider.database("test");
+    Assertions.assertNotNull(database);
+
+    var executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (var writer = 0; writer < 8; writer++) {
+        var writerId = writer;
+        futures.add(executor.submit(() -> {
+          for (var i = 0; i < 100; i++) {
+            // every writer updates the shared keys as well as its own keys
+            Assertions.assertTrue(database.insert("shared-" + i, JsonDocument.newDocument("writer", writerId)));
+            Assertions.assertTrue(database.insert(writerId + "-" + i, JsonDocument.newDocument("writer", writerId)));
+          }
+        }));
+      }
+
+      for (var future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    Assertions.assertEquals(900, database.documentCount());
+  }
+
+  @Test
+  void testBatchOperations() {
+    var database = this.databaseProvider.database("test");
+    Assertions.assertNotNull(database);
+
+    Map<String, JsonDocument> documents = new HashMap<>();
+    for (var i = 0; i < 1500; i++) {
+      documents.put(UUID.randomUUID().toString(), JsonDocument.newDocument("index", i));
+    }
+
+    Assertions.assertTrue(database.insertAll(documents));
+    Assertions.assertEquals(1500, database.documentCount());
+    Assertions.assertTrue(database.containsAll(documents.keySet()));
+    Assertions.assertFalse(database.containsAll(List.of(documents.keySet().iterator().next(), "unknown")));
+
+    var readDocuments = database.getAll(List.of(documents.keySet().iterator().next(), "unknown"));
+    Assertions.assertEquals(1, readDocuments.size());
+    Assertions.assertEquals(documents.keySet().iterator().next(), readDocuments.keySet().iterator().next());
+
+    var allDocuments = database.getAll(documents.keySet());
+    Assertions.assertEquals(1500, allDocuments.size());
+    documents.forEach((key, document) -> Assertions.assertEquals(
+      document.getInt("index"),
+      allDocuments.get(key).getInt("index")));
+
+    Assertions.assertEquals(1500, database.deleteAll(documents.keySet()));
+    Assertions.assertEquals(0, database.deleteAll(documents.keySet()));
+    Assertions.assertEquals(0, database.documentCount());
+  }
+
   @Test
   void testChunkedDataRead() {
     var database = this.databaseProvider.database("test");
@@ -159,4 +332,37 @@ void testChunkedDataRead() {
     Assertions.assertEquals(expectedReadCounts, readsCalled);
     Assertions.assertTrue(keys.isEmpty());
   }
+
+  @Test
+  void testChunkedIteration() {
+    var database = this.databaseProvider.database("test");
+    Assertions.assertNotNull(database);
+
+    Map<String, JsonDocument> documents = new HashMap<>();
+    for (var i = 0; i < 1235; i++) {
+      documents.put(UUID.randomUUID().toString(), JsonDocument.newDocument("index", i));
+    }
+    Assertions.assertTrue(database.insertAll(documents));
+
+    var firstChunk = database.readChunkAfter(null, 50);
+    Assertions.assertEquals(50, firstChunk.size());
+    Assertions.assertNotNull(firstChunk.lastKey());
+
+    // the entries are ordered by their key, the last key is the key of the last entry
+    var firstKeys = List.copyOf(firstChunk.entries().keySet());
+    Assertions.assertEquals(firstKeys.stream().sorted().toList(), firstKeys);
+    Assertions.assertEquals(firstChunk.lastKey(), firstKeys.get(firstKeys.size() - 1));
+
+    var secondChunk = database.readChunkAfter(firstChunk.lastKey(), 50);
+    Assertions.assertEquals(50, secondChunk.size());
+    Assertions.assertTrue(secondChunk.entries().keySet().stream().noneMatch(firstChunk.entries()::containsKey));
+
+    Map<String, JsonDocument> iteratedEntries = new HashMap<>();
+    database.iterate((key, document) -> Assertions.assertNull(iteratedEntries.put(key, document)), 50);
+    Assertions.assertEquals(documents.keySet(), iteratedEntries.keySet());
+
+    database.clear();
+    Assertions.assertEquals(0, database.readChunkAfter(null, 50).size());
+    Assertions.assertNull(database.readChunkAfter(null, 50).lastKey());
+  }
 }
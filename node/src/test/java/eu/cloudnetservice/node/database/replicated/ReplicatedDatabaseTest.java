@@ -0,0 +1,330 @@
+/*
+ * Copyright 2019-2023 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.node.database.replicated;
+
+import eu.cloudnetservice.common.concurrent.Task;
+import eu.cloudnetservice.common.document.gson.JsonDocument;
+import eu.cloudnetservice.common.io.FileUtil;
+import eu.cloudnetservice.driver.network.buffer.DataBuf;
+import eu.cloudnetservice.driver.network.buffer.DataBufFactory;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.NonNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ReplicatedDatabaseTest {
+
+  private static final Path BASE_DIRECTORY = Path.of("build", "tmp", "replicated").toAbsolutePath();
+  private static final List<String> NODES = List.of("Node-1", "Node-2", "Node-3");
+
+  private InMemoryCluster cluster;
+
+  @BeforeEach
+  void setup() {
+    this.cluster = new InMemoryCluster();
+    for (var node : NODES) {
+      this.cluster.start(node);
+    }
+  }
+
+  @AfterEach
+  void closeCluster() throws Exception {
+    for (var provider : this.cluster.nodes.values()) {
+      provider.close();
+    }
+    FileUtil.delete(BASE_DIRECTORY);
+  }
+
+  @Test
+  void testWritesReplicateToAllNodes() {
+    var database = this.cluster.database("Node-1", "players");
+    Assertions.assertTrue(database.insert("derklaro", JsonDocument.newDocument("coins", 5)));
+    Assertions.assertTrue(database.insert("0utplay", JsonDocument.newDocument("coins", 10)));
+    Assertions.assertTrue(database.delete("0utplay"));
+
+    for (var node : NODES) {
+      var replica = this.cluster.database(node, "players");
+      Assertions.assertTrue(replica.synced());
+      Assertions.assertEquals(1, replica.documentCount());
+      Assertions.assertEquals(5, replica.get("derklaro").getInt("coins"));
+    }
+  }
+
+  @Test
+  void testFollowerWritesAreForwardedToLeader() {
+    var database = this.cluster.database("Node-2", "players");
+    Assertions.assertTrue(database.insertAll(Map.of(
+      "derklaro", JsonDocument.newDocument("coins", 5),
+      "0utplay", JsonDocument.newDocument("coins", 10))));
+
+    // the write is visible on the follower right after it was acknowledged
+    Assertions.assertEquals(2, database.documentCount());
+    Assertions.assertEquals(2, this.cluster.database("Node-1", "players").documentCount());
+    Assertions.assertEquals(2, this.cluster.database("Node-3", "players").documentCount());
+    Assertions.assertEquals(2, this.cluster.database("Node-3", "players").deleteAll(Set.of("derklaro", "0utplay")));
+    Assertions.assertEquals(0, this.cluster.database("Node-2", "players").documentCount());
+  }
+
+  @Test
+  void testPartitionedFollowerCatchesUp() {
+    var database = this.cluster.database("Node-1", "players");
+    database.insert("derklaro", JsonDocument.newDocument("coins", 5));
+
+    this.cluster.partitioned.add("Node-3");
+    database.insert("0utplay", JsonDocument.newDocument("coins", 10));
+    database.delete("derklaro");
+    Assertions.assertEquals(1, this.cluster.database("Node-3", "players").documentCount());
+    Assertions.assertTrue(this.cluster.database("Node-3", "players").contains("derklaro"));
+
+    // the follower detects the gap in the log with the next append
+    this.cluster.partitioned.remove("Node-3");
+    database.insert("juliarn", JsonDocument.newDocument("coins", 15));
+    var replica = this.cluster.database("Node-3", "players");
+    Assertions.assertEquals(2, replica.documentCount());
+    Assertions.assertFalse(replica.contains("derklaro"));
+    Assertions.assertTrue(replica.contains("0utplay"));
+  }
+
+  @Test
+  void testReconnectedNodeCatchesUp() {
+    this.cluster.partitioned.add("Node-2");
+    this.cluster.database("Node-1", "players").insert("derklaro", JsonDocument.newDocument("coins", 5));
+
+    this.cluster.partitioned.remove("Node-2");
+    this.cluster.nodes.get("Node-1").coordinator().nodeConnected("Node-2");
+    Assertions.assertTrue(this.cluster.database("Node-2", "players").contains("derklaro"));
+  }
+
+  @Test
+  void testLeaderLoss() {
+    this.cluster.database("Node-1", "players").insert("derklaro", JsonDocument.newDocument("coins", 5));
+
+    // only one follower received the last write before the leader went down
+    this.cluster.partitioned.add("Node-3");
+    this.cluster.database("Node-1", "players").insert("0utplay", JsonDocument.newDocument("coins", 10));
+    this.cluster.partitioned.remove("Node-3");
+    this.cluster.partitioned.add("Node-1");
+
+    // the new leader pulls the missing entries from the most up-to-date node before accepting writes
+    this.cluster.leader = "Node-3";
+    this.cluster.database("Node-3", "players").insert("juliarn", JsonDocument.newDocument("coins", 15));
+    for (var node : List.of("Node-2", "Node-3")) {
+      var replica = this.cluster.database(node, "players");
+      Assertions.assertEquals(3, replica.documentCount());
+    }
+    // the term of the new leader is tagged with the position of the node in the sorted node list
+    Assertions.assertEquals(2, this.cluster.nodes.get("Node-3").lastTerm() & 0xFFFF);
+
+    // the old leader rejoins and replaces its log with the log of the new leader
+    this.cluster.partitioned.remove("Node-1");
+    this.cluster.database("Node-2", "players").insert("dytanic", JsonDocument.newDocument("coins", 20));
+    Assertions.assertEquals(4, this.cluster.database("Node-1", "players").documentCount());
+  }
+
+  @Test
+  void testMinorityRefusesWrites() {
+    // the isolated node is in the minority and must not accept writes, even if it considers itself the leader
+    this.cluster.partitioned.add("Node-2");
+    this.cluster.database("Node-1", "players").insert("derklaro", JsonDocument.newDocument("coins", 5));
+    this.cluster.leader = "Node-2";
+    Assertions.assertFalse(this.cluster.database("Node-2", "players").synced());
+    Assertions.assertThrows(
+      IllegalStateException.class,
+      () -> this.cluster.database("Node-2", "players").insert("0utplay", JsonDocument.newDocument("coins", 10)));
+    Assertions.assertFalse(this.cluster.database("Node-2", "players").contains("0utplay"));
+
+    this.cluster.partitioned.remove("Node-2");
+    this.cluster.leader = "Node-1";
+    this.cluster.nodes.get("Node-1").coordinator().nodeConnected("Node-2");
+
+    var replica = this.cluster.database("Node-2", "players");
+    Assertions.assertTrue(replica.synced());
+    Assertions.assertEquals(1, replica.documentCount());
+    Assertions.assertTrue(replica.contains("derklaro"));
+  }
+
+  @Test
+  void testDivergedLogIsReplacedBySnapshot() {
+    this.cluster.database("Node-1", "players").insert("derklaro", JsonDocument.newDocument("coins", 5));
+
+    // the write is stored by the leader only and therefore not acknowledged
+    this.cluster.droppedMessages.add(ReplicationCoordinator.APPEND_MESSAGE);
+    Assertions.assertThrows(
+      IllegalStateException.class,
+      () -> this.cluster.database("Node-1", "tasks").insert("Lobby", JsonDocument.newDocument("memory", 512)));
+    this.cluster.droppedMessages.clear();
+    // the write was never committed and therefore not applied
+    Assertions.assertFalse(this.cluster.database("Node-1", "tasks").contains("Lobby"));
+
+    // the majority elects a new leader which accepts writes
+    this.cluster.partitioned.add("Node-1");
+    this.cluster.leader = "Node-2";
+    this.cluster.database("Node-2", "players").insert("0utplay", JsonDocument.newDocument("coins", 10));
+
+    // the old leader rejoins and replaces its log with the log of the new leader
+    this.cluster.partitioned.remove("Node-1");
+    this.cluster.database("Node-3", "players").insert("juliarn", JsonDocument.newDocument("coins", 15));
+
+    var replica = this.cluster.database("Node-1", "players");
+    Assertions.assertEquals(3, replica.documentCount());
+    Assertions.assertTrue(replica.contains("0utplay"));
+    Assertions.assertEquals(0, this.cluster.database("Node-1", "tasks").documentCount());
+    Assertions.assertEquals(
+      this.cluster.nodes.get("Node-2").lastIndex(),
+      this.cluster.nodes.get("Node-1").lastIndex());
+  }
+
+  @Test
+  void testSnapshotInstallKeepsServingPreviousState() {
+    this.cluster.database("Node-1", "players").insert("derklaro", JsonDocument.newDocument("coins", 5));
+
+    // let the log of the leader diverge from the log of the other nodes
+    this.cluster.droppedMessages.add(ReplicationCoordinator.APPEND_MESSAGE);
+    Assertions.assertThrows(
+      IllegalStateException.class,
+      () -> this.cluster.database("Node-1", "players").insert("0utplay", JsonDocument.newDocument("coins", 10)));
+    this.cluster.droppedMessages.clear();
+
+    this.cluster.partitioned.add("Node-1");
+    this.cluster.leader = "Node-2";
+    this.cluster.database("Node-2", "players").insert("juliarn", JsonDocument.newDocument("coins", 15));
+    this.cluster.partitioned.remove("Node-1");
+
+    // reads on the installing node are served from the previous state until the transfer completes
+    List<Long> countsDuringTransfer = new ArrayList<>();
+    this.cluster.snapshotPageListener = () -> countsDuringTransfer.add(
+      this.cluster.database("Node-1", "players").documentCount());
+    this.cluster.database("Node-3", "players").insert("dytanic", JsonDocument.newDocument("coins", 20));
+
+    Assertions.assertFalse(countsDuringTransfer.isEmpty());
+    Assertions.assertTrue(countsDuringTransfer.stream().allMatch(count -> count == 1));
+    Assertions.assertEquals(3, this.cluster.database("Node-1", "players").documentCount());
+    Assertions.assertFalse(this.cluster.nodes.get("Node-1").databaseNames().stream()
+      .anyMatch(name -> name.startsWith("cloudnet_replication_")));
+  }
+
+  @Test
+  void testClearAndDatabaseDeletionReplicate() {
+    var database = this.cluster.database("Node-2", "players");
+    database.insert("derklaro", JsonDocument.newDocument("coins", 5));
+    database.clear();
+    Assertions.assertEquals(0, this.cluster.database("Node-3", "players").documentCount());
+
+    Assertions.assertTrue(this.cluster.nodes.get("Node-3").deleteDatabase("players"));
+    for (var node : NODES) {
+      Assertions.assertFalse(this.cluster.nodes.get(node).containsDatabase("players"));
+    }
+  }
+
+  @Test
+  void testLogSurvivesRestart() throws Exception {
+    this.cluster.database("Node-1", "players").insert("derklaro", JsonDocument.newDocument("coins", 5));
+    var lastIndex = this.cluster.nodes.get("Node-2").lastIndex();
+
+    this.cluster.nodes.remove("Node-2").close();
+    this.cluster.start("Node-2");
+    Assertions.assertEquals(lastIndex, this.cluster.nodes.get("Node-2").lastIndex());
+    Assertions.assertTrue(this.cluster.database("Node-2", "players").contains("derklaro"));
+    Assertions.assertFalse(this.cluster.nodes.get("Node-2").databaseNames().contains("cloudnet_replication_log"));
+  }
+
+  private static final class InMemoryCluster {
+
+    private final Map<String, ReplicatedDatabaseProvider> nodes = new LinkedHashMap<>();
+    private final Set<String> partitioned = new HashSet<>();
+    private final Set<String> droppedMessages = new HashSet<>();
+    private String leader = "Node-1";
+    private Runnable snapshotPageListener = () -> {
+    };
+
+    private void start(@NonNull String nodeId) {
+      var directory = BASE_DIRECTORY.resolve(nodeId).toFile();
+      // run the replication tasks directly, the in-memory transport delivers all messages synchronously
+      var provider = new ReplicatedDatabaseProvider(directory, new InMemoryTransport(this, nodeId), Runnable::run);
+      provider.init();
+      this.nodes.put(nodeId, provider);
+    }
+
+    private @NonNull ReplicatedDatabase database(@NonNull String nodeId, @NonNull String name) {
+      return (ReplicatedDatabase) this.nodes.get(nodeId).database(name);
+    }
+
+    private boolean reachable(@NonNull String from, @NonNull String to) {
+      return this.nodes.containsKey(to) && !this.partitioned.contains(from) && !this.partitioned.contains(to);
+    }
+  }
+
+  private record InMemoryTransport(@NonNull InMemoryCluster cluster, @NonNull String localNodeId)
+    implements ReplicationTransport {
+
+    @Override
+    public @NonNull String leaderNodeId() {
+      return this.cluster.leader;
+    }
+
+    @Override
+    public @NonNull Collection<String> peerNodeIds() {
+      return this.cluster.nodes.keySet().stream()
+        .filter(node -> !node.equals(this.localNodeId) && this.cluster.reachable(this.localNodeId, node))
+        .toList();
+    }
+
+    @Override
+    public @NonNull Collection<String> nodeIds() {
+      return NODES;
+    }
+
+    @Override
+    public void send(@NonNull String nodeId, @NonNull String message, @NonNull DataBuf.Mutable content) {
+      var response = this.request(nodeId, message, content).getOrNull();
+      if (response != null) {
+        response.release();
+      }
+    }
+
+    @Override
+    public @NonNull Task<DataBuf> request(
+      @NonNull String nodeId,
+      @NonNull String message,
+      @NonNull DataBuf.Mutable content
+    ) {
+      var bytes = content.toByteArray();
+      content.release();
+      if (!this.cluster.reachable(this.localNodeId, nodeId) || this.cluster.droppedMessages.contains(message)) {
+        return Task.completedTask(null);
+      }
+
+      if (message.equals(ReplicationCoordinator.SNAPSHOT_MESSAGE)) {
+        this.cluster.snapshotPageListener.run();
+      }
+
+      // messages are handled synchronously, like a network channel with zero latency
+      var input = DataBufFactory.defaultFactory().fromBytes(bytes);
+      var response = this.cluster.nodes.get(nodeId).coordinator().handle(this.localNodeId, message, input);
+      return response == null ? Task.completedTask(null) : Task.wrapFuture(response.thenApply(buf -> buf));
+    }
+  }
+}
@@ -20,6 +20,7 @@
 import eu.cloudnetservice.common.io.FileUtil;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -131,6 +132,36 @@ void testBasicDatabaseOperations() {
     Assertions.assertFalse(database.delete("1234"));
   }
 
+  @Test
+  void testBatchOperations() {
+    var database = this.databaseProvider.database("test");
+    Assertions.assertNotNull(database);
+
+    Map<String, JsonDocument> documents = new HashMap<>();
+    for (var i = 0; i < 1500; i++) {
+      documents.put(UUID.randomUUID().toString(), JsonDocument.newDocument("index", i));
+    }
+
+    Assertions.assertTrue(database.insertAll(documents));
+    Assertions.assertEquals(1500, database.documentCount());
+    Assertions.assertTrue(database.containsAll(documents.keySet()));
+    Assertions.assertFalse(database.containsAll(List.of(documents.keySet().iterator().next(), "unknown")));
+
+    var readDocuments = database.getAll(List.of(documents.keySet().iterator().next(), "unknown"));
+    Assertions.assertEquals(1, readDocuments.size());
+    Assertions.assertEquals(documents.keySet().iterator().next(), readDocuments.keySet().iterator().next());
+
+    var allDocuments = database.getAll(documents.keySet());
+    Assertions.assertEquals(1500, allDocuments.size());
+    documents.forEach((key, document) -> Assertions.assertEquals(
+      document.getInt("index"),
+      allDocuments.get(key).getInt("index")));
+
+    Assertions.assertEquals(1500, database.deleteAll(documents.keySet()));
+    Assertions.assertEquals(0, database.deleteAll(documents.keySet()));
+    Assertions.assertEquals(0, database.documentCount());
+  }
+
   @Test
   void testChunkedDataRead() {
     var database = this.databaseProvider.database("test");
@@ -165,4 +196,37 @@ void testChunkedDataRead() {
     Assertions.assertEquals(expectedReadCounts, readsCalled);
     Assertions.assertTrue(keys.isEmpty());
   }
+
+  @Test
+  void testChunkedIteration() {
+    var database = this.databaseProvider.database("test");
+    Assertions.assertNotNull(database);
+
+    Map<String, JsonDocument> documents = new HashMap<>();
+    for (var i = 0; i < 1235; i++) {
+      documents.put(UUID.randomUUID().toString(), JsonDocument.newDocument("index", i));
+    }
+    Assertions.assertTrue(database.insertAll(documents));
+
+    var firstChunk = database.readChunkAfter(null, 50);
+    Assertions.assertEquals(50, firstChunk.size());
+    Assertions.assertNotNull(firstChunk.lastKey());
+
+    // the entries are ordered by their key, the last key is the key of the last entry
+    var firstKeys = List.copyOf(firstChunk.entries().keySet());
+    Assertions.assertEquals(firstKeys.stream().sorted().toList(), firstKeys);
+    Assertions.assertEquals(firstChunk.lastKey(), firstKeys.get(firstKeys.size() - 1));
+
+    var secondChunk = database.readChunkAfter(firstChunk.lastKey(), 50);
+    Assertions.assertEquals(50, secondChunk.size());
+    Assertions.assertTrue(secondChunk.entries().keySet().stream().noneMatch(firstChunk.entries()::containsKey));
+
+    Map<String, JsonDocument> iteratedEntries = new HashMap<>();
+    database.iterate((key, document) -> Assertions.assertNull(iteratedEntries.put(key, document)), 50);
+    Assertions.assertEquals(documents.keySet(), iteratedEntries.keySet());
+
+    database.clear();
+    Assertions.assertEquals(0, database.readChunkAfter(null, 50).size());
+    Assertions.assertNull(database.readChunkAfter(null, 50).lastKey());
+  }
 }
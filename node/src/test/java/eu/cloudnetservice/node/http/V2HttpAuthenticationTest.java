@@ -0,0 +1,175 @@
+/*
+ * Copyright 2019-2023 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package eu.cloudnetservice.node.http;
+
+import eu.cloudnetservice.common.io.FileUtil;
+import eu.cloudnetservice.driver.ComponentInfo;
+import eu.cloudnetservice.driver.DriverEnvironment;
+import eu.cloudnetservice.driver.event.EventManager;
+import eu.cloudnetservice.driver.event.events.permission.PermissionSetGroupsEvent;
+import eu.cloudnetservice.driver.event.events.permission.PermissionUpdateUserEvent;
+import eu.cloudnetservice.driver.network.http.HttpRequest;
+import eu.cloudnetservice.driver.permission.PermissionManagement;
+import eu.cloudnetservice.driver.permission.PermissionUser;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import lombok.NonNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class V2HttpAuthenticationTest {
+
+  private static final Path AUTHENTICATION_DIRECTORY = Path.of("build", "tmp", "http-authentication");
+  private static final Path AUTHENTICATION_FILE = AUTHENTICATION_DIRECTORY.resolve("http_authentication.json");
+
+  private static final UUID USER_ID = UUID.randomUUID();
+  private static final ComponentInfo COMPONENT_INFO = new ComponentInfo(DriverEnvironment.NODE, "Node-1", "Node-1");
+
+  private PermissionManagement permissionManagement;
+
+  private static @NonNull PermissionUser user(@NonNull String password) {
+    return PermissionUser.builder().name("derklaro").uniqueId(USER_ID).password(password).build();
+  }
+
+  private static @NonNull HttpRequest request(@NonNull String authorization) {
+    var request = Mockito.mock(HttpRequest.class);
+    Mockito.when(request.header("Authorization")).thenReturn(authorization);
+    return request;
+  }
+
+  private static @NonNull HttpRequest basicRequest(@NonNull String name, @NonNull String password) {
+    var credentials = (name + ":" + password).getBytes(StandardCharsets.UTF_8);
+    return request("Basic " + Base64.getEncoder().encodeToString(credentials));
+  }
+
+  @BeforeEach
+  void setupPermissionManagement() {
+    var user = user("secret");
+    this.permissionManagement = Mockito.mock(PermissionManagement.class);
+    Mockito.when(this.permissionManagement.user(USER_ID)).thenReturn(user);
+    Mockito.when(this.permissionManagement.usersByName("derklaro")).thenReturn(List.of(user));
+  }
+
+  @AfterEach
+  void deleteAuthenticationDirectory() {
+    FileUtil.delete(AUTHENTICATION_DIRECTORY);
+  }
+
+  private @NonNull V2HttpAuthentication authentication() {
+    return new V2HttpAuthentication(
+      Mockito.mock(EventManager.class),
+      this.permissionManagement,
+      COMPONENT_INFO,
+      AUTHENTICATION_FILE);
+  }
+
+  @Test
+  void testBasicCredentialsAreCached() {
+    var authentication = this.authentication();
+
+    // the first login verifies the credentials, the second one is served from the cache
+    for (var i = 0; i < 2; i++) {
+      var result = authentication.handleBasicLoginRequest(basicRequest("derklaro", "secret"));
+      Assertions.assertTrue(result.succeeded());
+      Assertions.assertEquals(USER_ID, result.result().uniqueId());
+    }
+    Mockito.verify(this.permissionManagement, Mockito.times(1)).usersByName("derklaro");
+
+    // wrong credentials are never cached
+    for (var i = 0; i < 2; i++) {
+      Assertions.assertTrue(authentication.handleBasicLoginRequest(basicRequest("derklaro", "wrong")).failed());
+    }
+    Mockito.verify(this.permissionManagement, Mockito.times(3)).usersByName("derklaro");
+  }
+
+  @Test
+  void testPasswordChangeInvalidatesCredentials() {
+    var authentication = this.authentication();
+    Assertions.assertTrue(authentication.handleBasicLoginRequest(basicRequest("derklaro", "secret")).succeeded());
+
+    // change the password of the user
+    var updatedUser = user("changed");
+    Mockito.when(this.permissionManagement.user(USER_ID)).thenReturn(updatedUser);
+    Mockito.when(this.permissionManagement.usersByName("derklaro")).thenReturn(List.of(updatedUser));
+    authentication.handleUserUpdate(new PermissionUpdateUserEvent(this.permissionManagement, updatedUser));
+
+    Assertions.assertTrue(authentication.handleBasicLoginRequest(basicRequest("derklaro", "secret")).failed());
+    Assertions.assertTrue(authentication.handleBasicLoginRequest(basicRequest("derklaro", "changed")).succeeded());
+  }
+
+  @Test
+  void testPermissionReloadInvalidatesUsers() {
+    var authentication = this.authentication();
+
+    Assertions.assertNotNull(authentication.user(USER_ID));
+    Assertions.assertNotNull(authentication.user(USER_ID));
+    Mockito.verify(this.permissionManagement, Mockito.times(1)).user(USER_ID);
+
+    // the users might have been changed in the database, they must be loaded again
+    authentication.handleGroupsSet(new PermissionSetGroupsEvent(this.permissionManagement, Set.of()));
+    Assertions.assertNotNull(authentication.user(USER_ID));
+    Mockito.verify(this.permissionManagement, Mockito.times(2)).user(USER_ID);
+  }
+
+  @Test
+  void testExpireSessionRevokesToken() {
+    var authentication = this.authentication();
+    var token = authentication.createJwt(user("secret"), 60_000);
+
+    // the token is verified and cached by the first login
+    var result = authentication.handleBearerLoginRequest(request("Bearer " + token));
+    Assertions.assertTrue(result.succeeded());
+    Assertions.assertEquals(USER_ID, result.result().userId());
+
+    Assertions.assertTrue(authentication.expireSession(result.result()));
+    Assertions.assertTrue(authentication.handleBearerLoginRequest(request("Bearer " + token)).failed());
+    Assertions.assertFalse(authentication.expireSession(result.result()));
+  }
+
+  @Test
+  void testSigningKeyAndSessionsSurviveReload() {
+    var token = this.authentication().createJwt(user("secret"), 60_000);
+
+    // a new instance loads the signing key and the sessions from the authentication file
+    var reloaded = this.authentication();
+    var result = reloaded.handleBearerLoginRequest(request("Bearer " + token));
+    Assertions.assertTrue(result.succeeded());
+    Assertions.assertEquals(USER_ID, result.result().userId());
+  }
+
+  @Test
+  void testAuthenticationFileIsOnlyReadableByOwner() throws IOException {
+    Assumptions.assumeTrue(AUTHENTICATION_FILE.getFileSystem().supportedFileAttributeViews().contains("posix"));
+
+    this.authentication().createJwt(user("secret"), 60_000);
+    Assertions.assertEquals(
+      PosixFilePermissions.fromString("rw-------"),
+      Files.getPosixFilePermissions(AUTHENTICATION_FILE));
+  }
+}
@@ -24,6 +24,7 @@
 import eu.cloudnetservice.common.log.defaults.DefaultFileHandler;
 import eu.cloudnetservice.common.log.defaults.DefaultLogFormatter;
 import eu.cloudnetservice.common.log.defaults.ThreadedLogRecordDispatcher;
+import eu.cloudnetservice.driver.database.DatabaseProvider;
 import eu.cloudnetservice.driver.event.EventManager;
 import eu.cloudnetservice.driver.module.DefaultModuleProviderHandler;
 import eu.cloudnetservice.driver.module.ModuleProvider;
@@ -33,6 +34,7 @@
 import eu.cloudnetservice.driver.network.def.NetworkConstants;
 import eu.cloudnetservice.driver.permission.PermissionManagement;
 import eu.cloudnetservice.wrapper.configuration.WrapperConfiguration;
+import eu.cloudnetservice.wrapper.database.WrapperDatabaseProvider;
 import eu.cloudnetservice.wrapper.event.ApplicationPostStartEvent;
 import eu.cloudnetservice.wrapper.event.ApplicationPreStartEvent;
 import eu.cloudnetservice.wrapper.holder.ServiceInfoHolder;
@@ -40,6 +42,7 @@
 import eu.cloudnetservice.wrapper.network.chunk.TemplateStorageCallbackListener;
 import eu.cloudnetservice.wrapper.network.listener.PacketAuthorizationResponseListener;
 import eu.cloudnetservice.wrapper.network.listener.PacketServerChannelMessageListener;
+import eu.cloudnetservice.wrapper.network.listener.message.DatabaseChannelMessageListener;
 import eu.cloudnetservice.wrapper.network.listener.message.GroupChannelMessageListener;
 import eu.cloudnetservice.wrapper.network.listener.message.ServiceChannelMessageListener;
 import eu.cloudnetservice.wrapper.network.listener.message.TaskChannelMessageListener;
@@ -114,7 +117,8 @@ private void connectToNode(
     @NonNull EventManager eventManager,
     @NonNull NetworkClient networkClient,
     @NonNull WrapperConfiguration configuration,
-    @NonNull ServiceInfoHolder serviceInfoHolder
+    @NonNull ServiceInfoHolder serviceInfoHolder,
+    @NonNull DatabaseProvider databaseProvider
   ) {
     // create a new condition and the auth listener
     var currentThread = Thread.currentThread();
@@ -151,6 +155,11 @@ private void connectToNode(
     networkClient.packetRegistry().addListener(
       NetworkConstants.CHANNEL_MESSAGING_CHANNEL,
       PacketServerChannelMessageListener.class);
+
+    // the nodes only publish changes of cached databases to services which registered them on the current connection
+    if (databaseProvider instanceof WrapperDatabaseProvider wrapperDatabaseProvider) {
+      wrapperDatabaseProvider.registerCachedDatabases();
+    }
   }
 
   @Inject
@@ -190,6 +199,7 @@ private void registerTransformer(@NonNull TransformerRegistry transformerRegistr
   @Order(300)
   private void registerDefaultListeners(@NonNull EventManager eventManager) {
     eventManager.registerListener(TaskChannelMessageListener.class);
+    eventManager.registerListener(DatabaseChannelMessageListener.class);
     eventManager.registerListener(GroupChannelMessageListener.class);
     eventManager.registerListener(ServiceChannelMessageListener.class);
     eventManager.registerListener(TemplateStorageCallbackListener.class);
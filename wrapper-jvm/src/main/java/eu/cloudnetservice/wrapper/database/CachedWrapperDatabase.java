@@ -0,0 +1,337 @@
+/*
+ * Copyright 2019-2023 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.wrapper.database;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.google.common.base.Preconditions;
+import eu.cloudnetservice.common.document.gson.JsonDocument;
+import eu.cloudnetservice.driver.database.Database;
+import eu.cloudnetservice.driver.database.DatabaseChunk;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A database which caches the results of key lookups and searches locally and only reads from the delegate database
+ * when a value is not yet cached. The node publishes all changes made to the database, which are used to invalidate
+ * the cached values. All other operations are directly passed to the delegate database.
+ * <p>
+ * The cache is only used while the nodes are known to publish the changes of the database to this component. Until the
+ * registration is confirmed, and while the connection to the node is lost, all reads are passed to the delegate.
+ *
+ * @since 4.0
+ */
+public final class CachedWrapperDatabase implements Database {
+
+  private final Database delegate;
+  private final Consumer<CachedWrapperDatabase> closeHandler;
+
+  // the documents mapped to their key, an empty optional indicates that the key is not present in the database
+  private final Cache<String, Optional<JsonDocument>> documentCache;
+  private final Cache<Map<String, String>, List<JsonDocument>> findCache;
+
+  // incremented on each invalidation, used to prevent caching of a value read before the invalidation arrived
+  private final AtomicLong invalidationCount = new AtomicLong();
+  // if the nodes confirmed to publish the changes of the database, reads are not cached otherwise
+  private volatile boolean cacheEnabled;
+
+  public CachedWrapperDatabase(
+    @NonNull Database delegate,
+    long maximumSize,
+    @NonNull Consumer<CachedWrapperDatabase> closeHandler
+  ) {
+    Preconditions.checkArgument(maximumSize >= 0, "maximum size must not be negative");
+
+    this.delegate = delegate;
+    this.closeHandler = closeHandler;
+    this.documentCache = Caffeine.newBuilder().maximumSize(maximumSize).recordStats().build();
+    this.findCache = Caffeine.newBuilder().maximumSize(Math.max(1, maximumSize / 16)).recordStats().build();
+  }
+
+  /**
+   * Removes the given keys from the cache, or all keys if the given collection is null. All cached search results are
+   * removed as the changed documents might match any of the searches.
+   *
+   * @param keys the keys to remove, null to remove all keys.
+   */
+  public void invalidate(@Nullable Collection<String> keys) {
+    this.invalidationCount.incrementAndGet();
+    this.findCache.invalidateAll();
+
+    if (keys == null) {
+      this.documentCache.invalidateAll();
+    } else {
+      this.documentCache.invalidateAll(keys);
+    }
+  }
+
+  /**
+   * Starts to serve reads from the cache, should be called once the nodes confirmed to publish all changes of the
+   * database to this component. Values cached before are removed as changes might have been missed.
+   */
+  public void enableCache() {
+    this.invalidate(null);
+    this.cacheEnabled = true;
+  }
+
+  /**
+   * Stops to serve reads from the cache and removes all cached values, should be called when changes of the database
+   * might no longer be published to this component, for example when the connection to the node was lost.
+   */
+  public void disableCache() {
+    this.cacheEnabled = false;
+    this.invalidate(null);
+  }
+
+  /**
+   * Get if reads are currently served from the cache.
+   *
+   * @return true if reads are served from the cache, false if they are passed to the delegate database.
+   */
+  public boolean cacheEnabled() {
+    return this.cacheEnabled;
+  }
+
+  /**
+   * Get the statistics of the key lookup cache of this database.
+   *
+   * @return the statistics of the key lookup cache.
+   */
+  public @NonNull CacheStats documentCacheStats() {
+    return this.documentCache.stats();
+  }
+
+  /**
+   * Get the statistics of the search result cache of this database.
+   *
+   * @return the statistics of the search result cache.
+   */
+  public @NonNull CacheStats findCacheStats() {
+    return this.findCache.stats();
+  }
+
+  @Override
+  public @NonNull String name() {
+    return this.delegate.name();
+  }
+
+  @Override
+  public boolean insert(@NonNull String key, @NonNull JsonDocument document) {
+    try {
+      return this.delegate.insert(key, document);
+    } finally {
+      this.invalidate(List.of(key));
+    }
+  }
+
+  @Override
+  public boolean insertAll(@NonNull Map<String, JsonDocument> documents) {
+    try {
+      return this.delegate.insertAll(documents);
+    } finally {
+      this.invalidate(documents.keySet());
+    }
+  }
+
+  @Override
+  public boolean contains(@NonNull String key) {
+    return this.get(key) != null;
+  }
+
+  @Override
+  public boolean containsAll(@NonNull Collection<String> keys) {
+    return this.getAll(keys).keySet().containsAll(keys);
+  }
+
+  @Override
+  public boolean delete(@NonNull String key) {
+    try {
+      return this.delegate.delete(key);
+    } finally {
+      this.invalidate(List.of(key));
+    }
+  }
+
+  @Override
+  public int deleteAll(@NonNull Collection<String> keys) {
+    try {
+      return this.delegate.deleteAll(keys);
+    } finally {
+      this.invalidate(keys);
+    }
+  }
+
+  @Override
+  public @Nullable JsonDocument get(@NonNull String key) {
+    if (!this.cacheEnabled) {
+      return this.delegate.get(key);
+    }
+
+    var cached = this.documentCache.getIfPresent(key);
+    if (cached != null) {
+      return cached.map(JsonDocument::clone).orElse(null);
+    }
+
+    // read the document and only cache it if no invalidation happened in the meantime
+    var invalidationCount = this.invalidationCount.get();
+    var document = this.delegate.get(key);
+    this.cacheIfNotInvalidated(
+      this.documentCache,
+      Map.of(key, Optional.ofNullable(document).map(JsonDocument::clone)),
+      invalidationCount);
+
+    return document;
+  }
+
+  @Override
+  public @NonNull Map<String, JsonDocument> getAll(@NonNull Collection<String> keys) {
+    if (!this.cacheEnabled) {
+      return this.delegate.getAll(keys);
+    }
+
+    Map<String, JsonDocument> documents = new HashMap<>();
+    List<String> missingKeys = new ArrayList<>();
+    for (var key : keys) {
+      var cached = this.documentCache.getIfPresent(key);
+      if (cached == null) {
+        missingKeys.add(key);
+      } else {
+        cached.ifPresent(document -> documents.put(key, document.clone()));
+      }
+    }
+
+    // read all missing documents at once
+    if (!missingKeys.isEmpty()) {
+      var invalidationCount = this.invalidationCount.get();
+      var readDocuments = this.delegate.getAll(missingKeys);
+
+      Map<String, Optional<JsonDocument>> cachedDocuments = new HashMap<>();
+      for (var key : missingKeys) {
+        cachedDocuments.put(key, Optional.ofNullable(readDocuments.get(key)).map(JsonDocument::clone));
+      }
+      this.cacheIfNotInvalidated(this.documentCache, cachedDocuments, invalidationCount);
+
+      documents.putAll(readDocuments);
+    }
+
+    return documents;
+  }
+
+  @Override
+  public @NonNull Collection<JsonDocument> find(@NonNull String fieldName, @Nullable String fieldValue) {
+    var filters = new HashMap<String, String>();
+    filters.put(fieldName, fieldValue);
+    return this.find(filters);
+  }
+
+  @Override
+  public @NonNull Collection<JsonDocument> find(@NonNull Map<String, String> filters) {
+    if (!this.cacheEnabled) {
+      return this.delegate.find(filters);
+    }
+
+    var cached = this.findCache.getIfPresent(filters);
+    if (cached != null) {
+      return cloneDocuments(cached);
+    }
+
+    // copy the filters as the caller might modify them after the call
+    var cacheKey = new HashMap<>(filters);
+    var invalidationCount = this.invalidationCount.get();
+    var documents = this.delegate.find(filters);
+    this.cacheIfNotInvalidated(this.findCache, Map.of(cacheKey, cloneDocuments(documents)), invalidationCount);
+
+    return documents;
+  }
+
+  @Override
+  public @NonNull Collection<String> keys() {
+    return this.delegate.keys();
+  }
+
+  @Override
+  public @NonNull Collection<JsonDocument> documents() {
+    return this.delegate.documents();
+  }
+
+  @Override
+  public @NonNull Map<String, JsonDocument> entries() {
+    return this.delegate.entries();
+  }
+
+  @Override
+  public @NonNull DatabaseChunk readChunkAfter(@Nullable String previousKey, int chunkSize) {
+    return this.delegate.readChunkAfter(previousKey, chunkSize);
+  }
+
+  @Override
+  public void clear() {
+    try {
+      this.delegate.clear();
+    } finally {
+      this.invalidate(null);
+    }
+  }
+
+  @Override
+  public long documentCount() {
+    return this.delegate.documentCount();
+  }
+
+  @Override
+  public boolean synced() {
+    return this.delegate.synced();
+  }
+
+  @Override
+  public void close() throws Exception {
+    this.disableCache();
+    this.closeHandler.accept(this);
+    this.delegate.close();
+  }
+
+  private <K, V> void cacheIfNotInvalidated(
+    @NonNull Cache<K, V> cache,
+    @NonNull Map<K, V> values,
+    long invalidationCount
+  ) {
+    if (invalidationCount == this.invalidationCount.get()) {
+      cache.putAll(values);
+      // an invalidation might have happened between the check and the put, remove the possibly stale values again
+      if (invalidationCount != this.invalidationCount.get()) {
+        cache.invalidateAll(values.keySet());
+      }
+    }
+  }
+
+  private static @NonNull List<JsonDocument> cloneDocuments(@NonNull Collection<JsonDocument> documents) {
+    List<JsonDocument> clones = new ArrayList<>(documents.size());
+    for (var document : documents) {
+      clones.add(document.clone());
+    }
+    return clones;
+  }
+}
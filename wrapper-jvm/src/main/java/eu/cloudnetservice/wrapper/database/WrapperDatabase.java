@@ -16,7 +16,10 @@
 
 package eu.cloudnetservice.wrapper.database;
 
+import eu.cloudnetservice.common.document.gson.JsonDocument;
 import eu.cloudnetservice.driver.database.Database;
+import java.util.Collection;
+import java.util.Map;
 import lombok.NonNull;
 
 public abstract class WrapperDatabase implements Database {
@@ -31,4 +34,18 @@ public WrapperDatabase(@NonNull String name) {
   public @NonNull String name() {
     return this.name;
   }
+
+  // the batch operations are re-declared abstract to send them to the node in a single rpc instead of one per key
+
+  @Override
+  public abstract boolean insertAll(@NonNull Map<String, JsonDocument> documents);
+
+  @Override
+  public abstract boolean containsAll(@NonNull Collection<String> keys);
+
+  @Override
+  public abstract int deleteAll(@NonNull Collection<String> keys);
+
+  @Override
+  public abstract @NonNull Map<String, JsonDocument> getAll(@NonNull Collection<String> keys);
 }
@@ -16,15 +16,27 @@
 
 package eu.cloudnetservice.wrapper.database;
 
+import eu.cloudnetservice.common.log.LogManager;
+import eu.cloudnetservice.common.log.Logger;
+import eu.cloudnetservice.driver.channel.ChannelMessage;
 import eu.cloudnetservice.driver.database.Database;
 import eu.cloudnetservice.driver.database.DatabaseProvider;
+import eu.cloudnetservice.driver.network.buffer.DataBuf;
+import eu.cloudnetservice.driver.network.def.NetworkConstants;
 import eu.cloudnetservice.driver.network.rpc.RPCSender;
 import eu.cloudnetservice.driver.network.rpc.generation.GenerationContext;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
 
 public abstract class WrapperDatabaseProvider implements DatabaseProvider {
 
+  private static final Logger LOGGER = LogManager.logger(WrapperDatabaseProvider.class);
+
   private final RPCSender rpcSender;
+  private final Map<String, CachedWrapperDatabase> cachedDatabases = new ConcurrentHashMap<>();
 
   public WrapperDatabaseProvider(@NonNull RPCSender sender) {
     this.rpcSender = sender;
@@ -38,4 +50,51 @@ public WrapperDatabaseProvider(@NonNull RPCSender sender) {
       GenerationContext.forClass(WrapperDatabase.class).build()
     ).newInstance(name);
   }
+
+  @Override
+  public @NonNull Database cachedDatabase(@NonNull String name, long maximumSize) {
+    var database = this.cachedDatabases.computeIfAbsent(name, $ -> new CachedWrapperDatabase(
+      this.database(name),
+      maximumSize,
+      closedDatabase -> this.cachedDatabases.remove(name, closedDatabase)));
+    // only serve from the cache once the nodes confirmed to publish the changes of the database
+    if (!database.cacheEnabled()) {
+      this.registerCachedDatabase(name, database);
+    }
+    return database;
+  }
+
+  public void registerCachedDatabases() {
+    this.cachedDatabases.forEach(this::registerCachedDatabase);
+  }
+
+  public void handleConnectionLost() {
+    // changes published while being disconnected are lost, stop serving from the caches until registered again
+    this.cachedDatabases.values().forEach(CachedWrapperDatabase::disableCache);
+  }
+
+  protected void registerCachedDatabase(@NonNull String name, @NonNull CachedWrapperDatabase database) {
+    try {
+      // request the nodes to publish all changes of the database to us, each node acknowledges the registration
+      var responses = ChannelMessage.builder()
+        .targetNodes()
+        .channel(NetworkConstants.INTERNAL_MSG_CHANNEL)
+        .message("database_register_cache")
+        .buffer(DataBuf.empty().writeInt(1).writeString(name))
+        .build()
+        .sendQuery();
+      if (!responses.isEmpty()) {
+        database.enableCache();
+      }
+    } catch (Exception exception) {
+      LOGGER.warning("Unable to register cached database %s, reads are not cached", exception, name);
+    }
+  }
+
+  public void invalidateCachedDatabase(@NonNull String name, @Nullable Collection<String> keys) {
+    var database = this.cachedDatabases.get(name);
+    if (database != null) {
+      database.invalidate(keys);
+    }
+  }
 }
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2019-2023 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.wrapper.network.listener.message;
+
+import eu.cloudnetservice.driver.database.DatabaseProvider;
+import eu.cloudnetservice.driver.event.EventListener;
+import eu.cloudnetservice.driver.event.events.channel.ChannelMessageReceiveEvent;
+import eu.cloudnetservice.driver.event.events.network.ChannelType;
+import eu.cloudnetservice.driver.event.events.network.NetworkChannelCloseEvent;
+import eu.cloudnetservice.driver.network.def.NetworkConstants;
+import eu.cloudnetservice.wrapper.database.WrapperDatabaseProvider;
+import java.util.ArrayList;
+import java.util.Collection;
+import lombok.NonNull;
+
+public final class DatabaseChannelMessageListener {
+
+  @EventListener
+  public void handle(@NonNull ChannelMessageReceiveEvent event, @NonNull DatabaseProvider databaseProvider) {
+    if (event.channel().equals(NetworkConstants.INTERNAL_MSG_CHANNEL)
+      && event.message().equals("database_invalidate")
+      && databaseProvider instanceof WrapperDatabaseProvider wrapperDatabaseProvider) {
+      var name = event.content().readString();
+      Collection<String> keys = event.content().readNullable(buf -> {
+        var amount = buf.readInt();
+        Collection<String> changedKeys = new ArrayList<>(amount);
+        for (var i = 0; i < amount; i++) {
+          changedKeys.add(buf.readString());
+        }
+        return changedKeys;
+      });
+
+      // a null key collection indicates that the whole database changed
+      wrapperDatabaseProvider.invalidateCachedDatabase(name, keys);
+    }
+  }
+
+  @EventListener
+  public void handleChannelClose(@NonNull NetworkChannelCloseEvent event, @NonNull DatabaseProvider databaseProvider) {
+    if (event.channelType() == ChannelType.CLIENT_CHANNEL
+      && databaseProvider instanceof WrapperDatabaseProvider wrapperDatabaseProvider) {
+      // invalidations can no longer be received, the caches are registered again after reconnecting
+      wrapperDatabaseProvider.handleConnectionLost();
+    }
+  }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2019-2023 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cloudnetservice.wrapper.database;
+
+import eu.cloudnetservice.common.document.gson.JsonDocument;
+import eu.cloudnetservice.driver.database.Database;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class CachedWrapperDatabaseTest {
+
+  private Database delegate;
+  private CachedWrapperDatabase database;
+  private CachedWrapperDatabase closedDatabase;
+
+  @BeforeEach
+  void setup() {
+    this.delegate = Mockito.mock(Database.class);
+    this.database = new CachedWrapperDatabase(this.delegate, 100, database -> this.closedDatabase = database);
+    this.database.enableCache();
+  }
+
+  @Test
+  void testReadsAreCached() {
+    Mockito.when(this.delegate.get("hello")).thenReturn(JsonDocument.newDocument("world", 1));
+
+    Assertions.assertEquals(1, this.database.get("hello").getInt("world"));
+    Assertions.assertEquals(1, this.database.get("hello").getInt("world"));
+    Assertions.assertTrue(this.database.contains("hello"));
+
+    // absent keys are cached as well
+    Assertions.assertNull(this.database.get("unknown"));
+    Assertions.assertFalse(this.database.contains("unknown"));
+
+    Mockito.verify(this.delegate, Mockito.times(1)).get("hello");
+    Mockito.verify(this.delegate, Mockito.times(1)).get("unknown");
+    Mockito.verify(this.delegate, Mockito.never()).contains(Mockito.anyString());
+
+    var stats = this.database.documentCacheStats();
+    Assertions.assertEquals(3, stats.hitCount());
+    Assertions.assertEquals(2, stats.missCount());
+  }
+
+  @Test
+  void testCachedDocumentsAreCopied() {
+    Mockito.when(this.delegate.get("hello")).thenReturn(JsonDocument.newDocument("world", 1));
+
+    this.database.get("hello").append("world", 2);
+    Assertions.assertEquals(1, this.database.get("hello").getInt("world"));
+  }
+
+  @Test
+  void testInvalidationReadsChangedDocument() {
+    Mockito.when(this.delegate.get("hello"))
+      .thenReturn(JsonDocument.newDocument("world", 1))
+      .thenReturn(JsonDocument.newDocument("world", 2));
+
+    Assertions.assertEquals(1, this.database.get("hello").getInt("world"));
+    this.database.invalidate(List.of("hello"));
+    Assertions.assertEquals(2, this.database.get("hello").getInt("world"));
+    Assertions.assertEquals(2, this.database.get("hello").getInt("world"));
+
+    Mockito.verify(this.delegate, Mockito.times(2)).get("hello");
+  }
+
+  @Test
+  void testInvalidationDuringReadIsRespected() {
+    Mockito.when(this.delegate.get("hello"))
+      .then(invocation -> {
+        // the change notification arrives while the old document is still in flight
+        this.database.invalidate(List.of("hello"));
+        return JsonDocument.newDocument("world", 1);
+      })
+      .thenReturn(JsonDocument.newDocument("world", 2));
+
+    Assertions.assertEquals(1, this.database.get("hello").getInt("world"));
+    Assertions.assertEquals(2, this.database.get("hello").getInt("world"));
+  }
+
+  @Test
+  void testWritesInvalidateCache() {
+    Mockito.when(this.delegate.get("hello"))
+      .thenReturn(JsonDocument.newDocument("world", 1))
+      .thenReturn(JsonDocument.newDocument("world", 2))
+      .thenReturn(null);
+
+    Assertions.assertEquals(1, this.database.get("hello").getInt("world"));
+    this.database.insert("hello", JsonDocument.newDocument("world", 2));
+    Assertions.assertEquals(2, this.database.get("hello").getInt("world"));
+    this.database.delete("hello");
+    Assertions.assertNull(this.database.get("hello"));
+  }
+
+  @Test
+  void testGetAllOnlyReadsMissingKeys() {
+    Mockito.when(this.delegate.get("hello")).thenReturn(JsonDocument.newDocument("world", 1));
+    Mockito.when(this.delegate.getAll(List.of("world"))).thenReturn(Map.of("world", JsonDocument.newDocument()));
+
+    this.database.get("hello");
+    var documents = this.database.getAll(List.of("hello", "world"));
+    Assertions.assertEquals(2, documents.size());
+    Assertions.assertTrue(this.database.containsAll(List.of("hello", "world")));
+
+    Mockito.verify(this.delegate, Mockito.times(1)).getAll(List.of("world"));
+  }
+
+  @Test
+  void testFindResultsAreInvalidatedByAnyChange() {
+    Mockito.when(this.delegate.find(Map.of("world", "1")))
+      .thenReturn(List.of(JsonDocument.newDocument("world", "1")))
+      .thenReturn(List.of());
+
+    Assertions.assertEquals(1, this.database.find("world", "1").size());
+    Assertions.assertEquals(1, this.database.find(Map.of("world", "1")).size());
+
+    this.database.invalidate(List.of("unrelated"));
+    Assertions.assertTrue(this.database.find("world", "1").isEmpty());
+
+    Mockito.verify(this.delegate, Mockito.times(2)).find(Map.of("world", "1"));
+    Assertions.assertEquals(1, this.database.findCacheStats().hitCount());
+  }
+
+  @Test
+  void testReadsAreNotCachedUntilRegistered() {
+    var database = new CachedWrapperDatabase(this.delegate, 100, $ -> {
+    });
+    Mockito.when(this.delegate.get("hello")).thenReturn(JsonDocument.newDocument("world", 1));
+
+    // changes are not yet published to the database, the reads must not be cached
+    Assertions.assertFalse(database.cacheEnabled());
+    Assertions.assertEquals(1, database.get("hello").getInt("world"));
+    Assertions.assertEquals(1, database.get("hello").getInt("world"));
+    Mockito.verify(this.delegate, Mockito.times(2)).get("hello");
+
+    database.enableCache();
+    database.get("hello");
+    database.get("hello");
+    Mockito.verify(this.delegate, Mockito.times(3)).get("hello");
+  }
+
+  @Test
+  void testDisablingCacheDropsCachedValues() {
+    Mockito.when(this.delegate.get("hello"))
+      .thenReturn(JsonDocument.newDocument("world", 1))
+      .thenReturn(JsonDocument.newDocument("world", 2))
+      .thenReturn(JsonDocument.newDocument("world", 3));
+
+    Assertions.assertEquals(1, this.database.get("hello").getInt("world"));
+
+    // the connection was lost, changes made in the meantime are not published
+    this.database.disableCache();
+    Assertions.assertEquals(2, this.database.get("hello").getInt("world"));
+
+    // the database was registered again, the value must be read again
+    this.database.enableCache();
+    Assertions.assertEquals(3, this.database.get("hello").getInt("world"));
+    Assertions.assertEquals(3, this.database.get("hello").getInt("world"));
+    Mockito.verify(this.delegate, Mockito.times(3)).get("hello");
+  }
+
+  @Test
+  void testCloseNotifiesHandler() throws Exception {
+    this.database.close();
+
+    Assertions.assertSame(this.database, this.closedDatabase);
+    Assertions.assertFalse(this.database.cacheEnabled());
+    Mockito.verify(this.delegate).close();
+  }
+}